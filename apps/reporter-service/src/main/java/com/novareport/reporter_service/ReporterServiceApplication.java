@@ -1,6 +1,19 @@
 package com.novareport.reporter_service;
 
+import com.novareport.reporter_service.config.ArchiveProperties;
+import com.novareport.reporter_service.config.BackfillProperties;
+import com.novareport.reporter_service.config.DedupFilterProperties;
+import com.novareport.reporter_service.config.DeltaProperties;
+import com.novareport.reporter_service.config.ExportProperties;
+import com.novareport.reporter_service.config.IngestProperties;
+import com.novareport.reporter_service.config.MapReduceProperties;
+import com.novareport.reporter_service.config.PollingProperties;
+import com.novareport.reporter_service.config.PromptProperties;
 import com.novareport.reporter_service.config.ReporterProperties;
+import com.novareport.reporter_service.config.RetentionProperties;
+import com.novareport.reporter_service.config.SummarizerProperties;
+import com.novareport.reporter_service.config.SummarizerRoutingProperties;
+import com.novareport.reporter_service.config.SummaryCacheProperties;
 import com.novareport.reporter_service.config.NewsApiProperties;
 import com.novareport.reporter_service.config.NewsDataProperties;
 import org.springframework.boot.SpringApplication;
@@ -9,7 +22,24 @@
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-@EnableConfigurationProperties({ReporterProperties.class, NewsApiProperties.class, NewsDataProperties.class})
+@EnableConfigurationProperties({
+    ReporterProperties.class,
+    ArchiveProperties.class,
+    BackfillProperties.class,
+    DedupFilterProperties.class,
+    DeltaProperties.class,
+    ExportProperties.class,
+    IngestProperties.class,
+    MapReduceProperties.class,
+    PollingProperties.class,
+    PromptProperties.class,
+    RetentionProperties.class,
+    SummarizerProperties.class,
+    SummarizerRoutingProperties.class,
+    SummaryCacheProperties.class,
+    NewsApiProperties.class,
+    NewsDataProperties.class
+})
 @EnableScheduling
 public class ReporterServiceApplication {
 
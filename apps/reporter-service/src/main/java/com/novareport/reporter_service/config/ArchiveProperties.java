@@ -0,0 +1,34 @@
+package com.novareport.reporter_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+@ConfigurationProperties(prefix = "reporter.archive")
+public record ArchiveProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("data/archive") String directory,
+    @DefaultValue("64MB") DataSize segmentSize,
+    @DefaultValue("64") int maxSegments,
+    @DefaultValue("false") boolean replayOnStartup
+) {
+    public Path resolvedDirectory() {
+        return Path.of(directory == null || directory.isBlank() ? "data/archive" : directory);
+    }
+
+    /**
+     * Between 1 KB and 1 GB, so offsets inside a memory-mapped segment fit into an {@code int}.
+     */
+    public long resolvedSegmentSize() {
+        if (segmentSize == null || segmentSize.toBytes() < 1024) {
+            return DataSize.ofMegabytes(64).toBytes();
+        }
+        return Math.min(segmentSize.toBytes(), DataSize.ofGigabytes(1).toBytes());
+    }
+
+    public int resolvedMaxSegments() {
+        return maxSegments < 1 ? 64 : maxSegments;
+    }
+}
@@ -0,0 +1,36 @@
+package com.novareport.reporter_service.config;
+
+import com.novareport.reporter_service.service.ArchiveReplayService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Instant;
+
+/**
+ * Replays the whole raw feed archive once at startup when {@code reporter.archive.replay-on-startup} is
+ * set. Combine with {@code reporter.polling.enabled=false} to keep live fetches out of the run.
+ */
+@Configuration
+public class ArchiveReplayRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchiveReplayRunner.class);
+
+    @Bean
+    public ApplicationRunner archiveReplayStartupRunner(ArchiveProperties archiveProperties, ArchiveReplayService replayService) {
+        return args -> {
+            if (!archiveProperties.enabled() || !archiveProperties.replayOnStartup()) {
+                return;
+            }
+
+            log.info("Replaying raw feed archive from {}", archiveProperties.resolvedDirectory());
+            try {
+                replayService.replay(Instant.EPOCH, Instant.now());
+            } catch (Exception e) {
+                log.error("Archive replay failed", e);
+            }
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package com.novareport.reporter_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "reporter.backfill")
+public record BackfillProperties(
+    @DefaultValue("4") int workers,
+    @DefaultValue("2") int summarizerConcurrency,
+    @DefaultValue("366") int maxDays
+) {
+    public int resolvedWorkers() {
+        return workers < 1 ? 4 : workers;
+    }
+
+    /**
+     * Never more than the worker count, since each worker holds at most one summarizer permit.
+     */
+    public int resolvedSummarizerConcurrency() {
+        int concurrency = summarizerConcurrency < 1 ? 2 : summarizerConcurrency;
+        return Math.min(concurrency, resolvedWorkers());
+    }
+
+    public int resolvedMaxDays() {
+        return maxDays < 1 ? 366 : maxDays;
+    }
+}
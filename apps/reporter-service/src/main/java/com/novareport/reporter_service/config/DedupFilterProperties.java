@@ -0,0 +1,22 @@
+package com.novareport.reporter_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "reporter.dedup-filter")
+public record DedupFilterProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("1000000") long expectedInsertions,
+    @DefaultValue("0.01") double falsePositiveRate,
+    @DefaultValue("PT6H") Duration rebuildInterval
+) {
+    public long resolvedExpectedInsertions() {
+        return expectedInsertions < 1 ? 1_000_000L : expectedInsertions;
+    }
+
+    public double resolvedFalsePositiveRate() {
+        return falsePositiveRate > 0 && falsePositiveRate < 1 ? falsePositiveRate : 0.01;
+    }
+}
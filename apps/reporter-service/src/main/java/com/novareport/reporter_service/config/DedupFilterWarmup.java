@@ -0,0 +1,30 @@
+package com.novareport.reporter_service.config;
+
+import com.novareport.reporter_service.service.NewsItemDedupIndex;
+import com.novareport.reporter_service.util.LogSanitizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+@Configuration
+public class DedupFilterWarmup {
+
+    private static final Logger log = LoggerFactory.getLogger(DedupFilterWarmup.class);
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public ApplicationRunner dedupFilterWarmupRunner(NewsItemDedupIndex dedupIndex) {
+        return args -> {
+            try {
+                dedupIndex.warm();
+            } catch (RuntimeException ex) {
+                log.warn("Failed to warm dedup filter, all candidates will be checked in the database: {}",
+                    LogSanitizer.sanitize(ex.getMessage()));
+            }
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package com.novareport.reporter_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Incremental report builds: later slots of a day only summarize what arrived since the previous slot.
+ */
+@ConfigurationProperties(prefix = "reporter.delta")
+public record DeltaProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("5") int maxNewHeadlines
+) {
+    /**
+     * Above this many new headlines an update would be about as long as a new report, so the report is
+     * rewritten instead.
+     */
+    public int resolvedMaxNewHeadlines() {
+        return maxNewHeadlines < 1 ? 5 : maxNewHeadlines;
+    }
+}
@@ -0,0 +1,16 @@
+package com.novareport.reporter_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "reporter.export")
+public record ExportProperties(
+    @DefaultValue("1000") int fetchSize
+) {
+    /**
+     * Rows the driver holds in memory at a time; it bounds the export's heap, not its length.
+     */
+    public int resolvedFetchSize() {
+        return fetchSize < 1 ? 1000 : fetchSize;
+    }
+}
@@ -0,0 +1,30 @@
+package com.novareport.reporter_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "reporter.ingest")
+public record IngestProperties(
+    @DefaultValue("200") int maxEntriesPerFeed,
+    @DefaultValue("8") int maxConcurrentFeeds,
+    @DefaultValue("2") int maxConnectionsPerHost,
+    @DefaultValue("PT60S") Duration deadline
+) {
+    public int resolvedMaxEntriesPerFeed() {
+        return maxEntriesPerFeed < 1 ? 200 : maxEntriesPerFeed;
+    }
+
+    public int resolvedMaxConcurrentFeeds() {
+        return maxConcurrentFeeds < 1 ? 8 : maxConcurrentFeeds;
+    }
+
+    public int resolvedMaxConnectionsPerHost() {
+        return maxConnectionsPerHost < 1 ? 2 : maxConnectionsPerHost;
+    }
+
+    public Duration resolvedDeadline() {
+        return deadline == null || deadline.isNegative() || deadline.isZero() ? Duration.ofSeconds(60) : deadline;
+    }
+}
@@ -0,0 +1,41 @@
+package com.novareport.reporter_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Map-reduce summaries: instead of the ten newest stories, up to {@code maxHeadlines} stories of the window
+ * are summarized in batches of {@code batchSize}, at most {@code concurrency} batches at a time, and the
+ * partial summaries combined into the report.
+ */
+@ConfigurationProperties(prefix = "reporter.map-reduce")
+public record MapReduceProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("200") int maxHeadlines,
+    @DefaultValue("25") int batchSize,
+    @DefaultValue("8") int concurrency,
+    @DefaultValue("1000") int maxItems
+) {
+    public int resolvedMaxHeadlines() {
+        return maxHeadlines < 1 ? 200 : maxHeadlines;
+    }
+
+    public int resolvedBatchSize() {
+        return batchSize < 1 ? 25 : batchSize;
+    }
+
+    /**
+     * With the default limits every batch is summarized at once, so a report takes about two model calls: the
+     * batches side by side, then the reduce.
+     */
+    public int resolvedConcurrency() {
+        return concurrency < 1 ? 8 : concurrency;
+    }
+
+    /**
+     * Items read from the window; copies of a story from several outlets take one headline.
+     */
+    public int resolvedMaxItems() {
+        return maxItems < 1 ? 1000 : maxItems;
+    }
+}
@@ -6,6 +6,10 @@
 @ConfigurationProperties(prefix = "newsapi")
 public record NewsApiProperties(
     @DefaultValue("false") boolean enabled,
-    @DefaultValue("20") int maxResults
+    @DefaultValue("20") int maxResults,
+    @DefaultValue("5") int maxPagesPerProvider
 ) {
+    public int resolvedMaxPagesPerProvider() {
+        return maxPagesPerProvider < 1 ? 5 : maxPagesPerProvider;
+    }
 }
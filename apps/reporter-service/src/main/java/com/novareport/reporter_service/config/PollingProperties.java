@@ -0,0 +1,48 @@
+package com.novareport.reporter_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "reporter.polling")
+public record PollingProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("PT30S") Duration tick,
+    @DefaultValue("PT15M") Duration initialInterval,
+    @DefaultValue("PT5M") Duration minInterval,
+    @DefaultValue("PT2H") Duration maxInterval,
+    @DefaultValue("0.2") double jitter,
+    @DefaultValue("5") int quarantineAfterFailures,
+    @DefaultValue("PT6H") Duration quarantine,
+    @DefaultValue("PT30M") Duration newsApiInterval
+) {
+    public Duration resolvedInitialInterval() {
+        return positiveOr(initialInterval, Duration.ofMinutes(15));
+    }
+
+    public Duration resolvedMinInterval() {
+        return positiveOr(minInterval, Duration.ofMinutes(5));
+    }
+
+    public Duration resolvedMaxInterval() {
+        Duration max = positiveOr(maxInterval, Duration.ofHours(2));
+        return max.compareTo(resolvedMinInterval()) < 0 ? resolvedMinInterval() : max;
+    }
+
+    public double resolvedJitter() {
+        return jitter < 0 || jitter >= 1 ? 0.2 : jitter;
+    }
+
+    public int resolvedQuarantineAfterFailures() {
+        return quarantineAfterFailures < 1 ? 5 : quarantineAfterFailures;
+    }
+
+    public Duration resolvedQuarantine() {
+        return positiveOr(quarantine, Duration.ofHours(6));
+    }
+
+    private static Duration positiveOr(Duration value, Duration fallback) {
+        return value == null || value.isNegative() || value.isZero() ? fallback : value;
+    }
+}
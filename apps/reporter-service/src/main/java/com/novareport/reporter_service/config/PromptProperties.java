@@ -0,0 +1,43 @@
+package com.novareport.reporter_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Size of the news part of a summary prompt. The stories picked for a prompt fit in {@code tokenBudget}
+ * tokens, or the budget given for the model in {@code modelTokenBudgets}; each story takes its headline and,
+ * budget permitting, up to {@code summaryChars} of its summary. Stories lose half their weight every
+ * {@code recencyHalfLife}.
+ */
+@ConfigurationProperties(prefix = "reporter.prompt")
+public record PromptProperties(
+    @DefaultValue("1500") int tokenBudget,
+    @DefaultValue Map<String, Integer> modelTokenBudgets,
+    @DefaultValue("240") int summaryChars,
+    @DefaultValue("PT12H") Duration recencyHalfLife
+) {
+    public PromptProperties {
+        modelTokenBudgets = modelTokenBudgets == null ? Map.of() : Map.copyOf(modelTokenBudgets);
+    }
+
+    public int resolvedTokenBudget(String model) {
+        Integer modelBudget = model == null ? null : modelTokenBudgets.get(model);
+        if (modelBudget != null && modelBudget > 0) {
+            return modelBudget;
+        }
+        return tokenBudget < 1 ? 1500 : tokenBudget;
+    }
+
+    public int resolvedSummaryChars() {
+        return summaryChars < 0 ? 240 : summaryChars;
+    }
+
+    public Duration resolvedRecencyHalfLife() {
+        return recencyHalfLife == null || recencyHalfLife.isNegative() || recencyHalfLife.isZero()
+            ? Duration.ofHours(12)
+            : recencyHalfLife;
+    }
+}
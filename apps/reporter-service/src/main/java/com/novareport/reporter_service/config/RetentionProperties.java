@@ -0,0 +1,29 @@
+package com.novareport.reporter_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "reporter.retention")
+public record RetentionProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("P365D") Duration newsItems,
+    @DefaultValue("false") boolean detachExpiredPartitions,
+    @DefaultValue("4") int partitionsAhead,
+    @DefaultValue("PT6H") Duration maintenanceInterval
+) {
+    /**
+     * Never shorter than a week, so the current partition and the dedup window are always kept.
+     */
+    public Duration resolvedNewsItems() {
+        if (newsItems == null) {
+            return Duration.ofDays(365);
+        }
+        return newsItems.compareTo(Duration.ofDays(7)) < 0 ? Duration.ofDays(7) : newsItems;
+    }
+
+    public int resolvedPartitionsAhead() {
+        return partitionsAhead < 1 ? 4 : partitionsAhead;
+    }
+}
@@ -1,7 +1,9 @@
 package com.novareport.reporter_service.config;
 
+import com.novareport.reporter_service.security.InternalApiKeyFilter;
 import com.novareport.reporter_service.security.JwtAuthenticationFilter;
 import com.novareport.reporter_service.security.JwtService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -21,8 +23,10 @@ public JwtAuthenticationFilter jwtAuthenticationFilter(JwtService jwtService) {
     @Bean
     public SecurityFilterChain securityFilterChain(
         HttpSecurity http,
-        JwtAuthenticationFilter jwtAuthenticationFilter
+        JwtAuthenticationFilter jwtAuthenticationFilter,
+        @Value("${internal.api-key:}") String internalApiKey
     ) throws Exception {
+        InternalApiKeyFilter internalFilter = new InternalApiKeyFilter(internalApiKey);
         return http
             .cors(cors -> {})
             .csrf(csrf -> csrf.disable())
@@ -38,11 +42,14 @@ public SecurityFilterChain securityFilterChain(
                     "/swagger-resources/**",
                     "/v3/api-docs",
                     "/v3/api-docs/**",
-                    "/error"
+                    "/error",
+                    "/api/v1/internal/**"
                 ).permitAll()
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                .requestMatchers("/api/v1/reports/admin/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
+            .addFilterBefore(internalFilter, UsernamePasswordAuthenticationFilter.class)
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
             .build();
     }
@@ -0,0 +1,35 @@
+package com.novareport.reporter_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Limits for calls to the AI summarizer. Each attempt gets {@code attemptTimeout}; failed attempts are
+ * retried after an exponential backoff starting at {@code initialBackoff}, and the whole call, retries
+ * included, is abandoned once {@code budget} has passed.
+ */
+@ConfigurationProperties(prefix = "reporter.summarizer")
+public record SummarizerProperties(
+    @DefaultValue("3") int maxAttempts,
+    @DefaultValue("PT1S") Duration initialBackoff,
+    @DefaultValue("PT60S") Duration attemptTimeout,
+    @DefaultValue("PT3M") Duration budget
+) {
+    public int resolvedMaxAttempts() {
+        return maxAttempts < 1 ? 3 : maxAttempts;
+    }
+
+    public Duration resolvedInitialBackoff() {
+        return initialBackoff == null || initialBackoff.isNegative() || initialBackoff.isZero() ? Duration.ofSeconds(1) : initialBackoff;
+    }
+
+    public Duration resolvedAttemptTimeout() {
+        return attemptTimeout == null || attemptTimeout.isNegative() || attemptTimeout.isZero() ? Duration.ofSeconds(60) : attemptTimeout;
+    }
+
+    public Duration resolvedBudget() {
+        return budget == null || budget.isNegative() || budget.isZero() ? Duration.ofMinutes(3) : budget;
+    }
+}
@@ -0,0 +1,98 @@
+package com.novareport.reporter_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Failover of the AI summarizer between backends, healthiest first. Each of the {@code endpoints} is a
+ * backend of its own, with its own URL, API key and model, so a second account or gateway serving the
+ * 1min.ai features API covers for an outage of the first. Without endpoints the backends are the
+ * {@code models}, defaulting to {@code onemin.model} alone, all on the {@code onemin.*} endpoint: that
+ * covers a failing model but not an outage of 1min.ai itself. A backend's circuit opens after
+ * {@code failureThreshold} failures in a row and stays open for {@code openDuration}; its health and
+ * latency come from its last {@code window} calls.
+ * With {@code hedge} on, a request still running after the backend's p95 latency, but no sooner than
+ * {@code hedgeMinDelay}, is sent to the next backend as well and the first answer wins.
+ */
+@ConfigurationProperties(prefix = "reporter.summarizer-routing")
+public record SummarizerRoutingProperties(
+    @DefaultValue List<String> models,
+    @DefaultValue List<Endpoint> endpoints,
+    @DefaultValue("5") int failureThreshold,
+    @DefaultValue("PT30S") Duration openDuration,
+    @DefaultValue("50") int window,
+    @DefaultValue("false") boolean hedge,
+    @DefaultValue("PT2S") Duration hedgeMinDelay
+) {
+    public SummarizerRoutingProperties {
+        models = models == null ? List.of() : List.copyOf(models);
+        endpoints = endpoints == null ? List.of() : List.copyOf(endpoints);
+    }
+
+    /**
+     * One backend: a 1min.ai features API at {@code url}, called with {@code apiKey} for {@code model}.
+     * A blank {@code apiKey} falls back to {@code onemin.api-key}, a blank {@code name} to the model.
+     */
+    public record Endpoint(String name, String url, String apiKey, String model) {
+    }
+
+    /**
+     * The configured endpoints with a URL and a model, named and without repeated names; or, when there
+     * are none, one endpoint per resolved model at {@code defaultUrl} with {@code defaultApiKey}.
+     */
+    public List<Endpoint> resolvedEndpoints(String defaultUrl, String defaultApiKey, String defaultModel) {
+        Map<String, Endpoint> resolved = new LinkedHashMap<>();
+        for (Endpoint endpoint : endpoints) {
+            if (isBlank(endpoint.url()) || isBlank(endpoint.model())) {
+                continue;
+            }
+            String model = endpoint.model().strip();
+            String name = isBlank(endpoint.name()) ? model : endpoint.name().strip();
+            String apiKey = isBlank(endpoint.apiKey()) ? defaultApiKey : endpoint.apiKey();
+            resolved.putIfAbsent(name, new Endpoint(name, endpoint.url().strip(), apiKey, model));
+        }
+        if (resolved.isEmpty()) {
+            return resolvedModels(defaultModel).stream()
+                .map(model -> new Endpoint(model, defaultUrl, defaultApiKey, model))
+                .toList();
+        }
+        return List.copyOf(resolved.values());
+    }
+
+    /**
+     * The configured models without blanks or repeats, or {@code defaultModel} when none are configured.
+     */
+    public List<String> resolvedModels(String defaultModel) {
+        List<String> resolved = models.stream()
+            .filter(model -> model != null && !model.isBlank())
+            .map(String::strip)
+            .distinct()
+            .toList();
+        return resolved.isEmpty() ? List.of(defaultModel) : resolved;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    public int resolvedFailureThreshold() {
+        return failureThreshold < 1 ? 5 : failureThreshold;
+    }
+
+    public Duration resolvedOpenDuration() {
+        return openDuration == null || openDuration.isNegative() || openDuration.isZero() ? Duration.ofSeconds(30) : openDuration;
+    }
+
+    public int resolvedWindow() {
+        return window < 1 ? 50 : window;
+    }
+
+    public Duration resolvedHedgeMinDelay() {
+        return hedgeMinDelay == null || hedgeMinDelay.isNegative() ? Duration.ofSeconds(2) : hedgeMinDelay;
+    }
+}
@@ -0,0 +1,30 @@
+package com.novareport.reporter_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Cache of model summaries by their inputs. Summaries are reused for {@code ttl}; the database keeps the
+ * newest {@code maxEntries} of them and each instance the {@code memoryEntries} most recently used.
+ */
+@ConfigurationProperties(prefix = "reporter.summary-cache")
+public record SummaryCacheProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("P7D") Duration ttl,
+    @DefaultValue("10000") int maxEntries,
+    @DefaultValue("256") int memoryEntries
+) {
+    public Duration resolvedTtl() {
+        return ttl == null || ttl.isNegative() || ttl.isZero() ? Duration.ofDays(7) : ttl;
+    }
+
+    public int resolvedMaxEntries() {
+        return maxEntries < 1 ? 10000 : maxEntries;
+    }
+
+    public int resolvedMemoryEntries() {
+        return memoryEntries < 1 ? 256 : memoryEntries;
+    }
+}
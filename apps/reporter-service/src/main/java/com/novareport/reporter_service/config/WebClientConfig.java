@@ -3,11 +3,13 @@
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import io.netty.channel.ChannelOption;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import java.time.Duration;
 import java.util.Objects;
@@ -16,6 +18,7 @@
 public class WebClientConfig {
 
     @Bean
+    @Primary
     public WebClient webClient(
         @Value("${webclient.timeout.connect:5}") long connectTimeoutSeconds,
         @Value("${webclient.timeout.read:10}") long readTimeoutSeconds
@@ -32,4 +35,32 @@ public WebClient webClient(
                 .build())
             .build();
     }
+
+    /**
+     * WebClient for RSS feed fetching. Reactor Netty keeps one pool per remote address, so
+     * {@code maxConnections} caps the number of open sockets per feed host; further requests
+     * to the same host wait for a free connection instead of opening new ones.
+     */
+    @Bean
+    public WebClient feedWebClient(
+        IngestProperties ingestProperties,
+        @Value("${webclient.timeout.connect:5}") long connectTimeoutSeconds,
+        @Value("${webclient.timeout.read:10}") long readTimeoutSeconds
+    ) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("rss-feeds")
+            .maxConnections(ingestProperties.resolvedMaxConnectionsPerHost())
+            .pendingAcquireMaxCount(-1)
+            .pendingAcquireTimeout(ingestProperties.resolvedDeadline())
+            .maxIdleTime(Duration.ofSeconds(30))
+            .build();
+
+        HttpClient httpClient = Objects.requireNonNull(HttpClient.create(connectionProvider)
+            .followRedirect(true)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) Duration.ofSeconds(connectTimeoutSeconds).toMillis())
+            .responseTimeout(Duration.ofSeconds(readTimeoutSeconds)));
+
+        return WebClient.builder()
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
+            .build();
+    }
 }
@@ -0,0 +1,72 @@
+package com.novareport.reporter_service.controller;
+
+import com.novareport.reporter_service.domain.ExportRepository;
+import com.novareport.reporter_service.service.ExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/v1/internal/exports")
+@Tag(name = "Internal")
+public class ExportController {
+
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson;charset=UTF-8");
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping("/{dataset}")
+    @Operation(
+        summary = "Stream news items or reports as NDJSON",
+        description = "One JSON object per line, oldest first; news by publication date, reports by report date. "
+            + "Gzip-compressed when Accept-Encoding allows it. Requires the X-INTERNAL-KEY header."
+    )
+    public ResponseEntity<StreamingResponseBody> export(
+        @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+        @PathVariable("dataset") String dataset,
+        @RequestParam(name = "from") LocalDate from,
+        @RequestParam(name = "to") LocalDate to
+    ) {
+        ExportRepository.Dataset exportDataset = exportDataset(dataset);
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must be on or before to");
+        }
+        boolean gzip = ReportController.acceptsGzip(acceptEncoding);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(NDJSON)
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(dataset + "-" + from + "-" + to + ".ndjson")
+                .build()
+                .toString())
+            .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(out -> exportService.export(exportDataset, from, to, gzip, out));
+    }
+
+    private static ExportRepository.Dataset exportDataset(String dataset) {
+        return switch (dataset) {
+            case "news" -> ExportRepository.Dataset.NEWS_ITEMS;
+            case "reports" -> ExportRepository.Dataset.DAILY_REPORTS;
+            default -> throw new IllegalArgumentException("dataset must be news or reports");
+        };
+    }
+}
@@ -0,0 +1,55 @@
+package com.novareport.reporter_service.controller;
+
+import com.novareport.reporter_service.dto.ReportBackfillJobResponse;
+import com.novareport.reporter_service.service.ReportBackfillService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/reports/admin")
+@Tag(name = "Reports Admin", description = "Admin operations for rebuilding historical reports")
+public class ReportAdminController {
+
+    private final ReportBackfillService backfillService;
+
+    public ReportAdminController(ReportBackfillService backfillService) {
+        this.backfillService = backfillService;
+    }
+
+    @PostMapping("/backfill")
+    @Operation(summary = "Rebuild reports between dates", description = "Starts a background job that regenerates each report from its own day's news items")
+    public ResponseEntity<ReportBackfillJobResponse> startBackfill(
+        @RequestParam(name = "from") LocalDate from,
+        @RequestParam(name = "to") LocalDate to
+    ) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+            .body(ReportBackfillJobResponse.fromEntity(backfillService.start(from, to)));
+    }
+
+    @PostMapping("/backfill/{id}/resume")
+    @Operation(summary = "Resume a backfill job", description = "Rebuilds the dates of an interrupted or failed job that have not completed yet")
+    public ResponseEntity<ReportBackfillJobResponse> resumeBackfill(@PathVariable UUID id) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+            .body(ReportBackfillJobResponse.fromEntity(backfillService.resume(id)));
+    }
+
+    @GetMapping("/backfill/{id}")
+    @Operation(summary = "Get backfill job progress", description = "Returns the status and per-date timings of a backfill job")
+    public ResponseEntity<ReportBackfillJobResponse> backfill(@PathVariable UUID id) {
+        return backfillService.find(id)
+            .map(ReportBackfillJobResponse::fromEntity)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -1,23 +1,37 @@
 package com.novareport.reporter_service.controller;
 
 import com.novareport.reporter_service.config.PaginationProperties;
+import com.novareport.reporter_service.domain.ReportArtifact;
+import com.novareport.reporter_service.dto.CursorDailyReportsResponse;
 import com.novareport.reporter_service.dto.DailyReportResponse;
 import com.novareport.reporter_service.dto.PagedDailyReportsResponse;
+import com.novareport.reporter_service.dto.ReportCursor;
 import com.novareport.reporter_service.service.DailyReportService;
+import com.novareport.reporter_service.service.ReportArtifactService;
+import com.novareport.reporter_service.service.ReportReadCache;
 import com.novareport.reporter_service.service.SubscriptionAccessService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 @RestController
@@ -25,36 +39,95 @@
 @Tag(name = "Reports")
 public class ReportController {
 
+    /**
+     * Lets clients keep a copy but makes them revalidate it with the ETag, instead of Spring Security's
+     * default {@code no-store}.
+     */
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private static final String SCROLL_LINK = "</api/v1/reports/scroll>; rel=\"successor-version\"";
+
     private final DailyReportService dailyReportService;
     private final SubscriptionAccessService subscriptionAccessService;
     private final PaginationProperties paginationProperties;
+    private final ReportReadCache readCache;
+    private final ReportArtifactService artifactService;
 
     public ReportController(
         DailyReportService dailyReportService,
         SubscriptionAccessService subscriptionAccessService,
-        PaginationProperties paginationProperties
+        PaginationProperties paginationProperties,
+        ReportReadCache readCache,
+        ReportArtifactService artifactService
     ) {
         this.dailyReportService = dailyReportService;
         this.subscriptionAccessService = subscriptionAccessService;
         this.paginationProperties = paginationProperties;
+        this.readCache = readCache;
+        this.artifactService = artifactService;
     }
 
     @GetMapping("/latest")
     @Operation(summary = "Get the latest daily report")
     public ResponseEntity<DailyReportResponse> latest(
-        @RequestHeader(name = "Authorization", required = false) String authorization
+        @RequestHeader(name = "Authorization", required = false) String authorization,
+        @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
         subscriptionAccessService.assertAccess(authorization);
-        return dailyReportService.findLatest()
-            .map(DailyReportResponse::fromEntity)
-            .map(ResponseEntity::ok)
+        return readCache.latest(() -> dailyReportService.findLatest().map(DailyReportResponse::fromEntity))
+            .map(cached -> {
+                if (matches(ifNoneMatch, cached.etag())) {
+                    readCache.recordLatestNotModified();
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(cached.etag()).cacheControl(REVALIDATE).<DailyReportResponse>build();
+                }
+                return ResponseEntity.ok().eTag(cached.etag()).cacheControl(REVALIDATE).body(cached.body());
+            })
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/latest/{format}")
+    @Operation(summary = "Get the latest daily report rendered as sanitized HTML or plain text")
+    public ResponseEntity<byte[]> latestRendered(
+        @RequestHeader(name = "Authorization", required = false) String authorization,
+        @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+        @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+        @PathVariable("format") String format
+    ) {
+        subscriptionAccessService.assertAccess(authorization);
+        ReportArtifact.Format artifactFormat = artifactFormat(format);
+        return readCache.latestArtifact(artifactFormat, () -> dailyReportService.findLatest()
+                .map(report -> artifactService.find(report, artifactFormat)))
+            .map(artifact -> {
+                boolean gzip = acceptsGzip(acceptEncoding);
+                // Each encoding is its own representation and needs its own strong tag.
+                String etag = gzip ? artifact.getEtag().replaceFirst("\"$", "-gzip\"") : artifact.getEtag();
+                if (matches(ifNoneMatch, etag)) {
+                    readCache.recordArtifactNotModified();
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE)
+                        .varyBy(HttpHeaders.ACCEPT_ENCODING).<byte[]>build();
+                }
+                ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(new MediaType(MediaType.parseMediaType(artifactFormat.mediaType()), StandardCharsets.UTF_8))
+                    .eTag(etag)
+                    .cacheControl(REVALIDATE)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING);
+                if (gzip) {
+                    return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(artifact.getBodyGzip());
+                }
+                return response.body(artifact.getBody());
+            })
             .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping
-    @Operation(summary = "Get paginated reports between dates")
+    @Operation(
+        summary = "Get paginated reports between dates",
+        description = "Offset pages run a count query and get slower with every page; use /api/v1/reports/scroll instead.",
+        deprecated = true
+    )
     public ResponseEntity<PagedDailyReportsResponse> list(
         @RequestHeader(name = "Authorization", required = false) String authorization,
+        @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
         @RequestParam(name = "from", required = false) LocalDate from,
         @RequestParam(name = "to", required = false) LocalDate to,
         @RequestParam(name = "page", defaultValue = "0") int page,
@@ -74,8 +147,115 @@ public ResponseEntity<PagedDailyReportsResponse> list(
             throw new IllegalArgumentException("from must be on or before to");
         }
 
-        Page<DailyReportResponse> result = dailyReportService.findBetween(effectiveFrom, effectiveTo, pageable)
-            .map(DailyReportResponse::fromEntity);
-        return ResponseEntity.ok(PagedDailyReportsResponse.fromPage(result));
+        ReportReadCache.Cached<PagedDailyReportsResponse> cached = readCache.page(effectiveFrom, effectiveTo, page, size, () -> {
+            Page<DailyReportResponse> result = dailyReportService.findBetween(effectiveFrom, effectiveTo, pageable)
+                .map(DailyReportResponse::fromEntity);
+            return PagedDailyReportsResponse.fromPage(result);
+        });
+        if (matches(ifNoneMatch, cached.etag())) {
+            readCache.recordPageNotModified();
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(cached.etag()).cacheControl(REVALIDATE)
+                .header(HttpHeaders.LINK, SCROLL_LINK).build();
+        }
+        return ResponseEntity.ok().eTag(cached.etag()).cacheControl(REVALIDATE)
+            .header(HttpHeaders.LINK, SCROLL_LINK).body(cached.body());
+    }
+
+    @GetMapping("/slots")
+    @Operation(summary = "Get every report slot of a date, newest first")
+    public List<DailyReportResponse> slots(
+        @RequestHeader(name = "Authorization", required = false) String authorization,
+        @RequestParam(name = "date", required = false) LocalDate date,
+        @RequestParam(name = "includeSummary", defaultValue = "false") boolean includeSummary
+    ) {
+        subscriptionAccessService.assertAccess(authorization);
+        return dailyReportService.findSlots(Optional.ofNullable(date).orElse(LocalDate.now()), includeSummary);
+    }
+
+    @GetMapping("/scroll")
+    @Operation(summary = "Scroll through reports between dates, newest first, using an opaque cursor")
+    public CursorDailyReportsResponse scroll(
+        @RequestHeader(name = "Authorization", required = false) String authorization,
+        @RequestParam(name = "from", required = false) LocalDate from,
+        @RequestParam(name = "to", required = false) LocalDate to,
+        @RequestParam(name = "cursor", required = false) String cursor,
+        @RequestParam(name = "size", defaultValue = "10") int size,
+        @RequestParam(name = "includeSummary", defaultValue = "false") boolean includeSummary
+    ) {
+        subscriptionAccessService.assertAccess(authorization);
+        if (size < 1 || size > paginationProperties.getMaxPageSize()) {
+            throw new IllegalArgumentException("size must be between 1 and " + paginationProperties.getMaxPageSize());
+        }
+        LocalDate effectiveTo = Optional.ofNullable(to).orElse(LocalDate.now());
+        LocalDate effectiveFrom = Optional.ofNullable(from).orElse(effectiveTo.minusDays(30));
+        if (effectiveFrom.isAfter(effectiveTo)) {
+            throw new IllegalArgumentException("from must be on or before to");
+        }
+        ReportCursor after = cursor == null || cursor.isBlank() ? null : ReportCursor.decode(cursor);
+
+        Window<DailyReportResponse> window = dailyReportService.scrollBetween(effectiveFrom, effectiveTo, after, size, includeSummary);
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            DailyReportResponse last = window.getContent().get(window.size() - 1);
+            nextCursor = new ReportCursor(last.reportDate(), last.slotStart()).encode();
+        }
+        return new CursorDailyReportsResponse(window.getContent(), size, nextCursor);
+    }
+
+    private static ReportArtifact.Format artifactFormat(String format) {
+        return switch (format) {
+            case "html" -> ReportArtifact.Format.HTML;
+            case "text" -> ReportArtifact.Format.TEXT;
+            default -> throw new IllegalArgumentException("format must be html or text");
+        };
+    }
+
+    /**
+     * Whether {@code Accept-Encoding} allows gzip, i.e. lists {@code gzip} or {@code *} without {@code q=0}.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return false;
+        }
+        for (String candidate : acceptEncoding.split(",")) {
+            String[] parts = candidate.split(";");
+            String coding = parts[0].strip();
+            if (!coding.equalsIgnoreCase("gzip") && !coding.equals("*")) {
+                continue;
+            }
+            boolean refused = false;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].strip().toLowerCase(Locale.ROOT);
+                if (parameter.startsWith("q=")) {
+                    refused = parameter.substring(2).strip().matches("0(\\.0{0,3})?");
+                }
+            }
+            if (!refused) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Weak comparison as required for {@code If-None-Match}: any listed tag, with or without {@code W/}, or {@code *}.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.strip();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
     }
 }
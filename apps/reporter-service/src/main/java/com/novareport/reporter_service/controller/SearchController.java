@@ -0,0 +1,85 @@
+package com.novareport.reporter_service.controller;
+
+import com.novareport.reporter_service.config.PaginationProperties;
+import com.novareport.reporter_service.domain.SearchHit;
+import com.novareport.reporter_service.dto.SearchCursor;
+import com.novareport.reporter_service.dto.SearchResponse;
+import com.novareport.reporter_service.service.SearchService;
+import com.novareport.reporter_service.service.SubscriptionAccessService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.data.domain.Window;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/v1/search")
+@Tag(name = "Search")
+public class SearchController {
+
+    private final SearchService searchService;
+    private final SubscriptionAccessService subscriptionAccessService;
+    private final PaginationProperties paginationProperties;
+
+    public SearchController(
+        SearchService searchService,
+        SubscriptionAccessService subscriptionAccessService,
+        PaginationProperties paginationProperties
+    ) {
+        this.searchService = searchService;
+        this.subscriptionAccessService = subscriptionAccessService;
+        this.paginationProperties = paginationProperties;
+    }
+
+    @GetMapping
+    @Operation(
+        summary = "Search news items and reports",
+        description = "Supports quoted phrases, \"or\" and -word. Hits are ordered by relevance and paged with an opaque cursor; "
+            + "the date range defaults to the last year."
+    )
+    public SearchResponse search(
+        @RequestHeader(name = "Authorization", required = false) String authorization,
+        @RequestParam(name = "q") String q,
+        @RequestParam(name = "type", defaultValue = "all") String type,
+        @RequestParam(name = "from", required = false) LocalDate from,
+        @RequestParam(name = "to", required = false) LocalDate to,
+        @RequestParam(name = "cursor", required = false) String cursor,
+        @RequestParam(name = "size", defaultValue = "10") int size
+    ) {
+        subscriptionAccessService.assertAccess(authorization);
+        if (size < 1 || size > paginationProperties.getMaxPageSize()) {
+            throw new IllegalArgumentException("size must be between 1 and " + paginationProperties.getMaxPageSize());
+        }
+        LocalDate effectiveTo = Optional.ofNullable(to).orElse(LocalDate.now());
+        LocalDate effectiveFrom = Optional.ofNullable(from).orElse(effectiveTo.minusYears(1));
+        if (effectiveFrom.isAfter(effectiveTo)) {
+            throw new IllegalArgumentException("from must be on or before to");
+        }
+        SearchCursor after = cursor == null || cursor.isBlank() ? null : SearchCursor.decode(cursor);
+
+        Window<SearchHit> window = searchService.search(q, kinds(type), effectiveFrom, effectiveTo, after, size);
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            SearchHit last = window.getContent().get(window.size() - 1);
+            nextCursor = new SearchCursor(last.rank(), last.at(), last.id()).encode();
+        }
+        return new SearchResponse(window.getContent(), size, nextCursor);
+    }
+
+    private static Set<SearchHit.Kind> kinds(String type) {
+        return switch (type) {
+            case "all" -> EnumSet.allOf(SearchHit.Kind.class);
+            case "news" -> EnumSet.of(SearchHit.Kind.NEWS);
+            case "reports" -> EnumSet.of(SearchHit.Kind.REPORT);
+            default -> throw new IllegalArgumentException("type must be all, news or reports");
+        };
+    }
+}
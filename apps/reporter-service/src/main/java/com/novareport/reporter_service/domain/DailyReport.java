@@ -18,12 +18,15 @@
 import java.time.LocalDate;
 import java.util.UUID;
 
+/**
+ * Report of one {@link ReportSlots time slot} of a day. Rebuilding a slot updates its row in place.
+ */
 @Getter
 @Setter
 @NoArgsConstructor
 @Entity
 @Table(name = "daily_reports", indexes = {
-    @Index(name = "idx_daily_reports_report_date", columnList = "report_date", unique = true)
+    @Index(name = "uq_daily_reports_date_slot", columnList = "report_date, slot_start", unique = true)
 })
 public class DailyReport {
 
@@ -32,9 +35,13 @@ public class DailyReport {
     private UUID id;
 
     @NotNull
-    @Column(name = "report_date", nullable = false, unique = true)
+    @Column(name = "report_date", nullable = false)
     private LocalDate reportDate;
 
+    @NotNull
+    @Column(name = "slot_start", nullable = false)
+    private Instant slotStart;
+
     @NotBlank
     @Column(columnDefinition = "TEXT", nullable = false)
     private String summary;
@@ -0,0 +1,19 @@
+package com.novareport.reporter_service.domain;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Listing view of a {@link DailyReport} without its {@code summary} text.
+ */
+public interface DailyReportHeader {
+
+    UUID getId();
+
+    LocalDate getReportDate();
+
+    Instant getSlotStart();
+
+    Instant getCreatedAt();
+}
@@ -1,18 +1,63 @@
 package com.novareport.reporter_service.domain;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface DailyReportRepository extends JpaRepository<DailyReport, UUID> {
 
-    Optional<DailyReport> findByReportDate(LocalDate reportDate);
+    Optional<DailyReport> findByReportDateAndSlotStart(LocalDate reportDate, Instant slotStart);
 
-    Optional<DailyReport> findTop1ByOrderByReportDateDesc();
+    Optional<DailyReport> findTop1ByReportDateOrderBySlotStartDesc(LocalDate reportDate);
 
-    Page<DailyReport> findAllByReportDateBetweenOrderByReportDateDesc(LocalDate from, LocalDate to, Pageable pageable);
+    Optional<DailyReport> findTop1ByOrderByReportDateDescSlotStartDesc();
+
+    List<DailyReport> findByReportDateOrderBySlotStartDesc(LocalDate reportDate);
+
+    List<DailyReportHeader> findSlotsByReportDateOrderBySlotStartDesc(LocalDate reportDate);
+
+    Page<DailyReport> findAllByReportDateBetweenOrderByReportDateDescSlotStartDesc(LocalDate from, LocalDate to, Pageable pageable);
+
+    /**
+     * Reports between two dates that sort after {@code (afterDate, afterSlot)}, newest first. The row-value
+     * comparison lets the {@code (report_date, slot_start)} index seek straight to the cursor.
+     */
+    @Query("""
+        select r from DailyReport r
+        where r.reportDate between :from and :to and (r.reportDate, r.slotStart) < (:afterDate, :afterSlot)
+        order by r.reportDate desc, r.slotStart desc
+        """)
+    List<DailyReport> findPageAfter(
+        @Param("from") LocalDate from,
+        @Param("to") LocalDate to,
+        @Param("afterDate") LocalDate afterDate,
+        @Param("afterSlot") Instant afterSlot,
+        Limit limit
+    );
+
+    /**
+     * Same slice as {@link #findPageAfter} without loading the summaries.
+     */
+    @Query("""
+        select r.id as id, r.reportDate as reportDate, r.slotStart as slotStart, r.createdAt as createdAt
+        from DailyReport r
+        where r.reportDate between :from and :to and (r.reportDate, r.slotStart) < (:afterDate, :afterSlot)
+        order by r.reportDate desc, r.slotStart desc
+        """)
+    List<DailyReportHeader> findHeaderPageAfter(
+        @Param("from") LocalDate from,
+        @Param("to") LocalDate to,
+        @Param("afterDate") LocalDate afterDate,
+        @Param("afterSlot") Instant afterSlot,
+        Limit limit
+    );
 }
@@ -0,0 +1,149 @@
+package com.novareport.reporter_service.domain;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Writes news items or reports as newline-delimited JSON, one object per row, straight from a forward-only
+ * result set to an output stream.
+ * <p>
+ * Nothing is collected: the driver holds {@code fetchSize} rows at a time and each row is serialized before
+ * the next is read, so memory stays the same for a thousand rows or fifty million. PostgreSQL only fetches
+ * in batches through a server-side cursor, which it opens when the statement runs in a transaction; outside
+ * one it reads the whole result first, so callers must hold a transaction. The connection stays busy until
+ * the last row has been written, however slowly the client reads.
+ */
+@Repository
+public class ExportRepository {
+
+    public enum Dataset {
+        NEWS_ITEMS,
+        DAILY_REPORTS
+    }
+
+    private static final JsonFactory JSON = new JsonFactory()
+        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private static final String NEWS_ITEMS_SQL = """
+        SELECT id, source, url, title, published_at, summary, ingested_at, cluster_id
+        FROM news_items
+        WHERE published_at >= ? AND published_at < ?
+        ORDER BY published_at
+        """;
+
+    private static final String DAILY_REPORTS_SQL = """
+        SELECT id, report_date, slot_start, summary, created_at
+        FROM daily_reports
+        WHERE report_date BETWEEN ? AND ?
+        ORDER BY report_date, slot_start
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExportRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Writes the rows of {@code dataset}, news published and reports dated between {@code from} and
+     * {@code to} inclusive in the application's time zone, oldest first, and returns how many were written.
+     * {@code out} is flushed but not closed.
+     */
+    public long writeNdjson(Dataset dataset, LocalDate from, LocalDate to, int fetchSize, OutputStream out) {
+        Long rows = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try (PreparedStatement statement = prepare(connection, dataset, from, to, fetchSize);
+                 ResultSet resultSet = statement.executeQuery();
+                 JsonGenerator json = JSON.createGenerator(out, JsonEncoding.UTF8)) {
+                json.setPrettyPrinter(new MinimalPrettyPrinter(""));
+                long written = 0;
+                while (resultSet.next()) {
+                    json.writeStartObject();
+                    if (dataset == Dataset.NEWS_ITEMS) {
+                        writeNewsItem(resultSet, json);
+                    } else {
+                        writeDailyReport(resultSet, json);
+                    }
+                    json.writeEndObject();
+                    json.writeRaw('\n');
+                    written++;
+                }
+                return written;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return rows == null ? 0 : rows;
+    }
+
+    private static PreparedStatement prepare(Connection connection, Dataset dataset, LocalDate from, LocalDate to, int fetchSize)
+        throws SQLException {
+        boolean news = dataset == Dataset.NEWS_ITEMS;
+        PreparedStatement statement = news
+            ? connection.prepareStatement(NEWS_ITEMS_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)
+            : connection.prepareStatement(DAILY_REPORTS_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        try {
+            statement.setFetchSize(fetchSize);
+            if (news) {
+                ZoneId zone = ZoneId.systemDefault();
+                statement.setObject(1, from.atStartOfDay(zone).toOffsetDateTime().withOffsetSameInstant(ZoneOffset.UTC));
+                statement.setObject(2, to.plusDays(1).atStartOfDay(zone).toOffsetDateTime().withOffsetSameInstant(ZoneOffset.UTC));
+            } else {
+                statement.setDate(1, Date.valueOf(from));
+                statement.setDate(2, Date.valueOf(to));
+            }
+            return statement;
+        } catch (SQLException e) {
+            statement.close();
+            throw e;
+        }
+    }
+
+    private static void writeNewsItem(ResultSet row, JsonGenerator json) throws SQLException, IOException {
+        writeUuid(json, "id", row.getObject("id", UUID.class));
+        json.writeStringField("source", row.getString("source"));
+        json.writeStringField("url", row.getString("url"));
+        json.writeStringField("title", row.getString("title"));
+        writeInstant(json, "publishedAt", row.getObject("published_at", OffsetDateTime.class));
+        json.writeStringField("summary", row.getString("summary"));
+        writeInstant(json, "ingestedAt", row.getObject("ingested_at", OffsetDateTime.class));
+        writeUuid(json, "clusterId", row.getObject("cluster_id", UUID.class));
+    }
+
+    private static void writeDailyReport(ResultSet row, JsonGenerator json) throws SQLException, IOException {
+        writeUuid(json, "id", row.getObject("id", UUID.class));
+        LocalDate reportDate = row.getObject("report_date", LocalDate.class);
+        json.writeStringField("reportDate", reportDate.toString());
+        writeInstant(json, "slotStart", row.getObject("slot_start", OffsetDateTime.class));
+        json.writeStringField("summary", row.getString("summary"));
+        writeInstant(json, "createdAt", row.getObject("created_at", OffsetDateTime.class));
+    }
+
+    private static void writeUuid(JsonGenerator json, String name, UUID value) throws IOException {
+        json.writeStringField(name, value == null ? null : value.toString());
+    }
+
+    private static void writeInstant(JsonGenerator json, String name, OffsetDateTime value) throws IOException {
+        Instant instant = value == null ? null : value.toInstant();
+        json.writeStringField(name, instant == null ? null : instant.toString());
+    }
+}
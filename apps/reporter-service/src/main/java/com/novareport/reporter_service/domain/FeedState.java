@@ -0,0 +1,67 @@
+package com.novareport.reporter_service.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Per-feed polling state used for conditional GET requests, change detection, incremental parsing and
+ * adaptive poll scheduling.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "feed_states")
+public class FeedState {
+
+    @Id
+    @Column(name = "feed_url", nullable = false, columnDefinition = "TEXT")
+    private String feedUrl;
+
+    @Column(length = 512)
+    private String etag;
+
+    @Column(name = "last_modified", length = 128)
+    private String lastModified;
+
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "last_fetched_at")
+    private Instant lastFetchedAt;
+
+    @Column(name = "watermark_published_at")
+    private Instant watermarkPublishedAt;
+
+    /**
+     * Newline-separated fingerprints of the entries in the last parsed feed body.
+     */
+    @Column(name = "seen_entry_keys", columnDefinition = "TEXT")
+    private String seenEntryKeys;
+
+    /**
+     * Refresh hint from the channel's {@code <ttl>} element, in minutes.
+     */
+    @Column(name = "ttl_minutes")
+    private Integer ttlMinutes;
+
+    @Column(name = "poll_interval_seconds")
+    private Long pollIntervalSeconds;
+
+    @Column(name = "next_poll_at")
+    private Instant nextPollAt;
+
+    @Column(name = "consecutive_failures", nullable = false)
+    private int consecutiveFailures;
+
+    public FeedState(String feedUrl) {
+        this.feedUrl = feedUrl;
+    }
+}
@@ -0,0 +1,6 @@
+package com.novareport.reporter_service.domain;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface FeedStateRepository extends JpaRepository<FeedState, String> {
+}
@@ -21,8 +21,9 @@
 @Entity
 @Table(name = "news_items", indexes = {
     @Index(name = "idx_news_items_published_at", columnList = "published_at"),
-    @Index(name = "idx_news_items_hash", columnList = "hash", unique = true),
-    @Index(name = "idx_news_items_ingested_at", columnList = "ingested_at")
+    @Index(name = "idx_news_items_url_key", columnList = "url_key", unique = true),
+    @Index(name = "idx_news_items_ingested_at", columnList = "ingested_at"),
+    @Index(name = "idx_news_items_cluster_id", columnList = "cluster_id")
 })
 public class NewsItem {
 
@@ -45,12 +46,18 @@ public class NewsItem {
     @Column(columnDefinition = "TEXT")
     private String summary;
 
-    @Column(nullable = false, length = 128, unique = true)
-    private String hash;
+    /**
+     * Deduplication key derived from the canonical link, see {@code UrlKeys}.
+     */
+    @Column(name = "url_key", nullable = false, unique = true)
+    private UUID urlKey;
 
     @Column(name = "ingested_at", nullable = false)
     private Instant ingestedAt;
 
+    @Column(name = "cluster_id")
+    private UUID clusterId;
+
     @PrePersist
     void onPersist() {
         if (ingestedAt == null) {
@@ -0,0 +1,19 @@
+package com.novareport.reporter_service.domain;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Set-based insert path for {@link NewsItem}s that skips rows whose url key is already stored.
+ */
+public interface NewsItemBulkInsert {
+
+    /**
+     * Inserts the given items, silently skipping any whose {@code url_key} already exists, including rows
+     * written concurrently by another ingest. Items without an id or ingest timestamp get one assigned.
+     *
+     * @param items items to insert; duplicates within the collection are skipped as well
+     * @return the items that were actually inserted, in input order
+     */
+    List<NewsItem> insertIgnoringDuplicates(Collection<NewsItem> items);
+}
@@ -0,0 +1,214 @@
+package com.novareport.reporter_service.domain;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * JDBC implementation of {@link NewsItemBulkInsert}.
+ * <p>
+ * On PostgreSQL each chunk is written with a single statement over {@code unnest(...)} arrays that first
+ * claims the keys in {@code news_item_keys} with {@code ON CONFLICT (url_key) DO NOTHING} and then inserts
+ * the rows whose key was claimed into the partitioned {@code news_items}, so one round trip both inserts
+ * the rows and reports which ones were new. Other databases (the H2 dev profile) use
+ * a JDBC batch of single-row {@code ON CONFLICT DO NOTHING} inserts and read the per-row update counts;
+ * rows the driver reports as {@link Statement#SUCCESS_NO_INFO} are looked up by id instead of assumed inserted.
+ * Both run on the connection of the surrounding transaction.
+ */
+public class NewsItemBulkInsertImpl implements NewsItemBulkInsert {
+
+    static final int CHUNK_SIZE = 500;
+
+    private static final String POSTGRES_INSERT = """
+        WITH rows AS (
+            SELECT DISTINCT ON (url_key) *
+            FROM unnest(?::uuid[], ?::varchar[], ?::text[], ?::text[], ?::timestamptz[], ?::text[], ?::uuid[], ?::timestamptz[], ?::uuid[])
+                AS r(id, source, url, title, published_at, summary, url_key, ingested_at, cluster_id)
+        ), claimed AS (
+            INSERT INTO news_item_keys (url_key, published_at)
+            SELECT url_key, published_at FROM rows
+            ON CONFLICT (url_key) DO NOTHING
+            RETURNING url_key
+        )
+        INSERT INTO news_items (id, source, url, title, published_at, summary, url_key, ingested_at, cluster_id)
+        SELECT rows.* FROM rows JOIN claimed USING (url_key)
+        RETURNING url_key
+        """;
+
+    private static final String BATCH_INSERT = """
+        INSERT INTO news_items (id, source, url, title, published_at, summary, url_key, ingested_at, cluster_id)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+        ON CONFLICT DO NOTHING
+        """;
+
+    private static final String STORED_IDS = "SELECT id FROM news_items WHERE id = ANY(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+
+    public NewsItemBulkInsertImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<NewsItem> insertIgnoringDuplicates(Collection<NewsItem> items) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
+
+        Instant now = Instant.now();
+        List<NewsItem> rows = new ArrayList<>(items.size());
+        for (NewsItem item : items) {
+            if (item.getId() == null) {
+                item.setId(UUID.randomUUID());
+            }
+            if (item.getIngestedAt() == null) {
+                item.setIngestedAt(now);
+            }
+            rows.add(item);
+        }
+
+        List<NewsItem> inserted = new ArrayList<>();
+        for (int from = 0; from < rows.size(); from += CHUNK_SIZE) {
+            List<NewsItem> chunk = rows.subList(from, Math.min(rows.size(), from + CHUNK_SIZE));
+            inserted.addAll(jdbcTemplate.execute((ConnectionCallback<List<NewsItem>>) connection ->
+                isPostgres(connection) ? insertReturning(connection, chunk) : insertBatch(connection, chunk)));
+        }
+        return inserted;
+    }
+
+    private boolean isPostgres(Connection connection) throws SQLException {
+        Boolean result = postgres;
+        if (result == null) {
+            result = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+            postgres = result;
+        }
+        return result;
+    }
+
+    private List<NewsItem> insertReturning(Connection connection, List<NewsItem> chunk) throws SQLException {
+        int size = chunk.size();
+        String[][] columns = new String[9][size];
+        for (int i = 0; i < size; i++) {
+            NewsItem item = chunk.get(i);
+            columns[0][i] = item.getId().toString();
+            columns[1][i] = item.getSource();
+            columns[2][i] = item.getUrl();
+            columns[3][i] = item.getTitle();
+            columns[4][i] = toText(item.getPublishedAt());
+            columns[5][i] = item.getSummary();
+            columns[6][i] = item.getUrlKey().toString();
+            columns[7][i] = toText(item.getIngestedAt());
+            columns[8][i] = item.getClusterId() == null ? null : item.getClusterId().toString();
+        }
+
+        Set<UUID> insertedKeys = new HashSet<>();
+        List<Array> arrays = new ArrayList<>(columns.length);
+        try (PreparedStatement statement = connection.prepareStatement(POSTGRES_INSERT)) {
+            for (int column = 0; column < columns.length; column++) {
+                Array array = connection.createArrayOf("text", columns[column]);
+                arrays.add(array);
+                statement.setArray(column + 1, array);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    insertedKeys.add(resultSet.getObject(1, UUID.class));
+                }
+            }
+        } finally {
+            for (Array array : arrays) {
+                array.free();
+            }
+        }
+
+        List<NewsItem> inserted = new ArrayList<>(insertedKeys.size());
+        for (NewsItem item : chunk) {
+            if (insertedKeys.remove(item.getUrlKey())) {
+                inserted.add(item);
+            }
+        }
+        return inserted;
+    }
+
+    private List<NewsItem> insertBatch(Connection connection, List<NewsItem> chunk) throws SQLException {
+        int[] counts;
+        try (PreparedStatement statement = connection.prepareStatement(BATCH_INSERT)) {
+            for (NewsItem item : chunk) {
+                statement.setObject(1, item.getId());
+                statement.setString(2, item.getSource());
+                statement.setString(3, item.getUrl());
+                statement.setString(4, item.getTitle());
+                statement.setObject(5, toOffsetDateTime(item.getPublishedAt()));
+                statement.setString(6, item.getSummary());
+                statement.setObject(7, item.getUrlKey());
+                statement.setObject(8, toOffsetDateTime(item.getIngestedAt()));
+                statement.setObject(9, item.getClusterId());
+                statement.addBatch();
+            }
+            counts = statement.executeBatch();
+        }
+
+        List<NewsItem> inserted = new ArrayList<>();
+        List<NewsItem> unknown = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                inserted.add(chunk.get(i));
+            } else if (counts[i] == Statement.SUCCESS_NO_INFO) {
+                unknown.add(chunk.get(i));
+            }
+        }
+        if (!unknown.isEmpty()) {
+            Set<UUID> storedIds = storedIds(connection, unknown);
+            for (NewsItem item : unknown) {
+                if (storedIds.contains(item.getId())) {
+                    inserted.add(item);
+                }
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * Ids of the given items that are now stored. Each item carries the id it was just written with, so a
+     * row with that id exists only if this insert wrote it rather than skipping a conflicting key.
+     */
+    private static Set<UUID> storedIds(Connection connection, List<NewsItem> items) throws SQLException {
+        Object[] candidates = items.stream().map(NewsItem::getId).toArray();
+        Set<UUID> ids = new HashSet<>();
+        Array array = connection.createArrayOf("UUID", candidates);
+        try (PreparedStatement statement = connection.prepareStatement(STORED_IDS)) {
+            statement.setArray(1, array);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    ids.add(resultSet.getObject(1, UUID.class));
+                }
+            }
+        } finally {
+            array.free();
+        }
+        return ids;
+    }
+
+    private static String toText(Instant instant) {
+        return instant == null ? null : instant.toString();
+    }
+
+    private static OffsetDateTime toOffsetDateTime(Instant instant) {
+        return instant == null ? null : instant.atOffset(ZoneOffset.UTC);
+    }
+}
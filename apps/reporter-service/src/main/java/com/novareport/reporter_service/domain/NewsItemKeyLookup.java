@@ -0,0 +1,23 @@
+package com.novareport.reporter_service.domain;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Existence checks for {@link NewsItem} url keys that hit a single unique index.
+ */
+public interface NewsItemKeyLookup {
+
+    default boolean existsByUrlKey(UUID urlKey) {
+        return !findExistingUrlKeys(List.of(urlKey)).isEmpty();
+    }
+
+    /**
+     * Returns the subset of the given url keys that are already stored. On PostgreSQL this reads the
+     * primary key of {@code news_item_keys}; a lookup on the partitioned {@code news_items} would probe the
+     * {@code url_key} index of every partition.
+     */
+    Set<UUID> findExistingUrlKeys(Collection<UUID> urlKeys);
+}
@@ -0,0 +1,67 @@
+package com.novareport.reporter_service.domain;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * JDBC implementation of {@link NewsItemKeyLookup}. PostgreSQL reads {@code news_item_keys}, which holds
+ * every stored key; other databases (the H2 dev profile) have no such table and read the unique
+ * {@code url_key} column of the plain {@code news_items} table.
+ */
+public class NewsItemKeyLookupImpl implements NewsItemKeyLookup {
+
+    private static final String POSTGRES_LOOKUP = "SELECT url_key FROM news_item_keys WHERE url_key = ANY(?)";
+    private static final String PLAIN_LOOKUP = "SELECT url_key FROM news_items WHERE url_key = ANY(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+
+    public NewsItemKeyLookupImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Set<UUID> findExistingUrlKeys(Collection<UUID> urlKeys) {
+        if (urlKeys.isEmpty()) {
+            return Set.of();
+        }
+        return jdbcTemplate.execute((ConnectionCallback<Set<UUID>>) connection -> lookup(connection, urlKeys));
+    }
+
+    private Set<UUID> lookup(Connection connection, Collection<UUID> urlKeys) throws SQLException {
+        Set<UUID> existing = new HashSet<>();
+        Array array = connection.createArrayOf("uuid", urlKeys.toArray());
+        try (PreparedStatement statement = isPostgres(connection)
+            ? connection.prepareStatement(POSTGRES_LOOKUP)
+            : connection.prepareStatement(PLAIN_LOOKUP)) {
+            statement.setArray(1, array);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    existing.add(resultSet.getObject(1, UUID.class));
+                }
+            }
+        } finally {
+            array.free();
+        }
+        return existing;
+    }
+
+    private boolean isPostgres(Connection connection) throws SQLException {
+        Boolean result = postgres;
+        if (result == null) {
+            result = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+            postgres = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,58 @@
+package com.novareport.reporter_service.domain;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Optional;
+
+/**
+ * Naming and DDL of the weekly {@code news_items} partitions on PostgreSQL.
+ * <p>
+ * Each partition holds one UTC week by {@code published_at}, starting on Monday, and is named after its
+ * first day, e.g. {@code news_items_p20250106}. Rows outside every weekly partition land in
+ * {@value #DEFAULT_PARTITION}.
+ */
+public final class NewsItemPartitions {
+
+    public static final String DEFAULT_PARTITION = "news_items_default";
+
+    private static final String PREFIX = "news_items_p";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private NewsItemPartitions() {
+        // Utility class
+    }
+
+    public static LocalDate weekStart(Instant instant) {
+        return instant.atZone(ZoneOffset.UTC).toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    public static String partitionName(LocalDate weekStart) {
+        return PREFIX + SUFFIX.format(weekStart);
+    }
+
+    /**
+     * Returns the first day of the week stored in the named partition, or empty for the default partition
+     * and tables that do not follow the naming scheme.
+     */
+    public static Optional<LocalDate> weekStartOf(String partitionName) {
+        if (partitionName == null || !partitionName.startsWith(PREFIX)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(LocalDate.parse(partitionName.substring(PREFIX.length()), SUFFIX));
+        } catch (DateTimeParseException ex) {
+            return Optional.empty();
+        }
+    }
+
+    public static String createPartitionSql(LocalDate weekStart) {
+        return "CREATE TABLE IF NOT EXISTS " + partitionName(weekStart)
+            + " PARTITION OF news_items FOR VALUES FROM ('" + weekStart.atStartOfDay(ZoneOffset.UTC).toInstant()
+            + "') TO ('" + weekStart.plusWeeks(1).atStartOfDay(ZoneOffset.UTC).toInstant() + "')";
+    }
+}
@@ -1,21 +1,24 @@
 package com.novareport.reporter_service.domain;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.Instant;
-import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface NewsItemRepository extends JpaRepository<NewsItem, UUID> {
+public interface NewsItemRepository extends JpaRepository<NewsItem, UUID>, NewsItemBulkInsert, NewsItemKeyLookup {
 
-    boolean existsByHash(String hash);
+    List<NewsItem> findByPublishedAtBetweenOrderByPublishedAtDesc(Instant from, Instant to, Limit limit);
 
-    List<NewsItem> findTop10ByPublishedAtAfterOrderByPublishedAtDesc(Instant threshold);
+    List<NewsItem> findAllByPublishedAtAfterAndClusterIdIsNotNull(Instant threshold);
 
     List<NewsItem> findAllByPublishedAtBetweenOrderByPublishedAtDesc(Instant from, Instant to);
 
@@ -23,6 +26,7 @@ public interface NewsItemRepository extends JpaRepository<NewsItem, UUID> {
 
     Optional<NewsItem> findTop1ByOrderByIngestedAtDesc();
 
-    @Query("select n.hash from NewsItem n where n.hash in :hashes")
-    Set<String> findExistingHashes(@Param("hashes") Collection<String> hashes);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select n.urlKey from NewsItem n where n.ingestedAt >= :since or n.publishedAt >= :since")
+    Stream<UUID> streamUrlKeysSince(@Param("since") Instant since);
 }
@@ -0,0 +1,76 @@
+package com.novareport.reporter_service.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A {@link DailyReport} summary rendered to one output format when the report is built, stored both as
+ * UTF-8 bytes and gzip-compressed so requests can be answered without any conversion.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "report_artifacts", uniqueConstraints = {
+    @UniqueConstraint(name = "uq_report_artifacts_report_format", columnNames = {"report_id", "format"})
+})
+public class ReportArtifact {
+
+    public enum Format {
+        HTML("text/html"),
+        TEXT("text/plain");
+
+        private final String mediaType;
+
+        Format(String mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public String mediaType() {
+            return mediaType;
+        }
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @NotNull
+    @Column(name = "report_id", nullable = false)
+    private UUID reportId;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private Format format;
+
+    @NotNull
+    @Column(nullable = false)
+    private byte[] body;
+
+    @NotNull
+    @Column(name = "body_gzip", nullable = false)
+    private byte[] bodyGzip;
+
+    @NotNull
+    @Column(nullable = false, length = 64)
+    private String etag;
+
+    @NotNull
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,11 @@
+package com.novareport.reporter_service.domain;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ReportArtifactRepository extends JpaRepository<ReportArtifact, UUID> {
+
+    Optional<ReportArtifact> findByReportIdAndFormat(UUID reportId, ReportArtifact.Format format);
+}
@@ -0,0 +1,132 @@
+package com.novareport.reporter_service.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Checkpoint of a report backfill over {@code fromDate..toDate}. Every finished date is appended to
+ * {@code completedDates} as a {@code yyyy-MM-dd millis} line, so a resumed job only rebuilds what is missing.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "report_backfill_jobs")
+public class ReportBackfillJob {
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED,
+        INTERRUPTED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @NotNull
+    @Column(name = "from_date", nullable = false)
+    private LocalDate fromDate;
+
+    @NotNull
+    @Column(name = "to_date", nullable = false)
+    private LocalDate toDate;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(name = "completed_dates", columnDefinition = "TEXT")
+    private String completedDates;
+
+    @Column(name = "failed_dates", columnDefinition = "TEXT")
+    private String failedDates;
+
+    @NotNull
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @NotNull
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    @PrePersist
+    void onPersist() {
+        if (createdAt == null) {
+            createdAt = Instant.now();
+        }
+        updatedAt = Instant.now();
+    }
+
+    @PreUpdate
+    void onUpdate() {
+        updatedAt = Instant.now();
+    }
+
+    public int totalDates() {
+        return (int) (toDate.toEpochDay() - fromDate.toEpochDay()) + 1;
+    }
+
+    /**
+     * Rebuild time in milliseconds per completed date, oldest date first.
+     */
+    public SortedMap<LocalDate, Long> completedTimings() {
+        SortedMap<LocalDate, Long> timings = new TreeMap<>();
+        if (completedDates == null || completedDates.isBlank()) {
+            return timings;
+        }
+        for (String line : completedDates.split("\n")) {
+            String[] parts = line.strip().split(" ", 2);
+            if (!parts[0].isEmpty()) {
+                timings.put(LocalDate.parse(parts[0]), parts.length > 1 ? Long.parseLong(parts[1]) : 0L);
+            }
+        }
+        return timings;
+    }
+
+    public List<LocalDate> failedDateList() {
+        if (failedDates == null || failedDates.isBlank()) {
+            return List.of();
+        }
+        return failedDates.lines().filter(line -> !line.isBlank()).map(LocalDate::parse).sorted().distinct().toList();
+    }
+
+    public void recordCompleted(LocalDate date, long elapsedMillis) {
+        completedDates = append(completedDates, date + " " + elapsedMillis);
+        if (failedDates != null) {
+            failedDates = String.join("\n", failedDateList().stream().filter(failed -> !failed.equals(date)).map(LocalDate::toString).toList());
+        }
+    }
+
+    public void recordFailed(LocalDate date) {
+        failedDates = append(failedDates, date.toString());
+    }
+
+    private static String append(String lines, String line) {
+        return lines == null || lines.isBlank() ? line : lines + "\n" + line;
+    }
+}
@@ -0,0 +1,8 @@
+package com.novareport.reporter_service.domain;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface ReportBackfillJobRepository extends JpaRepository<ReportBackfillJob, UUID> {
+}
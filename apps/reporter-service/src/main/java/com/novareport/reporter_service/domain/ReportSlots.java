@@ -0,0 +1,30 @@
+package com.novareport.reporter_service.domain;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Time slots of the reports of one day.
+ * <p>
+ * A day is split into {@link #LENGTH} slots from its local midnight, matching the schedule of
+ * {@code ScheduledReportGenerator}. A report built during its own day belongs to the slot that contains the
+ * build time; a report built for an earlier day, e.g. by a backfill, belongs to that day's closing slot.
+ */
+public final class ReportSlots {
+
+    public static final Duration LENGTH = Duration.ofHours(4);
+
+    private ReportSlots() {
+        // Utility class
+    }
+
+    public static Instant slotStart(LocalDate reportDate, Instant builtAt, ZoneId zone) {
+        Instant dayStart = reportDate.atStartOfDay(zone).toInstant();
+        Instant lastInstant = reportDate.plusDays(1).atStartOfDay(zone).toInstant().minusNanos(1);
+        Instant clamped = builtAt.isBefore(dayStart) ? dayStart : builtAt.isAfter(lastInstant) ? lastInstant : builtAt;
+        long slots = Duration.between(dayStart, clamped).toNanos() / LENGTH.toNanos();
+        return dayStart.plus(LENGTH.multipliedBy(slots));
+    }
+}
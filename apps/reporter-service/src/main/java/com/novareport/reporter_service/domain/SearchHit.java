@@ -0,0 +1,28 @@
+package com.novareport.reporter_service.domain;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One full-text search hit, either a news item or a report.
+ * <p>
+ * {@code at} is the news item's {@code published_at} or the report's {@code slot_start}. Reports have no
+ * title, source or url. {@code snippet} is the matching part of the summary with matched words in
+ * {@code **bold**}, or the start of it when the database cannot highlight.
+ */
+public record SearchHit(
+    Kind kind,
+    UUID id,
+    String title,
+    String source,
+    String url,
+    String snippet,
+    Instant at,
+    float rank
+) {
+
+    public enum Kind {
+        NEWS,
+        REPORT
+    }
+}
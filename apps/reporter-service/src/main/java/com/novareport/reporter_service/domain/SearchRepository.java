@@ -0,0 +1,230 @@
+package com.novareport.reporter_service.domain;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Full-text search over news items and report summaries.
+ * <p>
+ * On PostgreSQL both tables carry a generated {@code search_vector} column with a GIN index, added by V13
+ * and written by the insert itself, so a query is a GIN lookup of {@code websearch_to_tsquery} (quoted
+ * phrases, {@code or} and {@code -word} work) ranked with {@code ts_rank}. Title words weigh more than
+ * summary words, which weigh more than the source. Snippets come from {@code ts_headline} and are only computed for the returned page.
+ * Other databases (the H2 dev profile) fall back to requiring every word of the query as a case-insensitive
+ * substring, rank every hit 0 and use the start of the summary as snippet.
+ * <p>
+ * Hits are ordered by {@code (rank, at, id)} descending, so the next page starts after the last hit's tuple.
+ * Each kind applies that position and the page size itself, and only the union of the two short lists is
+ * sorted again, so every match in the date range is a candidate and paging reaches all of them.
+ */
+@Repository
+public class SearchRepository {
+
+    static final int SNIPPET_LENGTH = 240;
+
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+
+    private static final String TS_QUERY = "websearch_to_tsquery('english', ?)";
+
+    private static final String HEADLINE_OPTIONS = "StartSel=**, StopSel=**, MinWords=15, MaxWords=35, MaxFragments=1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+
+    public SearchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Hits for {@code text} among the given kinds, news published and reports dated between {@code from} and
+     * {@code to} inclusive in the application's time zone, that come after the {@code (afterRank, afterAt,
+     * afterId)} position, or from the start when {@code afterId} is {@code null}. On PostgreSQL it should run
+     * inside a transaction, see {@link #planPerExecution}.
+     */
+    public List<SearchHit> search(
+        String text,
+        Set<SearchHit.Kind> kinds,
+        LocalDate from,
+        LocalDate to,
+        float afterRank,
+        Instant afterAt,
+        UUID afterId,
+        int limit
+    ) {
+        ZoneId zone = ZoneId.systemDefault();
+        Instant fromInstant = from.atStartOfDay(zone).toInstant();
+        Instant toInstant = to.plusDays(1).atStartOfDay(zone).toInstant();
+        return jdbcTemplate.execute((ConnectionCallback<List<SearchHit>>) connection -> {
+            boolean fullText = isPostgres(connection);
+            List<Object> parameters = new ArrayList<>();
+            List<String> branches = new ArrayList<>(2);
+            if (kinds.contains(SearchHit.Kind.NEWS)) {
+                String matches = newsMatches(fullText, text, fromInstant, toInstant, parameters);
+                branches.add(page(matches, afterRank, afterAt, afterId, limit, parameters));
+            }
+            if (kinds.contains(SearchHit.Kind.REPORT)) {
+                String matches = reportMatches(fullText, text, from, to, parameters);
+                branches.add(page(matches, afterRank, afterAt, afterId, limit, parameters));
+            }
+            if (branches.isEmpty()) {
+                return List.<SearchHit>of();
+            }
+
+            String sql = "SELECT * FROM (\n" + String.join("\nUNION ALL\n", branches) + "\n) matches\n"
+                + "ORDER BY matches.rank DESC, matches.at DESC, matches.id DESC\nLIMIT ?";
+            parameters.add(limit);
+            if (fullText) {
+                sql = "SELECT hits.kind, hits.id, hits.title, hits.source, hits.url, hits.at, hits.rank, "
+                    + "ts_headline('english', coalesce(hits.body, hits.title, ''), " + TS_QUERY + ", '" + HEADLINE_OPTIONS + "') AS snippet\n"
+                    + "FROM (\n" + sql + "\n) hits\n"
+                    + "ORDER BY hits.rank DESC, hits.at DESC, hits.id DESC";
+                parameters.add(0, text);
+                planPerExecution(connection);
+            }
+            return query(connection, sql, parameters, fullText);
+        });
+    }
+
+    /**
+     * Once the driver prepares the statement on the server, PostgreSQL may switch to a generic plan, which
+     * cannot tell a rare word from a common one or prune partitions by date. Planning each execution for its
+     * own parameters is far cheaper. The setting is undone when the transaction ends; outside a transaction
+     * {@code SET LOCAL} has no effect, so nothing is set there.
+     */
+    private static void planPerExecution(Connection connection) throws SQLException {
+        if (connection.getAutoCommit()) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET LOCAL plan_cache_mode = force_custom_plan");
+        }
+    }
+
+    /**
+     * The first {@code limit} of {@code matches} after the {@code (afterRank, afterAt, afterId)} position,
+     * best first.
+     */
+    private static String page(String matches, float afterRank, Instant afterAt, UUID afterId, int limit, List<Object> parameters) {
+        StringBuilder page = new StringBuilder("SELECT * FROM (\nSELECT * FROM (\n").append(matches).append("\n) m\n");
+        if (afterId != null) {
+            page.append("WHERE (m.rank, m.at, m.id) < (?, ?, ?)\n");
+            parameters.add(afterRank);
+            parameters.add(toOffsetDateTime(afterAt));
+            parameters.add(afterId);
+        }
+        page.append("ORDER BY m.rank DESC, m.at DESC, m.id DESC\nLIMIT ?\n) p");
+        parameters.add(limit);
+        return page.toString();
+    }
+
+    private static String newsMatches(boolean fullText, String text, Instant from, Instant to, List<Object> parameters) {
+        String select = "SELECT 'NEWS' AS kind, n.id, n.title, n.source, n.url, n.summary AS body, n.published_at AS at, "
+            + rank(fullText, "n", text, parameters);
+        String where = match(fullText, "n", "n.title || ' ' || coalesce(n.summary, '') || ' ' || n.source", text, parameters)
+            + " AND n.published_at >= ? AND n.published_at < ?";
+        parameters.add(toOffsetDateTime(from));
+        parameters.add(toOffsetDateTime(to));
+        return select + "\nFROM news_items n\nWHERE " + where;
+    }
+
+    private static String reportMatches(boolean fullText, String text, LocalDate from, LocalDate to, List<Object> parameters) {
+        String select = "SELECT 'REPORT' AS kind, r.id, CAST(NULL AS TEXT) AS title, CAST(NULL AS TEXT) AS source, "
+            + "CAST(NULL AS TEXT) AS url, r.summary AS body, r.slot_start AS at, " + rank(fullText, "r", text, parameters);
+        String where = match(fullText, "r", "r.summary", text, parameters) + " AND r.report_date BETWEEN ? AND ?";
+        parameters.add(from);
+        parameters.add(to);
+        return select + "\nFROM daily_reports r\nWHERE " + where;
+    }
+
+    private static String match(boolean fullText, String alias, String fallbackText, String text, List<Object> parameters) {
+        if (!fullText) {
+            return containsEveryWord(fallbackText, text, parameters);
+        }
+        parameters.add(text);
+        return alias + ".search_vector @@ " + TS_QUERY;
+    }
+
+    private static String rank(boolean fullText, String alias, String text, List<Object> parameters) {
+        if (!fullText) {
+            return "CAST(0 AS REAL) AS rank";
+        }
+        parameters.add(text);
+        return "ts_rank(" + alias + ".search_vector, " + TS_QUERY + ") AS rank";
+    }
+
+    private static String containsEveryWord(String column, String text, List<Object> parameters) {
+        List<String> conditions = new ArrayList<>();
+        Matcher word = WORD.matcher(text.toLowerCase(Locale.ROOT));
+        while (word.find()) {
+            conditions.add("lower(" + column + ") LIKE ?");
+            parameters.add("%" + word.group() + "%");
+        }
+        return conditions.isEmpty() ? "1 = 0" : "(" + String.join(" AND ", conditions) + ")";
+    }
+
+    private static List<SearchHit> query(Connection connection, String sql, List<Object> parameters, boolean highlighted)
+        throws SQLException {
+        List<SearchHit> hits = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    String snippet = highlighted ? rows.getString("snippet") : excerpt(rows.getString("body"), rows.getString("title"));
+                    hits.add(new SearchHit(
+                        SearchHit.Kind.valueOf(rows.getString("kind")),
+                        rows.getObject("id", UUID.class),
+                        rows.getString("title"),
+                        rows.getString("source"),
+                        rows.getString("url"),
+                        snippet,
+                        rows.getObject("at", OffsetDateTime.class).toInstant(),
+                        rows.getFloat("rank")
+                    ));
+                }
+            }
+        }
+        return hits;
+    }
+
+    private static String excerpt(String body, String title) {
+        String text = body == null ? title : body;
+        if (text == null || text.length() <= SNIPPET_LENGTH) {
+            return text;
+        }
+        return text.substring(0, SNIPPET_LENGTH).stripTrailing() + "…";
+    }
+
+    private boolean isPostgres(Connection connection) throws SQLException {
+        Boolean result = postgres;
+        if (result == null) {
+            result = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+            postgres = result;
+        }
+        return result;
+    }
+
+    private static OffsetDateTime toOffsetDateTime(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,79 @@
+package com.novareport.reporter_service.domain;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+/**
+ * Model summaries by the hash of their inputs, shared by every instance. Rows are only inserted, the first
+ * summary stored under a key wins, and old rows are evicted by age and by count.
+ */
+@Repository
+public class SummaryCacheRepository {
+
+    private static final String FIND = """
+        SELECT summary, created_at FROM summary_cache
+        WHERE cache_key = ? AND created_at >= ?
+        """;
+
+    private static final String INSERT = """
+        INSERT INTO summary_cache (cache_key, model, summary, created_at)
+        VALUES (?, ?, ?, ?)
+        ON CONFLICT DO NOTHING
+        """;
+
+    private static final String DELETE_EXPIRED = "DELETE FROM summary_cache WHERE created_at < ?";
+
+    private static final String DELETE_OLDEST = """
+        DELETE FROM summary_cache
+        WHERE cache_key IN (
+            SELECT cache_key FROM summary_cache
+            ORDER BY created_at DESC, cache_key
+            OFFSET ? ROWS
+        )
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SummaryCacheRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * The summary stored under {@code key} at or after {@code notBefore}.
+     */
+    public Optional<CachedSummary> find(String key, Instant notBefore) {
+        return jdbcTemplate.query(FIND, (row, rowNum) -> new CachedSummary(
+                row.getString("summary"),
+                row.getObject("created_at", OffsetDateTime.class).toInstant()
+            ), key, utc(notBefore))
+            .stream()
+            .findFirst();
+    }
+
+    /**
+     * Stores a summary unless {@code key} already has one.
+     */
+    public void insert(String key, String model, String summary, Instant createdAt) {
+        jdbcTemplate.update(INSERT, key, model, summary, utc(createdAt));
+    }
+
+    /**
+     * Deletes summaries created before {@code expiredBefore} and all but the newest {@code maxEntries} of the
+     * rest, and returns how many were deleted.
+     */
+    public int evict(Instant expiredBefore, int maxEntries) {
+        return jdbcTemplate.update(DELETE_EXPIRED, utc(expiredBefore)) + jdbcTemplate.update(DELETE_OLDEST, maxEntries);
+    }
+
+    private static OffsetDateTime utc(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+
+    public record CachedSummary(String summary, Instant createdAt) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.novareport.reporter_service.dto;
+
+import java.util.List;
+
+/**
+ * One slice of the report listing; {@code nextCursor} is {@code null} on the last slice.
+ */
+public record CursorDailyReportsResponse(
+    List<DailyReportResponse> content,
+    int size,
+    String nextCursor
+) {
+
+    public CursorDailyReportsResponse {
+        content = content == null ? List.of() : List.copyOf(content);
+    }
+}
@@ -1,6 +1,8 @@
 package com.novareport.reporter_service.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.novareport.reporter_service.domain.DailyReport;
+import com.novareport.reporter_service.domain.DailyReportHeader;
 
 import java.time.Instant;
 import java.time.LocalDate;
@@ -9,15 +11,27 @@
 public record DailyReportResponse(
     UUID id,
     LocalDate reportDate,
-    String summary,
+    Instant slotStart,
+    @JsonInclude(JsonInclude.Include.NON_NULL) String summary,
     Instant createdAt
 ) {
     public static DailyReportResponse fromEntity(DailyReport report) {
         return new DailyReportResponse(
             report.getId(),
             report.getReportDate(),
+            report.getSlotStart(),
             report.getSummary(),
             report.getCreatedAt()
         );
     }
+
+    public static DailyReportResponse fromHeader(DailyReportHeader header) {
+        return new DailyReportResponse(
+            header.getId(),
+            header.getReportDate(),
+            header.getSlotStart(),
+            null,
+            header.getCreatedAt()
+        );
+    }
 }
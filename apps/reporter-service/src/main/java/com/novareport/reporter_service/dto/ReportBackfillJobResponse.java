@@ -0,0 +1,48 @@
+package com.novareport.reporter_service.dto;
+
+import com.novareport.reporter_service.domain.ReportBackfillJob;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public record ReportBackfillJobResponse(
+    UUID id,
+    LocalDate from,
+    LocalDate to,
+    String status,
+    int totalDates,
+    int completedDates,
+    List<LocalDate> failedDates,
+    List<DateTiming> timings,
+    Instant createdAt,
+    Instant finishedAt
+) {
+
+    public ReportBackfillJobResponse {
+        failedDates = failedDates == null ? List.of() : List.copyOf(failedDates);
+        timings = timings == null ? List.of() : List.copyOf(timings);
+    }
+
+    public static ReportBackfillJobResponse fromEntity(ReportBackfillJob job) {
+        List<DateTiming> timings = job.completedTimings().entrySet().stream()
+            .map(entry -> new DateTiming(entry.getKey(), entry.getValue()))
+            .toList();
+        return new ReportBackfillJobResponse(
+            job.getId(),
+            job.getFromDate(),
+            job.getToDate(),
+            job.getStatus().name(),
+            job.totalDates(),
+            timings.size(),
+            job.failedDateList(),
+            timings,
+            job.getCreatedAt(),
+            job.getFinishedAt()
+        );
+    }
+
+    public record DateTiming(LocalDate date, long elapsedMs) {
+    }
+}
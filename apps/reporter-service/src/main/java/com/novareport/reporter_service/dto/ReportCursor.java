@@ -0,0 +1,32 @@
+package com.novareport.reporter_service.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Position in the report listing, after the report with this {@code (reportDate, slotStart)}. Clients only
+ * see it as an opaque base64url token and hand it back unchanged.
+ */
+public record ReportCursor(LocalDate reportDate, Instant slotStart) {
+
+    public String encode() {
+        String raw = reportDate + "|" + slotStart;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ReportCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("cursor is invalid");
+            }
+            return new ReportCursor(LocalDate.parse(raw.substring(0, separator)), Instant.parse(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeException ex) {
+            throw new IllegalArgumentException("cursor is invalid", ex);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.novareport.reporter_service.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a search result, after the hit with this {@code (rank, at, id)}. Clients only see it as an
+ * opaque base64url token and hand it back unchanged with the same query.
+ */
+public record SearchCursor(float rank, Instant at, UUID id) {
+
+    public String encode() {
+        String raw = rank + "|" + at + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SearchCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("cursor is invalid");
+            }
+            return new SearchCursor(Float.parseFloat(parts[0]), Instant.parse(parts[1]), UUID.fromString(parts[2]));
+        } catch (IllegalArgumentException | DateTimeException ex) {
+            throw new IllegalArgumentException("cursor is invalid", ex);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.novareport.reporter_service.dto;
+
+import com.novareport.reporter_service.domain.SearchHit;
+
+import java.util.List;
+
+/**
+ * One slice of search hits, best match first; {@code nextCursor} is {@code null} on the last slice.
+ */
+public record SearchResponse(
+    List<SearchHit> content,
+    int size,
+    String nextCursor
+) {
+
+    public SearchResponse {
+        content = content == null ? List.of() : List.copyOf(content);
+    }
+}
@@ -5,6 +5,7 @@
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -16,12 +17,37 @@ public class AiSummarizerStub implements DailyReportService.AiSummarizerService
     private static final Logger log = LoggerFactory.getLogger(AiSummarizerStub.class);
 
     @Override
-    public String summarize(LocalDate date, List<String> headlines) {
+    public Mono<String> summarize(LocalDate date, List<String> headlines) {
         log.info(
             "AI summarizer stub invoked for {} with {} headlines",
             LogSanitizer.sanitize(date),
             headlines.size()
         );
-        return "[AI integration pending] Dagens rubriker: " + String.join(", ", headlines);
+        return Mono.just("[AI integration pending] Dagens rubriker: " + String.join(", ", headlines));
+    }
+
+    @Override
+    public Mono<String> summarizeUpdate(LocalDate date, String reportContext, List<String> newHeadlines) {
+        log.info(
+            "AI summarizer stub update invoked for {} with {} new headlines",
+            LogSanitizer.sanitize(date),
+            newHeadlines.size()
+        );
+        return Mono.just("[AI integration pending] Nya rubriker: " + String.join(", ", newHeadlines));
+    }
+
+    @Override
+    public Mono<String> summarizeBatches(LocalDate date, List<List<String>> batches, int concurrency) {
+        log.info(
+            "AI summarizer stub map-reduce invoked for {} with {} batches",
+            LogSanitizer.sanitize(date),
+            batches.size()
+        );
+        return summarize(date, batches.stream().flatMap(List::stream).toList());
+    }
+
+    @Override
+    public String model() {
+        return "stub";
     }
 }
@@ -1,116 +1,459 @@
 package com.novareport.reporter_service.service;
 
+import com.novareport.reporter_service.config.DeltaProperties;
+import com.novareport.reporter_service.config.MapReduceProperties;
 import com.novareport.reporter_service.config.ReporterProperties;
 import com.novareport.reporter_service.domain.DailyReport;
 import com.novareport.reporter_service.domain.DailyReportRepository;
 import com.novareport.reporter_service.domain.NewsItem;
 import com.novareport.reporter_service.domain.NewsItemRepository;
+import com.novareport.reporter_service.domain.ReportSlots;
+import com.novareport.reporter_service.dto.DailyReportResponse;
+import com.novareport.reporter_service.dto.ReportCursor;
 import com.novareport.reporter_service.util.LogSanitizer;
+import com.novareport.reporter_service.util.TokenEstimator;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class DailyReportService {
 
     private static final Logger log = LoggerFactory.getLogger(DailyReportService.class);
+    private static final int MAX_ITEMS = 100;
+    private static final String NO_NEWS_SUMMARY =
+        "No news items available. This may be due to temporary issues reaching external news sources.";
+    /**
+     * How much of the previous report an update sends as context: enough for its executive summary.
+     */
+    static final int UPDATE_CONTEXT_CHARS = 1500;
+    private static final DateTimeFormatter UPDATE_TIME = DateTimeFormatter.ofPattern("HH:mm");
 
     private final DailyReportRepository dailyReportRepository;
     private final NewsItemRepository newsItemRepository;
     private final ReporterProperties properties;
     private final FakeSummaryService fakeSummaryService;
     private final AiSummarizerService aiSummarizerService;
+    private final ReportReadCache readCache;
+    private final ReportArtifactService artifactService;
+    private final DeltaProperties deltaProperties;
+    private final MapReduceProperties mapReduceProperties;
+    private final PromptPacker promptPacker;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final Map<BuildMode, Timer> buildTimers = new EnumMap<>(BuildMode.class);
+    private final DistributionSummary tokensSaved;
 
     public DailyReportService(
         DailyReportRepository dailyReportRepository,
         NewsItemRepository newsItemRepository,
         ReporterProperties properties,
         FakeSummaryService fakeSummaryService,
-        AiSummarizerService aiSummarizerService
+        AiSummarizerService aiSummarizerService,
+        ReportReadCache readCache,
+        ReportArtifactService artifactService,
+        DeltaProperties deltaProperties,
+        MapReduceProperties mapReduceProperties,
+        PromptPacker promptPacker,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry
     ) {
         this.dailyReportRepository = dailyReportRepository;
         this.newsItemRepository = newsItemRepository;
         this.properties = properties;
         this.fakeSummaryService = fakeSummaryService;
         this.aiSummarizerService = aiSummarizerService;
+        this.readCache = readCache;
+        this.artifactService = artifactService;
+        this.deltaProperties = deltaProperties;
+        this.mapReduceProperties = mapReduceProperties;
+        this.promptPacker = promptPacker;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        for (BuildMode mode : BuildMode.values()) {
+            buildTimers.put(mode, Timer.builder("reporter.reports.build")
+                .description("Report builds by how the summary was produced")
+                .tag("mode", mode.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry));
+        }
+        this.tokensSaved = DistributionSummary.builder("reporter.reports.summary.tokens_saved")
+            .description("Estimated model tokens an incremental build saved over rewriting the report")
+            .baseUnit("tokens")
+            .register(meterRegistry);
     }
 
     @Transactional(readOnly = true)
     public Optional<DailyReport> findLatest() {
-        return dailyReportRepository.findTop1ByOrderByReportDateDesc();
+        return dailyReportRepository.findTop1ByOrderByReportDateDescSlotStartDesc();
     }
 
+    /**
+     * Every slot report of a date, newest first. Without {@code includeSummary} only the report headers are
+     * loaded.
+     */
     @Transactional(readOnly = true)
-    public Optional<DailyReport> findByDate(LocalDate date) {
-        return dailyReportRepository.findByReportDate(date);
+    public List<DailyReportResponse> findSlots(LocalDate date, boolean includeSummary) {
+        if (includeSummary) {
+            return dailyReportRepository.findByReportDateOrderBySlotStartDesc(date).stream()
+                .map(DailyReportResponse::fromEntity)
+                .toList();
+        }
+        return dailyReportRepository.findSlotsByReportDateOrderBySlotStartDesc(date).stream()
+            .map(DailyReportResponse::fromHeader)
+            .toList();
     }
 
     @Transactional(readOnly = true)
     public Page<DailyReport> findBetween(LocalDate from, LocalDate to, Pageable pageable) {
-        return dailyReportRepository.findAllByReportDateBetweenOrderByReportDateDesc(from, to, pageable);
+        return dailyReportRepository.findAllByReportDateBetweenOrderByReportDateDescSlotStartDesc(from, to, pageable);
     }
 
-    @Transactional
-    public DailyReport buildReport(LocalDate reportDate) {
-        DailyReport report = dailyReportRepository.findByReportDate(reportDate)
-            .orElseGet(() -> {
-                DailyReport created = new DailyReport();
-                created.setReportDate(reportDate);
-                return created;
-            });
-
-        String summary = generateSummary(reportDate);
-        report.setSummary(summary);
-        report.setCreatedAt(Instant.now());
-        DailyReport saved = dailyReportRepository.save(report);
-        log.info(
-            "Built report for {} with summary length {} chars",
-            LogSanitizer.sanitize(reportDate),
-            summary.length()
-        );
-        return saved;
+    /**
+     * Keyset slice of the reports between two dates, newest first and ordered by {@code (reportDate, slotStart)}.
+     * Reads one row past {@code size} to tell whether more follow, so no count query is needed. Without
+     * {@code includeSummary} only the report headers are loaded.
+     */
+    @Transactional(readOnly = true)
+    public Window<DailyReportResponse> scrollBetween(LocalDate from, LocalDate to, ReportCursor after, int size, boolean includeSummary) {
+        // The first slice starts after a position past the whole range, so both slices share one query.
+        LocalDate afterDate = after == null ? to.plusDays(1) : after.reportDate();
+        Instant afterSlot = after == null ? Instant.EPOCH : after.slotStart();
+        Limit limit = Limit.of(size + 1);
+        List<DailyReportResponse> rows = includeSummary
+            ? dailyReportRepository.findPageAfter(from, to, afterDate, afterSlot, limit).stream()
+                .map(DailyReportResponse::fromEntity)
+                .toList()
+            : dailyReportRepository.findHeaderPageAfter(from, to, afterDate, afterSlot, limit).stream()
+                .map(DailyReportResponse::fromHeader)
+                .toList();
+        boolean hasNext = rows.size() > size;
+        return Window.from(hasNext ? rows.subList(0, size) : rows, ScrollPosition::offset, hasNext);
+    }
+
+    /**
+     * Builds the report of the current slot of {@code reportDate}. The day's first report is written from its
+     * headlines; later ones start from the day's latest report and only summarize the news ingested since it
+     * was built:
+     * <ul>
+     *     <li>with nothing new the latest report is kept and no summary is produced at all;</li>
+     *     <li>with a few new headlines the summarizer writes a short update, given only the start of the
+     *     latest report as context, which is appended to that report;</li>
+     *     <li>with more than {@code reporter.delta.max-new-headlines} the report is rewritten, since an
+     *     update would cost about as much.</li>
+     * </ul>
+     * Updates chain at most through one day's slots, so a report never drifts far from a full rewrite.
+     * <p>
+     * Not transactional itself: the news and the latest report are read in one read-only transaction, the
+     * summarizer runs outside of any, and the report is stored in a transaction of its own, so no database
+     * connection is held while the model works.
+     */
+    public ReportBuild buildReport(LocalDate reportDate) {
+        long start = System.nanoTime();
+        BuildInput input = Optional.ofNullable(readTransaction.execute(status -> readInput(reportDate))).orElseThrow();
+
+        ReportBuild build;
+        if (input.previous() == null || input.newHeadlines().size() > deltaProperties.resolvedMaxNewHeadlines()) {
+            String summary = summarize(reportDate, input.headlines());
+            build = new ReportBuild(inWriteTransaction(reportDate, summary), BuildMode.FULL);
+        } else if (input.newHeadlines().isEmpty()) {
+            DailyReport previous = input.previous();
+            log.info("No news since the report of {} slot {}, keeping it", LogSanitizer.sanitize(reportDate), previous.getSlotStart());
+            recordTokensSaved(rewriteTokens(input.headlines(), previous), 0);
+            build = new ReportBuild(previous, BuildMode.UNCHANGED);
+        } else {
+            build = appendUpdate(reportDate, input);
+        }
+        buildTimers.get(build.mode()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return build;
+    }
+
+    /**
+     * The day's prompt headlines and, with delta builds on, the day's latest report and the headlines
+     * ingested since it was built.
+     */
+    private BuildInput readInput(LocalDate reportDate) {
+        List<NewsItem> items = recentItems(reportDate);
+        List<String> headlines = promptHeadlines(items);
+        Optional<DailyReport> latest = deltaProperties.enabled()
+            ? dailyReportRepository.findTop1ByReportDateOrderBySlotStartDesc(reportDate)
+                .filter(report -> !NO_NEWS_SUMMARY.equals(report.getSummary()))
+            : Optional.empty();
+        if (latest.isEmpty()) {
+            return new BuildInput(headlines, null, List.of());
+        }
+        DailyReport previous = latest.get();
+        List<String> newHeadlines = promptHeadlines(items.stream()
+            .filter(item -> item.getIngestedAt() != null && item.getIngestedAt().isAfter(previous.getCreatedAt()))
+            .toList());
+        return new BuildInput(headlines, previous, newHeadlines);
     }
 
-    private String generateSummary(LocalDate reportDate) {
+    /**
+     * Appends a short update on the new headlines to the latest report and stores it as the current slot's
+     * report. Like a full summary, the update is written before the store transaction starts.
+     */
+    private ReportBuild appendUpdate(LocalDate reportDate, BuildInput input) {
+        DailyReport previous = input.previous();
+        String context = updateContext(previous.getSummary());
+        String update = properties.fakeAi()
+            ? fakeSummaryService.buildSummary(reportDate, input.newHeadlines())
+            : aiSummarizerService.summarizeUpdate(reportDate, context, input.newHeadlines()).blockOptional().orElse("");
+        recordTokensSaved(rewriteTokens(input.headlines(), previous),
+            TokenEstimator.estimateAll(input.newHeadlines()) + TokenEstimator.estimate(context) + TokenEstimator.estimate(update));
+        Instant slotStart = ReportSlots.slotStart(reportDate, Instant.now(), ZoneId.systemDefault());
+        String summary = previous.getSummary() + "\n\n## Update "
+            + UPDATE_TIME.format(slotStart.atZone(ZoneId.systemDefault())) + "\n\n" + update;
+        return new ReportBuild(inWriteTransaction(reportDate, summary), BuildMode.DELTA);
+    }
+
+    /**
+     * Prompt headlines from the report date's own window: the {@code dedupWindow} ending at the close of
+     * that day, or now for today. Rebuilding an old date therefore sees the news of that date.
+     */
+    @Transactional(readOnly = true)
+    public List<String> headlinesFor(LocalDate reportDate) {
+        return promptHeadlines(recentItems(reportDate));
+    }
+
+    private List<NewsItem> recentItems(LocalDate reportDate) {
         Duration window = properties.dedupWindow();
-        Instant threshold = Instant.now().minus(window);
-        List<NewsItem> recentItems = newsItemRepository.findTop10ByPublishedAtAfterOrderByPublishedAtDesc(threshold);
+        Instant dayEnd = reportDate.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant();
+        Instant now = Instant.now();
+        Instant to = dayEnd.isBefore(now) ? dayEnd : now;
+        int itemLimit = mapReduceProperties.enabled() ? mapReduceProperties.resolvedMaxItems() : MAX_ITEMS;
+        List<NewsItem> recentItems = newsItemRepository.findByPublishedAtBetweenOrderByPublishedAtDesc(
+            to.minus(window), to, Limit.of(itemLimit));
         if (recentItems.isEmpty()) {
             log.warn(
                 "No news items found within {} hours for report {}",
                 window.toHours(),
                 LogSanitizer.sanitize(reportDate)
             );
-            return "No news items available. This may be due to temporary issues reaching external news sources.";
         }
+        return recentItems;
+    }
 
-        List<String> headlines = recentItems.stream()
-            .sorted(Comparator.comparing(NewsItem::getPublishedAt).reversed())
-            .map(item -> String.format("%s (%s)", item.getTitle(), item.getSource()))
-            .collect(Collectors.toList());
-
+    /**
+     * Runs the configured summarizer outside of any transaction, so no connection is held while the model
+     * works. In map-reduce mode, headlines over one prompt's token budget are summarized in batches.
+     */
+    public String summarize(LocalDate reportDate, List<String> headlines) {
+        if (headlines.isEmpty()) {
+            return NO_NEWS_SUMMARY;
+        }
         if (properties.fakeAi()) {
             return fakeSummaryService.buildSummary(reportDate, headlines);
         }
-        return aiSummarizerService.summarize(reportDate, headlines);
+        int tokenBudget = promptPacker.tokenBudget(aiSummarizerService.model());
+        if (mapReduceProperties.enabled() && PromptPacker.tokens(headlines) > tokenBudget) {
+            return aiSummarizerService.summarizeBatches(
+                reportDate,
+                batches(headlines, tokenBudget, mapReduceProperties.resolvedBatchSize()),
+                mapReduceProperties.resolvedConcurrency()
+            ).blockOptional().orElse("");
+        }
+        return aiSummarizerService.summarize(reportDate, headlines).blockOptional().orElse("");
+    }
+
+    /**
+     * Stores the report of the current {@link ReportSlots slot} of {@code reportDate}. A slot that already has
+     * a report is rebuilt in place: its row keeps its id and artifacts and gets the new summary and build time.
+     */
+    @Transactional
+    public DailyReport saveReport(LocalDate reportDate, String summary) {
+        Instant now = Instant.now();
+        Instant slotStart = ReportSlots.slotStart(reportDate, now, ZoneId.systemDefault());
+        DailyReport report = dailyReportRepository.findByReportDateAndSlotStart(reportDate, slotStart).orElseGet(() -> {
+            DailyReport created = new DailyReport();
+            created.setReportDate(reportDate);
+            created.setSlotStart(slotStart);
+            return created;
+        });
+        report.setSummary(summary);
+        report.setCreatedAt(now);
+        DailyReport saved = dailyReportRepository.save(report);
+        artifactService.render(saved);
+        readCache.invalidate();
+        log.info(
+            "Built report for {} slot {} with summary length {} chars",
+            LogSanitizer.sanitize(reportDate),
+            slotStart,
+            summary.length()
+        );
+        return saved;
+    }
+
+    /**
+     * {@link #saveReport} in a transaction of its own, since calls from within this class bypass its proxy.
+     */
+    private DailyReport inWriteTransaction(LocalDate reportDate, String summary) {
+        return Optional.ofNullable(writeTransaction.execute(status -> saveReport(reportDate, summary))).orElseThrow();
+    }
+
+    /**
+     * Model tokens a rewrite would have taken: the day's headlines in, and about as much text as the previous
+     * report out. Prompt instructions are left out on both sides.
+     */
+    private long rewriteTokens(List<String> headlines, DailyReport previous) {
+        return TokenEstimator.estimateAll(headlines) + TokenEstimator.estimate(previous.getSummary());
+    }
+
+    private void recordTokensSaved(long rewriteTokens, long usedTokens) {
+        if (properties.fakeAi()) {
+            return;
+        }
+        tokensSaved.record(Math.max(0, rewriteTokens - usedTokens));
+    }
+
+    /**
+     * The start of the report, cut at a paragraph break where possible so the model sees whole paragraphs.
+     */
+    static String updateContext(String summary) {
+        if (summary.length() <= UPDATE_CONTEXT_CHARS) {
+            return summary;
+        }
+        String start = summary.substring(0, UPDATE_CONTEXT_CHARS);
+        int paragraph = start.lastIndexOf("\n\n");
+        return (paragraph > 0 ? start.substring(0, paragraph) : start).stripTrailing();
+    }
+
+    /**
+     * The stories of {@code items} that fit the model's prompt token budget, see {@link PromptPacker}. In
+     * map-reduce mode they may fill as many prompts as run at once, up to
+     * {@code reporter.map-reduce.max-headlines} stories.
+     */
+    private List<String> promptHeadlines(List<NewsItem> items) {
+        int tokenBudget = promptPacker.tokenBudget(aiSummarizerService.model());
+        int maxEntries = Integer.MAX_VALUE;
+        if (mapReduceProperties.enabled()) {
+            tokenBudget *= mapReduceProperties.resolvedConcurrency();
+            maxEntries = mapReduceProperties.resolvedMaxHeadlines();
+        }
+        return promptPacker.pack(stories(items), tokenBudget, maxEntries, Instant.now());
+    }
+
+    /**
+     * Consecutive batches of headlines, newest first like the headlines, each within {@code tokenBudget}
+     * tokens and at most {@code batchSize} headlines.
+     */
+    static List<List<String>> batches(List<String> headlines, int tokenBudget, int batchSize) {
+        List<List<String>> batches = new ArrayList<>();
+        List<String> batch = new ArrayList<>();
+        int batchTokens = 0;
+        for (String headline : headlines) {
+            int tokens = PromptPacker.tokens(List.of(headline));
+            if (!batch.isEmpty() && (batchTokens + tokens > tokenBudget || batch.size() >= batchSize)) {
+                batches.add(List.copyOf(batch));
+                batch.clear();
+                batchTokens = 0;
+            }
+            batch.add(headline);
+            batchTokens += tokens;
+        }
+        if (!batch.isEmpty()) {
+            batches.add(List.copyOf(batch));
+        }
+        return batches;
+    }
+
+    /**
+     * One story per cluster, newest first, told by the cluster's newest item, so copies of one story from
+     * several outlets take a single entry that names every source.
+     */
+    private static List<PromptPacker.Story> stories(List<NewsItem> items) {
+        Map<Object, List<NewsItem>> clusters = new LinkedHashMap<>();
+        items.stream()
+            .sorted(Comparator.comparing(NewsItem::getPublishedAt).reversed())
+            .forEach(item -> clusters
+                .computeIfAbsent(item.getClusterId() != null ? item.getClusterId() : item, key -> new ArrayList<>())
+                .add(item));
+
+        return clusters.values().stream()
+            .map(cluster -> new PromptPacker.Story(
+                cluster.get(0).getTitle(),
+                cluster.stream().map(NewsItem::getSource).distinct().toList(),
+                cluster.stream()
+                    .map(NewsItem::getSummary)
+                    .filter(summary -> summary != null && !summary.isBlank())
+                    .findFirst()
+                    .orElse(null),
+                cluster.get(0).getPublishedAt()
+            ))
+            .toList();
     }
 
     public interface FakeSummaryService {
         String buildSummary(LocalDate date, List<String> headlines);
     }
 
+    /**
+     * Summaries are produced asynchronously. Implementations bound every call with their own deadline and
+     * complete with a fallback text instead of an error, so callers may block on the result.
+     */
     public interface AiSummarizerService {
-        String summarize(LocalDate date, List<String> headlines);
+        Mono<String> summarize(LocalDate date, List<String> headlines);
+
+        /**
+         * A short section on {@code newHeadlines} to append to a report that starts with {@code reportContext}.
+         */
+        Mono<String> summarizeUpdate(LocalDate date, String reportContext, List<String> newHeadlines);
+
+        /**
+         * A report on more headlines than fit one prompt: every batch is summarized on its own, at most
+         * {@code concurrency} at a time, and the partial summaries are combined into the report.
+         */
+        Mono<String> summarizeBatches(LocalDate date, List<List<String>> batches, int concurrency);
+
+        /**
+         * Name of the model, which selects its prompt token budget.
+         */
+        String model();
+    }
+
+    /**
+     * What a build reads from the database. {@code previous} is the report an update would extend, or
+     * {@code null} when the report is written from scratch.
+     */
+    private record BuildInput(List<String> headlines, DailyReport previous, List<String> newHeadlines) {
+    }
+
+    public enum BuildMode {
+        /** Summarized from all of the day's headlines. */
+        FULL,
+        /** The previous report with an update on the new headlines appended. */
+        DELTA,
+        /** Nothing new since the previous report, which is returned as is. */
+        UNCHANGED
+    }
+
+    public record ReportBuild(DailyReport report, BuildMode mode) {
     }
 }
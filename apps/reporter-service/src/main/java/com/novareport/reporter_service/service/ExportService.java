@@ -0,0 +1,54 @@
+package com.novareport.reporter_service.service;
+
+import com.novareport.reporter_service.config.ExportProperties;
+import com.novareport.reporter_service.domain.ExportRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bulk exports for analytics, streamed as NDJSON instead of paged, see {@link ExportRepository}.
+ */
+@Service
+public class ExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportService.class);
+
+    private final ExportRepository exportRepository;
+    private final ExportProperties properties;
+
+    public ExportService(ExportRepository exportRepository, ExportProperties properties) {
+        this.exportRepository = exportRepository;
+        this.properties = properties;
+    }
+
+    /**
+     * Writes every row of {@code dataset} between {@code from} and {@code to} to {@code out}, gzip-compressed
+     * when asked, and returns the row count. The read-only transaction is what lets PostgreSQL stream through
+     * a cursor; it stays open for the whole export.
+     */
+    @Transactional(readOnly = true)
+    public long export(ExportRepository.Dataset dataset, LocalDate from, LocalDate to, boolean gzip, OutputStream out)
+        throws IOException {
+        long start = System.nanoTime();
+        long rows;
+        if (gzip) {
+            GZIPOutputStream compressed = new GZIPOutputStream(out, 8192);
+            rows = exportRepository.writeNdjson(dataset, from, to, properties.resolvedFetchSize(), compressed);
+            compressed.finish();
+        } else {
+            rows = exportRepository.writeNdjson(dataset, from, to, properties.resolvedFetchSize(), out);
+        }
+        out.flush();
+        log.info("Exported {} {} rows between {} and {} in {} ms",
+            rows, dataset, from, to, Duration.ofNanos(System.nanoTime() - start).toMillis());
+        return rows;
+    }
+}
@@ -0,0 +1,120 @@
+package com.novareport.reporter_service.service;
+
+import com.novareport.reporter_service.config.PollingProperties;
+import com.novareport.reporter_service.domain.FeedState;
+import com.novareport.reporter_service.util.LogSanitizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides when each RSS feed is polled next.
+ * <p>
+ * The poll interval follows the feed's observed update rate: a poll that finds new entries halves it,
+ * a poll that finds nothing new stretches it by half, always within the configured bounds and never
+ * below the feed's own {@code <ttl>} hint. A failed poll backs off exponentially from the current
+ * interval; after {@code quarantineAfterFailures} failures in a row the feed is quarantined and only
+ * retried after the quarantine period. Every next poll time is jittered so feeds drift apart instead of
+ * being fetched in bursts, and feeds that are due when the service starts get a random first poll within
+ * their interval.
+ */
+@Component
+public class FeedPollPolicy {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedPollPolicy.class);
+
+    private final PollingProperties properties;
+
+    public FeedPollPolicy(PollingProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Feeds without a scheduled poll (new or never fetched successfully) are due immediately.
+     */
+    public boolean isDue(FeedState state, Instant now) {
+        return state == null || state.getNextPollAt() == null || !state.getNextPollAt().isAfter(now);
+    }
+
+    /**
+     * When a feed is polled first after startup: at its scheduled time if that is still ahead, otherwise
+     * at a random offset within its poll interval, so that new and overdue feeds are spread over one
+     * interval instead of all being fetched on the first tick.
+     */
+    public Instant firstPollAt(FeedState state, Instant now) {
+        if (state != null && state.getNextPollAt() != null && state.getNextPollAt().isAfter(now)) {
+            return state.getNextPollAt();
+        }
+        Duration interval = state == null ? properties.resolvedInitialInterval() : currentInterval(state);
+        return now.plusMillis(ThreadLocalRandom.current().nextLong(Math.max(1, interval.toMillis())));
+    }
+
+    public void onSuccess(FeedState state, int newEntries, Duration ttl, Instant now) {
+        if (ttl != null) {
+            state.setTtlMinutes((int) Math.min(Integer.MAX_VALUE, ttl.toMinutes()));
+        }
+
+        Duration interval = currentInterval(state);
+        interval = newEntries > 0 ? interval.dividedBy(2) : interval.plus(interval.dividedBy(2));
+        interval = clamp(interval, state);
+
+        state.setConsecutiveFailures(0);
+        state.setPollIntervalSeconds(interval.toSeconds());
+        state.setNextPollAt(now.plus(jittered(interval)));
+    }
+
+    public void onFailure(FeedState state, Instant now) {
+        int failures = state.getConsecutiveFailures() + 1;
+        state.setConsecutiveFailures(failures);
+
+        Duration quarantine = properties.resolvedQuarantine();
+        Duration delay;
+        if (failures >= properties.resolvedQuarantineAfterFailures()) {
+            delay = quarantine;
+            log.warn(
+                "RSS feed {} failed {} times in a row, quarantined for {}",
+                LogSanitizer.sanitize(state.getFeedUrl()),
+                failures,
+                quarantine
+            );
+        } else {
+            Duration backoff = currentInterval(state).multipliedBy(1L << Math.min(failures, 20));
+            delay = backoff.compareTo(quarantine) > 0 ? quarantine : backoff;
+        }
+        state.setNextPollAt(now.plus(jittered(delay)));
+    }
+
+    private Duration currentInterval(FeedState state) {
+        return state.getPollIntervalSeconds() != null
+            ? Duration.ofSeconds(state.getPollIntervalSeconds())
+            : properties.resolvedInitialInterval();
+    }
+
+    private Duration clamp(Duration interval, FeedState state) {
+        Duration min = properties.resolvedMinInterval();
+        Duration max = properties.resolvedMaxInterval();
+        if (state.getTtlMinutes() != null) {
+            Duration ttl = Duration.ofMinutes(state.getTtlMinutes());
+            if (ttl.compareTo(min) > 0) {
+                min = ttl.compareTo(max) > 0 ? max : ttl;
+            }
+        }
+        if (interval.compareTo(min) < 0) {
+            return min;
+        }
+        return interval.compareTo(max) > 0 ? max : interval;
+    }
+
+    private Duration jittered(Duration delay) {
+        double jitter = properties.resolvedJitter();
+        if (jitter == 0) {
+            return delay;
+        }
+        double factor = 1 + ThreadLocalRandom.current().nextDouble(-jitter, jitter);
+        return Duration.ofMillis((long) (delay.toMillis() * factor));
+    }
+}
@@ -0,0 +1,109 @@
+package com.novareport.reporter_service.service;
+
+import com.novareport.reporter_service.config.PollingProperties;
+import com.novareport.reporter_service.config.ReporterProperties;
+import com.novareport.reporter_service.domain.FeedState;
+import com.novareport.reporter_service.domain.FeedStateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Ingests news independently of report generation.
+ * <p>
+ * Every tick the scheduler fetches only the RSS feeds whose next poll time, as set by
+ * {@link FeedPollPolicy}, has passed. A feed is polled no sooner than its first poll time, which the
+ * policy picks the first time this instance sees the feed, so a restart does not fetch every feed at once.
+ * The News API providers have no per-feed state and are polled at a fixed interval instead.
+ */
+@Service
+public class FeedPollScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedPollScheduler.class);
+
+    private final RssIngestService rssIngestService;
+    private final NewsApiIngestService newsApiIngestService;
+    private final FeedStateRepository feedStateRepository;
+    private final FeedPollPolicy pollPolicy;
+    private final ReporterProperties reporterProperties;
+    private final PollingProperties pollingProperties;
+    private final Map<String, Instant> firstPollAt = new ConcurrentHashMap<>();
+
+    public FeedPollScheduler(
+        RssIngestService rssIngestService,
+        NewsApiIngestService newsApiIngestService,
+        FeedStateRepository feedStateRepository,
+        FeedPollPolicy pollPolicy,
+        ReporterProperties reporterProperties,
+        PollingProperties pollingProperties
+    ) {
+        this.rssIngestService = rssIngestService;
+        this.newsApiIngestService = newsApiIngestService;
+        this.feedStateRepository = feedStateRepository;
+        this.pollPolicy = pollPolicy;
+        this.reporterProperties = reporterProperties;
+        this.pollingProperties = pollingProperties;
+    }
+
+    @Scheduled(fixedDelayString = "${reporter.polling.tick:PT30S}")
+    public void pollDueFeeds() {
+        if (!pollingProperties.enabled()) {
+            return;
+        }
+
+        try {
+            List<String> due = dueFeeds(Instant.now());
+            if (due.isEmpty()) {
+                return;
+            }
+            RssIngestService.IngestResult result = rssIngestService.ingest(due);
+            log.info(
+                "Polled {} due RSS feeds - Attempted: {}, Stored: {}",
+                due.size(),
+                result.attempted(),
+                result.stored()
+            );
+        } catch (Exception e) {
+            log.error("Scheduled RSS poll failed", e);
+        }
+    }
+
+    @Scheduled(
+        fixedDelayString = "${reporter.polling.news-api-interval:PT30M}",
+        initialDelayString = "${reporter.polling.tick:PT30S}"
+    )
+    public void pollNewsApi() {
+        if (!pollingProperties.enabled()) {
+            return;
+        }
+
+        try {
+            RssIngestService.IngestResult result = newsApiIngestService.ingest();
+            log.info("Polled News API - Attempted: {}, Stored: {}", result.attempted(), result.stored());
+        } catch (Exception e) {
+            log.error("Scheduled News API poll failed", e);
+        }
+    }
+
+    List<String> dueFeeds(Instant now) {
+        List<String> feeds = reporterProperties.rssFeeds();
+        if (feeds.isEmpty()) {
+            return List.of();
+        }
+        Map<String, FeedState> states = feedStateRepository.findAllById(feeds).stream()
+            .collect(Collectors.toMap(FeedState::getFeedUrl, Function.identity(), (first, second) -> first));
+        return feeds.stream()
+            .distinct()
+            .filter(url -> !firstPollAt.computeIfAbsent(url, key -> pollPolicy.firstPollAt(states.get(key), now)).isAfter(now))
+            .filter(url -> pollPolicy.isDue(states.get(url), now))
+            .toList();
+    }
+}
@@ -0,0 +1,124 @@
+package com.novareport.reporter_service.service;
+
+import org.apache.commons.codec.digest.MurmurHash3;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * High-water mark for one feed, used by {@link StreamingFeedParser} to drop entries that were already
+ * processed before a {@code NewsItem} is built or hashed.
+ * <p>
+ * The mark holds the newest publication date seen so far and compact fingerprints of every entry
+ * (GUID, else link, else title) in the previous body. An entry is skipped when its fingerprint was seen
+ * before, or when it is dated earlier than the newest date minus the dedup window. Entries that are
+ * merely older than the newest date are still emitted if unseen, so feeds that reorder or backdate
+ * entries lose nothing. While parsing, the mark collects the fingerprints of the current body, which
+ * become the seen set for the next run, and the channel's {@code <ttl>} refresh hint if present.
+ */
+public final class FeedWatermark {
+
+    private final Instant previousNewest;
+    private final Set<String> previousKeys;
+    private final Instant staleBefore;
+
+    private final Set<String> currentKeys = new LinkedHashSet<>();
+    private Instant newest;
+    private int skipped;
+    private Duration ttl;
+
+    private FeedWatermark(Instant previousNewest, Set<String> previousKeys, Instant staleBefore) {
+        this.previousNewest = previousNewest;
+        this.previousKeys = previousKeys;
+        this.staleBefore = staleBefore;
+        this.newest = previousNewest;
+    }
+
+    /**
+     * Returns a watermark that skips nothing, for feeds without stored state.
+     */
+    public static FeedWatermark none() {
+        return new FeedWatermark(null, Set.of(), null);
+    }
+
+    /**
+     * Restores a watermark from its persisted form.
+     *
+     * @param newest     newest publication date seen so far, or {@code null}
+     * @param seenKeys   newline-separated fingerprints as returned by {@link #encodedKeys()}, or {@code null}
+     * @param staleAfter how far below {@code newest} an unseen entry may be dated and still be emitted
+     */
+    public static FeedWatermark restore(Instant newest, String seenKeys, Duration staleAfter) {
+        Set<String> keys = seenKeys == null || seenKeys.isBlank()
+            ? Set.of()
+            : new HashSet<>(Arrays.asList(seenKeys.split("\n")));
+        Instant staleBefore = newest != null && staleAfter != null ? newest.minus(staleAfter) : null;
+        return new FeedWatermark(newest, keys, staleBefore);
+    }
+
+    /**
+     * Records an entry of the current body and decides whether it can be dropped.
+     *
+     * @param key       entry identity (GUID, link or title); entries without one are never skipped
+     * @param published publication date from the feed, or {@code null} if the entry is undated
+     * @return {@code true} if the entry was already processed or is too old to matter
+     */
+    boolean observe(String key, Instant published) {
+        if (published != null && (newest == null || published.isAfter(newest))) {
+            newest = published;
+        }
+        if (key == null) {
+            return false;
+        }
+
+        String fingerprint = fingerprint(key);
+        currentKeys.add(fingerprint);
+        boolean skip = previousKeys.contains(fingerprint)
+            || (published != null && staleBefore != null && published.isBefore(staleBefore));
+        if (skip) {
+            skipped++;
+        }
+        return skip;
+    }
+
+    void recordTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public Instant newest() {
+        return newest;
+    }
+
+    public Instant previousNewest() {
+        return previousNewest;
+    }
+
+    public int skipped() {
+        return skipped;
+    }
+
+    /**
+     * Refresh hint from the channel's {@code <ttl>} element, or {@code null} if the feed has none.
+     */
+    public Duration ttl() {
+        return ttl;
+    }
+
+    /**
+     * Fingerprints of the entries observed in the current body, in document order.
+     */
+    public String encodedKeys() {
+        return String.join("\n", currentKeys);
+    }
+
+    private static String fingerprint(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        long[] hash = MurmurHash3.hash128x64(bytes, 0, bytes.length, 0);
+        return Long.toHexString(hash[0]);
+    }
+}
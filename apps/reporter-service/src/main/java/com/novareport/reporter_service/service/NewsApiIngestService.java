@@ -1,20 +1,29 @@
 package com.novareport.reporter_service.service;
 
 import com.novareport.reporter_service.config.NewsApiProperties;
+import com.novareport.reporter_service.config.ReporterProperties;
 import com.novareport.reporter_service.domain.NewsItem;
 import com.novareport.reporter_service.domain.NewsItemRepository;
 import com.novareport.reporter_service.util.LogSanitizer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,18 +34,34 @@ public class NewsApiIngestService {
     private final List<NewsApiProvider> providers;
     private final NewsItemRepository newsItemRepository;
     private final NewsApiProperties properties;
+    private final ReporterProperties reporterProperties;
+    private final StoryClusterer storyClusterer;
+    private final NewsItemDedupIndex dedupIndex;
+    private final TransactionTemplate writeTransaction;
+    private final Map<String, Instant> watermarks = new ConcurrentHashMap<>();
 
     public NewsApiIngestService(
         List<NewsApiProvider> providers,
         NewsItemRepository newsItemRepository,
-        NewsApiProperties properties
+        NewsApiProperties properties,
+        ReporterProperties reporterProperties,
+        StoryClusterer storyClusterer,
+        NewsItemDedupIndex dedupIndex,
+        PlatformTransactionManager transactionManager
     ) {
         this.providers = providers;
         this.newsItemRepository = newsItemRepository;
         this.properties = properties;
+        this.reporterProperties = reporterProperties;
+        this.storyClusterer = storyClusterer;
+        this.dedupIndex = dedupIndex;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
     }
 
-    @Transactional
+    /**
+     * Fetches from all providers outside any transaction, then stores the newest items in one. Provider
+     * watermarks move only after that transaction commits.
+     */
     public RssIngestService.IngestResult ingest() {
         if (!properties.enabled()) {
             return RssIngestService.IngestResult.empty();
@@ -46,46 +71,69 @@ public RssIngestService.IngestResult ingest() {
             return RssIngestService.IngestResult.empty();
         }
 
-        List<NewsItem> allItems = new ArrayList<>();
+        Instant threshold = Instant.now().minus(reporterProperties.dedupWindow());
+        int maxPages = properties.resolvedMaxPagesPerProvider();
+        Map<String, Integer> completed = new ConcurrentHashMap<>();
+        List<FetchedItem> kept = Flux.fromIterable(providers)
+            .flatMap(provider -> fetch(provider, threshold, maxPages, completed), providers.size())
+            .collect(() -> new NewestItems(properties.maxResults()), NewestItems::offer)
+            .map(NewestItems::newestFirst)
+            .blockOptional()
+            .orElse(List.of());
+
+        List<NewsItem> allItems = kept.stream().map(FetchedItem::item).toList();
+        RssIngestService.IngestResult result = Optional.ofNullable(writeTransaction.execute(status -> store(allItems))).orElseThrow();
+        advanceWatermarks(completed, kept);
+        return result;
+    }
 
-        for (NewsApiProvider provider : providers) {
-            try {
-                List<NewsItem> items = provider.fetchLatestNews();
-                if (!items.isEmpty()) {
-                    allItems.addAll(items);
-                }
-                log.info(
-                    "News API provider {} returned {} items",
-                    LogSanitizer.sanitize(provider.providerName()),
-                    items.size()
-                );
-            } catch (Exception ex) {
-                log.warn(
-                    "News API provider {} failed: {}",
-                    LogSanitizer.sanitize(provider.providerName()),
-                    LogSanitizer.sanitize(ex.getMessage())
-                );
+    /**
+     * Parses archived provider responses with the provider that fetched them and stores the items,
+     * without calling any API or moving the providers' watermarks.
+     */
+    @Transactional
+    public RssIngestService.IngestResult ingestArchived(List<RawFeedArchive.Payload> payloads) {
+        if (payloads.isEmpty() || providers == null) {
+            return RssIngestService.IngestResult.empty();
+        }
+
+        Map<String, NewsApiProvider> byName = providers.stream()
+            .collect(Collectors.toMap(NewsApiProvider::providerName, provider -> provider, (first, second) -> first));
+        List<NewsItem> allItems = new ArrayList<>();
+        for (RawFeedArchive.Payload payload : payloads) {
+            NewsApiProvider provider = byName.get(payload.source());
+            if (provider == null) {
+                log.warn("No News API provider named {} to replay an archived response", LogSanitizer.sanitize(payload.source()));
+                continue;
             }
+            provider.parseArchived(payload.body())
+                .onErrorResume(ex -> {
+                    log.warn(
+                        "Could not parse archived response of News API provider {}: {}",
+                        LogSanitizer.sanitize(payload.source()),
+                        LogSanitizer.sanitize(ex.getMessage())
+                    );
+                    return Flux.empty();
+                })
+                .collectList()
+                .blockOptional()
+                .ifPresent(allItems::addAll);
         }
+        return store(allItems);
+    }
 
+    private RssIngestService.IngestResult store(List<NewsItem> allItems) {
         if (allItems.isEmpty()) {
             log.info("News API ingest completed: no entries processed");
             return new RssIngestService.IngestResult(0, 0);
         }
 
-        allItems.sort(Comparator.comparing(NewsItem::getPublishedAt).reversed());
-
-        int maxResults = properties.maxResults();
-        if (maxResults > 0 && allItems.size() > maxResults) {
-            allItems = allItems.subList(0, maxResults);
-        }
-
         long attempted = allItems.size();
 
-        Map<String, NewsItem> deduped = allItems.stream()
-            .filter(item -> item.getHash() != null)
+        Map<UUID, NewsItem> deduped = allItems.stream()
+            .filter(item -> item.getUrlKey() != null)
             .collect(Collectors.toMap(
-                NewsItem::getHash,
+                NewsItem::getUrlKey,
                 item -> item,
                 (existing, replacement) -> existing,
                 LinkedHashMap::new
@@ -96,13 +144,14 @@ public RssIngestService.IngestResult ingest() {
             return new RssIngestService.IngestResult(attempted, 0);
         }
 
-        Set<String> existing = newsItemRepository.findExistingHashes(deduped.keySet());
-        List<NewsItem> toPersist = deduped.entrySet().stream()
-            .filter(entry -> !existing.contains(entry.getKey()))
-            .map(Map.Entry::getValue)
-            .toList();
-
-        long stored = toPersist.isEmpty() ? 0L : (long) newsItemRepository.saveAll(toPersist).size();
+        List<NewsItem> candidates = dedupIndex.withoutStored(deduped.values());
+        long stored = 0L;
+        if (!candidates.isEmpty()) {
+            storyClusterer.assign(candidates);
+            List<NewsItem> inserted = newsItemRepository.insertIgnoringDuplicates(candidates);
+            dedupIndex.recordInserted(inserted);
+            stored = inserted.size();
+        }
 
         double storageRatio = attempted == 0 ? 0 : (double) stored / attempted;
         double dedupeRatio = 1 - storageRatio;
@@ -116,4 +165,88 @@ public RssIngestService.IngestResult ingest() {
 
         return new RssIngestService.IngestResult(attempted, stored);
     }
+
+    /**
+     * Streams one provider's items newer than its watermark, or the start of the dedup window. A provider
+     * that completes is recorded in {@code completed} with the number of items it returned; a failing one
+     * yields what it emitted before the failure and is left out, so its watermark stays put and the missed
+     * pages are requested again next time.
+     */
+    private Flux<FetchedItem> fetch(NewsApiProvider provider, Instant threshold, int maxPages, Map<String, Integer> completed) {
+        String name = provider.providerName();
+        Instant previous = watermarks.get(name);
+        Instant since = previous != null && previous.isAfter(threshold) ? previous : threshold;
+
+        AtomicInteger count = new AtomicInteger();
+        return Flux.defer(() -> provider.fetchLatestNews(since, maxPages))
+            .doOnNext(item -> count.incrementAndGet())
+            .map(item -> new FetchedItem(name, item))
+            .doOnComplete(() -> {
+                completed.put(name, count.get());
+                log.info("News API provider {} returned {} items", LogSanitizer.sanitize(name), count.get());
+            })
+            .onErrorResume(ex -> {
+                log.warn(
+                    "News API provider {} failed after {} items: {}",
+                    LogSanitizer.sanitize(name),
+                    count.get(),
+                    LogSanitizer.sanitize(ex.getMessage())
+                );
+                return Flux.empty();
+            });
+    }
+
+    /**
+     * Moves the watermark of every provider that completed to the newest of its items that was kept. When
+     * {@code max-results} dropped some of its items, the watermark moves only to the oldest item kept, so
+     * the next run asks again for everything after it.
+     */
+    private void advanceWatermarks(Map<String, Integer> completed, List<FetchedItem> kept) {
+        Map<String, List<Instant>> keptByProvider = kept.stream()
+            .collect(Collectors.groupingBy(FetchedItem::provider, Collectors.mapping(fetched -> fetched.item().getPublishedAt(), Collectors.toList())));
+        completed.forEach((name, returned) -> {
+            List<Instant> publishedAt = keptByProvider.getOrDefault(name, List.of());
+            if (publishedAt.isEmpty()) {
+                return;
+            }
+            Instant watermark = publishedAt.size() < returned
+                ? publishedAt.stream().min(Comparator.naturalOrder()).orElseThrow()
+                : publishedAt.stream().max(Comparator.naturalOrder()).orElseThrow();
+            watermarks.merge(name, watermark, (current, candidate) -> candidate.isAfter(current) ? candidate : current);
+        });
+    }
+
+    private record FetchedItem(String provider, NewsItem item) {
+    }
+
+    /**
+     * Keeps the {@code limit} most recently published items in a min-heap, so selecting the top N of M
+     * items costs O(M log N) and never holds more than N of them. A limit below 1 keeps everything.
+     */
+    private static final class NewestItems {
+
+        private static final Comparator<FetchedItem> BY_PUBLISHED_AT = Comparator.comparing(fetched -> fetched.item().getPublishedAt());
+
+        private final int limit;
+        private final PriorityQueue<FetchedItem> heap = new PriorityQueue<>(BY_PUBLISHED_AT);
+
+        private NewestItems(int limit) {
+            this.limit = limit;
+        }
+
+        private void offer(FetchedItem item) {
+            if (limit < 1 || heap.size() < limit) {
+                heap.add(item);
+            } else if (BY_PUBLISHED_AT.compare(item, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(item);
+            }
+        }
+
+        private List<FetchedItem> newestFirst() {
+            List<FetchedItem> items = new ArrayList<>(heap);
+            items.sort(BY_PUBLISHED_AT.reversed());
+            return items;
+        }
+    }
 }
@@ -1,10 +1,28 @@
 package com.novareport.reporter_service.service;
 
 import com.novareport.reporter_service.domain.NewsItem;
+import reactor.core.publisher.Flux;
 
-import java.util.List;
+import java.time.Instant;
 
+/**
+ * Source of news items from a paginated news API.
+ * <p>
+ * Implementations must not block. They emit items newest first, request the next page only when the
+ * previous one has been consumed, and stop after {@code maxPages} requests or once a page reaches items
+ * published at or before {@code since}. Such older items are not emitted. Failures are logged and end
+ * the stream, keeping whatever was already emitted.
+ */
 public interface NewsApiProvider {
     String providerName();
-    List<NewsItem> fetchLatestNews();
+
+    Flux<NewsItem> fetchLatestNews(Instant since, int maxPages);
+
+    /**
+     * Parses one response page this provider stored in the {@link RawFeedArchive}, for replay. Providers
+     * that do not archive their responses return nothing.
+     */
+    default Flux<NewsItem> parseArchived(byte[] body) {
+        return Flux.empty();
+    }
 }
@@ -3,19 +3,26 @@
 import com.novareport.reporter_service.config.NewsDataProperties;
 import com.novareport.reporter_service.domain.NewsItem;
 import com.novareport.reporter_service.util.LogSanitizer;
-import org.apache.commons.codec.digest.DigestUtils;
+import com.novareport.reporter_service.util.UrlKeys;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -25,10 +32,19 @@ public class NewsDataIoNewsApiProvider implements NewsApiProvider {
 
     private final WebClient webClient;
     private final NewsDataProperties properties;
-
-    public NewsDataIoNewsApiProvider(WebClient webClient, NewsDataProperties properties) {
+    private final ObjectMapper objectMapper;
+    private final RawFeedArchive archive;
+
+    public NewsDataIoNewsApiProvider(
+        WebClient webClient,
+        NewsDataProperties properties,
+        ObjectMapper objectMapper,
+        RawFeedArchive archive
+    ) {
         this.webClient = webClient;
         this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.archive = archive;
     }
 
     @Override
@@ -37,15 +53,15 @@ public String providerName() {
     }
 
     @Override
-    public List<NewsItem> fetchLatestNews() {
+    public Flux<NewsItem> fetchLatestNews(Instant since, int maxPages) {
         if (!properties.enabled()) {
-            return List.of();
+            return Flux.empty();
         }
 
         String apiKey = properties.apiKey();
         if (apiKey == null || apiKey.isBlank()) {
             log.warn("NewsData.io provider is enabled but API key is not configured; skipping");
-            return List.of();
+            return Flux.empty();
         }
 
         String baseUrl = properties.resolvedBaseUrl();
@@ -53,36 +69,78 @@ public List<NewsItem> fetchLatestNews() {
         String url = baseUrl + "/crypto?apikey=" + URLEncoder.encode(apiKey, StandardCharsets.UTF_8)
             + "&language=en";
 
+        return fetchPage(url, 1, since)
+            .expand(page -> page.nextPage() != null && !page.reachedSince() && page.number() < maxPages
+                ? fetchPage(url + "&page=" + URLEncoder.encode(page.nextPage(), StandardCharsets.UTF_8), page.number() + 1, since)
+                : Mono.empty())
+            .concatMapIterable(Page::items, 1)
+            .onErrorResume(ex -> {
+                logFailure(ex);
+                return Flux.empty();
+            });
+    }
+
+    @Override
+    public Flux<NewsItem> parseArchived(byte[] body) {
+        return Mono.fromCallable(() -> readResponse(body))
+            .flatMapIterable(response -> response.results != null ? response.results : List.<NewsDataArticle>of())
+            .map(this::toNewsItem);
+    }
+
+    /**
+     * Reads the page as raw bytes so it can be archived before it is parsed.
+     */
+    private Mono<Page> fetchPage(String url, int number, Instant since) {
+        return webClient
+            .get()
+            .uri(url)
+            .retrieve()
+            .bodyToMono(byte[].class)
+            .map(body -> {
+                archive.append(RawFeedArchive.Kind.NEWS_API, providerName(), Instant.now(), body);
+                return toPage(number, readResponse(body), since);
+            })
+            .defaultIfEmpty(new Page(number, List.of(), null, false));
+    }
+
+    private NewsDataResponse readResponse(byte[] body) {
         try {
-            NewsDataResponse response = webClient
-                .get()
-                .uri(url)
-                .retrieve()
-                .bodyToMono(NewsDataResponse.class)
-                .block();
-
-            if (response == null || response.results == null || response.results.isEmpty()) {
-                log.info("NewsData.io returned no results");
-                return List.of();
+            return objectMapper.readValue(body, NewsDataResponse.class);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private Page toPage(int number, NewsDataResponse response, Instant since) {
+        if (response.results == null || response.results.isEmpty()) {
+            log.info("NewsData.io returned no results on page {}", number);
+            return new Page(number, List.of(), null, false);
+        }
+
+        List<NewsItem> items = new ArrayList<>(response.results.size());
+        boolean reachedSince = false;
+        for (NewsDataArticle article : response.results) {
+            NewsItem item = toNewsItem(article);
+            if (since != null && !item.getPublishedAt().isAfter(since)) {
+                reachedSince = true;
+            } else {
+                items.add(item);
             }
+        }
 
-            List<NewsItem> items = response.results.stream()
-                .map(this::toNewsItem)
-                .toList();
+        log.info("NewsData.io returned {} articles on page {} ({} new)", response.results.size(), number, items.size());
+        return new Page(number, items, response.nextPage, reachedSince);
+    }
 
-            log.info("NewsData.io returned {} articles", items.size());
-            return items;
-        } catch (WebClientResponseException ex) {
-            String body = ex.getResponseBodyAsString();
+    private void logFailure(Throwable ex) {
+        if (ex instanceof WebClientResponseException responseException) {
             log.warn(
                 "Failed to fetch news from NewsData.io: status={} body={}",
-                ex.getStatusCode().value(),
-                LogSanitizer.sanitize(body)
+                responseException.getStatusCode().value(),
+                LogSanitizer.sanitize(responseException.getResponseBodyAsString())
             );
-            return List.of();
-        } catch (Exception ex) {
+        } else {
             log.warn("Failed to fetch news from NewsData.io: {}", LogSanitizer.sanitize(ex.getMessage()));
-            return List.of();
         }
     }
 
@@ -108,7 +166,7 @@ private NewsItem toNewsItem(NewsDataArticle article) {
         item.setSummary(summary);
 
         item.setPublishedAt(parsePubDate(article.pubDate()));
-        item.setHash(hash(article.link(), article.title()));
+        item.setUrlKey(UrlKeys.of(article.link(), article.title()));
         item.setIngestedAt(Instant.now());
 
         return item;
@@ -131,11 +189,10 @@ private Instant parsePubDate(String pubDate) {
         return Instant.now();
     }
 
-    private String hash(String link, String title) {
-        String input = (link == null ? "" : link) + "::" + (title == null ? "" : title);
-        return DigestUtils.sha256Hex(input);
+    private record Page(int number, List<NewsItem> items, String nextPage, boolean reachedSince) {
     }
 
+    @JsonIgnoreProperties(ignoreUnknown = true)
     private record NewsDataResponse(
         String status,
         Integer totalResults,
@@ -144,6 +201,7 @@ private record NewsDataResponse(
     ) {
     }
 
+    @JsonIgnoreProperties(ignoreUnknown = true)
     private record NewsDataArticle(
         String article_id,
         String title,
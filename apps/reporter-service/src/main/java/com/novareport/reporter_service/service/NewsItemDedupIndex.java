@@ -0,0 +1,225 @@
+package com.novareport.reporter_service.service;
+
+import com.novareport.reporter_service.config.DedupFilterProperties;
+import com.novareport.reporter_service.config.ReporterProperties;
+import com.novareport.reporter_service.domain.NewsItem;
+import com.novareport.reporter_service.domain.NewsItemRepository;
+import com.novareport.reporter_service.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * In-memory Bloom filter of recently stored {@code news_items.url_key} values, consulted before an ingest
+ * clusters and inserts its candidates.
+ * <p>
+ * The bulk insert skips stored keys on its own, but only after the candidates were clustered: an entry a
+ * feed delivers again would be matched against the story index and added to it a second time. Dropping
+ * stored candidates first takes a key lookup, and the filter keeps that lookup to the candidates it cannot
+ * rule out, which on a steady feed are few. The insert's {@code ON CONFLICT} still settles races with
+ * concurrent ingests.
+ * <p>
+ * The filter is warmed from every row ingested or published within the dedup window and updated after each
+ * insert. Every {@code reporter.dedup-filter.rebuild-interval} it is rebuilt over the current window and
+ * swapped in, so keys that aged out stop filling it and its coverage moves with the window. It only answers
+ * for candidates published inside that window; older candidates, and all candidates before the first
+ * warm-up, are always checked in the database. Because a Bloom filter never
+ * produces false negatives for the values it was given, the fast path can only skip lookups for rows that
+ * do not exist.
+ */
+@Component
+public class NewsItemDedupIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(NewsItemDedupIndex.class);
+
+    private final NewsItemRepository newsItemRepository;
+    private final ReporterProperties reporterProperties;
+    private final DedupFilterProperties filterProperties;
+    private final TransactionTemplate readTransaction;
+
+    private final Counter absentCounter;
+    private final Counter maybePresentCounter;
+    private final Counter notCoveredCounter;
+    private final Counter falsePositiveCounter;
+    private final AtomicLong entries = new AtomicLong();
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter rebuilding;
+    private volatile Instant coverageStart;
+
+    public NewsItemDedupIndex(
+        NewsItemRepository newsItemRepository,
+        ReporterProperties reporterProperties,
+        DedupFilterProperties filterProperties,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry
+    ) {
+        this.newsItemRepository = newsItemRepository;
+        this.reporterProperties = reporterProperties;
+        this.filterProperties = filterProperties;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+
+        this.absentCounter = checkCounter(meterRegistry, "absent");
+        this.maybePresentCounter = checkCounter(meterRegistry, "maybe_present");
+        this.notCoveredCounter = checkCounter(meterRegistry, "not_covered");
+        this.falsePositiveCounter = Counter.builder("reporter.dedup_filter.false_positives")
+            .description("Candidates the filter reported as maybe present that did not exist in news_items")
+            .register(meterRegistry);
+        Gauge.builder("reporter.dedup_filter.entries", entries, AtomicLong::get)
+            .description("Keys added to the dedup filter since the last warm-up")
+            .register(meterRegistry);
+        Gauge.builder("reporter.dedup_filter.expected_fpp", this, NewsItemDedupIndex::expectedFalsePositiveProbability)
+            .description("Estimated false-positive probability from the current fill ratio")
+            .register(meterRegistry);
+    }
+
+    private static Counter checkCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("reporter.dedup_filter.checks")
+            .description("Dedup candidates checked against the in-memory filter")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    @Scheduled(
+        fixedDelayString = "${reporter.dedup-filter.rebuild-interval:PT6H}",
+        initialDelayString = "${reporter.dedup-filter.rebuild-interval:PT6H}"
+    )
+    public void rebuild() {
+        try {
+            warm();
+        } catch (Exception e) {
+            log.error("Dedup filter rebuild failed, keeping the current filter", e);
+        }
+    }
+
+    /**
+     * Rebuilds the filter from all keys within the dedup window and swaps it in. Inserts recorded while the
+     * rebuild is running are written to both the old and the new filter.
+     */
+    public synchronized void warm() {
+        if (!filterProperties.enabled()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        Instant cutoff = Instant.now().minus(reporterProperties.dedupWindow());
+        BloomFilter next = BloomFilter.create(
+            filterProperties.resolvedExpectedInsertions(),
+            filterProperties.resolvedFalsePositiveRate()
+        );
+        long loaded;
+        rebuilding = next;
+        try {
+            loaded = Optional.ofNullable(readTransaction.execute(status -> load(next, cutoff))).orElseThrow();
+            filter = next;
+            coverageStart = cutoff;
+            entries.set(loaded);
+        } finally {
+            rebuilding = null;
+        }
+
+        log.info(
+            "Dedup filter warmed with {} keys since {} in {} ms (bits={}, hashFunctions={}, expectedFpp={})",
+            loaded,
+            cutoff,
+            (System.nanoTime() - start) / 1_000_000,
+            next.bitSize(),
+            next.hashFunctions(),
+            String.format("%.6f", next.expectedFalsePositiveProbability())
+        );
+    }
+
+    private long load(BloomFilter next, Instant cutoff) {
+        long loaded = 0;
+        try (Stream<UUID> keys = newsItemRepository.streamUrlKeysSince(cutoff)) {
+            for (UUID key : (Iterable<UUID>) keys::iterator) {
+                next.put(key.toString());
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Returns the candidates whose {@code url_key} is not stored yet, in input order. Only candidates the
+     * filter cannot rule out are looked up in the database. Candidates without a url key cannot be stored
+     * and are left out.
+     */
+    public List<NewsItem> withoutStored(Collection<NewsItem> candidates) {
+        List<NewsItem> keyed = candidates.stream().filter(candidate -> candidate.getUrlKey() != null).toList();
+        if (keyed.isEmpty()) {
+            return List.of();
+        }
+
+        BloomFilter current = filter;
+        Instant covered = coverageStart;
+        List<UUID> toCheck = new ArrayList<>(keyed.size());
+        List<UUID> maybePresent = new ArrayList<>();
+        long notCovered = 0;
+        for (NewsItem candidate : keyed) {
+            UUID key = candidate.getUrlKey();
+            if (current == null || candidate.getPublishedAt() == null || candidate.getPublishedAt().isBefore(covered)) {
+                notCovered++;
+                toCheck.add(key);
+            } else if (current.mightContain(key.toString())) {
+                maybePresent.add(key);
+                toCheck.add(key);
+            }
+        }
+        absentCounter.increment(keyed.size() - toCheck.size());
+        maybePresentCounter.increment(maybePresent.size());
+        notCoveredCounter.increment(notCovered);
+
+        if (toCheck.isEmpty()) {
+            return keyed;
+        }
+        Set<UUID> stored = newsItemRepository.findExistingUrlKeys(toCheck);
+        falsePositiveCounter.increment(maybePresent.stream().filter(key -> !stored.contains(key)).count());
+        return keyed.stream().filter(candidate -> !stored.contains(candidate.getUrlKey())).toList();
+    }
+
+    /**
+     * Records the keys of rows that were just inserted.
+     */
+    public void recordInserted(Collection<NewsItem> inserted) {
+        BloomFilter current = filter;
+        BloomFilter next = rebuilding;
+        if (current == null && next == null) {
+            return;
+        }
+        for (NewsItem item : inserted) {
+            if (item.getUrlKey() == null) {
+                continue;
+            }
+            String key = item.getUrlKey().toString();
+            if (current != null && current.put(key)) {
+                entries.incrementAndGet();
+            }
+            if (next != null) {
+                next.put(key);
+            }
+        }
+    }
+
+    private double expectedFalsePositiveProbability() {
+        BloomFilter current = filter;
+        return current == null ? 0 : current.expectedFalsePositiveProbability();
+    }
+}
@@ -0,0 +1,130 @@
+package com.novareport.reporter_service.service;
+
+import com.novareport.reporter_service.config.RetentionProperties;
+import com.novareport.reporter_service.domain.NewsItemPartitions;
+import com.novareport.reporter_service.util.LogSanitizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the weekly {@code news_items} partitions ahead of the clock and removes news past the retention.
+ * <p>
+ * On PostgreSQL each run creates the partitions for the current week and
+ * {@code reporter.retention.partitions-ahead} weeks ahead, whether or not retention is enabled. With
+ * {@code reporter.retention.enabled}, partitions whose whole week is past the retention are dropped, or
+ * only detached when {@code reporter.retention.detach-expired-partitions} is set so they can be archived
+ * (e.g. with {@code pg_dump -t}) and dropped by hand, and expired rows in the default partition and in
+ * {@code news_item_keys} are deleted. Other databases have a plain table and simply get the expired rows
+ * deleted.
+ */
+@Service
+public class NewsItemPartitionMaintainer {
+
+    private static final Logger log = LoggerFactory.getLogger(NewsItemPartitionMaintainer.class);
+
+    private static final String LIST_PARTITIONS = """
+        SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'news_items'::regclass
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RetentionProperties properties;
+    private volatile Boolean partitioned;
+
+    public NewsItemPartitionMaintainer(JdbcTemplate jdbcTemplate, RetentionProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${reporter.retention.maintenance-interval:PT6H}")
+    public void runMaintenance() {
+        try {
+            maintain(Instant.now());
+        } catch (Exception e) {
+            log.error("News item partition maintenance failed", e);
+        }
+    }
+
+    void maintain(Instant now) {
+        Instant cutoff = now.minus(properties.resolvedNewsItems());
+        if (!isPartitioned()) {
+            if (!properties.enabled()) {
+                return;
+            }
+            int deleted = jdbcTemplate.update("DELETE FROM news_items WHERE published_at < ?", Timestamp.from(cutoff));
+            if (deleted > 0) {
+                log.info("Deleted {} news items published before {}", deleted, cutoff);
+            }
+            return;
+        }
+
+        LocalDate currentWeek = NewsItemPartitions.weekStart(now);
+        for (int week = 0; week <= properties.resolvedPartitionsAhead(); week++) {
+            createPartition(currentWeek.plusWeeks(week));
+        }
+        if (!properties.enabled()) {
+            return;
+        }
+
+        for (String partition : expiredPartitions(jdbcTemplate.queryForList(LIST_PARTITIONS, String.class), cutoff)) {
+            if (properties.detachExpiredPartitions()) {
+                jdbcTemplate.execute("ALTER TABLE news_items DETACH PARTITION " + partition);
+                log.info("Detached expired news item partition {} for archiving", partition);
+            } else {
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                log.info("Dropped expired news item partition {}", partition);
+            }
+        }
+        jdbcTemplate.update("DELETE FROM " + NewsItemPartitions.DEFAULT_PARTITION + " WHERE published_at < ?", Timestamp.from(cutoff));
+        jdbcTemplate.update("DELETE FROM news_item_keys WHERE published_at < ?", Timestamp.from(cutoff));
+    }
+
+    /**
+     * Weekly partitions that end at or before the cutoff. The default partition and tables that do not
+     * follow the naming scheme are never returned.
+     */
+    static List<String> expiredPartitions(List<String> partitions, Instant cutoff) {
+        List<String> expired = new ArrayList<>();
+        for (String partition : partitions) {
+            NewsItemPartitions.weekStartOf(partition)
+                .filter(weekStart -> !weekStart.plusWeeks(1).atStartOfDay(ZoneOffset.UTC).toInstant().isAfter(cutoff))
+                .ifPresent(weekStart -> expired.add(partition));
+        }
+        return expired;
+    }
+
+    private void createPartition(LocalDate weekStart) {
+        try {
+            jdbcTemplate.execute(NewsItemPartitions.createPartitionSql(weekStart));
+        } catch (DataAccessException ex) {
+            // Fails when the default partition already holds rows of that week; they stay there.
+            log.warn(
+                "Could not create news item partition {}: {}",
+                NewsItemPartitions.partitionName(weekStart),
+                LogSanitizer.sanitize(ex.getMessage())
+            );
+        }
+    }
+
+    private boolean isPartitioned() {
+        Boolean result = partitioned;
+        if (result == null) {
+            result = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())));
+            partitioned = result;
+        }
+        return result;
+    }
+}
@@ -1,6 +1,10 @@
 package com.novareport.reporter_service.service;
 
+import com.novareport.reporter_service.config.SummarizerProperties;
+import com.novareport.reporter_service.config.SummarizerRoutingProperties;
 import com.novareport.reporter_service.util.LogSanitizer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -8,19 +12,33 @@
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
 import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 /**
  * AI summarizer implementation using 1min.ai API.
  * Documentation: https://docs.1min.ai/docs/api/ai-feature-api
  * 
  * This service is only active when reporter.fake-ai=false
+ * <p>
+ * Calls are non-blocking and bounded by {@link SummarizerProperties}: every attempt has its own timeout and
+ * the call as a whole a budget, after which the request is cancelled and a non-AI fallback returned.
+ * Full summaries go through the {@link SummaryCache}, so unchanged headlines are not summarized twice.
+ * Each attempt goes to the healthiest of the configured endpoints through the {@link SummarizerRouter}, which
+ * fails over to the next endpoint at once and skips endpoints whose circuit is open. Endpoints have their own
+ * URL, API key and model, so one at a second account or gateway keeps reports summarized while the first is
+ * down; only when every circuit is open is the fallback returned, without waiting.
  */
 @Service
 @ConditionalOnProperty(name = "reporter.fake-ai", havingValue = "false")
@@ -28,95 +46,207 @@ public class OneMinAiSummarizerService implements DailyReportService.AiSummarize
 
     private static final Logger log = LoggerFactory.getLogger(OneMinAiSummarizerService.class);
     private static final String API_URL = "https://api.1min.ai/api/features";
-
-    private final WebClient webClient;
-    private final String apiKey;
+    private static final String ATTEMPT_TIMER = "reporter.summarizer.attempt";
+    private static final String CALL_TIMER = "reporter.summarizer.call";
+    /**
+     * Version of the system and report prompts. Raise it whenever they change, so summaries cached for
+     * the old prompts are no longer reused.
+     */
+    static final int PROMPT_VERSION = 1;
+    private static final int FULL_MAX_WORDS = 800;
+    private static final int UPDATE_MAX_WORDS = 200;
+    private static final int MAP_MAX_WORDS = 150;
+
+    private final Map<String, Target> targets;
     private final String model;
+    private final String cacheScope;
+    private final SummarizerProperties properties;
+    private final SummarizerRouter router;
+    private final MeterRegistry meterRegistry;
+    private final SummaryCache summaryCache;
 
     public OneMinAiSummarizerService(
             WebClient.Builder webClientBuilder,
             @Value("${onemin.api-key}") String apiKey,
-            @Value("${onemin.model:gpt-4o-mini}") String model
+            @Value("${onemin.model:gpt-4o-mini}") String model,
+            SummarizerProperties properties,
+            SummarizerRoutingProperties routingProperties,
+            MeterRegistry meterRegistry,
+            SummaryCache summaryCache
     ) {
-        this.webClient = webClientBuilder.baseUrl(API_URL).build();
-        this.apiKey = apiKey;
-        this.model = model;
-        log.info("OneMinAiSummarizerService initialized with model: {}", LogSanitizer.sanitize(model));
+        List<SummarizerRoutingProperties.Endpoint> endpoints = routingProperties.resolvedEndpoints(API_URL, apiKey, model);
+        Map<String, Target> byName = new LinkedHashMap<>();
+        for (SummarizerRoutingProperties.Endpoint endpoint : endpoints) {
+            WebClient webClient = webClientBuilder.clone().baseUrl(endpoint.url()).build();
+            byName.put(endpoint.name(), new Target(webClient, endpoint.apiKey(), endpoint.model()));
+        }
+        this.targets = Map.copyOf(byName);
+        List<String> names = List.copyOf(byName.keySet());
+        this.router = new SummarizerRouter(names, routingProperties, meterRegistry);
+        this.model = targets.get(router.primary()).model();
+        this.cacheScope = String.join(",", names);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.summaryCache = summaryCache;
+        log.info(
+            "OneMinAiSummarizerService initialized with backends: {}",
+            LogSanitizer.sanitize(endpoints.stream()
+                .map(endpoint -> endpoint.name() + "=" + endpoint.model() + "@" + endpoint.url())
+                .toList())
+        );
+    }
+
+    @Override
+    public String model() {
+        return model;
     }
 
     @Override
-    public String summarize(LocalDate date, List<String> headlines) {
+    public Mono<String> summarize(LocalDate date, List<String> headlines) {
         if (headlines == null || headlines.isEmpty()) {
             log.warn("No headlines provided for summarization on {}", LogSanitizer.sanitize(date));
-            return "No news items available for " + date + ".";
+            return Mono.just("No news items available for " + date + ".");
         }
 
-        log.info(
-            "Generating AI summary for {} with {} headlines using model {}",
-            LogSanitizer.sanitize(date),
-            headlines.size(),
-            LogSanitizer.sanitize(model)
-        );
+        return summaryCache.summary(cacheScope, PROMPT_VERSION, date, headlines, () -> Mono.defer(() -> {
+            log.info(
+                "Generating AI summary for {} with {} headlines using model {}",
+                LogSanitizer.sanitize(date),
+                headlines.size(),
+                LogSanitizer.sanitize(model)
+            );
+            return call("full", buildPrompt(date, headlines), FULL_MAX_WORDS);
+        })).onErrorResume(e -> Mono.just(buildFallbackSummary(date, headlines, "Service unavailable after multiple attempts")));
+    }
 
-        String prompt = buildPrompt(date, headlines);
-
-        int maxAttempts = 3;
-        long delayMillis = 1000L;
-
-        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
-            try {
-                if (attempt > 1) {
-                    log.info("Retrying 1min.ai call (attempt {}/{})", attempt, maxAttempts);
-                }
-
-                String summary = callOneMinAi(prompt);
-                log.info(
-                    "Successfully generated AI summary with {} characters on attempt {}",
-                    summary.length(),
-                    attempt
-                );
-                return summary;
-
-            } catch (WebClientResponseException e) {
-                log.error(
-                    "1min.ai API error on attempt {}/{}: status={}, body={}",
-                    attempt,
-                    maxAttempts,
-                    e.getStatusCode(),
-                    LogSanitizer.sanitize(e.getResponseBodyAsString()),
-                    e
-                );
-
-            } catch (WebClientRequestException e) {
-                log.error(
-                    "1min.ai request error on attempt {}/{}: {}",
-                    attempt,
+    /**
+     * Asks only for a short section on the new headlines, with the start of the report as context, so the
+     * model neither reads nor writes the whole report again.
+     */
+    @Override
+    public Mono<String> summarizeUpdate(LocalDate date, String reportContext, List<String> newHeadlines) {
+        return Mono.defer(() -> {
+            log.info(
+                "Generating AI update for {} with {} new headlines using model {}",
+                LogSanitizer.sanitize(date),
+                newHeadlines.size(),
+                LogSanitizer.sanitize(model)
+            );
+            return call("update", buildUpdatePrompt(date, reportContext, newHeadlines), UPDATE_MAX_WORDS)
+                .map(SummaryCache.Answer::summary);
+        }).onErrorResume(e -> Mono.just(buildFallbackUpdate(newHeadlines)));
+    }
+
+    /**
+     * Summarizes every batch into short notes, at most {@code concurrency} requests at a time, and writes
+     * the report from the notes in one more request. The batches run side by side, so the report takes
+     * about as long as its slowest batch plus one call. A batch that cannot be summarized passes its
+     * headlines on as they are; only when the final request fails is the fallback summary returned.
+     */
+    @Override
+    public Mono<String> summarizeBatches(LocalDate date, List<List<String>> batches, int concurrency) {
+        List<String> headlines = batches.stream().flatMap(List::stream).toList();
+        if (headlines.isEmpty()) {
+            return summarize(date, headlines);
+        }
+
+        return summaryCache.summary(cacheScope + "/map-reduce", PROMPT_VERSION, date, headlines, () -> Mono.defer(() -> {
+            log.info(
+                "Generating AI map-reduce summary for {} with {} headlines in {} batches using model {}",
+                LogSanitizer.sanitize(date),
+                headlines.size(),
+                batches.size(),
+                LogSanitizer.sanitize(model)
+            );
+            return Flux.fromIterable(batches)
+                .flatMapSequential(batch -> call("map", buildMapPrompt(date, batch), MAP_MAX_WORDS)
+                    .map(SummaryCache.Answer::summary)
+                    .onErrorResume(e -> Mono.just(headlineList(batch))), concurrency)
+                .collectList()
+                .flatMap(notes -> call("reduce", buildReducePrompt(date, notes), FULL_MAX_WORDS));
+        })).onErrorResume(e -> Mono.just(buildFallbackSummary(date, headlines, "Service unavailable after multiple attempts")));
+    }
+
+    /**
+     * The answer and the model that gave it, retried with backoff after attempts on which every model failed
+     * and abandoned once the budget has passed. A timeout cancels the requests in flight, or the pending retry, so nothing
+     * outlives the call. Fails with the last error, or a {@link TimeoutException} when the budget ran out.
+     */
+    private Mono<SummaryCache.Answer> call(String kind, String prompt, int maxWords) {
+        int maxAttempts = properties.resolvedMaxAttempts();
+        return router.route(backend -> timed(ATTEMPT_TIMER, "Latency of single 1min.ai requests", kind,
+                callOneMinAi(targets.get(backend), prompt, maxWords)
+                    .map(summary -> new SummaryCache.Answer(targets.get(backend).model(), summary))
+                    .timeout(properties.resolvedAttemptTimeout())))
+            .retryWhen(Retry
+                .backoff(maxAttempts - 1L, properties.resolvedInitialBackoff())
+                .filter(OneMinAiSummarizerService::isRetryable)
+                .doBeforeRetry(retrySignal -> log.warn(
+                    "Retrying 1min.ai call (attempt {}/{}) due to: {}",
+                    retrySignal.totalRetries() + 2,
                     maxAttempts,
-                    LogSanitizer.sanitize(e.getMessage()),
-                    e
-                );
+                    describe(retrySignal.failure())
+                ))
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+            .timeout(properties.resolvedBudget())
+            .transform(calls -> timed(CALL_TIMER, "Latency of 1min.ai summaries, retries included", kind, calls))
+            .doOnNext(answer -> log.info(
+                "Successfully generated AI {} summary with {} characters using model {}",
+                kind,
+                answer.summary().length(),
+                LogSanitizer.sanitize(answer.model())
+            ))
+            .doOnError(e -> log.warn("Falling back to non-AI {} summary: {}", kind, describe(e)));
+    }
 
-            } catch (Exception e) {
-                log.error("Unexpected error while generating AI summary on attempt {}/{}", attempt, maxAttempts, e);
-            }
+    /**
+     * Records how long {@code source} took in a histogram tagged with its outcome: success, error, timeout,
+     * or cancelled when a deadline further out gave up on it.
+     */
+    private <T> Mono<T> timed(String name, String description, String kind, Mono<T> source) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            Consumer<String> record = outcome -> Timer.builder(name)
+                .description(description)
+                .tag("kind", kind)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return source
+                .doOnSuccess(value -> record.accept("success"))
+                .doOnError(e -> record.accept(e instanceof TimeoutException ? "timeout" : "error"))
+                .doOnCancel(() -> record.accept("cancelled"));
+        });
+    }
 
-            if (attempt < maxAttempts) {
-                try {
-                    Thread.sleep(delayMillis);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    break;
-                }
-                delayMillis *= 2;
-            }
+    /**
+     * Client errors other than rate limiting and request timeouts would fail the same way again, and open
+     * circuits stay open for longer than a backoff.
+     */
+    private static boolean isRetryable(Throwable e) {
+        if (e instanceof SummarizerRouter.BackendUnavailableException) {
+            return false;
+        }
+        if (e instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError()) {
+            int status = response.getStatusCode().value();
+            return status == 408 || status == 429;
         }
+        return true;
+    }
 
-        log.warn("Falling back to non-AI summary after {} failed attempts to reach 1min.ai", maxAttempts);
-        return buildFallbackSummary(date, headlines, "Service unavailable after multiple attempts");
+    private static String describe(Throwable e) {
+        if (e instanceof WebClientResponseException response) {
+            return "status=" + response.getStatusCode() + ", body=" + LogSanitizer.sanitize(response.getResponseBodyAsString());
+        }
+        if (e instanceof TimeoutException) {
+            return "timed out";
+        }
+        return e == null ? "unknown error" : LogSanitizer.sanitize(e.getClass().getSimpleName() + ": " + e.getMessage());
     }
 
     @SuppressWarnings("unchecked")
-    private String callOneMinAi(String prompt) {
+    private Mono<String> callOneMinAi(Target target, String prompt, int maxWords) {
         // Combine system prompt and user prompt into one
         String fullPrompt = buildSystemPrompt() + "\n\n" + prompt;
         
@@ -124,26 +254,25 @@ private String callOneMinAi(String prompt) {
                 "prompt", fullPrompt,
                 "isMixed", false,
                 "webSearch", false,
-                "maxWord", 800
+                "maxWord", maxWords
         );
         
         Map<String, Object> request = Map.of(
                 "type", "CHAT_WITH_AI",
-                "model", model,
+                "model", target.model(),
                 "promptObject", promptObject
         );
 
-        log.debug("Calling 1min.ai API with model: {}", LogSanitizer.sanitize(model));
-
-        Map<String, Object> response = webClient.post()
-                .contentType(Objects.requireNonNull(MediaType.APPLICATION_JSON))
-                .header("API-KEY", apiKey)
-                .bodyValue(Objects.requireNonNull(request))
-                .retrieve()
-                .bodyToMono(Map.class)
-                .block();
-
-        return extractSummary(response);
+        return Mono.defer(() -> {
+            log.debug("Calling 1min.ai API with model: {}", LogSanitizer.sanitize(target.model()));
+            return target.webClient().post()
+                    .contentType(Objects.requireNonNull(MediaType.APPLICATION_JSON))
+                    .header("API-KEY", target.apiKey())
+                    .bodyValue(Objects.requireNonNull(request))
+                    .retrieve()
+                    .bodyToMono(Map.class)
+                    .map(response -> extractSummary((Map<String, Object>) response));
+        });
     }
 
     private String buildSystemPrompt() {
@@ -191,6 +320,70 @@ private String buildPrompt(LocalDate date, List<String> headlines) {
         return sb.toString();
     }
 
+    private String buildMapPrompt(LocalDate date, List<String> headlines) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("These are some of the cryptocurrency news items of ").append(date).append(".\n\n");
+        sb.append("Write notes on them for the daily market report, which is written later from the notes on all of the day's news:\n\n");
+        sb.append(headlineList(headlines)).append("\n\n");
+        sb.append("Requirements:\n");
+        sb.append("- Write only notes, not the report: no headings, executive summary or outlook\n");
+        sb.append("- One line per significant development, grouping related items\n");
+        sb.append("- Keep names, figures and sources\n");
+        sb.append("- Leave out items of little significance\n");
+        sb.append("- At most 120 words\n");
+
+        return sb.toString();
+    }
+
+    private String buildReducePrompt(LocalDate date, List<String> notes) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Create a comprehensive cryptocurrency market report for ").append(date).append(".\n\n");
+        sb.append("The day's news items were summarized in batches, newest first. Synthesize these notes into a cohesive report:\n\n");
+
+        for (int i = 0; i < notes.size(); i++) {
+            sb.append("Batch ").append(i + 1).append(":\n").append(notes.get(i)).append("\n\n");
+        }
+
+        sb.append("Requirements:\n");
+        sb.append("- Provide a comprehensive analysis that connects related developments across batches\n");
+        sb.append("- Identify and explain key trends and patterns\n");
+        sb.append("- Highlight the most significant developments\n");
+        sb.append("- Include relevant context and implications\n");
+        sb.append("- Write 4-6 well-structured paragraphs (approximately 500-800 words)\n");
+        sb.append("- Use clear headings for different sections\n");
+        sb.append("- Maintain a professional, analytical tone\n");
+
+        return sb.toString();
+    }
+
+    private static String headlineList(List<String> headlines) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < headlines.size(); i++) {
+            sb.append(i + 1).append(". ").append(headlines.get(i)).append("\n");
+        }
+        return sb.toString().trim();
+    }
+
+    private String buildUpdatePrompt(LocalDate date, String reportContext, List<String> newHeadlines) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Earlier today you wrote the cryptocurrency market report for ").append(date).append(". It begins:\n\n");
+        sb.append(reportContext).append("\n\n");
+        sb.append("These news items arrived after it was written:\n\n");
+
+        for (int i = 0; i < newHeadlines.size(); i++) {
+            sb.append(i + 1).append(". ").append(newHeadlines.get(i)).append("\n");
+        }
+
+        sb.append("\n");
+        sb.append("Requirements:\n");
+        sb.append("- Write only the update, not the whole report again\n");
+        sb.append("- Cover the new items and how they change the picture in the report\n");
+        sb.append("- Do not repeat what the report already says\n");
+        sb.append("- Write 1-2 short paragraphs (at most 150 words) without a heading\n");
+
+        return sb.toString();
+    }
+
     @SuppressWarnings("unchecked")
     private String extractSummary(Map<String, Object> response) {
         if (response == null) {
@@ -248,4 +441,21 @@ private String buildFallbackSummary(LocalDate date, List<String> headlines, Stri
         sb.append("\n*Full AI-powered analysis will be available once the service is restored.*");
         return sb.toString();
     }
+
+    private String buildFallbackUpdate(List<String> newHeadlines) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("*Note: AI summarization temporarily unavailable; new headlines since the last update:*\n\n");
+
+        for (String headline : newHeadlines) {
+            sb.append("- ").append(headline).append("\n");
+        }
+
+        return sb.toString().trim();
+    }
+
+    /**
+     * The client, key and model requests to one backend are sent with.
+     */
+    private record Target(WebClient webClient, String apiKey, String model) {
+    }
 }
@@ -0,0 +1,177 @@
+package com.novareport.reporter_service.service;
+
+import com.novareport.reporter_service.config.PromptProperties;
+import com.novareport.reporter_service.util.TokenEstimator;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.regex.Pattern;
+
+/**
+ * Chooses which stories go into a summary prompt, and how much of each, so the prompt's news fits a token
+ * budget.
+ * <p>
+ * Every story can be left out, given as its headline, or given as its headline followed by the start of its
+ * summary. A story is worth its number of sources, halved every {@code reporter.prompt.recency-half-life}
+ * of age; its summary adds half as much again. The packer takes the options with the most worth per token
+ * first, as long as they fit, so a summary is only added once its headline is in and cheap headlines of
+ * well-covered stories beat long summaries of minor ones. Token counts come from {@link TokenEstimator}.
+ */
+@Component
+public class PromptPacker {
+
+    /**
+     * Tokens of the numbering and line break each entry gets in the prompt.
+     */
+    static final int ENTRY_OVERHEAD_TOKENS = 3;
+    private static final double SUMMARY_WEIGHT = 0.5;
+    private static final Pattern TAG = Pattern.compile("<[^>]*>");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final PromptProperties properties;
+
+    public PromptPacker(PromptProperties properties) {
+        this.properties = properties;
+    }
+
+    public int tokenBudget(String model) {
+        return properties.resolvedTokenBudget(model);
+    }
+
+    /**
+     * Prompt entries for at most {@code maxEntries} of {@code stories} within {@code tokenBudget} tokens, in
+     * the order of {@code stories}.
+     */
+    public List<String> pack(List<Story> stories, int tokenBudget, int maxEntries, Instant now) {
+        List<Entry> entries = new ArrayList<>(stories.size());
+        PriorityQueue<Option> options = new PriorityQueue<>(Comparator.comparingDouble(Option::worthPerToken).reversed());
+        for (Story story : stories) {
+            Entry entry = entry(story, now);
+            entries.add(entry);
+            options.add(new Option(entry, false, entry.worth, entry.headlineTokens));
+        }
+
+        int used = 0;
+        int taken = 0;
+        while (!options.isEmpty()) {
+            Option option = options.poll();
+            if (used + option.tokens() > tokenBudget || !option.summary() && taken >= maxEntries) {
+                continue;
+            }
+            used += option.tokens();
+            Entry entry = option.entry();
+            if (option.summary()) {
+                entry.level = Level.SUMMARY;
+            } else {
+                entry.level = Level.HEADLINE;
+                taken++;
+                if (entry.withSummary != null) {
+                    options.add(new Option(entry, true, entry.worth * SUMMARY_WEIGHT, entry.summaryTokens - entry.headlineTokens));
+                }
+            }
+        }
+
+        List<String> packed = new ArrayList<>(taken);
+        for (Entry entry : entries) {
+            if (entry.level == Level.SUMMARY) {
+                packed.add(entry.withSummary);
+            } else if (entry.level == Level.HEADLINE) {
+                packed.add(entry.headline);
+            }
+        }
+        return packed;
+    }
+
+    /**
+     * Tokens {@code entries} take in a prompt.
+     */
+    public static int tokens(List<String> entries) {
+        int tokens = 0;
+        for (String entry : entries) {
+            tokens += TokenEstimator.estimate(entry) + ENTRY_OVERHEAD_TOKENS;
+        }
+        return tokens;
+    }
+
+    private Entry entry(Story story, Instant now) {
+        String headline = story.title() + " (" + String.join(", ", story.sources()) + ")";
+        String excerpt = excerpt(story.summary(), properties.resolvedSummaryChars());
+        String withSummary = excerpt.isEmpty() ? null : headline + ": " + excerpt;
+
+        Duration age = story.publishedAt() == null || story.publishedAt().isAfter(now)
+            ? Duration.ZERO
+            : Duration.between(story.publishedAt(), now);
+        double halfLives = (double) age.toSeconds() / properties.resolvedRecencyHalfLife().toSeconds();
+        double worth = Math.max(1, story.sources().size()) * Math.pow(0.5, halfLives);
+
+        return new Entry(
+            headline,
+            withSummary,
+            worth,
+            TokenEstimator.estimate(headline) + ENTRY_OVERHEAD_TOKENS,
+            withSummary == null ? 0 : TokenEstimator.estimate(withSummary) + ENTRY_OVERHEAD_TOKENS
+        );
+    }
+
+    /**
+     * The summary as plain text on one line, cut at a word boundary to at most {@code maxChars} characters.
+     */
+    static String excerpt(String summary, int maxChars) {
+        if (summary == null || maxChars == 0) {
+            return "";
+        }
+        String text = WHITESPACE.matcher(TAG.matcher(summary).replaceAll(" ")).replaceAll(" ").strip();
+        if (text.length() <= maxChars) {
+            return text;
+        }
+        String cut = text.substring(0, maxChars);
+        int space = cut.lastIndexOf(' ');
+        return (space > maxChars / 2 ? cut.substring(0, space) : cut).stripTrailing() + "...";
+    }
+
+    /**
+     * A story of the prompt window: the newest headline of a cluster and every source that covered it.
+     */
+    public record Story(String title, List<String> sources, String summary, Instant publishedAt) {
+
+        public Story {
+            sources = List.copyOf(sources);
+        }
+    }
+
+    private enum Level {
+        NONE,
+        HEADLINE,
+        SUMMARY
+    }
+
+    private static final class Entry {
+
+        private final String headline;
+        private final String withSummary;
+        private final double worth;
+        private final int headlineTokens;
+        private final int summaryTokens;
+        private Level level = Level.NONE;
+
+        private Entry(String headline, String withSummary, double worth, int headlineTokens, int summaryTokens) {
+            this.headline = headline;
+            this.withSummary = withSummary;
+            this.worth = worth;
+            this.headlineTokens = headlineTokens;
+            this.summaryTokens = summaryTokens;
+        }
+    }
+
+    private record Option(Entry entry, boolean summary, double worth, int tokens) {
+
+        double worthPerToken() {
+            return worth / Math.max(1, tokens);
+        }
+    }
+}
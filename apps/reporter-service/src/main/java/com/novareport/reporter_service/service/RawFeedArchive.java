@@ -0,0 +1,471 @@
+package com.novareport.reporter_service.service;
+
+import com.novareport.reporter_service.config.ArchiveProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Append-only on-disk archive of raw fetch payloads: RSS bodies and News API response pages.
+ * <p>
+ * Records are appended to numbered segment files in {@code reporter.archive.directory}. A new segment is
+ * started once the current one would grow past {@code segment-size}, and only the newest
+ * {@code max-segments} segments are kept. Every record is a header (magic, kind, fetch time, raw and
+ * compressed length, CRC-32 of the compressed bytes, source) followed by the payload, deflated while the
+ * body streams in. Segments are memory-mapped for reading. The index by source and fetch time is kept in
+ * memory and rebuilt from the record headers when the archive is opened; a torn record at the end of the
+ * last segment, left behind by a crash, is cut off.
+ * <p>
+ * Archiving never fails an ingest: write errors are logged and the payload is dropped.
+ */
+@Component
+public class RawFeedArchive implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(RawFeedArchive.class);
+
+    static final int MAGIC = 0x4E524146;
+    private static final int FIXED_HEADER = 4 + 1 + 8 + 4 + 4 + 4 + 2;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    public enum Kind {
+        RSS,
+        NEWS_API
+    }
+
+    /**
+     * Location of one archived payload. {@code offset} points at the compressed bytes inside the segment.
+     */
+    public record Entry(
+        Kind kind,
+        String source,
+        Instant fetchedAt,
+        long segment,
+        long offset,
+        int rawLength,
+        int compressedLength,
+        int crc
+    ) {
+    }
+
+    /**
+     * Decompressed payload of an entry, as handed to the ingest services on replay.
+     */
+    public record Payload(String source, Instant fetchedAt, byte[] body) {
+    }
+
+    private final ArchiveProperties properties;
+    private final List<Entry> entries = new ArrayList<>();
+    private final Map<String, List<Entry>> entriesBySource = new HashMap<>();
+    private final NavigableMap<Long, Path> segments = new TreeMap<>();
+    private final Map<Long, MappedByteBuffer> mappedSegments = new HashMap<>();
+    private FileChannel current;
+    private boolean opened;
+
+    public RawFeedArchive(ArchiveProperties properties) {
+        this.properties = properties;
+    }
+
+    public static RawFeedArchive disabled() {
+        return new RawFeedArchive(new ArchiveProperties(false, null, null, 0, false));
+    }
+
+    public boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    /**
+     * Starts recording one payload. The returned recorder does nothing when the archive is disabled.
+     */
+    public Recorder recorder(Kind kind, String source) {
+        return new Recorder(isEnabled() ? this : null, kind, source);
+    }
+
+    public void append(Kind kind, String source, Instant fetchedAt, byte[] payload) {
+        Recorder recorder = recorder(kind, source);
+        recorder.write(payload);
+        recorder.commit(fetchedAt);
+    }
+
+    /**
+     * Archived payloads fetched in {@code [from, to)}, oldest first.
+     */
+    public synchronized List<Entry> entries(Instant from, Instant to) {
+        return select(entries, from, to);
+    }
+
+    /**
+     * Archived payloads of one feed URL or provider fetched in {@code [from, to)}, oldest first.
+     */
+    public synchronized List<Entry> entries(String source, Instant from, Instant to) {
+        return select(entriesBySource.getOrDefault(source, List.of()), from, to);
+    }
+
+    private List<Entry> select(List<Entry> candidates, Instant from, Instant to) {
+        if (!isEnabled()) {
+            return List.of();
+        }
+        ensureOpen();
+        return candidates.stream()
+            .filter(entry -> !entry.fetchedAt().isBefore(from) && entry.fetchedAt().isBefore(to))
+            .sorted(Comparator.comparing(Entry::fetchedAt))
+            .toList();
+    }
+
+    /**
+     * Returns the decompressed payload of an entry.
+     *
+     * @throws IllegalStateException if the record is damaged or its segment was rotated away
+     */
+    public synchronized byte[] read(Entry entry) {
+        ensureOpen();
+        ByteBuffer compressed = slice(entry);
+        CRC32 crc = new CRC32();
+        crc.update(compressed.duplicate());
+        if ((int) crc.getValue() != entry.crc()) {
+            throw new IllegalStateException("Archived payload in segment " + entry.segment() + " at " + entry.offset() + " is damaged");
+        }
+
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(compressed);
+            byte[] payload = new byte[entry.rawLength()];
+            int length = 0;
+            while (length < payload.length && !inflater.finished()) {
+                int inflated = inflater.inflate(payload, length, payload.length - length);
+                if (inflated == 0 && inflater.needsInput()) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != payload.length) {
+                throw new IllegalStateException("Archived payload in segment " + entry.segment() + " at " + entry.offset() + " is truncated");
+            }
+            return payload;
+        } catch (DataFormatException ex) {
+            throw new IllegalStateException("Archived payload in segment " + entry.segment() + " at " + entry.offset() + " is damaged", ex);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private ByteBuffer slice(Entry entry) {
+        Path path = segments.get(entry.segment());
+        if (path == null) {
+            throw new IllegalStateException("Archive segment " + entry.segment() + " no longer exists");
+        }
+        long end = entry.offset() + entry.compressedLength();
+        MappedByteBuffer mapped = mappedSegments.get(entry.segment());
+        try {
+            if (mapped == null || mapped.capacity() < end) {
+                mapped = map(path);
+                mappedSegments.put(entry.segment(), mapped);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return mapped.slice((int) entry.offset(), entry.compressedLength());
+    }
+
+    synchronized void store(Kind kind, String source, Instant fetchedAt, byte[] compressed, int rawLength) {
+        try {
+            ensureOpen();
+            byte[] sourceBytes = truncatedSource(source);
+            CRC32 crc = new CRC32();
+            crc.update(compressed);
+
+            ByteBuffer header = ByteBuffer.allocate(FIXED_HEADER + sourceBytes.length)
+                .putInt(MAGIC)
+                .put((byte) kind.ordinal())
+                .putLong(fetchedAt.toEpochMilli())
+                .putInt(rawLength)
+                .putInt(compressed.length)
+                .putInt((int) crc.getValue())
+                .putShort((short) sourceBytes.length)
+                .put(sourceBytes)
+                .flip();
+
+            long recordSize = (long) header.remaining() + compressed.length;
+            if (recordSize > properties.resolvedSegmentSize()) {
+                log.warn("Not archiving {} payload of {} bytes, it does not fit into one segment", kind, compressed.length);
+                return;
+            }
+            if (current.size() > 0 && current.size() + recordSize > properties.resolvedSegmentSize()) {
+                rotate();
+            }
+            long offset = current.size() + header.remaining();
+            ByteBuffer payload = ByteBuffer.wrap(compressed);
+            while (header.hasRemaining() || payload.hasRemaining()) {
+                current.write(new ByteBuffer[] {header, payload});
+            }
+            index(new Entry(
+                kind,
+                new String(sourceBytes, StandardCharsets.UTF_8),
+                Instant.ofEpochMilli(fetchedAt.toEpochMilli()),
+                segments.lastKey(),
+                offset,
+                rawLength,
+                compressed.length,
+                (int) crc.getValue()
+            ));
+        } catch (IOException | UncheckedIOException ex) {
+            log.warn("Could not archive {} payload: {}", kind, ex.getMessage());
+        }
+    }
+
+    private static byte[] truncatedSource(String source) {
+        byte[] bytes = (source == null ? "" : source).getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= Short.MAX_VALUE) {
+            return bytes;
+        }
+        byte[] truncated = new byte[Short.MAX_VALUE];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        return truncated;
+    }
+
+    private void index(Entry entry) {
+        entries.add(entry);
+        entriesBySource.computeIfAbsent(entry.source(), key -> new ArrayList<>()).add(entry);
+    }
+
+    private void ensureOpen() {
+        if (opened) {
+            return;
+        }
+        try {
+            Path directory = properties.resolvedDirectory();
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                files.forEach(path -> segmentNumber(path).ifPresent(number -> segments.put(number, path)));
+            }
+            for (Map.Entry<Long, Path> segment : segments.entrySet()) {
+                scan(segment.getKey(), segment.getValue(), segment.getKey().equals(segments.lastKey()));
+            }
+            if (segments.isEmpty()) {
+                segments.put(1L, directory.resolve(segmentFileName(1L)));
+            }
+            current = FileChannel.open(segments.lastEntry().getValue(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            opened = true;
+            log.info(
+                "Opened raw feed archive {} with {} segments and {} payloads",
+                directory.toAbsolutePath(),
+                segments.size(),
+                entries.size()
+            );
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not open raw feed archive", ex);
+        }
+    }
+
+    /**
+     * Indexes the records of one segment. Scanning stops at the first damaged record; in the last
+     * segment the damaged tail is truncated so new records are appended after the last good one.
+     */
+    private void scan(long number, Path path, boolean last) throws IOException {
+        MappedByteBuffer buffer = map(path);
+        int position = 0;
+        Kind[] kinds = Kind.values();
+        while (buffer.capacity() - position > 0) {
+            if (buffer.capacity() - position < FIXED_HEADER || buffer.getInt(position) != MAGIC) {
+                break;
+            }
+            int kind = buffer.get(position + 4);
+            long fetchedAt = buffer.getLong(position + 5);
+            int rawLength = buffer.getInt(position + 13);
+            int compressedLength = buffer.getInt(position + 17);
+            int crc = buffer.getInt(position + 21);
+            int sourceLength = buffer.getShort(position + 25);
+            long payloadOffset = (long) position + FIXED_HEADER + sourceLength;
+            if (kind < 0 || kind >= kinds.length || sourceLength < 0 || rawLength < 0 || compressedLength < 0
+                || payloadOffset + compressedLength > buffer.capacity()) {
+                break;
+            }
+            if (last) {
+                CRC32 check = new CRC32();
+                check.update(buffer.slice((int) payloadOffset, compressedLength));
+                if ((int) check.getValue() != crc) {
+                    break;
+                }
+            }
+            byte[] source = new byte[sourceLength];
+            buffer.get(position + FIXED_HEADER, source);
+            index(new Entry(kinds[kind], new String(source, StandardCharsets.UTF_8), Instant.ofEpochMilli(fetchedAt), number, payloadOffset, rawLength, compressedLength, crc));
+            position = (int) (payloadOffset + compressedLength);
+        }
+
+        if (position < buffer.capacity()) {
+            log.warn("Raw feed archive segment {} is damaged after {} bytes", path.getFileName(), position);
+            if (last) {
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                    channel.truncate(position);
+                }
+                return;
+            }
+        }
+        mappedSegments.put(number, buffer);
+    }
+
+    private void rotate() throws IOException {
+        current.force(false);
+        current.close();
+        long next = segments.lastKey() + 1;
+        Path path = properties.resolvedDirectory().resolve(segmentFileName(next));
+        segments.put(next, path);
+        current = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        log.info("Raw feed archive rotated to segment {}", path.getFileName());
+
+        while (segments.size() > properties.resolvedMaxSegments()) {
+            Map.Entry<Long, Path> oldest = segments.pollFirstEntry();
+            mappedSegments.remove(oldest.getKey());
+            entries.removeIf(entry -> entry.segment() == oldest.getKey());
+            entriesBySource.values().forEach(list -> list.removeIf(entry -> entry.segment() == oldest.getKey()));
+            entriesBySource.values().removeIf(List::isEmpty);
+            Files.deleteIfExists(oldest.getValue());
+            log.info("Raw feed archive deleted oldest segment {}", oldest.getValue().getFileName());
+        }
+    }
+
+    private static MappedByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static String segmentFileName(long number) {
+        return String.format("%s%010d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX);
+    }
+
+    private static Optional<Long> segmentNumber(Path path) {
+        Path fileName = path.getFileName();
+        String name = fileName == null ? "" : fileName.toString();
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+        } catch (NumberFormatException ex) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (current != null) {
+            current.force(false);
+            current.close();
+            current = null;
+        }
+        mappedSegments.clear();
+        opened = false;
+        entries.clear();
+        entriesBySource.clear();
+        segments.clear();
+    }
+
+    /**
+     * Compresses one payload while it is read, so only the deflated bytes are held until it is committed.
+     * Not thread-safe; each fetch uses its own recorder.
+     */
+    public static final class Recorder {
+
+        private final RawFeedArchive archive;
+        private final Kind kind;
+        private final String source;
+        private final Deflater deflater;
+        private final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        private final byte[] chunk = new byte[8192];
+        private long rawLength;
+        private boolean done;
+
+        private Recorder(RawFeedArchive archive, Kind kind, String source) {
+            this.archive = archive;
+            this.kind = kind;
+            this.source = source;
+            this.deflater = archive != null ? new Deflater(Deflater.BEST_SPEED, true) : null;
+            this.done = archive == null;
+        }
+
+        /**
+         * Copies the readable bytes of the buffer without moving its read position.
+         */
+        public void write(DataBuffer buffer) {
+            if (done) {
+                return;
+            }
+            try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+                while (iterator.hasNext()) {
+                    write(iterator.next());
+                }
+            }
+        }
+
+        public void write(byte[] bytes) {
+            if (!done) {
+                write(ByteBuffer.wrap(bytes));
+            }
+        }
+
+        private void write(ByteBuffer bytes) {
+            rawLength += bytes.remaining();
+            deflater.setInput(bytes);
+            while (!deflater.needsInput()) {
+                compressed.write(chunk, 0, deflater.deflate(chunk));
+            }
+        }
+
+        /**
+         * Appends the recorded payload to the archive.
+         */
+        public void commit(Instant fetchedAt) {
+            if (done) {
+                return;
+            }
+            done = true;
+            try {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    compressed.write(chunk, 0, deflater.deflate(chunk));
+                }
+                if (rawLength <= Integer.MAX_VALUE) {
+                    archive.store(kind, source, fetchedAt, compressed.toByteArray(), (int) rawLength);
+                }
+            } finally {
+                deflater.end();
+            }
+        }
+
+        public void discard() {
+            if (!done) {
+                done = true;
+                deflater.end();
+            }
+        }
+    }
+}
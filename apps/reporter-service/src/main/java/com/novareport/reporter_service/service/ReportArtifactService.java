@@ -0,0 +1,92 @@
+package com.novareport.reporter_service.service;
+
+import com.novareport.reporter_service.domain.DailyReport;
+import com.novareport.reporter_service.domain.ReportArtifact;
+import com.novareport.reporter_service.domain.ReportArtifactRepository;
+import com.novareport.reporter_service.util.ReportMarkdown;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Renders report summaries to every {@link ReportArtifact.Format} once, when the report is built, so reads
+ * only hand out stored bytes. Compression runs at the highest level since it is paid once per build.
+ */
+@Service
+public class ReportArtifactService {
+
+    private final ReportArtifactRepository artifactRepository;
+
+    public ReportArtifactService(ReportArtifactRepository artifactRepository) {
+        this.artifactRepository = artifactRepository;
+    }
+
+    /**
+     * Renders and stores every format of the report, replacing the artifacts of an earlier build.
+     */
+    @Transactional
+    public List<ReportArtifact> render(DailyReport report) {
+        return Arrays.stream(ReportArtifact.Format.values())
+            .map(format -> {
+                ReportArtifact artifact = artifactRepository.findByReportIdAndFormat(report.getId(), format)
+                    .orElseGet(ReportArtifact::new);
+                fill(artifact, report, format);
+                return artifactRepository.save(artifact);
+            })
+            .toList();
+    }
+
+    /**
+     * Stored artifact of the report. Reports built before artifacts existed are rendered on the fly without
+     * being stored, so reads never write; the next rebuild stores them.
+     */
+    @Transactional(readOnly = true)
+    public ReportArtifact find(DailyReport report, ReportArtifact.Format format) {
+        return artifactRepository.findByReportIdAndFormat(report.getId(), format)
+            .orElseGet(() -> fill(new ReportArtifact(), report, format));
+    }
+
+    private static ReportArtifact fill(ReportArtifact artifact, DailyReport report, ReportArtifact.Format format) {
+        String rendered = switch (format) {
+            case HTML -> ReportMarkdown.toHtml(report.getSummary());
+            case TEXT -> ReportMarkdown.toText(report.getSummary());
+        };
+        byte[] body = rendered.getBytes(StandardCharsets.UTF_8);
+        artifact.setReportId(report.getId());
+        artifact.setFormat(format);
+        artifact.setBody(body);
+        artifact.setBodyGzip(gzip(body));
+        artifact.setEtag("\"" + DigestUtils.sha256Hex(body).substring(0, 32) + "\"");
+        artifact.setCreatedAt(Instant.now());
+        return artifact;
+    }
+
+    static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 2 + 32);
+        try (GZIPOutputStream gzip = new BestCompressionGzipOutputStream(compressed)) {
+            gzip.write(body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static final class BestCompressionGzipOutputStream extends GZIPOutputStream {
+
+        private BestCompressionGzipOutputStream(OutputStream out) throws IOException {
+            super(out);
+            def.setLevel(Deflater.BEST_COMPRESSION);
+        }
+    }
+}
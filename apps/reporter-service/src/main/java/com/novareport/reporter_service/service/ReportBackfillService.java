@@ -0,0 +1,233 @@
+package com.novareport.reporter_service.service;
+
+import com.novareport.reporter_service.config.BackfillProperties;
+import com.novareport.reporter_service.domain.ReportBackfillJob;
+import com.novareport.reporter_service.domain.ReportBackfillJobRepository;
+import com.novareport.reporter_service.util.LogSanitizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Rebuilds the reports of a date range from stored news items, each date from its own window.
+ * <p>
+ * Dates run on a pool of {@code reporter.backfill.workers} threads, while at most
+ * {@code reporter.backfill.summarizer-concurrency} of them talk to the summarizer at once; loading headlines
+ * and saving reports go on in parallel with those calls. Each finished date is checkpointed on its
+ * {@link ReportBackfillJob}, so an interrupted or partly failed job can be resumed. Rebuilt reports are not
+ * announced to subscribers.
+ */
+@Service
+public class ReportBackfillService implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportBackfillService.class);
+
+    private final DailyReportService dailyReportService;
+    private final ReportBackfillJobRepository jobRepository;
+    private final BackfillProperties properties;
+    private final ExecutorService driver;
+    private final ExecutorService workers;
+    private final Semaphore summarizerPermits;
+    private final AtomicReference<ReportBackfillJob> activeJob = new AtomicReference<>();
+    private volatile boolean closing;
+
+    public ReportBackfillService(
+        DailyReportService dailyReportService,
+        ReportBackfillJobRepository jobRepository,
+        BackfillProperties properties
+    ) {
+        this.dailyReportService = dailyReportService;
+        this.jobRepository = jobRepository;
+        this.properties = properties;
+        this.driver = Executors.newSingleThreadExecutor(threadFactory("report-backfill"));
+        this.workers = Executors.newFixedThreadPool(properties.resolvedWorkers(), threadFactory("report-backfill-worker"));
+        this.summarizerPermits = new Semaphore(properties.resolvedSummarizerConcurrency());
+    }
+
+    public ReportBackfillJob start(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("from and to are required");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must be on or before to");
+        }
+        if (to.isAfter(LocalDate.now())) {
+            throw new IllegalArgumentException("to must not be in the future");
+        }
+        long days = to.toEpochDay() - from.toEpochDay() + 1;
+        if (days > properties.resolvedMaxDays()) {
+            throw new IllegalArgumentException("backfill range must not exceed " + properties.resolvedMaxDays() + " days");
+        }
+
+        ReportBackfillJob job = new ReportBackfillJob();
+        job.setFromDate(from);
+        job.setToDate(to);
+        launch(job);
+        return job;
+    }
+
+    public ReportBackfillJob resume(UUID id) {
+        ReportBackfillJob job = jobRepository.findById(id)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Backfill job not found"));
+        if (job.getStatus() != ReportBackfillJob.Status.COMPLETED) {
+            launch(job);
+        }
+        return job;
+    }
+
+    public Optional<ReportBackfillJob> find(UUID id) {
+        return jobRepository.findById(id);
+    }
+
+    /**
+     * Rebuilds every date of the job that has no checkpoint yet and blocks until all of them finished.
+     */
+    RunResult run(ReportBackfillJob job) {
+        long start = System.nanoTime();
+        Set<LocalDate> done = job.completedTimings().keySet();
+        List<LocalDate> pending = job.getFromDate().datesUntil(job.getToDate().plusDays(1))
+            .filter(date -> !done.contains(date))
+            .toList();
+        log.info(
+            "Report backfill {} started: {} of {} dates pending, workers={}, summarizerConcurrency={}",
+            job.getId(),
+            pending.size(),
+            job.totalDates(),
+            properties.resolvedWorkers(),
+            properties.resolvedSummarizerConcurrency()
+        );
+
+        AtomicInteger rebuilt = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        CompletableFuture<?>[] dates = pending.stream()
+            .map(date -> CompletableFuture.supplyAsync(() -> rebuild(date), workers)
+                .whenComplete((elapsed, error) -> {
+                    if (error == null) {
+                        rebuilt.incrementAndGet();
+                        checkpoint(job, date, elapsed, null);
+                    } else {
+                        failed.incrementAndGet();
+                        checkpoint(job, date, null, error);
+                    }
+                }))
+            .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(dates).exceptionally(error -> null).join();
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        if (closing) {
+            return new RunResult(rebuilt.get(), failed.get(), elapsed);
+        }
+        synchronized (job) {
+            job.setStatus(job.failedDateList().isEmpty() ? ReportBackfillJob.Status.COMPLETED : ReportBackfillJob.Status.FAILED);
+            job.setFinishedAt(Instant.now());
+            jobRepository.save(job);
+        }
+        log.info(
+            "Report backfill {} finished with status {}: rebuilt={}, failed={}, elapsedMs={}",
+            job.getId(),
+            job.getStatus(),
+            rebuilt.get(),
+            failed.get(),
+            elapsed.toMillis()
+        );
+        return new RunResult(rebuilt.get(), failed.get(), elapsed);
+    }
+
+    /**
+     * Marks a job that is still running as interrupted, so it shows up as resumable after a restart.
+     */
+    @Override
+    public void close() {
+        closing = true;
+        ReportBackfillJob job = activeJob.getAndSet(null);
+        driver.shutdownNow();
+        workers.shutdownNow();
+        if (job == null) {
+            return;
+        }
+        synchronized (job) {
+            job.setStatus(ReportBackfillJob.Status.INTERRUPTED);
+            try {
+                jobRepository.save(job);
+            } catch (RuntimeException ex) {
+                log.warn("Could not mark report backfill {} as interrupted: {}", job.getId(), LogSanitizer.sanitize(ex.getMessage()));
+            }
+        }
+    }
+
+    private long rebuild(LocalDate date) {
+        long start = System.nanoTime();
+        List<String> headlines = dailyReportService.headlinesFor(date);
+        String summary;
+        summarizerPermits.acquireUninterruptibly();
+        try {
+            summary = dailyReportService.summarize(date, headlines);
+        } finally {
+            summarizerPermits.release();
+        }
+        dailyReportService.saveReport(date, summary);
+        return Duration.ofNanos(System.nanoTime() - start).toMillis();
+    }
+
+    private void checkpoint(ReportBackfillJob job, LocalDate date, Long elapsedMillis, Throwable error) {
+        synchronized (job) {
+            if (error == null) {
+                job.recordCompleted(date, elapsedMillis);
+                log.info("Report backfill {} rebuilt {} in {} ms", job.getId(), date, elapsedMillis);
+            } else {
+                job.recordFailed(date);
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                log.warn("Report backfill {} failed for {}: {}", job.getId(), date, LogSanitizer.sanitize(cause.getMessage()));
+            }
+            jobRepository.save(job);
+        }
+    }
+
+    private void launch(ReportBackfillJob job) {
+        if (!activeJob.compareAndSet(null, job)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A report backfill is already running");
+        }
+        try {
+            job.setStatus(ReportBackfillJob.Status.RUNNING);
+            job.setFinishedAt(null);
+            jobRepository.save(job);
+            driver.execute(() -> {
+                try {
+                    run(job);
+                } catch (RuntimeException ex) {
+                    log.error("Report backfill {} aborted", job.getId(), ex);
+                } finally {
+                    activeJob.compareAndSet(job, null);
+                }
+            });
+        } catch (RuntimeException ex) {
+            activeJob.compareAndSet(job, null);
+            throw ex;
+        }
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        return Thread.ofPlatform().name(prefix + "-", 1).daemon(true).factory();
+    }
+
+    public record RunResult(int rebuilt, int failed, Duration elapsed) {
+    }
+}
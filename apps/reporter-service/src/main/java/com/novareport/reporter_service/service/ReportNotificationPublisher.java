@@ -39,7 +39,7 @@ public ReportNotificationPublisher(
     }
 
     public void publish(LocalDate reportDate) {
-        Optional<DailyReport> report = dailyReportRepository.findByReportDate(reportDate);
+        Optional<DailyReport> report = dailyReportRepository.findTop1ByReportDateOrderBySlotStartDesc(reportDate);
         report.ifPresentOrElse(
             this::publish,
             () -> log.warn("No report available for {} to notify", LogSanitizer.sanitize(reportDate))
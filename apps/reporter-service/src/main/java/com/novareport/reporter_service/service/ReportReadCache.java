@@ -0,0 +1,229 @@
+package com.novareport.reporter_service.service;
+
+import com.novareport.reporter_service.domain.ReportArtifact;
+import com.novareport.reporter_service.dto.DailyReportResponse;
+import com.novareport.reporter_service.dto.PagedDailyReportsResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the latest report, its rendered artifacts and recently requested report pages as ready-made
+ * responses with a strong ETag.
+ * <p>
+ * Reports only change when one is built, so every entry is tagged with the cache version it was loaded at
+ * and {@link #invalidate()} simply moves the version on. A load that raced with a write is stored under the
+ * old version and never served. Pages are kept in an LRU of {@value #MAX_PAGES} entries.
+ */
+@Component
+public class ReportReadCache {
+
+    static final int MAX_PAGES = 64;
+
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicReference<Entry<Optional<Cached<DailyReportResponse>>>> latest = new AtomicReference<>();
+    private final PageLru pages = new PageLru();
+    private final Map<ReportArtifact.Format, Entry<Optional<ReportArtifact>>> artifacts = new ConcurrentHashMap<>();
+
+    private final Counter latestHits;
+    private final Counter latestMisses;
+    private final Counter pageHits;
+    private final Counter pageMisses;
+    private final Counter artifactHits;
+    private final Counter artifactMisses;
+    private final Counter latestNotModified;
+    private final Counter pageNotModified;
+    private final Counter artifactNotModified;
+
+    public ReportReadCache(MeterRegistry meterRegistry) {
+        this.latestHits = lookups(meterRegistry, "latest", "hit");
+        this.latestMisses = lookups(meterRegistry, "latest", "miss");
+        this.pageHits = lookups(meterRegistry, "page", "hit");
+        this.pageMisses = lookups(meterRegistry, "page", "miss");
+        this.artifactHits = lookups(meterRegistry, "artifact", "hit");
+        this.artifactMisses = lookups(meterRegistry, "artifact", "miss");
+        this.latestNotModified = notModified(meterRegistry, "latest");
+        this.pageNotModified = notModified(meterRegistry, "page");
+        this.artifactNotModified = notModified(meterRegistry, "artifact");
+    }
+
+    public Optional<Cached<DailyReportResponse>> latest(Supplier<Optional<DailyReportResponse>> loader) {
+        long current = version.get();
+        Entry<Optional<Cached<DailyReportResponse>>> entry = latest.get();
+        if (entry != null && entry.version() == current) {
+            latestHits.increment();
+            return entry.value();
+        }
+
+        latestMisses.increment();
+        Optional<Cached<DailyReportResponse>> loaded = loader.get().map(report -> new Cached<>(report, etag(report)));
+        latest.accumulateAndGet(new Entry<>(current, loaded), (previous, next) ->
+            previous != null && previous.version() > next.version() ? previous : next);
+        return loaded;
+    }
+
+    public Cached<PagedDailyReportsResponse> page(LocalDate from, LocalDate to, int page, int size, Supplier<PagedDailyReportsResponse> loader) {
+        long current = version.get();
+        PageKey key = new PageKey(from, to, page, size);
+        Entry<Cached<PagedDailyReportsResponse>> entry;
+        synchronized (pages) {
+            entry = pages.get(key);
+        }
+        if (entry != null && entry.version() == current) {
+            pageHits.increment();
+            return entry.value();
+        }
+
+        pageMisses.increment();
+        PagedDailyReportsResponse response = loader.get();
+        Cached<PagedDailyReportsResponse> loaded = new Cached<>(response, etag(response));
+        synchronized (pages) {
+            Entry<Cached<PagedDailyReportsResponse>> stored = pages.get(key);
+            if (stored == null || stored.version() <= current) {
+                pages.put(key, new Entry<>(current, loaded));
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Rendered artifact of the latest report in the given format.
+     */
+    public Optional<ReportArtifact> latestArtifact(ReportArtifact.Format format, Supplier<Optional<ReportArtifact>> loader) {
+        long current = version.get();
+        Entry<Optional<ReportArtifact>> entry = artifacts.get(format);
+        if (entry != null && entry.version() == current) {
+            artifactHits.increment();
+            return entry.value();
+        }
+
+        artifactMisses.increment();
+        Optional<ReportArtifact> loaded = loader.get();
+        artifacts.merge(format, new Entry<>(current, loaded), (previous, next) ->
+            previous.version() > next.version() ? previous : next);
+        return loaded;
+    }
+
+    /**
+     * Drops every cached response. Inside a transaction this happens after commit, so readers cannot
+     * cache the previous state again under the new version.
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump();
+                }
+            });
+            return;
+        }
+        bump();
+    }
+
+    public void recordLatestNotModified() {
+        latestNotModified.increment();
+    }
+
+    public void recordPageNotModified() {
+        pageNotModified.increment();
+    }
+
+    public void recordArtifactNotModified() {
+        artifactNotModified.increment();
+    }
+
+    private void bump() {
+        version.incrementAndGet();
+        latest.set(null);
+        artifacts.clear();
+        synchronized (pages) {
+            pages.clear();
+        }
+    }
+
+    static String etag(DailyReportResponse report) {
+        MessageDigest digest = DigestUtils.getSha256Digest();
+        update(digest, report);
+        return quoted(digest);
+    }
+
+    static String etag(PagedDailyReportsResponse page) {
+        MessageDigest digest = DigestUtils.getSha256Digest();
+        update(digest, page.page() + "/" + page.size() + "/" + page.totalElements() + "/" + page.totalPages());
+        for (DailyReportResponse report : page.content()) {
+            update(digest, report);
+        }
+        return quoted(digest);
+    }
+
+    private static void update(MessageDigest digest, DailyReportResponse report) {
+        update(digest, String.valueOf(report.id()));
+        update(digest, String.valueOf(report.reportDate()));
+        update(digest, String.valueOf(report.slotStart()));
+        update(digest, String.valueOf(report.createdAt()));
+        update(digest, String.valueOf(report.summary()));
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static String quoted(MessageDigest digest) {
+        return "\"" + Hex.encodeHexString(digest.digest()).substring(0, 32) + "\"";
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String cache, String result) {
+        return Counter.builder("reporter.reports.cache")
+            .description("Report read cache lookups")
+            .tag("cache", cache)
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private static Counter notModified(MeterRegistry meterRegistry, String cache) {
+        return Counter.builder("reporter.reports.not_modified")
+            .description("Report reads answered with 304 Not Modified")
+            .tag("cache", cache)
+            .register(meterRegistry);
+    }
+
+    public record Cached<T>(T body, String etag) {
+    }
+
+    private record Entry<T>(long version, T value) {
+    }
+
+    private record PageKey(LocalDate from, LocalDate to, int page, int size) {
+    }
+
+    private static final class PageLru extends LinkedHashMap<PageKey, Entry<Cached<PagedDailyReportsResponse>>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private PageLru() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<PageKey, Entry<Cached<PagedDailyReportsResponse>>> eldest) {
+            return size() > MAX_PAGES;
+        }
+    }
+}
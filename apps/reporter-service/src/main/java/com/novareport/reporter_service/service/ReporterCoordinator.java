@@ -32,13 +32,19 @@ public RssIngestService.IngestResult ingestNow() {
         long attempted = rssResult.attempted() + apiResult.attempted();
         long stored = rssResult.stored() + apiResult.stored();
 
-        return new RssIngestService.IngestResult(attempted, stored);
+        return new RssIngestService.IngestResult(attempted, stored, rssResult.feeds());
     }
 
+    /**
+     * Builds the report of the current slot and announces it, unless nothing new arrived and the previous
+     * report was kept, which subscribers have already been told about.
+     */
     public DailyReport buildReport(LocalDate date) {
-        DailyReport report = dailyReportService.buildReport(date);
-        notificationPublisher.publish(report);
-        return report;
+        DailyReportService.ReportBuild build = dailyReportService.buildReport(date);
+        if (build.mode() != DailyReportService.BuildMode.UNCHANGED) {
+            notificationPublisher.publish(build.report());
+        }
+        return build.report();
     }
 
 }
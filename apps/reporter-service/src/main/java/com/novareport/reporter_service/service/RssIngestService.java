@@ -1,40 +1,44 @@
 package com.novareport.reporter_service.service;
 
+import com.novareport.reporter_service.config.IngestProperties;
 import com.novareport.reporter_service.config.ReporterProperties;
+import com.novareport.reporter_service.domain.FeedState;
+import com.novareport.reporter_service.domain.FeedStateRepository;
 import com.novareport.reporter_service.domain.NewsItem;
 import com.novareport.reporter_service.domain.NewsItemRepository;
 import com.novareport.reporter_service.util.LogSanitizer;
-import com.rometools.rome.feed.synd.SyndEntry;
-import com.rometools.rome.feed.synd.SyndFeed;
-import com.rometools.rome.io.FeedException;
-import com.rometools.rome.io.SyndFeedInput;
-import com.rometools.rome.io.XmlReader;
+import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientRequestException;
 
 import reactor.core.publisher.Flux;
-import reactor.util.function.Tuple2;
-import reactor.util.function.Tuples;
+import reactor.core.publisher.Mono;
 import reactor.util.retry.Retry;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.time.Duration;
 import java.time.Instant;
-import java.time.OffsetDateTime;
-import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -44,14 +48,42 @@ public class RssIngestService {
 
     private final WebClient webClient;
     private final ReporterProperties properties;
+    private final IngestProperties ingestProperties;
+    private final StreamingFeedParser feedParser;
     private final NewsItemRepository newsItemRepository;
+    private final FeedStateRepository feedStateRepository;
+    private final StoryClusterer storyClusterer;
+    private final FeedPollPolicy pollPolicy;
+    private final RawFeedArchive archive;
+    private final NewsItemDedupIndex dedupIndex;
 
-    public RssIngestService(WebClient webClient, ReporterProperties properties, NewsItemRepository newsItemRepository) {
+    public RssIngestService(
+        @Qualifier("feedWebClient") WebClient webClient,
+        ReporterProperties properties,
+        IngestProperties ingestProperties,
+        StreamingFeedParser feedParser,
+        NewsItemRepository newsItemRepository,
+        FeedStateRepository feedStateRepository,
+        StoryClusterer storyClusterer,
+        FeedPollPolicy pollPolicy,
+        RawFeedArchive archive,
+        NewsItemDedupIndex dedupIndex
+    ) {
         this.webClient = webClient;
         this.properties = properties;
+        this.ingestProperties = ingestProperties;
+        this.feedParser = feedParser;
         this.newsItemRepository = newsItemRepository;
+        this.feedStateRepository = feedStateRepository;
+        this.storyClusterer = storyClusterer;
+        this.pollPolicy = pollPolicy;
+        this.archive = archive;
+        this.dedupIndex = dedupIndex;
     }
 
+    /**
+     * Fetches every configured feed, regardless of its poll schedule.
+     */
     @Transactional
     public IngestResult ingest() {
         List<String> feeds = properties.rssFeeds();
@@ -59,63 +91,198 @@ public IngestResult ingest() {
             log.warn("No RSS feeds configured, skipping ingest");
             return IngestResult.empty();
         }
+        return ingestFeeds(feeds);
+    }
+
+    /**
+     * Fetches the given feeds only, as selected by {@link FeedPollScheduler}.
+     */
+    @Transactional
+    public IngestResult ingest(Collection<String> feedUrls) {
+        if (feedUrls.isEmpty()) {
+            return IngestResult.empty();
+        }
+        return ingestFeeds(List.copyOf(feedUrls));
+    }
+
+    /**
+     * Parses archived feed bodies and stores their entries like a fetch would, without touching the
+     * network or the feeds' poll state. Watermarks are not applied, so every archived entry is offered
+     * again and only the {@code url_key} deduplication decides what is new.
+     */
+    @Transactional
+    public IngestResult ingestArchived(List<RawFeedArchive.Payload> payloads) {
+        if (payloads.isEmpty()) {
+            return IngestResult.empty();
+        }
 
-        List<NewsItem> items = collectNewsItems(feeds);
+        int maxEntries = ingestProperties.resolvedMaxEntriesPerFeed();
+        List<FeedFetch> fetches = Flux.fromIterable(payloads)
+            .flatMapSequential(payload -> feedParser
+                .parse(payload.source(), Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(payload.body())), maxEntries, null, null)
+                .collectList()
+                .map(items -> new FeedFetch(payload.source(), FeedOutcome.UPDATED, items, null, null, null, null, 0))
+                .onErrorResume(StreamingFeedParser.FeedParseException.class, ex -> Mono.just(FeedFetch.failed(payload.source(), FeedOutcome.FAILED, 0))),
+                ingestProperties.resolvedMaxConcurrentFeeds())
+            .collectList()
+            .blockOptional()
+            .orElse(List.of());
+        List<FeedResult> feedResults = toFeedResults(fetches);
+
+        List<NewsItem> items = toNewsItems(fetches);
+        if (items.isEmpty()) {
+            return new IngestResult(0, 0, feedResults);
+        }
+        long stored = persistNewItems(deduplicateByUrlKey(items));
+        return new IngestResult(items.size(), stored, feedResults);
+    }
+
+    private IngestResult ingestFeeds(List<String> feeds) {
+        Map<String, FeedState> states = loadFeedStates(feeds);
+        List<FeedFetch> fetches = fetchFeeds(feeds, states);
+        updateFeedStates(fetches, states);
+        List<FeedResult> feedResults = toFeedResults(fetches);
+        logFeedOutcomes(feedResults);
+
+        List<NewsItem> items = toNewsItems(fetches);
         long attempted = (long) items.size();
         if (attempted == 0) {
             log.info("RSS ingest completed: no entries processed");
-            return new IngestResult(0, 0);
+            return new IngestResult(0, 0, feedResults);
         }
 
-        Map<String, NewsItem> deduped = deduplicateByHash(items);
+        Map<UUID, NewsItem> deduped = deduplicateByUrlKey(items);
         long stored = persistNewItems(deduped);
         logIngestSummary(attempted, stored);
 
-        return new IngestResult(attempted, stored);
+        return new IngestResult(attempted, stored, feedResults);
     }
 
-    private List<NewsItem> collectNewsItems(List<String> feeds) {
-        return Flux.fromIterable(feeds)
-            .flatMap(this::fetchFeed)
-            .flatMap(tuple -> Flux.fromIterable(tuple.getT2().getEntries())
-                .map(entry -> toNewsItem(tuple.getT2(), tuple.getT1(), entry)))
-            .onErrorContinue((ex, entry) -> log.warn(
-                "Failed to process entry {}: {}",
-                LogSanitizer.sanitize(entry),
-                LogSanitizer.sanitize(ex.getMessage())
-            ))
+    private Map<String, FeedState> loadFeedStates(List<String> feeds) {
+        return feedStateRepository.findAllById(feeds).stream()
+            .collect(Collectors.toMap(FeedState::getFeedUrl, state -> state, (first, second) -> first));
+    }
+
+    /**
+     * Fetches at most {@code maxConcurrentFeeds} feeds at a time and stops waiting once the ingest
+     * deadline has passed. Feeds still in flight at that point are cancelled and reported as
+     * {@link FeedOutcome#TIMED_OUT}; everything that completed before the deadline is kept.
+     */
+    private List<FeedFetch> fetchFeeds(List<String> feeds, Map<String, FeedState> states) {
+        Set<String> urls = new LinkedHashSet<>(feeds);
+        Duration deadline = ingestProperties.resolvedDeadline();
+
+        List<FeedFetch> completed = Flux.fromIterable(urls)
+            .flatMap(url -> fetchFeed(url, states.get(url)), ingestProperties.resolvedMaxConcurrentFeeds())
+            .take(deadline)
             .collectList()
             .blockOptional()
             .orElse(List.of());
+        if (completed.size() == urls.size()) {
+            return completed;
+        }
+
+        Set<String> finished = completed.stream().map(FeedFetch::url).collect(Collectors.toSet());
+        List<FeedFetch> fetches = new ArrayList<>(completed);
+        for (String url : urls) {
+            if (!finished.contains(url)) {
+                log.warn("RSS feed {} did not complete within the ingest deadline of {}", LogSanitizer.sanitize(url), deadline);
+                fetches.add(FeedFetch.failed(url, FeedOutcome.TIMED_OUT, deadline.toMillis()));
+            }
+        }
+        return fetches;
     }
 
-    private Map<String, NewsItem> deduplicateByHash(List<NewsItem> items) {
+    private void updateFeedStates(List<FeedFetch> fetches, Map<String, FeedState> states) {
+        if (fetches.isEmpty()) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        List<FeedState> updated = new ArrayList<>(fetches.size());
+        for (FeedFetch fetch : fetches) {
+            FeedState state = states.computeIfAbsent(fetch.url(), FeedState::new);
+            updated.add(state);
+            if (!fetch.outcome().isSuccess()) {
+                pollPolicy.onFailure(state, now);
+                continue;
+            }
+            if (fetch.etag() != null) {
+                state.setEtag(fetch.etag());
+            }
+            if (fetch.lastModified() != null) {
+                state.setLastModified(fetch.lastModified());
+            }
+            if (fetch.contentHash() != null) {
+                state.setContentHash(fetch.contentHash());
+            }
+            if (fetch.watermark() != null) {
+                state.setWatermarkPublishedAt(fetch.watermark().newest());
+                state.setSeenEntryKeys(fetch.watermark().encodedKeys());
+            }
+            state.setLastFetchedAt(now);
+            pollPolicy.onSuccess(
+                state,
+                fetch.outcome() == FeedOutcome.UPDATED ? fetch.items().size() : 0,
+                fetch.watermark() != null ? fetch.watermark().ttl() : null,
+                now
+            );
+        }
+        feedStateRepository.saveAll(updated);
+    }
+
+    private List<FeedResult> toFeedResults(List<FeedFetch> fetches) {
+        return fetches.stream()
+            .map(fetch -> new FeedResult(fetch.url(), fetch.outcome(), fetch.items().size(), fetch.durationMs()))
+            .toList();
+    }
+
+    private void logFeedOutcomes(List<FeedResult> feedResults) {
+        Map<FeedOutcome, Long> counts = new EnumMap<>(FeedOutcome.class);
+        for (FeedResult result : feedResults) {
+            counts.merge(result.outcome(), 1L, Long::sum);
+        }
+        log.info("RSS feed outcomes: feeds={}, outcomes={}", feedResults.size(), counts);
+    }
+
+    private List<NewsItem> toNewsItems(List<FeedFetch> fetches) {
+        List<NewsItem> items = new ArrayList<>();
+        for (FeedFetch fetch : fetches) {
+            if (fetch.outcome() == FeedOutcome.UPDATED) {
+                items.addAll(fetch.items());
+            }
+        }
+        return items;
+    }
+
+    private Map<UUID, NewsItem> deduplicateByUrlKey(List<NewsItem> items) {
         if (items.isEmpty()) {
             return Map.of();
         }
 
         return items.stream()
-            .filter(item -> item.getHash() != null)
+            .filter(item -> item.getUrlKey() != null)
             .collect(Collectors.toMap(
-                NewsItem::getHash,
+                NewsItem::getUrlKey,
                 item -> item,
                 (existing, replacement) -> existing,
                 LinkedHashMap::new
             ));
     }
 
-    private long persistNewItems(Map<String, NewsItem> deduped) {
+    private long persistNewItems(Map<UUID, NewsItem> deduped) {
         if (deduped.isEmpty()) {
             return 0L;
         }
 
-        Set<String> existing = newsItemRepository.findExistingHashes(deduped.keySet());
-        List<NewsItem> toPersist = deduped.entrySet().stream()
-            .filter(entry -> !existing.contains(entry.getKey()))
-            .map(Map.Entry::getValue)
-            .toList();
-
-        return toPersist.isEmpty() ? 0L : (long) newsItemRepository.saveAll(toPersist).size();
+        List<NewsItem> candidates = dedupIndex.withoutStored(deduped.values());
+        if (candidates.isEmpty()) {
+            return 0L;
+        }
+        storyClusterer.assign(candidates);
+        List<NewsItem> inserted = newsItemRepository.insertIgnoringDuplicates(candidates);
+        dedupIndex.recordInserted(inserted);
+        return inserted.size();
     }
 
     private void logIngestSummary(long attempted, long stored) {
@@ -131,126 +298,152 @@ private void logIngestSummary(long attempted, long stored) {
     }
 
     @SuppressWarnings("null")
-    private Flux<Tuple2<String, SyndFeed>> fetchFeed(String url) {
+    private Mono<FeedFetch> fetchFeed(String url, FeedState state) {
         long maxRetries = 2L;
         long totalAttempts = maxRetries + 1L;
-        log.info("Fetching RSS feed {}", LogSanitizer.sanitize(url));
-
-        return webClient
-            .get()
-            .uri(url)
-            .header(HttpHeaders.USER_AGENT, "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/130.0.0.0 Safari/537.36")
-            .accept(MediaType.APPLICATION_RSS_XML, MediaType.APPLICATION_XML, MediaType.APPLICATION_ATOM_XML)
-            .retrieve()
-            .bodyToMono(String.class)
-            .retryWhen(Retry
-                .backoff(maxRetries, Duration.ofSeconds(1))
-                .filter(ex -> ex instanceof WebClientRequestException)
-                .doBeforeRetry(retrySignal -> {
-                    Throwable failure = retrySignal.failure();
-                    long attempt = retrySignal.totalRetries() + 1L;
-                    log.warn("Retrying RSS feed fetch {} (attempt {}/{}) due to: {}",
+
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            log.info("Fetching RSS feed {}", LogSanitizer.sanitize(url));
+
+            return webClient
+                .get()
+                .uri(url)
+                .header(HttpHeaders.USER_AGENT, "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/130.0.0.0 Safari/537.36")
+                .accept(MediaType.APPLICATION_RSS_XML, MediaType.APPLICATION_XML, MediaType.APPLICATION_ATOM_XML)
+                .headers(headers -> applyConditionalHeaders(headers, state))
+                .exchangeToMono(response -> handleResponse(url, state, response))
+                .retryWhen(Retry
+                    .backoff(maxRetries, Duration.ofSeconds(1))
+                    .filter(ex -> ex instanceof WebClientRequestException)
+                    .doBeforeRetry(retrySignal -> {
+                        Throwable failure = retrySignal.failure();
+                        long attempt = retrySignal.totalRetries() + 1L;
+                        log.warn("Retrying RSS feed fetch {} (attempt {}/{}) due to: {}",
+                            LogSanitizer.sanitize(url),
+                            attempt,
+                            totalAttempts,
+                            failure != null ? LogSanitizer.sanitize(failure.getMessage()) : "unknown error");
+                    })
+                    .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .onErrorResume(ex -> {
+                    log.warn("Failed to fetch RSS feed {} after {} attempts: {}",
                         LogSanitizer.sanitize(url),
-                        attempt,
                         totalAttempts,
-                        failure != null ? LogSanitizer.sanitize(failure.getMessage()) : "unknown error");
+                        LogSanitizer.sanitize(ex.getMessage()));
+                    return Mono.just(FeedFetch.failed(url, FeedOutcome.FAILED, 0));
                 })
-                .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
-            .filter(xml -> xml != null)
-            .flatMapMany(xml -> parseFeed(url, xml))
-            .onErrorResume(ex -> {
-                log.warn("Failed to fetch RSS feed {} after {} attempts: {}",
-                    LogSanitizer.sanitize(url),
-                    totalAttempts,
-                    LogSanitizer.sanitize(ex.getMessage()));
-                return Flux.empty();
-            })
-            .map(feed -> Tuples.of(url, feed));
+                .map(fetch -> fetch.withDurationMs(elapsedMillis(start)));
+        });
     }
 
-    private Flux<SyndFeed> parseFeed(String url, String xml) {
-        String raw = xml == null ? "" : xml;
-        String sanitized = sanitizeXml(raw);
-        String preview = sanitized.length() > 200 ? sanitized.substring(0, 200) + "..." : sanitized;
-
-        if (!sanitized.trim().startsWith("<")) {
-            String[] lines = raw.split("\\R", 6);
-            int maxLines = Math.min(5, lines.length);
-            StringBuilder firstLinesBuilder = new StringBuilder();
-            for (int i = 0; i < maxLines; i++) {
-                if (i > 0) {
-                    firstLinesBuilder.append("\\n");
-                }
-                firstLinesBuilder.append(lines[i]);
-            }
-            String firstLines = firstLinesBuilder.toString();
-            log.warn(
-                "RSS feed {} did not start with XML markup. First {} line(s): {}",
-                LogSanitizer.sanitize(url),
-                maxLines,
-                LogSanitizer.sanitize(firstLines)
-            );
-            return Flux.empty();
-        }
+    private static long elapsedMillis(long startNanos) {
+        return Duration.ofNanos(System.nanoTime() - startNanos).toMillis();
+    }
 
-        try (XmlReader reader = new XmlReader(new ByteArrayInputStream(sanitized.getBytes(StandardCharsets.UTF_8)))) {
-            SyndFeed feed = new SyndFeedInput().build(reader);
-            int entries = feed.getEntries() == null ? 0 : feed.getEntries().size();
-            if (entries == 0) {
-                log.info("RSS feed {} parsed successfully but contained no entries", url);
-            } else {
-                log.info("RSS feed {} parsed successfully with {} entries", url, entries);
-            }
-            return Flux.just(feed);
-        } catch (FeedException | IOException | RuntimeException ex) {
-            log.warn("Failed to parse RSS feed {}: {}. Preview: {}",
-                LogSanitizer.sanitize(url),
-                LogSanitizer.sanitize(ex.getMessage()),
-                LogSanitizer.sanitize(preview.replaceAll("\\s+", " ")));
-            return Flux.empty();
+    private void applyConditionalHeaders(HttpHeaders headers, FeedState state) {
+        if (state == null) {
+            return;
+        }
+        if (state.getEtag() != null && !state.getEtag().isBlank()) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, state.getEtag());
+        }
+        if (state.getLastModified() != null && !state.getLastModified().isBlank()) {
+            headers.set(HttpHeaders.IF_MODIFIED_SINCE, state.getLastModified());
         }
     }
 
-    private String sanitizeXml(String xml) {
-        if (xml == null) {
-            return "";
-        }
+    /**
+     * Streams the body through the parser, hashing it on the way, so memory stays bounded by the parser's
+     * window whatever the feed size. An unchanged body is therefore still parsed; the conditional GET above
+     * keeps that rare for feeds with ETag or Last-Modified, and the watermark skips entries already seen.
+     * When the hash matches, the parsed items are dropped and the watermark is left where it was.
+     */
+    private Mono<FeedFetch> handleResponse(String url, FeedState state, ClientResponse response) {
+        HttpHeaders headers = response.headers().asHttpHeaders();
+        String etag = headers.getETag();
+        String lastModified = headers.getFirst(HttpHeaders.LAST_MODIFIED);
 
-        String sanitized = xml.stripLeading();
-        if (sanitized.startsWith("\uFEFF")) {
-            sanitized = sanitized.substring(1);
+        if (response.statusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+            log.info("RSS feed {} not modified since last fetch", LogSanitizer.sanitize(url));
+            return response.releaseBody()
+                .thenReturn(new FeedFetch(url, FeedOutcome.NOT_MODIFIED, List.of(), etag, lastModified, null, null, 0));
+        }
+        if (!response.statusCode().is2xxSuccessful()) {
+            return response.createError();
         }
-        return sanitized;
+
+        MessageDigest digest = DigestUtils.getSha256Digest();
+        FeedWatermark watermark = state == null
+            ? FeedWatermark.none()
+            : FeedWatermark.restore(state.getWatermarkPublishedAt(), state.getSeenEntryKeys(), properties.dedupWindow());
+        RawFeedArchive.Recorder recorder = archive.recorder(RawFeedArchive.Kind.RSS, url);
+        Flux<DataBuffer> body = response.bodyToFlux(DataBuffer.class).doOnNext(recorder::write);
+        return feedParser.parse(url, body, ingestProperties.resolvedMaxEntriesPerFeed(), digest, watermark)
+            .collectList()
+            .map(items -> {
+                String contentHash = Hex.encodeHexString(digest.digest());
+                if (state != null && contentHash.equals(state.getContentHash())) {
+                    log.info("RSS feed {} unchanged since last fetch", LogSanitizer.sanitize(url));
+                    return new FeedFetch(url, FeedOutcome.UNCHANGED, List.of(), etag, lastModified, contentHash, null, 0);
+                }
+                recorder.commit(Instant.now());
+                return new FeedFetch(url, FeedOutcome.UPDATED, items, etag, lastModified, contentHash, watermark, 0);
+            })
+            .onErrorResume(StreamingFeedParser.FeedParseException.class, ex -> {
+                // Bodies that fail to parse are the ones worth keeping; this is everything read up to the error.
+                recorder.commit(Instant.now());
+                return Mono.just(FeedFetch.failed(url, FeedOutcome.FAILED, 0));
+            })
+            .doFinally(signal -> recorder.discard());
     }
 
-    private NewsItem toNewsItem(SyndFeed feed, String feedUrl, SyndEntry entry) {
-        NewsItem item = new NewsItem();
-        item.setSource(feed != null && feed.getTitle() != null ? feed.getTitle() : feedUrl);
-        item.setUrl(entry.getLink());
-        item.setTitle(entry.getTitle());
-        item.setSummary(entry.getDescription() != null ? entry.getDescription().getValue() : null);
-        item.setPublishedAt(resolvePublishedAt(entry));
-        item.setHash(hash(entry.getLink(), entry.getTitle()));
-        item.setIngestedAt(Instant.now());
-        return item;
+    /**
+     * Result of fetching a single feed during an ingest run.
+     */
+    public enum FeedOutcome {
+        UPDATED,
+        NOT_MODIFIED,
+        UNCHANGED,
+        FAILED,
+        TIMED_OUT;
+
+        public boolean isSuccess() {
+            return this != FAILED && this != TIMED_OUT;
+        }
     }
 
-    private Instant resolvePublishedAt(SyndEntry entry) {
-        if (entry.getPublishedDate() != null) {
-            return entry.getPublishedDate().toInstant();
+    private record FeedFetch(
+        String url,
+        FeedOutcome outcome,
+        List<NewsItem> items,
+        String etag,
+        String lastModified,
+        String contentHash,
+        FeedWatermark watermark,
+        long durationMs
+    ) {
+        static FeedFetch failed(String url, FeedOutcome outcome, long durationMs) {
+            return new FeedFetch(url, outcome, List.of(), null, null, null, null, durationMs);
         }
-        if (entry.getUpdatedDate() != null) {
-            return entry.getUpdatedDate().toInstant();
+
+        FeedFetch withDurationMs(long elapsed) {
+            return new FeedFetch(url, outcome, items, etag, lastModified, contentHash, watermark, elapsed);
         }
-        return OffsetDateTime.now(ZoneOffset.UTC).toInstant();
     }
 
-    private String hash(String link, String title) {
-        String input = (link == null ? "" : link) + "::" + (title == null ? "" : title);
-        return DigestUtils.sha256Hex(input);
+    public record FeedResult(String url, FeedOutcome outcome, int entries, long durationMs) {
     }
 
-    public record IngestResult(long attempted, long stored) {
+    public record IngestResult(long attempted, long stored, List<FeedResult> feeds) {
+        public IngestResult {
+            feeds = feeds == null ? List.of() : List.copyOf(feeds);
+        }
+
+        public IngestResult(long attempted, long stored) {
+            this(attempted, stored, List.of());
+        }
+
         public static IngestResult empty() {
             return new IngestResult(0, 0);
         }
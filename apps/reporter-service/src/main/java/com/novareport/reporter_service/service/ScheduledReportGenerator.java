@@ -10,6 +10,7 @@
 /**
  * Scheduled job that generates reports every 4 hours.
  * Schedule: 00:00, 04:00, 08:00, 12:00, 16:00, 20:00
+ * News is ingested separately by {@link FeedPollScheduler}; reports only read what is already stored.
  */
 @Service
 public class ScheduledReportGenerator {
@@ -32,16 +33,8 @@ public void generateScheduledReport() {
         log.info("=== Starting scheduled report generation ===");
         
         try {
-            // Step 1: Ingest latest RSS feeds
-            log.info("Step 1: Ingesting RSS feeds...");
-            RssIngestService.IngestResult ingestResult = coordinator.ingestNow();
-            log.info("RSS ingest complete - Attempted: {}, Stored: {}, Duplicates: {}", 
-                ingestResult.attempted(), ingestResult.stored(), 
-                ingestResult.attempted() - ingestResult.stored());
-
-            // Step 2: Build report for today
             LocalDate today = LocalDate.now();
-            log.info("Step 2: Building report for {}...", today);
+            log.info("Building report for {}...", today);
             var report = coordinator.buildReport(today);
             log.info("Report generated successfully - ID: {}, Summary length: {} chars", 
                 report.getId(), report.getSummary().length());
@@ -0,0 +1,48 @@
+package com.novareport.reporter_service.service;
+
+import com.novareport.reporter_service.domain.SearchHit;
+import com.novareport.reporter_service.domain.SearchRepository;
+import com.novareport.reporter_service.dto.SearchCursor;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+@Service
+public class SearchService {
+
+    static final int MAX_QUERY_LENGTH = 200;
+
+    private final SearchRepository searchRepository;
+
+    public SearchService(SearchRepository searchRepository) {
+        this.searchRepository = searchRepository;
+    }
+
+    /**
+     * One slice of hits for {@code text}, best match first, newest first among equal ranks. Like
+     * {@link DailyReportService#scrollBetween}, one extra row is read to tell whether another slice follows.
+     */
+    @Transactional(readOnly = true)
+    public Window<SearchHit> search(String text, Set<SearchHit.Kind> kinds, LocalDate from, LocalDate to, SearchCursor after, int size) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("q must not be blank");
+        }
+        if (text.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("q must be at most " + MAX_QUERY_LENGTH + " characters");
+        }
+        if (text.codePoints().noneMatch(Character::isLetterOrDigit)) {
+            throw new IllegalArgumentException("q must contain a word");
+        }
+
+        List<SearchHit> rows = after == null
+            ? searchRepository.search(text, kinds, from, to, 0f, null, null, size + 1)
+            : searchRepository.search(text, kinds, from, to, after.rank(), after.at(), after.id(), size + 1);
+        boolean hasNext = rows.size() > size;
+        return Window.from(hasNext ? rows.subList(0, size) : rows, ScrollPosition::offset, hasNext);
+    }
+}
@@ -0,0 +1,242 @@
+package com.novareport.reporter_service.service;
+
+import com.novareport.reporter_service.config.ReporterProperties;
+import com.novareport.reporter_service.domain.NewsItem;
+import com.novareport.reporter_service.domain.NewsItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Groups copies of the same story from different sources into clusters before they are stored.
+ * <p>
+ * Every item gets a MinHash signature of {@value #SIGNATURE_SIZE} slots over the normalized words of its
+ * title, extended with the start of its summary when the title is too short to compare. Two items belong to the
+ * same story when the share of equal slots, an estimate of the Jaccard similarity of their word sets, is
+ * at least {@value #MIN_SIMILARITY}. The in-memory index hashes the signature in {@value #BANDS} bands
+ * of {@value #ROWS} slots, so a lookup only compares against stories that agree on a whole band; pairs
+ * at the threshold become candidates with a probability of about 98%. The index covers the dedup window:
+ * it is rebuilt from {@code news_items} on first use and stories published before the window are evicted.
+ */
+@Component
+public class StoryClusterer {
+
+    private static final Logger log = LoggerFactory.getLogger(StoryClusterer.class);
+
+    static final int SIGNATURE_SIZE = 48;
+    static final int BANDS = 16;
+    static final int ROWS = SIGNATURE_SIZE / BANDS;
+    static final double MIN_SIMILARITY = 0.6;
+    private static final int MIN_MATCHING_SLOTS = (int) Math.ceil(SIGNATURE_SIZE * MIN_SIMILARITY);
+
+    private static final int MIN_TOKENS = 3;
+    private static final int MAX_SUMMARY_TOKENS = 24;
+    private static final long[] SEEDS = seeds();
+
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "has", "have", "in", "is", "it",
+        "its", "of", "on", "or", "that", "the", "this", "to", "was", "were", "will", "with",
+        "amp", "nbsp", "quot", "apos", "lt", "gt"
+    );
+
+    private final NewsItemRepository newsItemRepository;
+    private final ReporterProperties properties;
+
+    private final Map<Long, List<IndexedStory>> buckets = new HashMap<>();
+    private boolean loaded;
+
+    public StoryClusterer(NewsItemRepository newsItemRepository, ReporterProperties properties) {
+        this.newsItemRepository = newsItemRepository;
+        this.properties = properties;
+    }
+
+    /**
+     * Sets {@code clusterId} on each item, joining the cluster of the most similar indexed story or
+     * starting a new one, and adds the items to the index.
+     */
+    public synchronized void assign(Collection<NewsItem> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        Instant threshold = Instant.now().minus(properties.dedupWindow());
+        if (!loaded) {
+            load(threshold);
+        } else {
+            evictBefore(threshold);
+        }
+
+        for (NewsItem item : items) {
+            int[] signature = signature(item.getTitle(), item.getSummary());
+            UUID clusterId = signature.length > 0 ? findCluster(signature) : null;
+            item.setClusterId(clusterId != null ? clusterId : UUID.randomUUID());
+            if (signature.length > 0) {
+                index(new IndexedStory(signature, item.getClusterId(), item.getPublishedAt()));
+            }
+        }
+    }
+
+    private void load(Instant threshold) {
+        List<NewsItem> recent = newsItemRepository.findAllByPublishedAtAfterAndClusterIdIsNotNull(threshold);
+        for (NewsItem item : recent) {
+            int[] signature = signature(item.getTitle(), item.getSummary());
+            if (signature.length > 0) {
+                index(new IndexedStory(signature, item.getClusterId(), item.getPublishedAt()));
+            }
+        }
+        loaded = true;
+        log.info("Loaded {} stories into the cluster index", recent.size());
+    }
+
+    private UUID findCluster(int[] signature) {
+        IndexedStory best = null;
+        int bestMatches = MIN_MATCHING_SLOTS - 1;
+        for (int band = 0; band < BANDS; band++) {
+            List<IndexedStory> bucket = buckets.get(bucketKey(band, signature));
+            if (bucket == null) {
+                continue;
+            }
+            for (IndexedStory story : bucket) {
+                int matches = matchingSlots(story.signature(), signature);
+                if (matches > bestMatches) {
+                    best = story;
+                    bestMatches = matches;
+                }
+            }
+        }
+        return best != null ? best.clusterId() : null;
+    }
+
+    private void index(IndexedStory story) {
+        for (int band = 0; band < BANDS; band++) {
+            buckets.computeIfAbsent(bucketKey(band, story.signature()), key -> new ArrayList<>(2)).add(story);
+        }
+    }
+
+    private void evictBefore(Instant threshold) {
+        Iterator<List<IndexedStory>> iterator = buckets.values().iterator();
+        while (iterator.hasNext()) {
+            List<IndexedStory> bucket = iterator.next();
+            bucket.removeIf(story -> story.publishedAt() != null && story.publishedAt().isBefore(threshold));
+            if (bucket.isEmpty()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    synchronized int indexedStories() {
+        return buckets.values().stream().mapToInt(List::size).sum() / BANDS;
+    }
+
+    private static long bucketKey(int band, int[] signature) {
+        long key = band;
+        for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+            key = key * 0x9e3779b97f4a7c15L + signature[row];
+        }
+        return mix(key);
+    }
+
+    static int matchingSlots(int[] left, int[] right) {
+        int matches = 0;
+        for (int slot = 0; slot < SIGNATURE_SIZE; slot++) {
+            if (left[slot] == right[slot]) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Computes the MinHash signature of a story, or an empty array when its title and summary together
+     * have too few meaningful words to compare. Summary words are only added for short titles because
+     * outlets rewrite the body of a story far more than its headline.
+     */
+    static int[] signature(String title, String summary) {
+        int[] signature = new int[SIGNATURE_SIZE];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        if (addTokens(signature, title, Integer.MAX_VALUE) >= MIN_TOKENS) {
+            return signature;
+        }
+        if (addTokens(signature, summary, MAX_SUMMARY_TOKENS) >= MIN_TOKENS) {
+            return signature;
+        }
+        return new int[0];
+    }
+
+    /**
+     * Folds the words of {@code text} into the signature and returns how many were used. Markup inside
+     * angle brackets is skipped, words are lower-cased with a trailing plural {@code s} removed, and stop
+     * words and single characters are ignored.
+     */
+    private static int addTokens(int[] signature, String text, int maxTokens) {
+        if (text == null) {
+            return 0;
+        }
+        int tokens = 0;
+        boolean inTag = false;
+        StringBuilder word = new StringBuilder(16);
+        for (int i = 0, length = text.length(); i <= length && tokens < maxTokens; i++) {
+            char c = i < length ? text.charAt(i) : ' ';
+            if (c == '<') {
+                inTag = true;
+            } else if (c == '>') {
+                inTag = false;
+            }
+            if (!inTag && Character.isLetterOrDigit(c)) {
+                word.append(Character.toLowerCase(c));
+                continue;
+            }
+            if (word.length() > 3 && word.charAt(word.length() - 1) == 's' && word.charAt(word.length() - 2) != 's') {
+                word.setLength(word.length() - 1);
+            }
+            if (word.length() > 1 && !STOP_WORDS.contains(word.toString())) {
+                long hash = fnv1a(word);
+                for (int slot = 0; slot < SIGNATURE_SIZE; slot++) {
+                    signature[slot] = Math.min(signature[slot], (int) (mix(hash ^ SEEDS[slot]) >>> 33));
+                }
+                tokens++;
+            }
+            word.setLength(0);
+        }
+        return tokens;
+    }
+
+    private static long fnv1a(CharSequence token) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < token.length(); i++) {
+            hash ^= token.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * SplitMix64 finalizer, turns one word hash into independent per-slot hashes.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long[] seeds() {
+        long[] seeds = new long[SIGNATURE_SIZE];
+        for (int slot = 0; slot < SIGNATURE_SIZE; slot++) {
+            seeds[slot] = mix(0x9e3779b97f4a7c15L * (slot + 1));
+        }
+        return seeds;
+    }
+
+    private record IndexedStory(int[] signature, UUID clusterId, Instant publishedAt) {
+    }
+}
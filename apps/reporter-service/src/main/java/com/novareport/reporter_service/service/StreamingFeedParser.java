@@ -0,0 +1,387 @@
+package com.novareport.reporter_service.service;
+
+import com.novareport.reporter_service.domain.NewsItem;
+import com.novareport.reporter_service.util.LogSanitizer;
+import com.novareport.reporter_service.util.UrlKeys;
+import com.rometools.rome.io.impl.DateParser;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SynchronousSink;
+import reactor.core.scheduler.Schedulers;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Deque;
+import java.util.Locale;
+
+/**
+ * Pull-based RSS 0.9x/1.0/2.0 and Atom parser that reads a feed straight from the
+ * response {@link DataBuffer} stream and emits one {@link NewsItem} per entry.
+ * <p>
+ * The document is never held in memory as a whole: buffers flow through a bounded
+ * {@link DataBufferUtils#subscriberInputStream} into a StAX reader, and at most
+ * {@code maxEntries} entries are read. Once that limit is reached the remaining
+ * body is only drained through the digest, so the content hash always covers the
+ * full response. Entries rejected by the feed's {@link FeedWatermark} are dropped
+ * before a {@link NewsItem} is built or hashed.
+ */
+@Component
+public class StreamingFeedParser {
+
+    private static final Logger log = LoggerFactory.getLogger(StreamingFeedParser.class);
+
+    private static final int BUFFER_DEMAND = 4;
+    private static final int PREVIEW_BYTES = 512;
+    private static final int MAX_TEXT_LENGTH = 64 * 1024;
+
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        return factory;
+    }
+
+    /**
+     * Parses the given body lazily. Blocking reads happen on the bounded elastic scheduler.
+     *
+     * @param feedUrl    feed URL, used as source fallback and in log messages
+     * @param body       raw response body
+     * @param maxEntries maximum number of entries to read
+     * @param digest     optional digest updated with every byte of the body
+     * @param watermark  optional watermark that filters already processed entries and records the current ones
+     * @return the parsed entries in document order; errors with {@link FeedParseException}
+     *     if the body is not a well-formed feed
+     */
+    public Flux<NewsItem> parse(
+        String feedUrl,
+        Publisher<DataBuffer> body,
+        int maxEntries,
+        MessageDigest digest,
+        FeedWatermark watermark
+    ) {
+        FeedWatermark entryFilter = watermark != null ? watermark : FeedWatermark.none();
+        return Flux.<NewsItem, FeedReader>generate(
+                () -> new FeedReader(feedUrl, open(feedUrl, body, digest), maxEntries, entryFilter),
+                (reader, sink) -> {
+                    reader.next(sink);
+                    return reader;
+                },
+                FeedReader::close
+            )
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private PushbackInputStream open(String feedUrl, Publisher<DataBuffer> body, MessageDigest digest) throws IOException {
+        InputStream source = DataBufferUtils.subscriberInputStream(body, BUFFER_DEMAND);
+        InputStream hashed = digest != null ? new DigestInputStream(source, digest) : source;
+        PushbackInputStream input = new PushbackInputStream(hashed, PREVIEW_BYTES);
+        try {
+            skipByteOrderMarkAndWhitespace(feedUrl, input);
+            return input;
+        } catch (IOException | RuntimeException ex) {
+            input.close();
+            throw ex;
+        }
+    }
+
+    private void skipByteOrderMarkAndWhitespace(String feedUrl, PushbackInputStream input) throws IOException {
+        byte[] bom = input.readNBytes(3);
+        boolean utf8Bom = bom.length == 3
+            && (bom[0] & 0xFF) == 0xEF
+            && (bom[1] & 0xFF) == 0xBB
+            && (bom[2] & 0xFF) == 0xBF;
+        if (!utf8Bom) {
+            input.unread(bom);
+        }
+
+        int first = input.read();
+        while (first == ' ' || first == '\t' || first == '\r' || first == '\n') {
+            first = input.read();
+        }
+
+        // UTF-16 documents start with their own byte order mark or a zero byte; the StAX reader handles those.
+        boolean markup = first == '<' || first == 0x00 || first == 0xFE || first == 0xFF;
+        if (!markup) {
+            byte[] preview = input.readNBytes(PREVIEW_BYTES);
+            String text = (first < 0 ? "" : String.valueOf((char) first)) + new String(preview, StandardCharsets.UTF_8);
+            String[] lines = text.split("\\R", 6);
+            int maxLines = Math.min(5, lines.length);
+            String firstLines = String.join("\\n", Arrays.asList(lines).subList(0, maxLines));
+            log.warn(
+                "RSS feed {} did not start with XML markup. First {} line(s): {}",
+                LogSanitizer.sanitize(feedUrl),
+                maxLines,
+                LogSanitizer.sanitize(firstLines)
+            );
+            throw new FeedParseException("Feed " + feedUrl + " did not start with XML markup");
+        }
+        input.unread(first);
+    }
+
+
+    private static Instant parseDate(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        Date date = DateParser.parseDate(value, Locale.US);
+        return date != null ? date.toInstant() : null;
+    }
+
+    private static Duration parseTtl(String value) {
+        try {
+            long minutes = Long.parseLong(value.trim());
+            return minutes > 0 ? Duration.ofMinutes(minutes) : null;
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Raw fields of one entry, kept as strings until the entry passes the watermark.
+     */
+    private record EntryFields(String guid, String title, String link, String description, String published, String updated) {
+
+        String key() {
+            if (guid != null) {
+                return guid;
+            }
+            return link != null ? link : title;
+        }
+
+        Instant publishedAt() {
+            Instant instant = parseDate(published);
+            return instant != null ? instant : parseDate(updated);
+        }
+
+        NewsItem toNewsItem(String source, Instant publishedAt) {
+            NewsItem item = new NewsItem();
+            item.setSource(source);
+            item.setUrl(link);
+            item.setTitle(title);
+            item.setSummary(description);
+            item.setPublishedAt(publishedAt != null ? publishedAt : Instant.now());
+            item.setUrlKey(UrlKeys.of(link, title));
+            item.setIngestedAt(Instant.now());
+            return item;
+        }
+    }
+
+    /**
+     * Signals that a feed body could not be parsed. Entries emitted before the failure should be discarded.
+     */
+    public static class FeedParseException extends RuntimeException {
+        public FeedParseException(String message) {
+            super(message);
+        }
+
+        public FeedParseException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    private static final class FeedReader {
+
+        private final String feedUrl;
+        private final PushbackInputStream input;
+        private final int maxEntries;
+        private final FeedWatermark watermark;
+        private final Deque<String> path = new ArrayDeque<>();
+        private XMLStreamReader reader;
+        private String feedTitle;
+        private int read;
+        private int emitted;
+
+        private FeedReader(String feedUrl, PushbackInputStream input, int maxEntries, FeedWatermark watermark) {
+            this.feedUrl = feedUrl;
+            this.input = input;
+            this.maxEntries = maxEntries;
+            this.watermark = watermark;
+        }
+
+        void next(SynchronousSink<NewsItem> sink) {
+            try {
+                if (reader == null) {
+                    reader = INPUT_FACTORY.createXMLStreamReader(input);
+                }
+                while (read < maxEntries) {
+                    EntryFields entry = readNextEntry();
+                    if (entry == null) {
+                        break;
+                    }
+                    read++;
+                    Instant published = entry.publishedAt();
+                    if (!watermark.observe(entry.key(), published)) {
+                        emitted++;
+                        sink.next(entry.toNewsItem(feedTitle != null ? feedTitle : feedUrl, published));
+                        return;
+                    }
+                }
+                if (read >= maxEntries) {
+                    log.debug("RSS feed {} reached the limit of {} entries", LogSanitizer.sanitize(feedUrl), maxEntries);
+                    input.transferTo(OutputStream.nullOutputStream());
+                }
+                logCompleted();
+                sink.complete();
+            } catch (XMLStreamException | IOException | RuntimeException ex) {
+                log.warn(
+                    "Failed to parse RSS feed {}: {}",
+                    LogSanitizer.sanitize(feedUrl),
+                    LogSanitizer.sanitize(ex.getMessage())
+                );
+                sink.error(new FeedParseException("Failed to parse feed " + feedUrl, ex));
+            }
+        }
+
+        private void logCompleted() {
+            if (read == 0) {
+                log.info("RSS feed {} parsed successfully but contained no entries", LogSanitizer.sanitize(feedUrl));
+            } else {
+                log.info(
+                    "RSS feed {} parsed successfully with {} entries ({} new, {} already processed)",
+                    LogSanitizer.sanitize(feedUrl),
+                    read,
+                    emitted,
+                    watermark.skipped()
+                );
+            }
+        }
+
+        private EntryFields readNextEntry() throws XMLStreamException {
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if ("item".equals(name) || "entry".equals(name)) {
+                        return readEntry();
+                    }
+                    String parent = path.peek();
+                    if ("title".equals(name) && feedTitle == null && ("channel".equals(parent) || "feed".equals(parent))) {
+                        feedTitle = blankToNull(readText());
+                    } else if ("ttl".equals(name) && "channel".equals(parent)) {
+                        watermark.recordTtl(parseTtl(readText()));
+                    } else {
+                        path.push(name);
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    path.poll();
+                }
+            }
+            return null;
+        }
+
+        private EntryFields readEntry() throws XMLStreamException {
+            String guid = null;
+            String title = null;
+            String link = null;
+            String description = null;
+            String published = null;
+            String updated = null;
+            int depth = 0;
+
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.END_ELEMENT) {
+                    if (depth == 0) {
+                        break;
+                    }
+                    depth--;
+                } else if (event == XMLStreamConstants.START_ELEMENT) {
+                    if (depth > 0) {
+                        depth++;
+                        continue;
+                    }
+                    switch (reader.getLocalName()) {
+                        case "guid", "id" -> guid = guid == null ? blankToNull(readText()) : skip(guid);
+                        case "title" -> title = title == null ? blankToNull(readText()) : skip(title);
+                        case "link" -> link = link == null ? readLink() : skip(link);
+                        case "description", "summary" -> description = description == null ? blankToNull(readText()) : skip(description);
+                        case "pubDate", "published", "issued", "date" -> published = published == null ? readText() : skip(published);
+                        case "updated", "modified" -> updated = updated == null ? readText() : skip(updated);
+                        default -> depth++;
+                    }
+                }
+            }
+
+            return new EntryFields(guid, title, link, description, published, updated);
+        }
+
+        private String readLink() throws XMLStreamException {
+            String href = reader.getAttributeValue(null, "href");
+            if (href == null) {
+                return blankToNull(readText());
+            }
+            String rel = reader.getAttributeValue(null, "rel");
+            readText();
+            return rel == null || "alternate".equals(rel) ? blankToNull(href.trim()) : null;
+        }
+
+        private String skip(String current) throws XMLStreamException {
+            readText();
+            return current;
+        }
+
+        private String readText() throws XMLStreamException {
+            StringBuilder text = new StringBuilder();
+            int depth = 1;
+            while (depth > 0 && reader.hasNext()) {
+                int event = reader.next();
+                switch (event) {
+                    case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE -> {
+                        int remaining = MAX_TEXT_LENGTH - text.length();
+                        if (remaining > 0) {
+                            int length = Math.min(remaining, reader.getTextLength());
+                            text.append(reader.getTextCharacters(), reader.getTextStart(), length);
+                        }
+                    }
+                    case XMLStreamConstants.START_ELEMENT -> depth++;
+                    case XMLStreamConstants.END_ELEMENT -> depth--;
+                    default -> {
+                    }
+                }
+            }
+            return text.toString().trim();
+        }
+
+        void close() {
+            try {
+                if (reader != null) {
+                    reader.close();
+                }
+            } catch (XMLStreamException ex) {
+                log.debug("Failed to close XML reader for {}: {}", LogSanitizer.sanitize(feedUrl), LogSanitizer.sanitize(ex.getMessage()));
+            }
+            try {
+                input.close();
+            } catch (IOException ex) {
+                log.debug("Failed to close feed stream for {}: {}", LogSanitizer.sanitize(feedUrl), LogSanitizer.sanitize(ex.getMessage()));
+            }
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package com.novareport.reporter_service.service;
+
+import com.novareport.reporter_service.config.SummarizerRoutingProperties;
+import com.novareport.reporter_service.util.LogSanitizer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Sends each summarizer request to the healthiest of several backends and fails over to the next one when
+ * it fails, without waiting for a retry backoff. Backends are known by name; the caller maps a name to
+ * what it calls, in {@link OneMinAiSummarizerService} an endpoint with its own URL, API key and model, so
+ * a backend at another account or gateway keeps answering while the first one's provider is down.
+ * <p>
+ * Every backend has a circuit breaker: after {@code failureThreshold} failures in a row it is skipped for
+ * {@code openDuration}, after which a single trial request decides whether it is used again. Backends with
+ * a closed circuit come first, ordered by their share of failed requests in a rolling window and then by
+ * configuration order. Requests that were cancelled, because a hedge or the caller's deadline beat them,
+ * count as failed in the window but not for the circuit. With hedging on, a request still running after its
+ * backend's p95 latency is sent to the next backend as well and the first answer wins, so one slow backend
+ * does not hold up a report. When every circuit is open the request fails at once with a
+ * {@link BackendUnavailableException}.
+ */
+public class SummarizerRouter {
+
+    private static final Logger log = LoggerFactory.getLogger(SummarizerRouter.class);
+
+    private final SummarizerRoutingProperties properties;
+    private final List<Backend> backends;
+
+    public SummarizerRouter(List<String> names, SummarizerRoutingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.backends = names.stream().map(name -> new Backend(name, properties, meterRegistry)).toList();
+    }
+
+    /**
+     * The backend requests go to while all are healthy.
+     */
+    public String primary() {
+        return backends.get(0).name;
+    }
+
+    /**
+     * The answer of {@code attempt} for the first backend able to give one, tried in order of health.
+     * Fails with the error of the last backend tried.
+     */
+    public <T> Mono<T> route(Function<String, Mono<T>> attempt) {
+        return Mono.defer(() -> {
+            List<Backend> ranked = ranked(System.nanoTime());
+            if (ranked.isEmpty()) {
+                return Mono.error(new BackendUnavailableException("All summarizer backends have an open circuit"));
+            }
+            return routeFrom(ranked, 0, attempt);
+        });
+    }
+
+    /**
+     * Names of the backends that take requests now, healthiest first.
+     */
+    List<String> ranking() {
+        return ranked(System.nanoTime()).stream().map(backend -> backend.name).toList();
+    }
+
+    private List<Backend> ranked(long now) {
+        record Health(Backend backend, int state, double failureRate, int order) {
+        }
+        List<Health> health = new ArrayList<>();
+        for (int i = 0; i < backends.size(); i++) {
+            Backend backend = backends.get(i);
+            int state = backend.state(now);
+            if (state != Backend.OPEN) {
+                health.add(new Health(backend, state, backend.failureRate(), i));
+            }
+        }
+        return health.stream()
+            .sorted(Comparator.comparingInt(Health::state)
+                .thenComparingDouble(Health::failureRate)
+                .thenComparingInt(Health::order))
+            .map(Health::backend)
+            .toList();
+    }
+
+    private <T> Mono<T> routeFrom(List<Backend> ranked, int index, Function<String, Mono<T>> attempt) {
+        Backend backend = ranked.get(index);
+        boolean last = index + 1 == ranked.size();
+        long p95 = backend.p95Nanos();
+        if (!properties.hedge() || last || p95 < 0) {
+            return call(backend, attempt)
+                .onErrorResume(e -> {
+                    if (last) {
+                        return Mono.error(e);
+                    }
+                    logFailover(backend, e);
+                    return routeFrom(ranked, index + 1, attempt);
+                });
+        }
+
+        Backend next = ranked.get(index + 1);
+        boolean rest = index + 2 < ranked.size();
+        Duration delay = Duration.ofNanos(Math.max(p95, properties.resolvedHedgeMinDelay().toNanos()));
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Sinks.Empty<Void> failed = Sinks.empty();
+
+        Mono<T> first = call(backend, attempt)
+            .onErrorResume(e -> {
+                error.set(e);
+                failed.tryEmitEmpty();
+                return Mono.empty();
+            });
+        Mono<T> second = Mono.firstWithSignal(Mono.delay(delay).then(), failed.asMono())
+            .then(Mono.defer(() -> {
+                if (error.get() == null) {
+                    backend.hedges.increment();
+                    log.info(
+                        "Hedging summarizer request to {} after {} ms without an answer from {}",
+                        LogSanitizer.sanitize(next.name),
+                        delay.toMillis(),
+                        LogSanitizer.sanitize(backend.name)
+                    );
+                } else {
+                    logFailover(backend, error.get());
+                }
+                return call(next, attempt);
+            }))
+            .onErrorResume(e -> {
+                error.set(e);
+                return Mono.empty();
+            });
+
+        return Flux.merge(first, second)
+            .next()
+            .switchIfEmpty(Mono.defer(() -> error.get() == null ? Mono.empty() : Mono.error(error.get())))
+            .onErrorResume(e -> {
+                if (!rest) {
+                    return Mono.error(e);
+                }
+                logFailover(next, e);
+                return routeFrom(ranked, index + 2, attempt);
+            });
+    }
+
+    private static void logFailover(Backend backend, Throwable e) {
+        log.warn(
+            "Summarizer backend {} failed, trying the next one: {}",
+            LogSanitizer.sanitize(backend.name),
+            LogSanitizer.sanitize(e.getClass().getSimpleName())
+        );
+    }
+
+    private static <T> Mono<T> call(Backend backend, Function<String, Mono<T>> attempt) {
+        return Mono.defer(() -> {
+            if (!backend.tryAcquire(System.nanoTime())) {
+                return Mono.error(new BackendUnavailableException("Summarizer backend " + backend.name + " has an open circuit"));
+            }
+            long start = System.nanoTime();
+            return attempt.apply(backend.name)
+                .doOnSuccess(value -> backend.succeeded(System.nanoTime() - start))
+                .doOnError(e -> backend.failed(System.nanoTime()))
+                .doOnCancel(backend::cancelled);
+        });
+    }
+
+    /**
+     * Signals that no backend would take the request because their circuits are open. Retrying before
+     * one of them closes is pointless.
+     */
+    public static class BackendUnavailableException extends RuntimeException {
+        public BackendUnavailableException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Circuit breaker and rolling window of one backend. The circuit is open once {@code failureThreshold}
+     * failures in a row were seen, until {@code openUntil}; then it is half open and lets one trial through.
+     */
+    private static final class Backend {
+
+        private static final int CLOSED = 0;
+        private static final int HALF_OPEN = 1;
+        private static final int OPEN = 2;
+
+        private final String name;
+        private final int failureThreshold;
+        private final long openNanos;
+        private final long[] latencies;
+        private final Counter hedges;
+        private int calls;
+        private int next;
+        private int consecutiveFailures;
+        private long openUntil;
+        private boolean trialInFlight;
+
+        private Backend(String name, SummarizerRoutingProperties properties, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.failureThreshold = properties.resolvedFailureThreshold();
+            this.openNanos = properties.resolvedOpenDuration().toNanos();
+            this.latencies = new long[properties.resolvedWindow()];
+            this.hedges = Counter.builder("reporter.summarizer.backend.hedges")
+                .description("Summarizer requests also sent to the next backend because this one was slow")
+                .tag("backend", name)
+                .register(meterRegistry);
+            Gauge.builder("reporter.summarizer.backend.open", this, backend -> backend.state(System.nanoTime()) == OPEN ? 1 : 0)
+                .description("Whether the circuit of the summarizer backend is open")
+                .tag("backend", name)
+                .register(meterRegistry);
+        }
+
+        private synchronized int state(long now) {
+            if (consecutiveFailures < failureThreshold) {
+                return CLOSED;
+            }
+            return now - openUntil >= 0 && !trialInFlight ? HALF_OPEN : OPEN;
+        }
+
+        private synchronized boolean tryAcquire(long now) {
+            int state = state(now);
+            if (state == HALF_OPEN) {
+                trialInFlight = true;
+            }
+            return state != OPEN;
+        }
+
+        private synchronized void succeeded(long nanos) {
+            if (consecutiveFailures >= failureThreshold) {
+                log.info("Summarizer backend {} recovered, closing its circuit", LogSanitizer.sanitize(name));
+            }
+            consecutiveFailures = 0;
+            trialInFlight = false;
+            record(nanos);
+        }
+
+        private synchronized void failed(long now) {
+            consecutiveFailures++;
+            if (consecutiveFailures >= failureThreshold) {
+                openUntil = now + openNanos;
+                log.warn(
+                    "Opening circuit of summarizer backend {} for {} ms after {} failures in a row",
+                    LogSanitizer.sanitize(name),
+                    Duration.ofNanos(openNanos).toMillis(),
+                    consecutiveFailures
+                );
+            }
+            trialInFlight = false;
+            record(-1);
+        }
+
+        private synchronized void cancelled() {
+            trialInFlight = false;
+            record(-1);
+        }
+
+        /**
+         * Stores the latency of a successful request, or -1 for one that failed.
+         */
+        private void record(long nanos) {
+            latencies[next] = nanos;
+            next = (next + 1) % latencies.length;
+            calls = Math.min(calls + 1, latencies.length);
+        }
+
+        private synchronized double failureRate() {
+            if (calls == 0) {
+                return 0;
+            }
+            return (double) Arrays.stream(latencies, 0, calls).filter(nanos -> nanos < 0).count() / calls;
+        }
+
+        /**
+         * The 95th percentile latency of the successful requests in the window, or -1 without any.
+         */
+        private synchronized long p95Nanos() {
+            long[] successes = Arrays.stream(latencies, 0, calls).filter(nanos -> nanos >= 0).sorted().toArray();
+            if (successes.length == 0) {
+                return -1;
+            }
+            return successes[(int) Math.ceil(successes.length * 0.95) - 1];
+        }
+    }
+}
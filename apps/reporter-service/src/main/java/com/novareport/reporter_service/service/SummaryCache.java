@@ -0,0 +1,193 @@
+package com.novareport.reporter_service.service;
+
+import com.novareport.reporter_service.config.SummaryCacheProperties;
+import com.novareport.reporter_service.domain.SummaryCacheRepository;
+import com.novareport.reporter_service.domain.SummaryCacheRepository.CachedSummary;
+import com.novareport.reporter_service.util.LogSanitizer;
+import com.novareport.reporter_service.util.TokenEstimator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Reuses model summaries for identical inputs: the same summarizer, prompt version, date and headlines in
+ * the same order. A summarizer that routes between models is named by all of them, not by the one that
+ * happened to answer, so a failover answer is found again under the same inputs; the answering model is
+ * recorded with the entry. A build that finds no new news therefore gets the previous summary back instead of paying
+ * for another completion.
+ * <p>
+ * Summaries are addressed by the SHA-256 of their inputs and kept in the database, shared by all instances,
+ * and in an in-process LRU of the most recently used ones, which answers without any I/O. Both expire
+ * entries after {@code reporter.summary-cache.ttl}. Only real model answers are stored; a summarizer that
+ * fails is not cached, so its fallback text is never reused. Database errors count as misses.
+ */
+@Component
+public class SummaryCache {
+
+    private static final Logger log = LoggerFactory.getLogger(SummaryCache.class);
+
+    private final SummaryCacheRepository repository;
+    private final SummaryCacheProperties properties;
+    private final Lru memory;
+    private final Counter memoryHits;
+    private final Counter databaseHits;
+    private final Counter misses;
+    private final Counter tokensSaved;
+
+    public SummaryCache(SummaryCacheRepository repository, SummaryCacheProperties properties, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.properties = properties;
+        this.memory = new Lru(properties.resolvedMemoryEntries());
+        this.memoryHits = lookups(meterRegistry, "memory_hit");
+        this.databaseHits = lookups(meterRegistry, "database_hit");
+        this.misses = lookups(meterRegistry, "miss");
+        this.tokensSaved = Counter.builder("reporter.summarizer.cache.tokens_saved")
+            .description("Estimated model tokens not spent because a cached summary was reused")
+            .baseUnit("tokens")
+            .register(meterRegistry);
+        Gauge.builder("reporter.summarizer.cache.hit_ratio", this, SummaryCache::hitRatio)
+            .description("Share of summary cache lookups answered from memory or the database")
+            .register(meterRegistry);
+    }
+
+    /**
+     * The cached summary of these inputs, or else the one {@code summarizer} produces, which is then cached.
+     * Errors of {@code summarizer} are passed on and nothing is stored.
+     */
+    public Mono<String> summary(String scope, int promptVersion, LocalDate date, List<String> headlines, Supplier<Mono<Answer>> summarizer) {
+        if (!properties.enabled()) {
+            return summarizer.get().map(Answer::summary);
+        }
+        return Mono.defer(() -> {
+            String key = key(scope, promptVersion, date, headlines);
+            Instant notBefore = Instant.now().minus(properties.resolvedTtl());
+            CachedSummary cached;
+            synchronized (memory) {
+                cached = memory.get(key);
+            }
+            if (cached != null && !cached.createdAt().isBefore(notBefore)) {
+                hit(memoryHits, headlines, cached.summary());
+                return Mono.just(cached.summary());
+            }
+
+            return Mono.fromCallable(() -> repository.find(key, notBefore).orElse(null))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(e -> {
+                    log.warn("Summary cache lookup failed, summarizing anyway: {}", LogSanitizer.sanitize(e.getMessage()));
+                    return Mono.empty();
+                })
+                .map(stored -> {
+                    remember(key, stored);
+                    hit(databaseHits, headlines, stored.summary());
+                    return stored.summary();
+                })
+                .switchIfEmpty(Mono.defer(() -> {
+                    misses.increment();
+                    return summarizer.get().flatMap(answer -> store(key, answer).thenReturn(answer.summary()));
+                }));
+        });
+    }
+
+    /**
+     * Identifies the inputs of a summary. Every part is followed by a NUL byte, so no two different lists of
+     * headlines hash the same text.
+     */
+    static String key(String scope, int promptVersion, LocalDate date, List<String> headlines) {
+        MessageDigest digest = DigestUtils.getSha256Digest();
+        update(digest, scope);
+        update(digest, Integer.toString(promptVersion));
+        update(digest, date.toString());
+        for (String headline : headlines) {
+            update(digest, headline);
+        }
+        return Hex.encodeHexString(digest.digest());
+    }
+
+    private Mono<Void> store(String key, Answer answer) {
+        Instant now = Instant.now();
+        remember(key, new CachedSummary(answer.summary(), now));
+        return Mono.<Void>fromRunnable(() -> {
+                repository.insert(key, answer.model(), answer.summary(), now);
+                int evicted = repository.evict(now.minus(properties.resolvedTtl()), properties.resolvedMaxEntries());
+                if (evicted > 0) {
+                    log.debug("Evicted {} cached summaries", evicted);
+                }
+            })
+            .subscribeOn(Schedulers.boundedElastic())
+            .onErrorResume(e -> {
+                log.warn("Could not store summary in cache: {}", LogSanitizer.sanitize(e.getMessage()));
+                return Mono.empty();
+            });
+    }
+
+    private void remember(String key, CachedSummary summary) {
+        synchronized (memory) {
+            memory.put(key, summary);
+        }
+    }
+
+    /**
+     * A hit saves the whole completion: the headlines sent, and the summary written.
+     */
+    private void hit(Counter hits, List<String> headlines, String summary) {
+        hits.increment();
+        tokensSaved.increment(TokenEstimator.estimateAll(headlines) + TokenEstimator.estimate(summary));
+    }
+
+    private double hitRatio() {
+        double hits = memoryHits.count() + databaseHits.count();
+        double lookups = hits + misses.count();
+        return lookups == 0 ? 0 : hits / lookups;
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("reporter.summarizer.cache")
+            .description("Summary cache lookups")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    /**
+     * A summary and the model that wrote it.
+     */
+    public record Answer(String model, String summary) {
+    }
+
+    private static final class Lru extends LinkedHashMap<String, CachedSummary> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int maxEntries;
+
+        private Lru(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedSummary> eldest) {
+            return size() > maxEntries;
+        }
+    }
+}
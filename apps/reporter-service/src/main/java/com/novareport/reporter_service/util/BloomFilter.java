@@ -0,0 +1,121 @@
+package com.novareport.reporter_service.util;
+
+import org.apache.commons.codec.digest.MurmurHash3;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter for strings.
+ * <p>
+ * Uses one 128-bit MurmurHash3 per value and derives the probe positions with double hashing
+ * (Kirsch-Mitzenmacher). Bits are set with CAS on an {@link AtomicLongArray}, so concurrent
+ * {@link #put} and {@link #mightContain} calls need no locking.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitSize;
+    private final int hashFunctions;
+    private final AtomicLong bitsSet = new AtomicLong();
+
+    private BloomFilter(long bitSize, int hashFunctions) {
+        long wordCount = (bitSize + 63) / 64;
+        if (wordCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Bloom filter too large: " + bitSize + " bits");
+        }
+        this.words = new AtomicLongArray((int) wordCount);
+        this.bitSize = wordCount * 64;
+        this.hashFunctions = hashFunctions;
+    }
+
+    /**
+     * Creates a filter sized for the given number of elements at the given false-positive probability.
+     *
+     * @param expectedInsertions number of elements the filter is expected to hold
+     * @param falsePositiveRate  target false-positive probability, between 0 and 1 (exclusive)
+     * @return an empty filter
+     */
+    public static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions < 1) {
+            throw new IllegalArgumentException("expectedInsertions must be positive");
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1");
+        }
+        double ln2 = Math.log(2);
+        long bits = Math.max(64, (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2)));
+        int hashes = Math.max(1, (int) Math.round((double) bits / expectedInsertions * ln2));
+        return new BloomFilter(bits, hashes);
+    }
+
+    /**
+     * Returns {@code false} if the value was definitely never added, {@code true} if it might have been.
+     */
+    public boolean mightContain(String value) {
+        long[] hash = hash(value);
+        long combined = hash[0];
+        for (int i = 0; i < hashFunctions; i++) {
+            long index = (combined & Long.MAX_VALUE) % bitSize;
+            if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+            combined += hash[1];
+        }
+        return true;
+    }
+
+    /**
+     * Adds a value to the filter.
+     *
+     * @return {@code true} if at least one bit changed, i.e. the value was definitely not present before
+     */
+    public boolean put(String value) {
+        long[] hash = hash(value);
+        long combined = hash[0];
+        boolean changed = false;
+        for (int i = 0; i < hashFunctions; i++) {
+            long index = (combined & Long.MAX_VALUE) % bitSize;
+            changed |= setBit(index);
+            combined += hash[1];
+        }
+        return changed;
+    }
+
+    /**
+     * Probability that {@link #mightContain} returns {@code true} for a value that was never added,
+     * given the current fill ratio of the bit array.
+     */
+    public double expectedFalsePositiveProbability() {
+        return Math.pow((double) bitsSet.get() / bitSize, hashFunctions);
+    }
+
+    public long bitSize() {
+        return bitSize;
+    }
+
+    public int hashFunctions() {
+        return hashFunctions;
+    }
+
+    private boolean setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        while (true) {
+            long current = words.get(word);
+            if ((current & mask) != 0) {
+                return false;
+            }
+            if (words.compareAndSet(word, current, current | mask)) {
+                bitsSet.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    private static long[] hash(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        return MurmurHash3.hash128x64(bytes, 0, bytes.length, 0);
+    }
+}
@@ -0,0 +1,141 @@
+package com.novareport.reporter_service.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Utility class for rendering report summaries, which use a small markdown subset, to HTML and plain text.
+ * <p>
+ * The subset is the one the web client renders: {@code #} headings, lines that are only {@code **bold**}
+ * (treated as headings), {@code - } list items, paragraphs separated by blank lines and inline
+ * {@code **bold**}. All text is HTML-escaped, so the HTML output contains no markup from the summary
+ * itself. Element classes match the client's {@code report-summary__*} styles.
+ */
+public final class ReportMarkdown {
+
+    private static final Pattern HEADING = Pattern.compile("^(#{1,6})\\s+(.*)$");
+    private static final Pattern BOLD_LINE = Pattern.compile("^\\*\\*(.+)\\*\\*$");
+    private static final Pattern BOLD = Pattern.compile("\\*\\*([^*]+)\\*\\*");
+    private static final Pattern NUMBER_PREFIX = Pattern.compile("^[0-9]+[.)]\\s*");
+
+    private ReportMarkdown() {
+        // Utility class
+    }
+
+    public static String toHtml(String markdown) {
+        StringBuilder html = new StringBuilder();
+        List<String> paragraph = new ArrayList<>();
+        List<String> list = new ArrayList<>();
+
+        for (String rawLine : lines(markdown)) {
+            String line = rawLine.strip();
+            if (line.isEmpty()) {
+                flushParagraph(html, paragraph);
+                flushList(html, list);
+                continue;
+            }
+
+            Matcher heading = HEADING.matcher(line);
+            Matcher boldLine = BOLD_LINE.matcher(line);
+            if (heading.matches() || boldLine.matches()) {
+                flushParagraph(html, paragraph);
+                flushList(html, list);
+                int level = heading.matches() ? Math.min(heading.group(1).length(), 4) : 2;
+                String text = withoutNumberPrefix(heading.matches() ? heading.group(2).strip() : boldLine.group(1).strip());
+                html.append("<h").append(level)
+                    .append(" class=\"report-summary__heading report-summary__heading--h").append(level).append("\">")
+                    .append(escape(text))
+                    .append("</h").append(level).append(">\n");
+                continue;
+            }
+
+            if (line.startsWith("- ")) {
+                flushParagraph(html, paragraph);
+                list.add(line.substring(2).strip());
+                continue;
+            }
+
+            flushList(html, list);
+            paragraph.add(line);
+        }
+        flushParagraph(html, paragraph);
+        flushList(html, list);
+        return html.toString();
+    }
+
+    /**
+     * Plain text with heading markers and emphasis removed, keeping the line structure.
+     */
+    public static String toText(String markdown) {
+        StringBuilder text = new StringBuilder();
+        for (String line : lines(markdown)) {
+            String withoutHashes = line.stripLeading().replaceFirst("^#{1,6}\\s*", "");
+            text.append(withoutHashes.replace("**", "").replace("*", "").replace("`", "")).append('\n');
+        }
+        return text.toString().strip();
+    }
+
+    private static String[] lines(String markdown) {
+        if (markdown == null || markdown.isBlank()) {
+            return new String[0];
+        }
+        return markdown.replace("\r\n", "\n").replace('\r', '\n').split("\n");
+    }
+
+    private static void flushParagraph(StringBuilder html, List<String> paragraph) {
+        if (paragraph.isEmpty()) {
+            return;
+        }
+        html.append("<p class=\"report-summary__paragraph\">")
+            .append(inline(String.join(" ", paragraph)))
+            .append("</p>\n");
+        paragraph.clear();
+    }
+
+    private static void flushList(StringBuilder html, List<String> list) {
+        if (list.isEmpty()) {
+            return;
+        }
+        html.append("<ul class=\"report-summary__list\">\n");
+        for (String item : list) {
+            html.append("<li>").append(inline(item)).append("</li>\n");
+        }
+        html.append("</ul>\n");
+        list.clear();
+    }
+
+    private static String inline(String text) {
+        StringBuilder html = new StringBuilder();
+        Matcher bold = BOLD.matcher(text);
+        int last = 0;
+        while (bold.find()) {
+            html.append(escape(text.substring(last, bold.start())))
+                .append("<strong>").append(escape(bold.group(1))).append("</strong>");
+            last = bold.end();
+        }
+        return html.append(escape(text.substring(last))).toString();
+    }
+
+    private static String withoutNumberPrefix(String text) {
+        String cleaned = NUMBER_PREFIX.matcher(text).replaceFirst("");
+        return cleaned.isEmpty() ? text : cleaned;
+    }
+
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&' -> escaped.append("&amp;");
+                case '<' -> escaped.append("&lt;");
+                case '>' -> escaped.append("&gt;");
+                case '"' -> escaped.append("&quot;");
+                case '\'' -> escaped.append("&#39;");
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,56 @@
+package com.novareport.reporter_service.util;
+
+/**
+ * Utility class for estimating how many tokens a text takes in a GPT-style BPE tokenizer, without the
+ * tokenizer's vocabulary.
+ * <p>
+ * A run of ASCII letters or digits counts one token per started four characters, since common English
+ * words are single tokens and longer ones split into pieces of about that size. Every other visible
+ * character, punctuation and non-Latin script alike, counts one token of its own. Whitespace is free, as
+ * the tokenizer folds it into the next word. The estimate is within a few percent for English news text
+ * and errs high for everything else, which is the safe side for a budget.
+ */
+public final class TokenEstimator {
+
+    private static final int CHARS_PER_WORD_TOKEN = 4;
+
+    private TokenEstimator() {
+        // Utility class
+    }
+
+    public static int estimate(CharSequence text) {
+        if (text == null) {
+            return 0;
+        }
+        int tokens = 0;
+        int run = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 128 && Character.isLetterOrDigit(c)) {
+                run++;
+                continue;
+            }
+            tokens += wordTokens(run);
+            run = 0;
+            if (!Character.isWhitespace(c) && !Character.isLowSurrogate(c)) {
+                tokens++;
+            }
+        }
+        return tokens + wordTokens(run);
+    }
+
+    /**
+     * Sum of {@link #estimate(CharSequence)} over the texts, each estimated on its own.
+     */
+    public static long estimateAll(Iterable<? extends CharSequence> texts) {
+        long tokens = 0;
+        for (CharSequence text : texts) {
+            tokens += estimate(text);
+        }
+        return tokens;
+    }
+
+    private static int wordTokens(int length) {
+        return (length + CHARS_PER_WORD_TOKEN - 1) / CHARS_PER_WORD_TOKEN;
+    }
+}
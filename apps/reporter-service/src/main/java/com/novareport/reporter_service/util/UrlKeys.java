@@ -0,0 +1,102 @@
+package com.novareport.reporter_service.util;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Utility class for deriving the deduplication key of a news item from its link.
+ * <p>
+ * The key is the first 128 bits of the SHA-256 of the canonical URL, stored as a {@link UUID}. Links
+ * that differ only in scheme or host case, tracking parameters, parameter order or fragment map to the
+ * same key.
+ */
+public final class UrlKeys {
+
+    private static final Set<String> TRACKING_PARAMETERS = Set.of(
+        "fbclid", "gclid", "dclid", "msclkid", "yclid", "igshid", "mc_cid", "mc_eid",
+        "_hsenc", "_hsmi", "mkt_tok", "ref_src", "cmpid"
+    );
+
+    private UrlKeys() {
+        // Utility class
+    }
+
+    /**
+     * Returns the key for an item, falling back to its title when it has no link.
+     */
+    public static UUID of(String link, String title) {
+        if (link != null && !link.isBlank()) {
+            return digest(canonicalize(link));
+        }
+        return digest("title:" + (title == null ? "" : title.strip()));
+    }
+
+    /**
+     * Lower-cases scheme and host, drops default ports, the fragment and tracking parameters
+     * ({@code utm_*} and common click identifiers) and sorts the remaining query parameters. Links that
+     * are not valid URIs are only trimmed.
+     */
+    public static String canonicalize(String link) {
+        String trimmed = link.strip();
+        URI uri;
+        try {
+            uri = new URI(trimmed);
+        } catch (URISyntaxException ex) {
+            return trimmed;
+        }
+        if (uri.isOpaque() || uri.getRawAuthority() == null) {
+            return trimmed;
+        }
+
+        String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+        StringBuilder canonical = new StringBuilder(trimmed.length()).append(scheme).append("://");
+        if (uri.getRawUserInfo() != null) {
+            canonical.append(uri.getRawUserInfo()).append('@');
+        }
+        canonical.append(uri.getHost() != null ? uri.getHost().toLowerCase(Locale.ROOT) : uri.getRawAuthority().toLowerCase(Locale.ROOT));
+        int port = uri.getPort();
+        if (port != -1 && !(port == 80 && "http".equals(scheme)) && !(port == 443 && "https".equals(scheme))) {
+            canonical.append(':').append(port);
+        }
+        String path = uri.getRawPath();
+        canonical.append(path == null || path.isEmpty() ? "/" : path);
+
+        String query = canonicalQuery(uri.getRawQuery());
+        if (!query.isEmpty()) {
+            canonical.append('?').append(query);
+        }
+        return canonical.toString();
+    }
+
+    private static String canonicalQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return "";
+        }
+        List<String> kept = new ArrayList<>();
+        for (String parameter : rawQuery.split("&")) {
+            if (parameter.isEmpty()) {
+                continue;
+            }
+            int equals = parameter.indexOf('=');
+            String name = (equals < 0 ? parameter : parameter.substring(0, equals)).toLowerCase(Locale.ROOT);
+            if (!name.startsWith("utm_") && !TRACKING_PARAMETERS.contains(name)) {
+                kept.add(parameter);
+            }
+        }
+        kept.sort(null);
+        return String.join("&", kept);
+    }
+
+    private static UUID digest(String value) {
+        ByteBuffer hash = ByteBuffer.wrap(DigestUtils.sha256(value));
+        return new UUID(hash.getLong(), hash.getLong());
+    }
+}
@@ -0,0 +1,104 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Gives every report a {@code slot_start} so a day can hold one report per {@code ReportSlots} slot.
+ * <p>
+ * Existing reports get the slot of their {@code created_at} in the application's time zone, which is why
+ * this is not plain SQL. On PostgreSQL the unique index on {@code (report_date, slot_start)} includes
+ * {@code id} and {@code created_at}, so the latest report, the slots of a date and the report listing are
+ * all answered by index-only scans; with insert-only writes the visibility map stays mostly set.
+ * <p>
+ * The slot of an existing report is computed with a frozen copy of {@code ReportSlots} as of this version,
+ * four-hour slots from local midnight, so later changes to the slot length leave this migration alone.
+ */
+public class V12__Split_daily_reports_into_slots extends BaseJavaMigration {
+
+    private static final Duration SLOT_LENGTH = Duration.ofHours(4);
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        boolean postgres = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        ZoneId zone = ZoneId.systemDefault();
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE daily_reports ADD COLUMN slot_start TIMESTAMP WITH TIME ZONE");
+            try (ResultSet reports = statement.executeQuery("SELECT id, report_date, created_at FROM daily_reports");
+                 PreparedStatement update = connection.prepareStatement("UPDATE daily_reports SET slot_start = ? WHERE id = ?")) {
+                while (reports.next()) {
+                    LocalDate reportDate = reports.getObject(2, LocalDate.class);
+                    Timestamp createdAt = reports.getTimestamp(3);
+                    update.setTimestamp(1, Timestamp.from(slotStart(reportDate, createdAt.toInstant(), zone)));
+                    update.setObject(2, reports.getObject(1, UUID.class));
+                    update.addBatch();
+                }
+                update.executeBatch();
+            }
+            statement.execute("ALTER TABLE daily_reports ALTER COLUMN slot_start SET NOT NULL");
+
+            if (postgres) {
+                statement.execute("ALTER TABLE daily_reports DROP CONSTRAINT IF EXISTS daily_reports_report_date_key");
+                statement.execute("""
+                    CREATE UNIQUE INDEX uq_daily_reports_date_slot
+                        ON daily_reports(report_date, slot_start) INCLUDE (id, created_at)
+                    """);
+            } else {
+                for (String constraint : reportDateConstraints(connection)) {
+                    statement.execute("ALTER TABLE daily_reports DROP CONSTRAINT \"" + constraint + "\"");
+                }
+                statement.execute("CREATE UNIQUE INDEX uq_daily_reports_date_slot ON daily_reports(report_date, slot_start)");
+            }
+            statement.execute("DROP INDEX idx_daily_reports_report_date_id");
+        }
+    }
+
+    private static Instant slotStart(LocalDate reportDate, Instant builtAt, ZoneId zone) {
+        Instant dayStart = reportDate.atStartOfDay(zone).toInstant();
+        Instant lastInstant = reportDate.plusDays(1).atStartOfDay(zone).toInstant().minusNanos(1);
+        Instant clamped = builtAt.isBefore(dayStart) ? dayStart : builtAt.isAfter(lastInstant) ? lastInstant : builtAt;
+        long slots = Duration.between(dayStart, clamped).toNanos() / SLOT_LENGTH.toNanos();
+        return dayStart.plus(SLOT_LENGTH.multipliedBy(slots));
+    }
+
+    /**
+     * Names of the unique constraints on {@code report_date} alone. Outside PostgreSQL the {@code UNIQUE} of
+     * {@code V1} gets a generated name, so it has to be looked up.
+     */
+    private static List<String> reportDateConstraints(Connection connection) throws SQLException {
+        List<String> constraints = new ArrayList<>();
+        try (PreparedStatement select = connection.prepareStatement("""
+                SELECT tc.constraint_name
+                FROM information_schema.table_constraints tc
+                JOIN information_schema.key_column_usage kcu
+                    ON kcu.constraint_schema = tc.constraint_schema AND kcu.constraint_name = tc.constraint_name
+                WHERE tc.table_schema = CURRENT_SCHEMA
+                  AND UPPER(tc.table_name) = 'DAILY_REPORTS'
+                  AND tc.constraint_type = 'UNIQUE'
+                GROUP BY tc.constraint_name
+                HAVING COUNT(*) = 1 AND MAX(UPPER(kcu.column_name)) = 'REPORT_DATE'
+                """);
+             ResultSet rows = select.executeQuery()) {
+            while (rows.next()) {
+                constraints.add(rows.getString(1));
+            }
+        }
+        return constraints;
+    }
+}
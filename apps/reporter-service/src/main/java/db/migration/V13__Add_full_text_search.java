@@ -0,0 +1,46 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Adds the {@code search_vector} columns and GIN indexes that {@code SearchRepository} queries on PostgreSQL.
+ * <p>
+ * The columns are stored generated columns, so every insert computes its own vector and nothing has to
+ * keep them in sync; on the partitioned {@code news_items} both the column and the index are inherited by
+ * partitions created later. Adding the columns rewrites both tables once. Other databases have no
+ * {@code tsvector} and keep the plain tables; the search falls back to substring matching there.
+ * <p>
+ * The vector expressions are part of the schema this version creates, so they are spelled out here rather
+ * than taken from application code.
+ */
+public class V13__Add_full_text_search extends BaseJavaMigration {
+
+    private static final String NEWS_VECTOR = """
+        setweight(to_tsvector('english', coalesce(title, '')), 'A')
+            || setweight(to_tsvector('english', coalesce(summary, '')), 'B')
+            || setweight(to_tsvector('english', coalesce(source, '')), 'C')""";
+
+    private static final String REPORT_VECTOR = "to_tsvector('english', summary)";
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+            return;
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE news_items ADD COLUMN search_vector tsvector GENERATED ALWAYS AS ("
+                + NEWS_VECTOR + ") STORED");
+            statement.execute("CREATE INDEX idx_news_items_search_vector ON news_items USING GIN (search_vector)");
+            statement.execute("ALTER TABLE daily_reports ADD COLUMN search_vector tsvector GENERATED ALWAYS AS ("
+                + REPORT_VECTOR + ") STORED");
+            statement.execute("CREATE INDEX idx_daily_reports_search_vector ON daily_reports USING GIN (search_vector)");
+        }
+    }
+}
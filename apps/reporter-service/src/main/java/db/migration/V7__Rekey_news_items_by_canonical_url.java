@@ -0,0 +1,145 @@
+package db.migration;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Replaces the hex {@code hash} of {@code link::title} with the 16-byte {@code url_key} of the canonical
+ * link.
+ * <p>
+ * The key has to be computed in Java, so every row is rewritten here, streamed in batches. Rows whose
+ * links only differed in tracking parameters, fragment or case now share a key; the database then keeps
+ * the earliest ingested one and deletes the others before the unique index is created, so no set of keys
+ * is held in memory.
+ * <p>
+ * The key derivation is a frozen copy of {@code UrlKeys} as of this version, so later changes to the
+ * application's canonicalization cannot change what this migration writes.
+ */
+public class V7__Rekey_news_items_by_canonical_url extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final Set<String> TRACKING_PARAMETERS = Set.of(
+        "fbclid", "gclid", "dclid", "msclkid", "yclid", "igshid", "mc_cid", "mc_eid",
+        "_hsenc", "_hsmi", "mkt_tok", "ref_src", "cmpid"
+    );
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE news_items ADD COLUMN url_key UUID");
+        }
+
+        try (
+            Statement select = connection.createStatement();
+            PreparedStatement update = connection.prepareStatement("UPDATE news_items SET url_key = ? WHERE id = ?")
+        ) {
+            select.setFetchSize(BATCH_SIZE);
+            int updates = 0;
+            try (ResultSet rows = select.executeQuery("SELECT id, url, title FROM news_items")) {
+                while (rows.next()) {
+                    update.setObject(1, urlKey(rows.getString(2), rows.getString(3)));
+                    update.setObject(2, rows.getObject(1));
+                    update.addBatch();
+                    if (++updates % BATCH_SIZE == 0) {
+                        update.executeBatch();
+                    }
+                }
+            }
+            update.executeBatch();
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE INDEX idx_news_items_url_key_rekey ON news_items(url_key)");
+            statement.execute("""
+                DELETE FROM news_items n WHERE EXISTS (
+                    SELECT 1 FROM news_items kept
+                    WHERE kept.url_key = n.url_key
+                      AND (kept.ingested_at < n.ingested_at OR (kept.ingested_at = n.ingested_at AND kept.id < n.id))
+                )
+                """);
+            statement.execute("DROP INDEX idx_news_items_url_key_rekey");
+            statement.execute("ALTER TABLE news_items ALTER COLUMN url_key SET NOT NULL");
+            statement.execute("CREATE UNIQUE INDEX idx_news_items_url_key ON news_items(url_key)");
+            statement.execute("ALTER TABLE news_items DROP COLUMN hash");
+        }
+    }
+
+    private static UUID urlKey(String link, String title) {
+        if (link != null && !link.isBlank()) {
+            return digest(canonicalize(link));
+        }
+        return digest("title:" + (title == null ? "" : title.strip()));
+    }
+
+    private static String canonicalize(String link) {
+        String trimmed = link.strip();
+        URI uri;
+        try {
+            uri = new URI(trimmed);
+        } catch (URISyntaxException ex) {
+            return trimmed;
+        }
+        if (uri.isOpaque() || uri.getRawAuthority() == null) {
+            return trimmed;
+        }
+
+        String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+        StringBuilder canonical = new StringBuilder(trimmed.length()).append(scheme).append("://");
+        if (uri.getRawUserInfo() != null) {
+            canonical.append(uri.getRawUserInfo()).append('@');
+        }
+        canonical.append(uri.getHost() != null ? uri.getHost().toLowerCase(Locale.ROOT) : uri.getRawAuthority().toLowerCase(Locale.ROOT));
+        int port = uri.getPort();
+        if (port != -1 && !(port == 80 && "http".equals(scheme)) && !(port == 443 && "https".equals(scheme))) {
+            canonical.append(':').append(port);
+        }
+        String path = uri.getRawPath();
+        canonical.append(path == null || path.isEmpty() ? "/" : path);
+
+        String query = canonicalQuery(uri.getRawQuery());
+        if (!query.isEmpty()) {
+            canonical.append('?').append(query);
+        }
+        return canonical.toString();
+    }
+
+    private static String canonicalQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return "";
+        }
+        List<String> kept = new ArrayList<>();
+        for (String parameter : rawQuery.split("&")) {
+            if (parameter.isEmpty()) {
+                continue;
+            }
+            int equals = parameter.indexOf('=');
+            String name = (equals < 0 ? parameter : parameter.substring(0, equals)).toLowerCase(Locale.ROOT);
+            if (!name.startsWith("utm_") && !TRACKING_PARAMETERS.contains(name)) {
+                kept.add(parameter);
+            }
+        }
+        kept.sort(null);
+        return String.join("&", kept);
+    }
+
+    private static UUID digest(String value) {
+        ByteBuffer hash = ByteBuffer.wrap(DigestUtils.sha256(value));
+        return new UUID(hash.getLong(), hash.getLong());
+    }
+}
@@ -0,0 +1,106 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Turns {@code news_items} into a table range-partitioned by week of {@code published_at} on PostgreSQL.
+ * <p>
+ * A unique index on a partitioned table has to contain the partition key, so uniqueness of
+ * {@code url_key} moves to the unpartitioned {@code news_item_keys} table. Weekly partitions are created
+ * for the existing rows, at most {@value #MAX_WEEKS_BACK} weeks back, and {@value #WEEKS_AHEAD} weeks
+ * ahead; older rows go to the default partition. {@code NewsItemPartitionMaintainer} keeps creating them
+ * from then on. Other databases keep the plain table.
+ * <p>
+ * Partition names and DDL are frozen copies of {@code NewsItemPartitions} as of this version, so changes
+ * to the application's naming scheme cannot change what this migration creates.
+ */
+public class V8__Partition_news_items_by_week extends BaseJavaMigration {
+
+    static final int WEEKS_AHEAD = 4;
+    static final int MAX_WEEKS_BACK = 104;
+    private static final String DEFAULT_PARTITION = "news_items_default";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+            return;
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                CREATE TABLE news_item_keys (
+                    url_key UUID PRIMARY KEY,
+                    published_at TIMESTAMP WITH TIME ZONE NOT NULL
+                )
+                """);
+            statement.execute("INSERT INTO news_item_keys (url_key, published_at) SELECT url_key, published_at FROM news_items");
+            statement.execute("CREATE INDEX idx_news_item_keys_published_at ON news_item_keys(published_at)");
+
+            statement.execute("ALTER TABLE news_items RENAME TO news_items_unpartitioned");
+            statement.execute("ALTER INDEX IF EXISTS news_items_pkey RENAME TO news_items_unpartitioned_pkey");
+            statement.execute("""
+                CREATE TABLE news_items (
+                    id UUID NOT NULL,
+                    source VARCHAR(150) NOT NULL,
+                    url TEXT NOT NULL,
+                    title TEXT NOT NULL,
+                    published_at TIMESTAMP WITH TIME ZONE NOT NULL,
+                    summary TEXT,
+                    url_key UUID NOT NULL,
+                    ingested_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                    cluster_id UUID,
+                    PRIMARY KEY (id, published_at)
+                ) PARTITION BY RANGE (published_at)
+                """);
+            statement.execute("CREATE TABLE " + DEFAULT_PARTITION + " PARTITION OF news_items DEFAULT");
+
+            LocalDate currentWeek = weekStart(Instant.now());
+            LocalDate lastWeek = currentWeek.plusWeeks(WEEKS_AHEAD);
+            LocalDate week = currentWeek;
+            try (ResultSet oldest = statement.executeQuery("SELECT min(published_at) FROM news_items_unpartitioned")) {
+                Timestamp min = oldest.next() ? oldest.getTimestamp(1) : null;
+                if (min != null && min.toInstant().isBefore(Instant.now())) {
+                    LocalDate oldestWeek = weekStart(min.toInstant());
+                    LocalDate firstWeek = currentWeek.minusWeeks(MAX_WEEKS_BACK);
+                    week = oldestWeek.isBefore(firstWeek) ? firstWeek : oldestWeek;
+                }
+            }
+            for (; !week.isAfter(lastWeek); week = week.plusWeeks(1)) {
+                statement.execute(createPartitionSql(week));
+            }
+
+            statement.execute("INSERT INTO news_items SELECT id, source, url, title, published_at, summary, url_key, ingested_at, cluster_id FROM news_items_unpartitioned");
+            statement.execute("DROP TABLE news_items_unpartitioned");
+
+            statement.execute("CREATE INDEX idx_news_items_published_at ON news_items(published_at)");
+            statement.execute("CREATE INDEX idx_news_items_ingested_at ON news_items(ingested_at)");
+            statement.execute("CREATE INDEX idx_news_items_cluster_id ON news_items(cluster_id)");
+            statement.execute("CREATE INDEX idx_news_items_url_key ON news_items(url_key)");
+        }
+    }
+
+    private static LocalDate weekStart(Instant instant) {
+        return instant.atZone(ZoneOffset.UTC).toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private static String createPartitionSql(LocalDate weekStart) {
+        return "CREATE TABLE IF NOT EXISTS news_items_p" + SUFFIX.format(weekStart)
+            + " PARTITION OF news_items FOR VALUES FROM ('" + weekStart.atStartOfDay(ZoneOffset.UTC).toInstant()
+            + "') TO ('" + weekStart.plusWeeks(1).atStartOfDay(ZoneOffset.UTC).toInstant() + "')";
+    }
+}
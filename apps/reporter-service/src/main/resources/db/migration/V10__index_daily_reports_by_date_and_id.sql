@@ -0,0 +1,3 @@
+CREATE INDEX idx_daily_reports_report_date_id ON daily_reports(report_date, id);
+
+DROP INDEX idx_daily_reports_report_date;
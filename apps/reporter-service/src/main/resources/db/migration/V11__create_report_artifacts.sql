@@ -0,0 +1,10 @@
+CREATE TABLE report_artifacts (
+    id UUID PRIMARY KEY,
+    report_id UUID NOT NULL REFERENCES daily_reports(id) ON DELETE CASCADE,
+    format VARCHAR(8) NOT NULL,
+    body BYTEA NOT NULL,
+    body_gzip BYTEA NOT NULL,
+    etag VARCHAR(64) NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    CONSTRAINT uq_report_artifacts_report_format UNIQUE (report_id, format)
+);
@@ -0,0 +1,8 @@
+CREATE TABLE summary_cache (
+    cache_key VARCHAR(64) PRIMARY KEY,
+    model VARCHAR(100) NOT NULL,
+    summary TEXT NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_summary_cache_created_at ON summary_cache(created_at);
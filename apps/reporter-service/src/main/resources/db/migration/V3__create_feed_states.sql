@@ -0,0 +1,7 @@
+CREATE TABLE feed_states (
+    feed_url TEXT PRIMARY KEY,
+    etag VARCHAR(512),
+    last_modified VARCHAR(128),
+    content_hash VARCHAR(64),
+    last_fetched_at TIMESTAMP WITH TIME ZONE
+);
@@ -0,0 +1,2 @@
+ALTER TABLE feed_states ADD COLUMN watermark_published_at TIMESTAMP WITH TIME ZONE;
+ALTER TABLE feed_states ADD COLUMN seen_entry_keys TEXT;
@@ -0,0 +1,3 @@
+ALTER TABLE news_items ADD COLUMN cluster_id UUID;
+
+CREATE INDEX idx_news_items_cluster_id ON news_items(cluster_id);
@@ -0,0 +1,4 @@
+ALTER TABLE feed_states ADD COLUMN ttl_minutes INTEGER;
+ALTER TABLE feed_states ADD COLUMN poll_interval_seconds BIGINT;
+ALTER TABLE feed_states ADD COLUMN next_poll_at TIMESTAMP WITH TIME ZONE;
+ALTER TABLE feed_states ADD COLUMN consecutive_failures INTEGER NOT NULL DEFAULT 0;
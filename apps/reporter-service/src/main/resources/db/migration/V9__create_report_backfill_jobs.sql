@@ -0,0 +1,13 @@
+CREATE TABLE report_backfill_jobs (
+    id UUID PRIMARY KEY,
+    from_date DATE NOT NULL,
+    to_date DATE NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    completed_dates TEXT,
+    failed_dates TEXT,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    finished_at TIMESTAMP WITH TIME ZONE
+);
+
+CREATE INDEX idx_report_backfill_jobs_status ON report_backfill_jobs(status);
@@ -26,7 +26,7 @@ void securityFilterChainBuildsUsingHttpSecurity() throws Exception {
 
         when(http.build()).thenReturn(chain);
 
-        SecurityFilterChain result = config.securityFilterChain(http, jwtFilter);
+        SecurityFilterChain result = config.securityFilterChain(http, jwtFilter, "internal-key");
 
         assertThat(result).isSameAs(chain);
         verify(http).build();
@@ -0,0 +1,41 @@
+package com.novareport.reporter_service.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SummarizerRoutingPropertiesTest {
+
+    private static final String URL = "https://api.1min.ai/api/features";
+
+    @Test
+    void resolvedEndpointsServeTheModelsOnTheDefaultEndpointWhenNoneAreConfigured() {
+        SummarizerRoutingProperties properties = properties(List.of("gpt-4o-mini", " claude-3-5-haiku ", ""), List.of());
+
+        assertThat(properties.resolvedEndpoints(URL, "key", "default-model")).containsExactly(
+            new SummarizerRoutingProperties.Endpoint("gpt-4o-mini", URL, "key", "gpt-4o-mini"),
+            new SummarizerRoutingProperties.Endpoint("claude-3-5-haiku", URL, "key", "claude-3-5-haiku"));
+        assertThat(properties(List.of(), null).resolvedEndpoints(URL, "key", "default-model")).containsExactly(
+            new SummarizerRoutingProperties.Endpoint("default-model", URL, "key", "default-model"));
+    }
+
+    @Test
+    void resolvedEndpointsNameThemAndFillInTheDefaultKey() {
+        SummarizerRoutingProperties properties = properties(List.of("ignored"), List.of(
+            new SummarizerRoutingProperties.Endpoint(" primary ", " https://primary.example ", null, "gpt-4o-mini"),
+            new SummarizerRoutingProperties.Endpoint("", "https://backup.example", "backup-key", "claude-3-5-haiku"),
+            new SummarizerRoutingProperties.Endpoint("primary", "https://other.example", "other-key", "gpt-4o"),
+            new SummarizerRoutingProperties.Endpoint("no-url", " ", "key", "gpt-4o")));
+
+        assertThat(properties.resolvedEndpoints(URL, "key", "default-model")).containsExactly(
+            new SummarizerRoutingProperties.Endpoint("primary", "https://primary.example", "key", "gpt-4o-mini"),
+            new SummarizerRoutingProperties.Endpoint("claude-3-5-haiku", "https://backup.example", "backup-key", "claude-3-5-haiku"));
+    }
+
+    private static SummarizerRoutingProperties properties(List<String> models, List<SummarizerRoutingProperties.Endpoint> endpoints) {
+        return new SummarizerRoutingProperties(models, endpoints, 5, Duration.ofSeconds(30), 50, false, Duration.ofSeconds(2));
+    }
+}
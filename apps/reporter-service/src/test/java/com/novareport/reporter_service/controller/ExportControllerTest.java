@@ -0,0 +1,77 @@
+package com.novareport.reporter_service.controller;
+
+import com.novareport.reporter_service.domain.ExportRepository;
+import com.novareport.reporter_service.service.ExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@SuppressWarnings("null")
+class ExportControllerTest {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 1, 31);
+
+    private ExportService exportService;
+    private ExportController controller;
+
+    @BeforeEach
+    void setUp() {
+        exportService = mock(ExportService.class);
+        controller = new ExportController(exportService);
+    }
+
+    @Test
+    void streamsTheDatasetAsGzipWhenAccepted() throws Exception {
+        ResponseEntity<StreamingResponseBody> response = controller.export("gzip, deflate", "reports", FROM, TO);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(ExportController.NDJSON);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION))
+            .contains("reports-2024-01-01-2024-01-31.ndjson");
+        verifyNoInteractions(exportService);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        verify(exportService).export(ExportRepository.Dataset.DAILY_REPORTS, FROM, TO, true, out);
+    }
+
+    @Test
+    void streamsPlainNdjsonWithoutAcceptEncoding() throws Exception {
+        ResponseEntity<StreamingResponseBody> response = controller.export(null, "news", FROM, TO);
+
+        assertThat(response.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        verify(exportService).export(ExportRepository.Dataset.NEWS_ITEMS, FROM, TO, false, out);
+    }
+
+    @Test
+    void rejectsUnknownDatasetsAndInvertedRanges() throws Exception {
+        assertThatThrownBy(() -> controller.export(null, "users", FROM, TO))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("dataset must be news or reports");
+        assertThatThrownBy(() -> controller.export(null, "news", TO, FROM))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("from must be on or before to");
+        verify(exportService, never()).export(any(), any(), any(), anyBoolean(), any());
+    }
+}
@@ -0,0 +1,85 @@
+package com.novareport.reporter_service.controller;
+
+import com.novareport.reporter_service.domain.ReportBackfillJob;
+import com.novareport.reporter_service.dto.ReportBackfillJobResponse;
+import com.novareport.reporter_service.service.ReportBackfillService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SuppressWarnings("null")
+class ReportAdminControllerTest {
+
+    private ReportBackfillService backfillService;
+    private ReportAdminController controller;
+
+    @BeforeEach
+    void setUp() {
+        backfillService = mock(ReportBackfillService.class);
+        controller = new ReportAdminController(backfillService);
+    }
+
+    @Test
+    void startBackfillReturnsAcceptedJob() {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 1, 7);
+        ReportBackfillJob job = job(from, to);
+        when(backfillService.start(from, to)).thenReturn(job);
+
+        ResponseEntity<ReportBackfillJobResponse> response = controller.startBackfill(from, to);
+
+        assertThat(response.getStatusCode().value()).isEqualTo(202);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().status()).isEqualTo("RUNNING");
+        assertThat(response.getBody().totalDates()).isEqualTo(7);
+    }
+
+    @Test
+    void backfillReportsProgressAndPerDateTimings() {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        ReportBackfillJob job = job(from, from.plusDays(2));
+        job.recordCompleted(from.plusDays(1), 250);
+        job.recordCompleted(from, 300);
+        job.recordFailed(from.plusDays(2));
+        when(backfillService.find(job.getId())).thenReturn(Optional.of(job));
+
+        ResponseEntity<ReportBackfillJobResponse> response = controller.backfill(job.getId());
+
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().completedDates()).isEqualTo(2);
+        assertThat(response.getBody().failedDates()).containsExactly(from.plusDays(2));
+        assertThat(response.getBody().timings()).containsExactly(
+            new ReportBackfillJobResponse.DateTiming(from, 300),
+            new ReportBackfillJobResponse.DateTiming(from.plusDays(1), 250)
+        );
+    }
+
+    @Test
+    void backfillReturnsNotFoundForUnknownJob() {
+        UUID id = UUID.randomUUID();
+        when(backfillService.find(id)).thenReturn(Optional.empty());
+
+        ResponseEntity<ReportBackfillJobResponse> response = controller.backfill(id);
+
+        assertThat(response.getStatusCode().value()).isEqualTo(404);
+    }
+
+    private static ReportBackfillJob job(LocalDate from, LocalDate to) {
+        ReportBackfillJob job = new ReportBackfillJob();
+        job.setId(UUID.randomUUID());
+        job.setFromDate(from);
+        job.setToDate(to);
+        job.setStatus(ReportBackfillJob.Status.RUNNING);
+        job.setCreatedAt(Instant.now());
+        return job;
+    }
+}
@@ -2,19 +2,30 @@
 
 import com.novareport.reporter_service.config.PaginationProperties;
 import com.novareport.reporter_service.domain.DailyReport;
+import com.novareport.reporter_service.domain.ReportArtifact;
+import com.novareport.reporter_service.dto.CursorDailyReportsResponse;
 import com.novareport.reporter_service.dto.DailyReportResponse;
 import com.novareport.reporter_service.dto.PagedDailyReportsResponse;
+import com.novareport.reporter_service.dto.ReportCursor;
 import com.novareport.reporter_service.service.DailyReportService;
+import com.novareport.reporter_service.service.ReportArtifactService;
+import com.novareport.reporter_service.service.ReportReadCache;
 import com.novareport.reporter_service.service.SubscriptionAccessService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -24,6 +35,7 @@
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -34,6 +46,8 @@ class ReportControllerTest {
     private SubscriptionAccessService subscriptionAccessService;
     private PaginationProperties paginationProperties;
 
+    private ReportReadCache readCache;
+    private ReportArtifactService artifactService;
     private ReportController controller;
 
     @BeforeEach
@@ -42,7 +56,9 @@ void setUp() {
         subscriptionAccessService = mock(SubscriptionAccessService.class);
         paginationProperties = new PaginationProperties();
         paginationProperties.setMaxPageSize(50);
-        controller = new ReportController(dailyReportService, subscriptionAccessService, paginationProperties);
+        readCache = new ReportReadCache(new SimpleMeterRegistry());
+        artifactService = mock(ReportArtifactService.class);
+        controller = new ReportController(dailyReportService, subscriptionAccessService, paginationProperties, readCache, artifactService);
     }
 
     @Test
@@ -56,7 +72,7 @@ void latestReturnsOkWhenReportExists() {
 
         when(dailyReportService.findLatest()).thenReturn(Optional.of(entity));
 
-        ResponseEntity<DailyReportResponse> response = controller.latest(auth);
+        ResponseEntity<DailyReportResponse> response = controller.latest(auth, null);
 
         verify(subscriptionAccessService).assertAccess(auth);
         assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
@@ -69,7 +85,7 @@ void latestReturnsNotFoundWhenNoReport() {
         String auth = "Bearer token";
         when(dailyReportService.findLatest()).thenReturn(Optional.empty());
 
-        ResponseEntity<DailyReportResponse> response = controller.latest(auth);
+        ResponseEntity<DailyReportResponse> response = controller.latest(auth, null);
 
         verify(subscriptionAccessService).assertAccess(auth);
         assertThat(response.getStatusCode().is4xxClientError()).isTrue();
@@ -89,7 +105,7 @@ void listReturnsPageOfReports() {
         Page<DailyReport> page = new PageImpl<>(List.of(entity), PageRequest.of(0, 10), 1);
         when(dailyReportService.findBetween(any(LocalDate.class), any(LocalDate.class), eq(PageRequest.of(0, 10)))).thenReturn(page);
 
-        ResponseEntity<PagedDailyReportsResponse> response = controller.list(auth, null, null, 0, 10);
+        ResponseEntity<PagedDailyReportsResponse> response = controller.list(auth, null, null, null, 0, 10);
 
         verify(subscriptionAccessService).assertAccess(auth);
         assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
@@ -102,11 +118,59 @@ void listReturnsPageOfReports() {
         assertThat(response.getBody().totalPages()).isEqualTo(1);
     }
 
+    @Test
+    void latestServesRepeatedReadsFromCacheWithStrongEtag() {
+        String auth = "Bearer token";
+        when(dailyReportService.findLatest()).thenReturn(Optional.of(report(LocalDate.now(), "summary")));
+
+        ResponseEntity<DailyReportResponse> first = controller.latest(auth, null);
+        ResponseEntity<DailyReportResponse> second = controller.latest(auth, null);
+
+        verify(dailyReportService, times(1)).findLatest();
+        assertThat(first.getHeaders().getETag()).isNotNull().startsWith("\"").isEqualTo(second.getHeaders().getETag());
+        assertThat(first.getHeaders().getCacheControl()).contains("no-cache").contains("private");
+        assertThat(second.getBody()).isEqualTo(first.getBody());
+    }
+
+    @Test
+    void latestReturnsNotModifiedWhenEtagMatches() {
+        String auth = "Bearer token";
+        when(dailyReportService.findLatest()).thenReturn(Optional.of(report(LocalDate.now(), "summary")));
+        String etag = controller.latest(auth, null).getHeaders().getETag();
+
+        ResponseEntity<DailyReportResponse> response = controller.latest(auth, "\"other\", W/" + etag);
+
+        verify(subscriptionAccessService, times(2)).assertAccess(auth);
+        assertThat(response.getStatusCode().value()).isEqualTo(304);
+        assertThat(response.getHeaders().getETag()).isEqualTo(etag);
+        assertThat(response.getBody()).isNull();
+    }
+
+    @Test
+    void listReturnsNotModifiedUntilReportsChange() {
+        String auth = "Bearer token";
+        LocalDate today = LocalDate.now();
+        when(dailyReportService.findBetween(any(LocalDate.class), any(LocalDate.class), eq(PageRequest.of(0, 10))))
+            .thenReturn(new PageImpl<>(List.of(report(today, "summary")), PageRequest.of(0, 10), 1));
+        String etag = controller.list(auth, null, null, null, 0, 10).getHeaders().getETag();
+
+        assertThat(controller.list(auth, etag, null, null, 0, 10).getStatusCode().value()).isEqualTo(304);
+
+        when(dailyReportService.findBetween(any(LocalDate.class), any(LocalDate.class), eq(PageRequest.of(0, 10))))
+            .thenReturn(new PageImpl<>(List.of(report(today, "rebuilt summary")), PageRequest.of(0, 10), 1));
+        readCache.invalidate();
+        ResponseEntity<PagedDailyReportsResponse> changed = controller.list(auth, etag, null, null, 0, 10);
+
+        assertThat(changed.getStatusCode().value()).isEqualTo(200);
+        assertThat(changed.getHeaders().getETag()).isNotEqualTo(etag);
+        assertThat(changed.getBody().content().get(0).summary()).isEqualTo("rebuilt summary");
+    }
+
     @Test
     void listThrowsWhenPageNegative() {
         String auth = "Bearer token";
 
-        assertThatThrownBy(() -> controller.list(auth, null, null, -1, 10))
+        assertThatThrownBy(() -> controller.list(auth, null, null, null, -1, 10))
             .isInstanceOf(IllegalArgumentException.class)
             .hasMessageContaining("page must be >= 0");
     }
@@ -115,11 +179,11 @@ void listThrowsWhenPageNegative() {
     void listThrowsWhenSizeOutOfRange() {
         String auth = "Bearer token";
 
-        assertThatThrownBy(() -> controller.list(auth, null, null, 0, 0))
+        assertThatThrownBy(() -> controller.list(auth, null, null, null, 0, 0))
             .isInstanceOf(IllegalArgumentException.class)
             .hasMessageContaining("size must be between 1 and ");
 
-        assertThatThrownBy(() -> controller.list(auth, null, null, 0, 51))
+        assertThatThrownBy(() -> controller.list(auth, null, null, null, 0, 51))
             .isInstanceOf(IllegalArgumentException.class)
             .hasMessageContaining("size must be between 1 and ");
     }
@@ -130,8 +194,130 @@ void listThrowsWhenFromAfterTo() {
         LocalDate from = LocalDate.of(2024, 2, 1);
         LocalDate to = LocalDate.of(2024, 1, 1);
 
-        assertThatThrownBy(() -> controller.list(auth, from, to, 0, 10))
+        assertThatThrownBy(() -> controller.list(auth, null, from, to, 0, 10))
             .isInstanceOf(IllegalArgumentException.class)
             .hasMessageContaining("from must be on or before to");
     }
+
+    @Test
+    void slotsDefaultsToTodayAndReturnsNewestSlotFirst() {
+        String auth = "Bearer token";
+        LocalDate today = LocalDate.now();
+        DailyReportResponse evening = DailyReportResponse.fromEntity(report(today, "evening"));
+        when(dailyReportService.findSlots(today, false)).thenReturn(List.of(evening));
+
+        List<DailyReportResponse> slots = controller.slots(auth, null, false);
+
+        assertThat(slots).containsExactly(evening);
+        verify(subscriptionAccessService).assertAccess(auth);
+    }
+
+    @Test
+    void scrollReturnsCursorToContinueAfterLastReport() {
+        String auth = "Bearer token";
+        DailyReportResponse newer = DailyReportResponse.fromEntity(report(LocalDate.of(2024, 1, 2), "summary"));
+        DailyReportResponse older = DailyReportResponse.fromEntity(report(LocalDate.of(2024, 1, 1), "summary"));
+        when(dailyReportService.scrollBetween(any(LocalDate.class), any(LocalDate.class), eq(null), eq(2), eq(false)))
+            .thenReturn(Window.from(List.of(newer, older), ScrollPosition::offset, true));
+
+        CursorDailyReportsResponse first = controller.scroll(auth, null, null, null, 2, false);
+
+        assertThat(first.content()).containsExactly(newer, older);
+        assertThat(first.nextCursor()).isNotNull();
+        assertThat(ReportCursor.decode(first.nextCursor())).isEqualTo(new ReportCursor(older.reportDate(), older.slotStart()));
+
+        when(dailyReportService.scrollBetween(any(LocalDate.class), any(LocalDate.class), eq(new ReportCursor(older.reportDate(), older.slotStart())), eq(2), eq(false)))
+            .thenReturn(Window.from(List.of(), ScrollPosition::offset, false));
+
+        CursorDailyReportsResponse last = controller.scroll(auth, null, null, first.nextCursor(), 2, false);
+
+        assertThat(last.content()).isEmpty();
+        assertThat(last.nextCursor()).isNull();
+        verify(subscriptionAccessService, times(2)).assertAccess(auth);
+    }
+
+    @Test
+    void scrollRejectsMalformedCursorAndSize() {
+        String auth = "Bearer token";
+
+        assertThatThrownBy(() -> controller.scroll(auth, null, null, "not-a-cursor", 10, false))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("cursor is invalid");
+        assertThatThrownBy(() -> controller.scroll(auth, null, null, null, 51, false))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("size must be between 1 and ");
+    }
+
+    @Test
+    void latestRenderedServesPrecompressedBytesWhenGzipAccepted() {
+        String auth = "Bearer token";
+        DailyReport entity = report(LocalDate.of(2024, 1, 1), "# Title");
+        ReportArtifact artifact = artifact(entity);
+        when(dailyReportService.findLatest()).thenReturn(Optional.of(entity));
+        when(artifactService.find(entity, ReportArtifact.Format.HTML)).thenReturn(artifact);
+
+        ResponseEntity<byte[]> compressed = controller.latestRendered(auth, null, "gzip, deflate, br", "html");
+        ResponseEntity<byte[]> identity = controller.latestRendered(auth, null, "gzip;q=0", "html");
+
+        assertThat(compressed.getBody()).isSameAs(artifact.getBodyGzip());
+        assertThat(compressed.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(compressed.getHeaders().getContentType()).hasToString("text/html;charset=UTF-8");
+        assertThat(compressed.getHeaders().getVary()).containsExactly(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(identity.getBody()).isSameAs(artifact.getBody());
+        assertThat(identity.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+        assertThat(compressed.getHeaders().getETag()).isNotEqualTo(identity.getHeaders().getETag());
+        verify(dailyReportService, times(1)).findLatest();
+    }
+
+    @Test
+    void latestRenderedReturnsNotModifiedForMatchingEncodingTag() {
+        String auth = "Bearer token";
+        DailyReport entity = report(LocalDate.of(2024, 1, 1), "# Title");
+        when(dailyReportService.findLatest()).thenReturn(Optional.of(entity));
+        when(artifactService.find(entity, ReportArtifact.Format.TEXT)).thenReturn(artifact(entity));
+        String etag = controller.latestRendered(auth, null, "gzip", "text").getHeaders().getETag();
+
+        assertThat(controller.latestRendered(auth, etag, "gzip", "text").getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(controller.latestRendered(auth, etag, null, "text").getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void latestRenderedRejectsUnknownFormatAndReturnsNotFoundWithoutReport() {
+        String auth = "Bearer token";
+        when(dailyReportService.findLatest()).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> controller.latestRendered(auth, null, null, "pdf"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("format must be html or text");
+        assertThat(controller.latestRendered(auth, null, null, "html").getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void acceptsGzipHonoursWildcardAndZeroQuality() {
+        assertThat(ReportController.acceptsGzip("br;q=1.0, gzip;q=0.8")).isTrue();
+        assertThat(ReportController.acceptsGzip("*")).isTrue();
+        assertThat(ReportController.acceptsGzip("GZIP")).isTrue();
+        assertThat(ReportController.acceptsGzip("gzip;q=0.000")).isFalse();
+        assertThat(ReportController.acceptsGzip("identity")).isFalse();
+        assertThat(ReportController.acceptsGzip(null)).isFalse();
+    }
+
+    private static ReportArtifact artifact(DailyReport report) {
+        ReportArtifact artifact = new ReportArtifact();
+        artifact.setReportId(report.getId());
+        artifact.setBody(new byte[] {1, 2, 3});
+        artifact.setBodyGzip(new byte[] {4, 5});
+        artifact.setEtag("\"abc\"");
+        return artifact;
+    }
+
+    private static DailyReport report(LocalDate date, String summary) {
+        DailyReport entity = new DailyReport();
+        entity.setId(UUID.randomUUID());
+        entity.setReportDate(date);
+        entity.setSlotStart(date.atTime(20, 0).toInstant(ZoneOffset.UTC));
+        entity.setSummary(summary);
+        entity.setCreatedAt(Instant.parse("2024-01-01T08:00:00Z"));
+        return entity;
+    }
 }
@@ -0,0 +1,173 @@
+package com.novareport.reporter_service.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.novareport.reporter_service.config.PaginationProperties;
+import com.novareport.reporter_service.domain.DailyReport;
+import com.novareport.reporter_service.domain.DailyReportRepository;
+import com.novareport.reporter_service.dto.DailyReportResponse;
+import com.novareport.reporter_service.dto.PagedDailyReportsResponse;
+import com.novareport.reporter_service.service.DailyReportService;
+import com.novareport.reporter_service.service.ReportReadCache;
+import com.novareport.reporter_service.service.SubscriptionAccessService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Load test of the report read path: the former repository + serialization path against cached 200s and
+ * 304 revalidations, with reports stored in an in-memory H2 database.
+ * <p>
+ * Run with {@code ./mvnw test -Dtest=ReportReadPathBenchmarkTest -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ReportReadPathBenchmarkTest {
+
+    private static final int THREADS = 8;
+    private static final int REQUESTS_PER_THREAD = 5_000;
+    private static final int REPORTS = 180;
+    private static final String AUTH = "Bearer token";
+
+    private static final RowMapper<DailyReport> REPORT_ROW = (rs, rowNum) -> {
+        DailyReport report = new DailyReport();
+        report.setId(rs.getObject("id", UUID.class));
+        report.setReportDate(rs.getObject("report_date", LocalDate.class));
+        report.setSlotStart(rs.getObject("slot_start", OffsetDateTime.class).toInstant());
+        report.setSummary(rs.getString("summary"));
+        report.setCreatedAt(rs.getObject("created_at", OffsetDateTime.class).toInstant());
+        return report;
+    };
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void compareReadPaths() throws Exception {
+        JdbcTemplate jdbcTemplate = database();
+        DailyReportRepository repository = repository(jdbcTemplate);
+        PaginationProperties paginationProperties = new PaginationProperties();
+        paginationProperties.setMaxPageSize(50);
+        ReportReadCache readCache = new ReportReadCache(new SimpleMeterRegistry());
+        DailyReportService dailyReportService = new DailyReportService(repository, null, null, null, null, readCache, null, null, null, null, null, new SimpleMeterRegistry());
+        ReportController controller = new ReportController(dailyReportService, mock(SubscriptionAccessService.class), paginationProperties, readCache, null);
+
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(30);
+        String latestEtag = controller.latest(AUTH, null).getHeaders().getETag();
+        String pageEtag = controller.list(AUTH, null, from, to, 0, 10).getHeaders().getETag();
+
+        System.out.printf("%-28s %12s %12s%n", "path", "requests/s", "bytes/req");
+        report("latest, uncached (before)", () -> serialize(repository.findTop1ByOrderByReportDateDescSlotStartDesc().map(DailyReportResponse::fromEntity).orElseThrow()));
+        report("latest, cached 200", () -> serialize(controller.latest(AUTH, null).getBody()));
+        report("latest, cached 304", () -> {
+            ResponseEntity<DailyReportResponse> response = controller.latest(AUTH, latestEtag);
+            assertThat(response.getStatusCode().value()).isEqualTo(304);
+            return 0;
+        });
+        report("page, uncached (before)", () -> serialize(PagedDailyReportsResponse.fromPage(
+            repository.findAllByReportDateBetweenOrderByReportDateDescSlotStartDesc(from, to, PageRequest.of(0, 10)).map(DailyReportResponse::fromEntity))));
+        report("page, cached 200", () -> serialize(controller.list(AUTH, null, from, to, 0, 10).getBody()));
+        report("page, cached 304", () -> {
+            assertThat(controller.list(AUTH, pageEtag, from, to, 0, 10).getStatusCode().value()).isEqualTo(304);
+            return 0;
+        });
+    }
+
+    private void report(String path, Callable<Integer> request) throws Exception {
+        for (int i = 0; i < 2_000; i++) {
+            request.call();
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            long start = System.nanoTime();
+            List<Future<Long>> results = executor.invokeAll(Collections.nCopies(THREADS, () -> {
+                long bytes = 0;
+                for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+                    bytes += request.call();
+                }
+                return bytes;
+            }));
+            long bytes = 0;
+            for (Future<Long> result : results) {
+                bytes += result.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            int requests = THREADS * REQUESTS_PER_THREAD;
+            System.out.printf("%-28s %12.0f %12d%n", path, requests / seconds, bytes / requests);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int serialize(Object body) throws Exception {
+        return objectMapper.writeValueAsBytes(body).length;
+    }
+
+    private static JdbcTemplate database() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("""
+            CREATE TABLE daily_reports (
+                id UUID PRIMARY KEY,
+                report_date DATE NOT NULL,
+                slot_start TIMESTAMP WITH TIME ZONE NOT NULL,
+                summary TEXT NOT NULL,
+                created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+                UNIQUE (report_date, slot_start)
+            )
+            """);
+        String summary = "Bitcoin and ether traded sideways while regulators weighed new rules. ".repeat(80);
+        for (int i = 0; i < REPORTS; i++) {
+            jdbcTemplate.update(
+                "INSERT INTO daily_reports (id, report_date, slot_start, summary, created_at) VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP)",
+                UUID.randomUUID(), LocalDate.now().minusDays(i), OffsetDateTime.now().minusDays(i), summary);
+        }
+        return jdbcTemplate;
+    }
+
+    /**
+     * Repository stand-in that runs the same queries the derived Spring Data methods issue.
+     */
+    private static DailyReportRepository repository(JdbcTemplate jdbcTemplate) {
+        DailyReportRepository repository = mock(DailyReportRepository.class);
+        when(repository.findTop1ByOrderByReportDateDescSlotStartDesc()).thenAnswer(invocation -> Optional.of(jdbcTemplate.queryForObject(
+            "SELECT * FROM daily_reports ORDER BY report_date DESC, slot_start DESC LIMIT 1", REPORT_ROW)));
+        when(repository.findAllByReportDateBetweenOrderByReportDateDescSlotStartDesc(any(), any(), any())).thenAnswer(invocation -> {
+            LocalDate from = invocation.getArgument(0);
+            LocalDate to = invocation.getArgument(1);
+            Pageable pageable = invocation.getArgument(2);
+            List<DailyReport> content = jdbcTemplate.query(
+                "SELECT * FROM daily_reports WHERE report_date BETWEEN ? AND ? ORDER BY report_date DESC, slot_start DESC LIMIT ? OFFSET ?",
+                REPORT_ROW, from, to, pageable.getPageSize(), pageable.getOffset());
+            Long total = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM daily_reports WHERE report_date BETWEEN ? AND ?", Long.class, from, to);
+            return new PageImpl<>(content, pageable, total == null ? 0 : total);
+        });
+        return repository;
+    }
+}
@@ -0,0 +1,101 @@
+package com.novareport.reporter_service.controller;
+
+import com.novareport.reporter_service.config.PaginationProperties;
+import com.novareport.reporter_service.domain.SearchHit;
+import com.novareport.reporter_service.dto.SearchCursor;
+import com.novareport.reporter_service.dto.SearchResponse;
+import com.novareport.reporter_service.service.SearchService;
+import com.novareport.reporter_service.service.SubscriptionAccessService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SuppressWarnings("null")
+class SearchControllerTest {
+
+    private static final String AUTH = "Bearer token";
+
+    private SearchService searchService;
+    private SubscriptionAccessService subscriptionAccessService;
+    private SearchController controller;
+
+    @BeforeEach
+    void setUp() {
+        searchService = mock(SearchService.class);
+        subscriptionAccessService = mock(SubscriptionAccessService.class);
+        PaginationProperties paginationProperties = new PaginationProperties();
+        paginationProperties.setMaxPageSize(50);
+        controller = new SearchController(searchService, subscriptionAccessService, paginationProperties);
+    }
+
+    @Test
+    void searchDefaultsToTheLastYearAndReturnsCursorAfterLastHit() {
+        LocalDate today = LocalDate.now();
+        SearchHit best = hit(0.9f);
+        SearchHit next = hit(0.4f);
+        when(searchService.search("bitcoin", EnumSet.allOf(SearchHit.Kind.class), today.minusYears(1), today, null, 2))
+            .thenReturn(Window.from(List.of(best, next), ScrollPosition::offset, true));
+
+        SearchResponse response = controller.search(AUTH, "bitcoin", "all", null, null, null, 2);
+
+        assertThat(response.content()).containsExactly(best, next);
+        assertThat(SearchCursor.decode(response.nextCursor())).isEqualTo(new SearchCursor(0.4f, next.at(), next.id()));
+        verify(subscriptionAccessService).assertAccess(AUTH);
+    }
+
+    @Test
+    void searchPassesCursorAndKindThrough() {
+        LocalDate day = LocalDate.of(2024, 5, 10);
+        SearchCursor cursor = new SearchCursor(0.25f, Instant.parse("2024-05-10T12:00:00Z"), UUID.randomUUID());
+        when(searchService.search("ether", EnumSet.of(SearchHit.Kind.REPORT), day, day, cursor, 10))
+            .thenReturn(Window.from(List.of(), ScrollPosition::offset, false));
+
+        SearchResponse response = controller.search(AUTH, "ether", "reports", day, day, cursor.encode(), 10);
+
+        assertThat(response.content()).isEmpty();
+        assertThat(response.nextCursor()).isNull();
+    }
+
+    @Test
+    void searchRejectsInvalidParameters() {
+        when(searchService.search(anyString(), any(), any(), any(), any(), anyInt()))
+            .thenReturn(Window.from(List.of(), ScrollPosition::offset, false));
+
+        assertThatThrownBy(() -> controller.search(AUTH, "bitcoin", "tweets", null, null, null, 10))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("type must be");
+        assertThatThrownBy(() -> controller.search(AUTH, "bitcoin", "all", null, null, null, 51))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("size must be between 1 and 50");
+        assertThatThrownBy(() -> controller.search(AUTH, "bitcoin", "all", LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1), null, 10))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("from must be on or before to");
+        assertThatThrownBy(() -> controller.search(AUTH, "bitcoin", "all", null, null, "not-a-cursor", 10))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("cursor is invalid");
+        verify(searchService, never()).search(anyString(), any(), any(), any(), any(), eq(10));
+    }
+
+    private static SearchHit hit(float rank) {
+        return new SearchHit(SearchHit.Kind.NEWS, UUID.randomUUID(), "Title", "CoinDesk", "https://example.com",
+            "snippet", Instant.parse("2024-05-10T12:00:00Z"), rank);
+    }
+}
@@ -0,0 +1,139 @@
+package com.novareport.reporter_service.domain;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Heap use and throughput of {@link ExportRepository} on PostgreSQL, exporting a day and a year of generated
+ * news items. The peak heap growth should be the same for both, since rows are streamed through a cursor
+ * rather than collected. The corpus is written to the {@value #SCHEMA} schema, which is dropped first;
+ * {@code -Dbenchmark.reuse=true} keeps the corpus of an earlier run instead.
+ * <p>
+ * Run with {@code ./mvnw test -Dtest=ExportBenchmarkTest -Dbenchmark=true
+ * -Dbenchmark.jdbc-url=jdbc:postgresql://localhost:5432/postgres -Dbenchmark.items=2000000}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ExportBenchmarkTest {
+
+    private static final String SCHEMA = "export_benchmark";
+    private static final int FETCH_SIZE = 1000;
+
+    @Test
+    void heapStaysFlatAsExportsGrow() throws InterruptedException {
+        String url = System.getProperty("benchmark.jdbc-url", "jdbc:postgresql://localhost:5432/postgres");
+        String user = System.getProperty("benchmark.user", "postgres");
+        String password = System.getProperty("benchmark.password", "postgres");
+        int items = Integer.getInteger("benchmark.items", 2_000_000);
+
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+            url + (url.contains("?") ? "&" : "?") + "currentSchema=" + SCHEMA, user, password, true);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        if (!Boolean.getBoolean("benchmark.reuse")) {
+            JdbcTemplate admin = new JdbcTemplate(new DriverManagerDataSource(url, user, password));
+            admin.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            admin.execute("CREATE SCHEMA " + SCHEMA);
+            generate(jdbcTemplate, items);
+        }
+
+        ExportRepository repository = new ExportRepository(jdbcTemplate);
+        TransactionTemplate readOnly = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        readOnly.setReadOnly(true);
+        LocalDate to = LocalDate.now();
+
+        System.out.printf("%-8s %12s %10s %10s %14s%n", "range", "rows", "MB", "seconds", "peak heap MB");
+        long day = report(readOnly, repository, "day", to, to);
+        long year = report(readOnly, repository, "year", to.minusYears(1), to);
+
+        assertThat(year).isLessThan(day + 64L * 1024 * 1024);
+    }
+
+    private static long report(TransactionTemplate readOnly, ExportRepository repository, String name, LocalDate from, LocalDate to)
+        throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long baseline = memory.getHeapMemoryUsage().getUsed();
+        AtomicLong peak = new AtomicLong(baseline);
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread sampler = Thread.ofPlatform().daemon().start(() -> {
+            while (running.get()) {
+                peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+
+        CountingOutputStream out = new CountingOutputStream();
+        long start = System.nanoTime();
+        Long rows = readOnly.execute(status -> repository.writeNdjson(ExportRepository.Dataset.NEWS_ITEMS, from, to, FETCH_SIZE, out));
+        double seconds = (System.nanoTime() - start) / 1e9;
+        running.set(false);
+        sampler.join();
+
+        long growth = peak.get() - baseline;
+        System.out.printf("%-8s %,12d %10.1f %10.1f %14.1f%n", name, rows, out.bytes / 1e6, seconds, growth / 1e6);
+        assertThat(rows).isPositive();
+        return growth;
+    }
+
+    private static void generate(JdbcTemplate jdbcTemplate, int items) {
+        jdbcTemplate.execute("""
+            CREATE TABLE news_items (
+                id UUID NOT NULL,
+                source VARCHAR(150) NOT NULL,
+                url TEXT NOT NULL,
+                title TEXT NOT NULL,
+                published_at TIMESTAMP WITH TIME ZONE NOT NULL,
+                summary TEXT,
+                ingested_at TIMESTAMP WITH TIME ZONE NOT NULL,
+                cluster_id UUID,
+                PRIMARY KEY (id, published_at)
+            ) PARTITION BY RANGE (published_at)
+            """);
+        jdbcTemplate.execute("CREATE TABLE " + NewsItemPartitions.DEFAULT_PARTITION + " PARTITION OF news_items DEFAULT");
+        LocalDate lastWeek = NewsItemPartitions.weekStart(Instant.now());
+        for (LocalDate week = lastWeek.minusWeeks(53); !week.isAfter(lastWeek); week = week.plusWeeks(1)) {
+            jdbcTemplate.execute(NewsItemPartitions.createPartitionSql(week));
+        }
+        jdbcTemplate.update("""
+            INSERT INTO news_items (id, source, url, title, published_at, summary, ingested_at)
+            SELECT gen_random_uuid(), 'CoinDesk', 'https://example.com/' || g, 'Headline ' || g,
+                   now() - random() * interval '365 days', repeat('Summary text of the item. ', 12), now()
+            FROM generate_series(1, ?) g
+            """, items);
+        jdbcTemplate.execute("CREATE INDEX idx_news_items_published_at ON news_items(published_at)");
+        jdbcTemplate.execute("VACUUM ANALYZE news_items");
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.novareport.reporter_service.domain;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExportRepositoryTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 5, 10);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private JdbcTemplate jdbcTemplate;
+    private ExportRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("""
+            CREATE TABLE news_items (
+                id UUID PRIMARY KEY,
+                source VARCHAR(150) NOT NULL,
+                url TEXT NOT NULL,
+                title TEXT NOT NULL,
+                published_at TIMESTAMP WITH TIME ZONE NOT NULL,
+                summary TEXT,
+                ingested_at TIMESTAMP WITH TIME ZONE NOT NULL,
+                cluster_id UUID
+            )
+            """);
+        jdbcTemplate.execute("""
+            CREATE TABLE daily_reports (
+                id UUID PRIMARY KEY,
+                report_date DATE NOT NULL,
+                slot_start TIMESTAMP WITH TIME ZONE NOT NULL,
+                summary TEXT NOT NULL,
+                created_at TIMESTAMP WITH TIME ZONE NOT NULL
+            )
+            """);
+        repository = new ExportRepository(jdbcTemplate);
+    }
+
+    @Test
+    void writesOneNewsItemPerLineOldestFirstWithinTheRange() throws IOException {
+        UUID later = news("Ether upgrade", null, DAY.plusDays(1));
+        UUID earlier = news("Bitcoin ETF \"approved\"", "Line one\nline two", DAY);
+        news("Too old", "Outside", DAY.minusDays(1));
+        news("Too new", "Outside", DAY.plusDays(2));
+
+        List<JsonNode> lines = export(ExportRepository.Dataset.NEWS_ITEMS, DAY, DAY.plusDays(1), 1);
+
+        assertThat(lines).extracting(line -> line.get("id").asText()).containsExactly(earlier.toString(), later.toString());
+        JsonNode first = lines.get(0);
+        assertThat(first.get("title").asText()).isEqualTo("Bitcoin ETF \"approved\"");
+        assertThat(first.get("summary").asText()).isEqualTo("Line one\nline two");
+        assertThat(first.get("source").asText()).isEqualTo("CoinDesk");
+        assertThat(Instant.parse(first.get("publishedAt").asText())).isEqualTo(noon(DAY));
+        assertThat(first.get("clusterId").isNull()).isTrue();
+        assertThat(lines.get(1).get("summary").isNull()).isTrue();
+    }
+
+    @Test
+    void writesReportsByReportDate() throws IOException {
+        UUID report = report("Summary", DAY);
+        report("Other day", DAY.minusDays(1));
+
+        List<JsonNode> lines = export(ExportRepository.Dataset.DAILY_REPORTS, DAY, DAY, 1000);
+
+        assertThat(lines).hasSize(1);
+        JsonNode line = lines.get(0);
+        assertThat(line.get("id").asText()).isEqualTo(report.toString());
+        assertThat(line.get("reportDate").asText()).isEqualTo("2024-05-10");
+        assertThat(Instant.parse(line.get("slotStart").asText())).isEqualTo(noon(DAY));
+        assertThat(line.get("summary").asText()).isEqualTo("Summary");
+    }
+
+    @Test
+    void writesNothingForAnEmptyRange() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = repository.writeNdjson(ExportRepository.Dataset.NEWS_ITEMS, DAY, DAY, 100, out);
+
+        assertThat(rows).isZero();
+        assertThat(out.size()).isZero();
+    }
+
+    private List<JsonNode> export(ExportRepository.Dataset dataset, LocalDate from, LocalDate to, int fetchSize)
+        throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = repository.writeNdjson(dataset, from, to, fetchSize, out);
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertThat(body).endsWith("\n");
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        assertThat(lines).hasSize((int) rows);
+        return lines;
+    }
+
+    private UUID news(String title, String summary, LocalDate day) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update(
+            "INSERT INTO news_items (id, source, url, title, published_at, summary, ingested_at) VALUES (?, ?, ?, ?, ?, ?, ?)",
+            id, "CoinDesk", "https://example.com/" + id, title, noon(day).atOffset(ZoneOffset.UTC), summary,
+            noon(day).atOffset(ZoneOffset.UTC));
+        return id;
+    }
+
+    private UUID report(String summary, LocalDate day) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO daily_reports (id, report_date, slot_start, summary, created_at) VALUES (?, ?, ?, ?, ?)",
+            id, day, noon(day).atOffset(ZoneOffset.UTC), summary, noon(day).atOffset(ZoneOffset.UTC));
+        return id;
+    }
+
+    private static Instant noon(LocalDate day) {
+        return day.atTime(12, 0).atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
@@ -0,0 +1,79 @@
+package com.novareport.reporter_service.domain;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link NewsItemBulkInsertImpl}'s PostgreSQL statement against the migrated schema: keys are claimed in
+ * {@code news_item_keys} and only rows whose key was claimed land in the partitioned {@code news_items}.
+ */
+class NewsItemBulkInsertImplPostgresTest {
+
+    private static final Instant PUBLISHED_AT = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+    private JdbcTemplate jdbcTemplate;
+    private NewsItemBulkInsertImpl bulkInsert;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(PostgresTestDatabase.migrated());
+        bulkInsert = new NewsItemBulkInsertImpl(jdbcTemplate);
+    }
+
+    @Test
+    void claimsKeysAndInsertsRows() {
+        NewsItem item = item("h1");
+        UUID clusterId = UUID.randomUUID();
+        item.setClusterId(clusterId);
+
+        List<NewsItem> inserted = bulkInsert.insertIgnoringDuplicates(List.of(item));
+
+        assertThat(inserted).containsExactly(item);
+        assertThat(jdbcTemplate.queryForObject("select cluster_id from news_items where url_key = ?", UUID.class, key("h1")))
+            .isEqualTo(clusterId);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from news_item_keys where url_key = ?", Integer.class, key("h1")))
+            .isEqualTo(1);
+    }
+
+    @Test
+    void returnsOnlyRowsWhoseKeyWasNotYetClaimed() {
+        bulkInsert.insertIgnoringDuplicates(List.of(item("h1"), item("h2")));
+
+        List<NewsItem> inserted = bulkInsert.insertIgnoringDuplicates(List.of(item("h2"), item("h3"), item("h1")));
+
+        assertThat(inserted).extracting(NewsItem::getUrlKey).containsExactly(key("h3"));
+        assertThat(jdbcTemplate.queryForObject("select count(*) from news_items", Integer.class)).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from news_item_keys", Integer.class)).isEqualTo(3);
+    }
+
+    @Test
+    void keepsOneRowForKeysRepeatedWithinAChunk() {
+        List<NewsItem> inserted = bulkInsert.insertIgnoringDuplicates(List.of(item("h1"), item("h1")));
+
+        assertThat(inserted).hasSize(1);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from news_items", Integer.class)).isEqualTo(1);
+    }
+
+    private static NewsItem item(String name) {
+        NewsItem item = new NewsItem();
+        item.setSource("Source");
+        item.setUrl("https://example.com/" + name);
+        item.setTitle("Title " + name);
+        item.setPublishedAt(PUBLISHED_AT);
+        item.setUrlKey(key(name));
+        return item;
+    }
+
+    private static UUID key(String name) {
+        return UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,138 @@
+package com.novareport.reporter_service.domain;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+class NewsItemBulkInsertImplTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private NewsItemBulkInsertImpl bulkInsert;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("""
+            CREATE TABLE news_items (
+                id UUID PRIMARY KEY,
+                source VARCHAR(150) NOT NULL,
+                url TEXT NOT NULL,
+                title TEXT NOT NULL,
+                published_at TIMESTAMP WITH TIME ZONE NOT NULL,
+                summary TEXT,
+                url_key UUID NOT NULL UNIQUE,
+                ingested_at TIMESTAMP WITH TIME ZONE NOT NULL,
+                cluster_id UUID
+            )
+            """);
+        bulkInsert = new NewsItemBulkInsertImpl(jdbcTemplate);
+    }
+
+    @Test
+    void insertsNewItemsAndAssignsIds() {
+        NewsItem item = item("h1");
+        UUID clusterId = UUID.randomUUID();
+        item.setClusterId(clusterId);
+
+        List<NewsItem> inserted = bulkInsert.insertIgnoringDuplicates(List.of(item));
+
+        assertThat(inserted).containsExactly(item);
+        assertThat(item.getId()).isNotNull();
+        assertThat(item.getIngestedAt()).isNotNull();
+        assertThat(jdbcTemplate.queryForObject("select title from news_items where url_key = ?", String.class, key("h1")))
+            .isEqualTo("Title h1");
+        assertThat(jdbcTemplate.queryForObject("select cluster_id from news_items where url_key = ?", UUID.class, key("h1")))
+            .isEqualTo(clusterId);
+    }
+
+    @Test
+    void skipsKeysThatAreAlreadyStored() {
+        bulkInsert.insertIgnoringDuplicates(List.of(item("h1"), item("h2")));
+
+        List<NewsItem> inserted = bulkInsert.insertIgnoringDuplicates(List.of(item("h2"), item("h3"), item("h1")));
+
+        assertThat(inserted).extracting(NewsItem::getUrlKey).containsExactly(key("h3"));
+        assertThat(jdbcTemplate.queryForObject("select count(*) from news_items", Integer.class)).isEqualTo(3);
+    }
+
+    @Test
+    void writesLargeInputsInChunks() {
+        List<NewsItem> items = new ArrayList<>();
+        for (int i = 0; i < NewsItemBulkInsertImpl.CHUNK_SIZE * 2 + 7; i++) {
+            items.add(item("h" + i));
+        }
+
+        List<NewsItem> inserted = bulkInsert.insertIgnoringDuplicates(items);
+
+        assertThat(inserted).hasSize(items.size());
+        assertThat(jdbcTemplate.queryForObject("select count(*) from news_items", Integer.class)).isEqualTo(items.size());
+    }
+
+    @Test
+    void countsOnlyStoredRowsWhenTheDriverReportsNoUpdateCounts() throws Exception {
+        bulkInsert.insertIgnoringDuplicates(List.of(item("h1")));
+        DataSource noInfo = noUpdateCounts(jdbcTemplate.getDataSource());
+        NewsItemBulkInsertImpl noInfoInsert = new NewsItemBulkInsertImpl(new JdbcTemplate(noInfo));
+
+        List<NewsItem> inserted = noInfoInsert.insertIgnoringDuplicates(List.of(item("h1"), item("h2")));
+
+        assertThat(inserted).extracting(NewsItem::getUrlKey).containsExactly(key("h2"));
+        assertThat(jdbcTemplate.queryForObject("select count(*) from news_items", Integer.class)).isEqualTo(2);
+    }
+
+    /**
+     * Wraps the data source so batches report {@link Statement#SUCCESS_NO_INFO} for every row, as some
+     * drivers do.
+     */
+    private static DataSource noUpdateCounts(DataSource dataSource) throws SQLException {
+        DataSource wrapped = spy(dataSource);
+        doAnswer(invocation -> {
+            Connection connection = spy((Connection) invocation.callRealMethod());
+            doAnswer(prepare -> {
+                PreparedStatement statement = spy((PreparedStatement) prepare.callRealMethod());
+                doAnswer(batch -> {
+                    int[] counts = (int[]) batch.callRealMethod();
+                    Arrays.fill(counts, Statement.SUCCESS_NO_INFO);
+                    return counts;
+                }).when(statement).executeBatch();
+                return statement;
+            }).when(connection).prepareStatement(anyString());
+            return connection;
+        }).when(wrapped).getConnection();
+        return wrapped;
+    }
+
+    private static NewsItem item(String name) {
+        NewsItem item = new NewsItem();
+        item.setSource("Source");
+        item.setUrl("https://example.com/" + name);
+        item.setTitle("Title " + name);
+        item.setPublishedAt(Instant.parse("2025-01-07T10:15:00Z"));
+        item.setUrlKey(key(name));
+        return item;
+    }
+
+    private static UUID key(String name) {
+        return UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,35 @@
+package com.novareport.reporter_service.domain;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NewsItemKeyLookupImplPostgresTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private NewsItemKeyLookupImpl lookup;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(PostgresTestDatabase.migrated());
+        lookup = new NewsItemKeyLookupImpl(jdbcTemplate);
+    }
+
+    @Test
+    void readsKeysFromTheClaimTable() {
+        UUID stored = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        jdbcTemplate.update("insert into news_item_keys (url_key, published_at) values (?, ?)", stored, Timestamp.from(Instant.now()));
+
+        assertThat(lookup.findExistingUrlKeys(List.of(stored, missing))).containsExactly(stored);
+        assertThat(lookup.existsByUrlKey(stored)).isTrue();
+        assertThat(lookup.existsByUrlKey(missing)).isFalse();
+    }
+}
@@ -0,0 +1,36 @@
+package com.novareport.reporter_service.domain;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NewsItemKeyLookupImplTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private NewsItemKeyLookupImpl lookup;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+            "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("CREATE TABLE news_items (id UUID PRIMARY KEY, url_key UUID NOT NULL UNIQUE)");
+        lookup = new NewsItemKeyLookupImpl(jdbcTemplate);
+    }
+
+    @Test
+    void returnsStoredKeysOnly() {
+        UUID stored = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        jdbcTemplate.update("insert into news_items (id, url_key) values (?, ?)", UUID.randomUUID(), stored);
+
+        assertThat(lookup.findExistingUrlKeys(List.of(stored, missing))).containsExactly(stored);
+        assertThat(lookup.findExistingUrlKeys(List.of())).isEmpty();
+        assertThat(lookup.existsByUrlKey(missing)).isFalse();
+    }
+}
@@ -0,0 +1,56 @@
+package com.novareport.reporter_service.domain;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.UUID;
+
+/**
+ * Embedded PostgreSQL for tests of the PostgreSQL-only paths: partitioned {@code news_items}, the
+ * {@code news_item_keys} claim table and their DDL. One server is started per test JVM; every call to
+ * {@link #migrated()} creates a fresh database with all Flyway migrations applied.
+ */
+public final class PostgresTestDatabase {
+
+    private static EmbeddedPostgres server;
+
+    private PostgresTestDatabase() {
+    }
+
+    public static DataSource migrated() {
+        String name = "test_" + UUID.randomUUID().toString().replace("-", "");
+        new JdbcTemplate(server().getPostgresDatabase()).execute("CREATE DATABASE " + name);
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+            server().getJdbcUrl("postgres", name), "postgres", "postgres", true);
+        Flyway.configure()
+            .dataSource(dataSource)
+            .locations("classpath:db/migration")
+            .load()
+            .migrate();
+        return dataSource;
+    }
+
+    private static synchronized EmbeddedPostgres server() {
+        if (server == null) {
+            try {
+                server = EmbeddedPostgres.builder().start();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            EmbeddedPostgres started = server;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    started.close();
+                } catch (IOException ignored) {
+                    // The JVM is exiting; the data directory is temporary.
+                }
+            }));
+        }
+        return server;
+    }
+}
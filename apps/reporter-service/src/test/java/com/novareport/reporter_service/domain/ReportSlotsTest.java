@@ -0,0 +1,45 @@
+package com.novareport.reporter_service.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReportSlotsTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 3, 10);
+
+    @Test
+    void buildDuringTheDayFallsIntoTheSlotContainingIt() {
+        Instant slot = ReportSlots.slotStart(DATE, Instant.parse("2024-03-10T09:59:59Z"), ZoneOffset.UTC);
+
+        assertThat(slot).isEqualTo(Instant.parse("2024-03-10T08:00:00Z"));
+    }
+
+    @Test
+    void buildAfterTheDayFallsIntoItsClosingSlot() {
+        Instant slot = ReportSlots.slotStart(DATE, Instant.parse("2024-03-12T01:00:00Z"), ZoneOffset.UTC);
+
+        assertThat(slot).isEqualTo(Instant.parse("2024-03-10T20:00:00Z"));
+    }
+
+    @Test
+    void buildBeforeTheDayFallsIntoItsFirstSlot() {
+        Instant slot = ReportSlots.slotStart(DATE, Instant.parse("2024-03-09T23:00:00Z"), ZoneOffset.UTC);
+
+        assertThat(slot).isEqualTo(Instant.parse("2024-03-10T00:00:00Z"));
+    }
+
+    @Test
+    void slotsStartFromLocalMidnight() {
+        ZoneId stockholm = ZoneId.of("Europe/Stockholm");
+
+        Instant slot = ReportSlots.slotStart(DATE, Instant.parse("2024-03-10T04:30:00Z"), stockholm);
+
+        assertThat(slot).isEqualTo(DATE.atTime(4, 0).atZone(stockholm).toInstant());
+    }
+}
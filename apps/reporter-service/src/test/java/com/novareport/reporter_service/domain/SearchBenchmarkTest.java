@@ -0,0 +1,168 @@
+package com.novareport.reporter_service.domain;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latency of {@link SearchRepository} on PostgreSQL over a generated year of news items, stored like
+ * production: weekly partitions, generated {@code search_vector} columns and GIN indexes. Words are drawn
+ * with a skewed distribution, so the corpus has very common and rare terms. The corpus is written to the
+ * {@value #SCHEMA} schema, which is dropped first; {@code -Dbenchmark.reuse=true} keeps the corpus of an
+ * earlier run instead. Queries share one connection and run in read-only transactions, like
+ * {@code SearchService}'s.
+ * <p>
+ * Run with {@code ./mvnw test -Dtest=SearchBenchmarkTest -Dbenchmark=true
+ * -Dbenchmark.jdbc-url=jdbc:postgresql://localhost:5432/postgres -Dbenchmark.items=3000000}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SearchBenchmarkTest {
+
+    private static final String SCHEMA = "search_benchmark";
+    private static final int RUNS = 50;
+    private static final Set<SearchHit.Kind> ALL = EnumSet.allOf(SearchHit.Kind.class);
+
+    private static final String[] WORDS = {
+        "bitcoin", "market", "price", "crypto", "ether", "exchange", "token", "trading", "fund", "regulator",
+        "stablecoin", "etf", "miners", "defi", "wallet", "solana", "lending", "custody", "treasury", "halving",
+        "liquidity", "futures", "options", "derivatives", "inflation", "yield", "governance", "bridge", "exploit", "airdrop",
+        "validator", "staking", "rollup", "layer", "oracle", "nft", "metaverse", "sanctions", "audit", "lawsuit",
+        "settlement", "bankruptcy", "custodian", "tokenization", "ripple", "cardano", "polkadot", "avalanche", "chainlink", "uniswap",
+        "aave", "compound", "maker", "tether", "circle", "binance", "coinbase", "kraken", "grayscale", "blackrock"
+    };
+    private static final String[] SOURCES = {"CoinDesk", "The Block", "Decrypt", "Cointelegraph", "Reuters", "Bloomberg"};
+
+    @Test
+    void searchLatency() {
+        String url = System.getProperty("benchmark.jdbc-url", "jdbc:postgresql://localhost:5432/postgres");
+        String user = System.getProperty("benchmark.user", "postgres");
+        String password = System.getProperty("benchmark.password", "postgres");
+        int items = Integer.getInteger("benchmark.items", 3_000_000);
+
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+            url + (url.contains("?") ? "&" : "?") + "currentSchema=" + SCHEMA, user, password, true);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        if (!Boolean.getBoolean("benchmark.reuse")) {
+            JdbcTemplate admin = new JdbcTemplate(new DriverManagerDataSource(url, user, password));
+            admin.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            admin.execute("CREATE SCHEMA " + SCHEMA);
+            long start = System.nanoTime();
+            generate(jdbcTemplate, items);
+            System.out.printf("generated %,d news items in %.1f s%n", items, (System.nanoTime() - start) / 1e9);
+        }
+
+        SearchRepository repository = new SearchRepository(jdbcTemplate);
+        TransactionTemplate readOnly = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        readOnly.setReadOnly(true);
+        LocalDate to = LocalDate.now();
+        LocalDate year = to.minusYears(1);
+        LocalDate month = to.minusMonths(1);
+
+        System.out.printf("%-34s %8s %8s %8s%n", "query", "hits", "p50 ms", "p95 ms");
+        report(readOnly, "rare word, year", () -> repository.search("aave exploit", ALL, year, to, 0f, null, null, 11));
+        report(readOnly, "common word, year", () -> repository.search("bitcoin", ALL, year, to, 0f, null, null, 11));
+        report(readOnly, "common word, month", () -> repository.search("bitcoin", ALL, month, to, 0f, null, null, 11));
+        report(readOnly, "two common words, year", () -> repository.search("bitcoin price", ALL, year, to, 0f, null, null, 11));
+        report(readOnly, "phrase, year", () -> repository.search("\"bitcoin etf\"", ALL, year, to, 0f, null, null, 11));
+        report(readOnly, "phrase, month", () -> repository.search("\"bitcoin etf\"", ALL, month, to, 0f, null, null, 11));
+        report(readOnly, "or with exclusion, year", () -> repository.search("solana or cardano -lawsuit", ALL, year, to, 0f, null, null, 11));
+        List<SearchHit> firstPage = readOnly.execute(status -> repository.search("stablecoin regulator", ALL, year, to, 0f, null, null, 11));
+        SearchHit last = firstPage.get(firstPage.size() - 2);
+        report(readOnly, "next page, year", () -> repository.search("stablecoin regulator", ALL, year, to, last.rank(), last.at(), last.id(), 11));
+    }
+
+    private static void report(TransactionTemplate readOnly, String name, Supplier<List<SearchHit>> query) {
+        for (int i = 0; i < 10; i++) {
+            readOnly.execute(status -> query.get());
+        }
+        long[] nanos = new long[RUNS];
+        int hits = 0;
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            hits = readOnly.execute(status -> query.get()).size();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        assertThat(hits).isPositive();
+        System.out.printf("%-34s %8d %8.1f %8.1f%n", name, hits, nanos[RUNS / 2] / 1e6, nanos[RUNS * 95 / 100] / 1e6);
+    }
+
+    private static void generate(JdbcTemplate jdbcTemplate, int items) {
+        jdbcTemplate.execute("""
+            CREATE TABLE news_items (
+                id UUID NOT NULL,
+                source VARCHAR(150) NOT NULL,
+                url TEXT NOT NULL,
+                title TEXT NOT NULL,
+                published_at TIMESTAMP WITH TIME ZONE NOT NULL,
+                summary TEXT,
+                PRIMARY KEY (id, published_at)
+            ) PARTITION BY RANGE (published_at)
+            """);
+        jdbcTemplate.execute("CREATE TABLE " + NewsItemPartitions.DEFAULT_PARTITION + " PARTITION OF news_items DEFAULT");
+        LocalDate lastWeek = NewsItemPartitions.weekStart(Instant.now());
+        for (LocalDate week = lastWeek.minusWeeks(53); !week.isAfter(lastWeek); week = week.plusWeeks(1)) {
+            jdbcTemplate.execute(NewsItemPartitions.createPartitionSql(week));
+        }
+        jdbcTemplate.execute("""
+            CREATE TABLE daily_reports (
+                id UUID PRIMARY KEY,
+                report_date DATE NOT NULL,
+                slot_start TIMESTAMP WITH TIME ZONE NOT NULL,
+                summary TEXT NOT NULL
+            )
+            """);
+        jdbcTemplate.execute("""
+            ALTER TABLE news_items ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+                setweight(to_tsvector('english', coalesce(title, '')), 'A')
+                    || setweight(to_tsvector('english', coalesce(summary, '')), 'B')
+                    || setweight(to_tsvector('english', coalesce(source, '')), 'C')
+            ) STORED
+            """);
+        jdbcTemplate.execute(
+            "ALTER TABLE daily_reports ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (to_tsvector('english', summary)) STORED");
+
+        // One word in ten is a named word; cubing the uniform draw makes the first named words far more frequent
+        // than the last ones, e.g. "bitcoin" ends up in about half of the items and "aave" in about 2%.
+        String words = "ARRAY['" + String.join("','", WORDS) + "']";
+        String word = "CASE WHEN random() < 0.1 THEN (" + words + ")[1 + floor(" + WORDS.length + " * random() ^ 3)::int]"
+            + " ELSE 'term' || floor(20000 * random())::int END";
+        String sources = "ARRAY['" + String.join("','", SOURCES) + "']";
+        int chunk = 500_000;
+        for (int offset = 0; offset < items; offset += chunk) {
+            jdbcTemplate.update("""
+                INSERT INTO news_items (id, source, url, title, published_at, summary)
+                SELECT gen_random_uuid(), (%s)[1 + floor(%d * random())::int], 'https://example.com/' || g,
+                       %s || ' ' || %s || ' ' || %s || ' ' || %s,
+                       now() - random() * interval '365 days',
+                       (SELECT string_agg(%s, ' ') FROM generate_series(1, 25) WHERE g > 0)
+                FROM generate_series(?, ?) g
+                """.formatted(sources, SOURCES.length, word, word, word, word, word), offset + 1, Math.min(items, offset + chunk));
+        }
+        jdbcTemplate.update("""
+            INSERT INTO daily_reports (id, report_date, slot_start, summary)
+            SELECT gen_random_uuid(), d::date, d, (SELECT string_agg(%s, ' ') FROM generate_series(1, 400) WHERE d IS NOT NULL)
+            FROM generate_series(now() - interval '365 days', now(), interval '4 hours') d
+            """.formatted(word));
+        jdbcTemplate.execute("CREATE INDEX idx_news_items_search_vector ON news_items USING GIN (search_vector)");
+        jdbcTemplate.execute("CREATE INDEX idx_news_items_published_at ON news_items(published_at)");
+        jdbcTemplate.execute("CREATE INDEX idx_daily_reports_search_vector ON daily_reports USING GIN (search_vector)");
+        jdbcTemplate.execute("VACUUM ANALYZE news_items");
+        jdbcTemplate.execute("VACUUM ANALYZE daily_reports");
+    }
+}
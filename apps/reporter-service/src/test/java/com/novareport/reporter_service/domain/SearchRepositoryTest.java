@@ -0,0 +1,147 @@
+package com.novareport.reporter_service.domain;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchRepositoryTest {
+
+    private static final Set<SearchHit.Kind> ALL = EnumSet.allOf(SearchHit.Kind.class);
+    private static final LocalDate DAY = LocalDate.of(2024, 5, 10);
+
+    private JdbcTemplate jdbcTemplate;
+    private SearchRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("""
+            CREATE TABLE news_items (
+                id UUID PRIMARY KEY,
+                source VARCHAR(150) NOT NULL,
+                url TEXT NOT NULL,
+                title TEXT NOT NULL,
+                published_at TIMESTAMP WITH TIME ZONE NOT NULL,
+                summary TEXT
+            )
+            """);
+        jdbcTemplate.execute("""
+            CREATE TABLE daily_reports (
+                id UUID PRIMARY KEY,
+                report_date DATE NOT NULL,
+                slot_start TIMESTAMP WITH TIME ZONE NOT NULL,
+                summary TEXT NOT NULL
+            )
+            """);
+        repository = new SearchRepository(jdbcTemplate);
+    }
+
+    @Test
+    void matchesEveryWordInTitleSummaryOrSourceIgnoringCase() {
+        UUID both = news("Bitcoin ETF approved", "Regulators signed off", "CoinDesk", DAY);
+        news("Bitcoin slides", "Miners sell", "CoinDesk", DAY);
+        UUID viaSource = news("ETF flows", "Record week for bitcoin", "The Block", DAY);
+
+        List<SearchHit> hits = repository.search("BITCOIN etf", ALL, DAY, DAY, 0f, null, null, 10);
+
+        assertThat(hits).extracting(SearchHit::id).containsExactlyInAnyOrder(both, viaSource);
+        assertThat(hits).allSatisfy(hit -> {
+            assertThat(hit.kind()).isEqualTo(SearchHit.Kind.NEWS);
+            assertThat(hit.source()).isNotBlank();
+        });
+    }
+
+    @Test
+    void filtersByKindAndDate() {
+        news("Ether upgrade", null, "Decrypt", DAY);
+        news("Ether upgrade delayed", null, "Decrypt", DAY.minusDays(3));
+        UUID report = report("## Ether\nThe upgrade went live.", DAY);
+
+        assertThat(repository.search("ether upgrade", EnumSet.of(SearchHit.Kind.REPORT), DAY, DAY, 0f, null, null, 10))
+            .extracting(SearchHit::id).containsExactly(report);
+        assertThat(repository.search("ether upgrade", ALL, DAY, DAY, 0f, null, null, 10)).hasSize(2);
+        assertThat(repository.search("ether upgrade", ALL, DAY.minusDays(7), DAY, 0f, null, null, 10)).hasSize(3);
+    }
+
+    @Test
+    void pagesNewestFirstAfterTheLastHit() {
+        UUID newest = news("Solana outage", null, "Decrypt", DAY);
+        UUID middle = news("Solana outage ends", null, "Decrypt", DAY.minusDays(1));
+        UUID oldest = news("Solana outage report", null, "Decrypt", DAY.minusDays(2));
+
+        List<SearchHit> first = repository.search("solana", ALL, DAY.minusDays(7), DAY, 0f, null, null, 2);
+        SearchHit last = first.get(1);
+        List<SearchHit> second = repository.search("solana", ALL, DAY.minusDays(7), DAY, last.rank(), last.at(), last.id(), 2);
+
+        assertThat(first).extracting(SearchHit::id).containsExactly(newest, middle);
+        assertThat(second).extracting(SearchHit::id).containsExactly(oldest);
+    }
+
+    @Test
+    void pagesThroughEveryMatchOfTheRange() {
+        for (int i = 0; i < 320; i++) {
+            news("Cardano update " + i, null, "Decrypt", DAY.minusDays(i % 30));
+        }
+        report("Cardano rallied.", DAY);
+
+        int hits = 0;
+        List<SearchHit> page = repository.search("cardano", ALL, DAY.minusDays(60), DAY, 0f, null, null, 100);
+        while (!page.isEmpty()) {
+            hits += page.size();
+            SearchHit last = page.get(page.size() - 1);
+            page = repository.search("cardano", ALL, DAY.minusDays(60), DAY, last.rank(), last.at(), last.id(), 100);
+        }
+
+        assertThat(hits).isEqualTo(321);
+    }
+
+    @Test
+    void usesTheStartOfTheSummaryAsSnippet() {
+        report("Markets " + "rallied on the news. ".repeat(40), DAY);
+
+        SearchHit hit = repository.search("markets", ALL, DAY, DAY, 0f, null, null, 10).get(0);
+
+        assertThat(hit.snippet()).startsWith("Markets rallied").endsWith("…")
+            .hasSizeLessThanOrEqualTo(SearchRepository.SNIPPET_LENGTH + 1);
+        assertThat(hit.title()).isNull();
+    }
+
+    @Test
+    void queryWithoutWordsMatchesNothing() {
+        news("Bitcoin", null, "CoinDesk", DAY);
+
+        assertThat(repository.search("--", ALL, DAY, DAY, 0f, null, null, 10)).isEmpty();
+    }
+
+    private UUID news(String title, String summary, String source, LocalDate day) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO news_items (id, source, url, title, published_at, summary) VALUES (?, ?, ?, ?, ?, ?)",
+            id, source, "https://example.com/" + id, title, noon(day).atOffset(ZoneOffset.UTC), summary);
+        return id;
+    }
+
+    private UUID report(String summary, LocalDate day) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO daily_reports (id, report_date, slot_start, summary) VALUES (?, ?, ?, ?)",
+            id, day, noon(day).atOffset(ZoneOffset.UTC), summary);
+        return id;
+    }
+
+    private static Instant noon(LocalDate day) {
+        return day.atTime(12, 0).atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
@@ -0,0 +1,69 @@
+package com.novareport.reporter_service.domain;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SummaryCacheRepositoryTest {
+
+    private static final Instant NOW = Instant.parse("2024-05-10T12:00:00Z");
+
+    private JdbcTemplate jdbcTemplate;
+    private SummaryCacheRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("""
+            CREATE TABLE summary_cache (
+                cache_key VARCHAR(64) PRIMARY KEY,
+                model VARCHAR(100) NOT NULL,
+                summary TEXT NOT NULL,
+                created_at TIMESTAMP WITH TIME ZONE NOT NULL
+            )
+            """);
+        repository = new SummaryCacheRepository(jdbcTemplate);
+    }
+
+    @Test
+    void findsSummariesCreatedSinceCutoff() {
+        repository.insert("key", "gpt-4o-mini", "Summary", NOW);
+
+        assertThat(repository.find("key", NOW.minusSeconds(60)))
+            .contains(new SummaryCacheRepository.CachedSummary("Summary", NOW));
+        assertThat(repository.find("key", NOW.plusSeconds(1))).isEmpty();
+        assertThat(repository.find("other", NOW.minusSeconds(60))).isEmpty();
+    }
+
+    @Test
+    void firstSummaryOfKeyWins() {
+        repository.insert("key", "gpt-4o-mini", "First", NOW);
+        repository.insert("key", "gpt-4o-mini", "Second", NOW.plusSeconds(1));
+
+        assertThat(repository.find("key", NOW.minusSeconds(60)))
+            .map(SummaryCacheRepository.CachedSummary::summary)
+            .contains("First");
+    }
+
+    @Test
+    void evictsExpiredAndOldestBeyondMaxEntries() {
+        for (int i = 0; i < 5; i++) {
+            repository.insert("key-" + i, "gpt-4o-mini", "Summary " + i, NOW.minus(Duration.ofDays(i)));
+        }
+
+        int evicted = repository.evict(NOW.minus(Duration.ofDays(3)).minusSeconds(1), 2);
+
+        assertThat(evicted).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForList("SELECT cache_key FROM summary_cache ORDER BY cache_key", String.class))
+            .containsExactly("key-0", "key-1");
+    }
+}
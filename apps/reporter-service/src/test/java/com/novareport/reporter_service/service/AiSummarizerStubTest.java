@@ -16,11 +16,30 @@ void summarizeReturnsStubMessageWithHeadlines() {
         LocalDate date = LocalDate.of(2024, 1, 3);
         List<String> headlines = List.of("H1", "H2");
 
-        String result = stub.summarize(date, headlines);
+        String result = stub.summarize(date, headlines).block();
 
         assertThat(result)
             .contains("[AI integration pending]")
             .contains("H1")
             .contains("H2");
     }
+
+    @Test
+    void summarizeUpdateReturnsStubMessageWithNewHeadlines() {
+        String result = stub.summarizeUpdate(LocalDate.of(2024, 1, 3), "Report so far", List.of("H3")).block();
+
+        assertThat(result)
+            .contains("[AI integration pending]")
+            .contains("H3");
+    }
+
+    @Test
+    void summarizeBatchesReturnsStubMessageWithEveryHeadline() {
+        String result = stub.summarizeBatches(LocalDate.of(2024, 1, 3), List.of(List.of("H1", "H2"), List.of("H3")), 2).block();
+
+        assertThat(result)
+            .contains("[AI integration pending]")
+            .contains("H1")
+            .contains("H3");
+    }
 }
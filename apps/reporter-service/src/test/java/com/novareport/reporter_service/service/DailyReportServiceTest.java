@@ -1,25 +1,48 @@
 package com.novareport.reporter_service.service;
 
+import com.novareport.reporter_service.config.DeltaProperties;
+import com.novareport.reporter_service.config.MapReduceProperties;
+import com.novareport.reporter_service.config.PromptProperties;
 import com.novareport.reporter_service.config.ReporterProperties;
 import com.novareport.reporter_service.domain.DailyReport;
+import com.novareport.reporter_service.domain.DailyReportHeader;
 import com.novareport.reporter_service.domain.DailyReportRepository;
 import com.novareport.reporter_service.domain.NewsItem;
 import com.novareport.reporter_service.domain.NewsItemRepository;
+import com.novareport.reporter_service.domain.ReportSlots;
+import com.novareport.reporter_service.dto.DailyReportResponse;
+import com.novareport.reporter_service.dto.ReportCursor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -31,6 +54,11 @@ class DailyReportServiceTest {
     private ReporterProperties reporterProperties;
     private DailyReportService.FakeSummaryService fakeSummaryService;
     private DailyReportService.AiSummarizerService aiSummarizerService;
+    private ReportReadCache readCache;
+    private ReportArtifactService artifactService;
+    private SimpleMeterRegistry meterRegistry;
+    private PromptProperties promptProperties;
+    private PlatformTransactionManager transactionManager;
 
     private DailyReportService service;
 
@@ -41,30 +69,37 @@ void setUp() {
         reporterProperties = mock(ReporterProperties.class);
         fakeSummaryService = mock(DailyReportService.FakeSummaryService.class);
         aiSummarizerService = mock(DailyReportService.AiSummarizerService.class);
-        service = new DailyReportService(dailyReportRepository, newsItemRepository, reporterProperties, fakeSummaryService, aiSummarizerService);
+        readCache = mock(ReportReadCache.class);
+        artifactService = mock(ReportArtifactService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        promptProperties = new PromptProperties(1500, Map.of(), 240, Duration.ofHours(12));
+        transactionManager = mock(PlatformTransactionManager.class);
+        service = service(new DeltaProperties(true, 5));
     }
 
     @Test
     void findLatestDelegatesToRepository() {
         DailyReport report = new DailyReport();
-        when(dailyReportRepository.findTop1ByOrderByReportDateDesc()).thenReturn(Optional.of(report));
+        when(dailyReportRepository.findTop1ByOrderByReportDateDescSlotStartDesc()).thenReturn(Optional.of(report));
 
         Optional<DailyReport> result = service.findLatest();
 
         assertThat(result).contains(report);
-        verify(dailyReportRepository).findTop1ByOrderByReportDateDesc();
+        verify(dailyReportRepository).findTop1ByOrderByReportDateDescSlotStartDesc();
     }
 
     @Test
-    void findByDateDelegatesToRepository() {
-        LocalDate date = LocalDate.now();
+    void findSlotsLoadsHeadersUnlessSummaryRequested() {
+        LocalDate date = LocalDate.of(2024, 1, 19);
         DailyReport report = new DailyReport();
-        when(dailyReportRepository.findByReportDate(date)).thenReturn(Optional.of(report));
+        report.setReportDate(date);
+        report.setSummary("summary");
+        List<DailyReportHeader> headers = List.of(header(date), header(date));
+        when(dailyReportRepository.findSlotsByReportDateOrderBySlotStartDesc(date)).thenReturn(headers);
+        when(dailyReportRepository.findByReportDateOrderBySlotStartDesc(date)).thenReturn(List.of(report));
 
-        Optional<DailyReport> result = service.findByDate(date);
-
-        assertThat(result).contains(report);
-        verify(dailyReportRepository).findByReportDate(date);
+        assertThat(service.findSlots(date, false)).hasSize(2).extracting(DailyReportResponse::summary).containsOnlyNulls();
+        assertThat(service.findSlots(date, true)).extracting(DailyReportResponse::summary).containsExactly("summary");
     }
 
     @Test
@@ -73,25 +108,99 @@ void findBetweenDelegatesToRepository() {
         LocalDate to = LocalDate.now();
         Pageable pageable = Pageable.ofSize(10);
         Page<DailyReport> page = Page.empty(pageable);
-        when(dailyReportRepository.findAllByReportDateBetweenOrderByReportDateDesc(from, to, pageable)).thenReturn(page);
+        when(dailyReportRepository.findAllByReportDateBetweenOrderByReportDateDescSlotStartDesc(from, to, pageable)).thenReturn(page);
 
         Page<DailyReport> result = service.findBetween(from, to, pageable);
 
         assertThat(result).isSameAs(page);
-        verify(dailyReportRepository).findAllByReportDateBetweenOrderByReportDateDesc(from, to, pageable);
+        verify(dailyReportRepository).findAllByReportDateBetweenOrderByReportDateDescSlotStartDesc(from, to, pageable);
+    }
+
+    @Test
+    void scrollBetweenLoadsHeadersAfterCursorUnlessSummaryRequested() {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 1, 31);
+        ReportCursor cursor = new ReportCursor(LocalDate.of(2024, 1, 20), Instant.parse("2024-01-20T08:00:00Z"));
+        List<DailyReportHeader> headers = List.of(header(LocalDate.of(2024, 1, 19)), header(LocalDate.of(2024, 1, 18)), header(LocalDate.of(2024, 1, 17)));
+        when(dailyReportRepository.findHeaderPageAfter(from, to, cursor.reportDate(), cursor.slotStart(), Limit.of(3))).thenReturn(headers);
+
+        Window<DailyReportResponse> result = service.scrollBetween(from, to, cursor, 2, false);
+
+        assertThat(result.hasNext()).isTrue();
+        assertThat(result.getContent()).extracting(DailyReportResponse::reportDate)
+            .containsExactly(LocalDate.of(2024, 1, 19), LocalDate.of(2024, 1, 18));
+        assertThat(result.getContent()).extracting(DailyReportResponse::summary).containsOnlyNulls();
+        verify(dailyReportRepository, never()).findPageAfter(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void scrollBetweenStartsPastRangeWithoutCursor() {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 1, 31);
+        DailyReport report = new DailyReport();
+        report.setReportDate(to);
+        report.setSummary("summary");
+        when(dailyReportRepository.findPageAfter(eq(from), eq(to), eq(to.plusDays(1)), any(), eq(Limit.of(11)))).thenReturn(List.of(report));
+
+        Window<DailyReportResponse> result = service.scrollBetween(from, to, null, 10, true);
+
+        assertThat(result.hasNext()).isFalse();
+        assertThat(result.getContent()).extracting(DailyReportResponse::summary).containsExactly("summary");
+    }
+
+    @Test
+    void saveReportInsertsCurrentSlot() {
+        LocalDate today = LocalDate.now();
+        when(dailyReportRepository.findByReportDateAndSlotStart(eq(today), any())).thenReturn(Optional.empty());
+        when(dailyReportRepository.save(any(DailyReport.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        DailyReport result = service.saveReport(today, "summary");
+
+        assertThat(result.getId()).isNull();
+        assertThat(result.getReportDate()).isEqualTo(today);
+        assertThat(result.getSlotStart()).isEqualTo(ReportSlots.slotStart(today, result.getCreatedAt(), ZoneId.systemDefault()));
+        assertThat(result.getSummary()).isEqualTo("summary");
+        verify(dailyReportRepository).save(result);
+    }
+
+    @Test
+    void saveReportUpdatesEarlierBuildOfCurrentSlotInPlace() {
+        LocalDate today = LocalDate.now();
+        UUID id = UUID.randomUUID();
+        DailyReport previous = new DailyReport();
+        previous.setId(id);
+        previous.setReportDate(today);
+        previous.setSlotStart(ReportSlots.slotStart(today, Instant.now(), ZoneId.systemDefault()));
+        previous.setSummary("earlier");
+        previous.setCreatedAt(Instant.now().minusSeconds(60));
+        when(dailyReportRepository.findByReportDateAndSlotStart(eq(today), any())).thenReturn(Optional.of(previous));
+        when(dailyReportRepository.save(any(DailyReport.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        DailyReport result = service.saveReport(today, "summary");
+
+        assertThat(result).isSameAs(previous);
+        assertThat(result.getId()).isEqualTo(id);
+        assertThat(result.getSummary()).isEqualTo("summary");
+        assertThat(result.getCreatedAt()).isAfter(Instant.now().minusSeconds(30));
+        InOrder order = inOrder(dailyReportRepository, artifactService, readCache);
+        order.verify(dailyReportRepository).findByReportDateAndSlotStart(today, result.getSlotStart());
+        order.verify(dailyReportRepository).save(previous);
+        order.verify(artifactService).render(previous);
+        order.verify(readCache).invalidate();
+        verify(dailyReportRepository, never()).delete(any());
     }
 
     @Test
     void buildReportUsesFallbackSummaryWhenNoNewsItems() {
         LocalDate date = LocalDate.of(2024, 1, 1);
-        when(dailyReportRepository.findByReportDate(date)).thenReturn(Optional.empty());
         when(reporterProperties.dedupWindow()).thenReturn(Duration.ofHours(48));
-        when(newsItemRepository.findTop10ByPublishedAtAfterOrderByPublishedAtDesc(any())).thenReturn(List.of());
+        when(newsItemRepository.findByPublishedAtBetweenOrderByPublishedAtDesc(any(), any(), any())).thenReturn(List.of());
         when(dailyReportRepository.save(any(DailyReport.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
-        DailyReport result = service.buildReport(date);
+        DailyReport result = service.buildReport(date).report();
 
         assertThat(result.getReportDate()).isEqualTo(date);
+        assertThat(result.getSlotStart()).isEqualTo(date.atStartOfDay(ZoneId.systemDefault()).plusHours(20).toInstant());
         assertThat(result.getCreatedAt()).isNotNull();
         assertThat(result.getSummary()).isEqualTo("No news items available. This may be due to temporary issues reaching external news sources.");
     }
@@ -99,22 +208,19 @@ void buildReportUsesFallbackSummaryWhenNoNewsItems() {
     @Test
     void buildReportUsesFakeSummaryWhenFakeAiEnabled() {
         LocalDate date = LocalDate.of(2024, 1, 2);
-        DailyReport existing = new DailyReport();
-        existing.setReportDate(date);
-        when(dailyReportRepository.findByReportDate(date)).thenReturn(Optional.of(existing));
 
         when(reporterProperties.dedupWindow()).thenReturn(Duration.ofHours(48));
         NewsItem item = new NewsItem();
         item.setTitle("Title");
         item.setSource("Source");
         item.setPublishedAt(Instant.now());
-        when(newsItemRepository.findTop10ByPublishedAtAfterOrderByPublishedAtDesc(any())).thenReturn(List.of(item));
+        when(newsItemRepository.findByPublishedAtBetweenOrderByPublishedAtDesc(any(), any(), any())).thenReturn(List.of(item));
 
         when(reporterProperties.fakeAi()).thenReturn(true);
         when(fakeSummaryService.buildSummary(eq(date), any())).thenReturn("fake-summary");
         when(dailyReportRepository.save(any(DailyReport.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
-        DailyReport result = service.buildReport(date);
+        DailyReport result = service.buildReport(date).report();
 
         assertThat(result.getSummary()).isEqualTo("fake-summary");
     }
@@ -122,21 +228,242 @@ void buildReportUsesFakeSummaryWhenFakeAiEnabled() {
     @Test
     void buildReportUsesAiSummaryWhenFakeAiDisabled() {
         LocalDate date = LocalDate.of(2024, 1, 3);
-        when(dailyReportRepository.findByReportDate(date)).thenReturn(Optional.empty());
 
         when(reporterProperties.dedupWindow()).thenReturn(Duration.ofHours(48));
         NewsItem item = new NewsItem();
         item.setTitle("Title");
         item.setSource("Source");
         item.setPublishedAt(Instant.now());
-        when(newsItemRepository.findTop10ByPublishedAtAfterOrderByPublishedAtDesc(any())).thenReturn(List.of(item));
+        when(newsItemRepository.findByPublishedAtBetweenOrderByPublishedAtDesc(any(), any(), any())).thenReturn(List.of(item));
 
         when(reporterProperties.fakeAi()).thenReturn(false);
-        when(aiSummarizerService.summarize(eq(date), any())).thenReturn("ai-summary");
+        when(aiSummarizerService.summarize(eq(date), any())).thenReturn(Mono.just("ai-summary"));
         when(dailyReportRepository.save(any(DailyReport.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
-        DailyReport result = service.buildReport(date);
+        DailyReport result = service.buildReport(date).report();
 
         assertThat(result.getSummary()).isEqualTo("ai-summary");
+        verify(artifactService).render(result);
+        verify(readCache).invalidate();
+    }
+
+    @Test
+    void buildReportSummarizesBetweenReadAndWriteTransactions() {
+        LocalDate date = LocalDate.of(2024, 1, 3);
+        when(reporterProperties.dedupWindow()).thenReturn(Duration.ofHours(48));
+        when(newsItemRepository.findByPublishedAtBetweenOrderByPublishedAtDesc(any(), any(), any()))
+            .thenReturn(List.of(newsItem("Solana outage", "Cointelegraph", null, Instant.now())));
+        when(aiSummarizerService.summarize(eq(date), any())).thenReturn(Mono.just("ai-summary"));
+        when(dailyReportRepository.save(any(DailyReport.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.buildReport(date);
+
+        InOrder order = inOrder(transactionManager, newsItemRepository, aiSummarizerService, dailyReportRepository);
+        order.verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+        order.verify(newsItemRepository).findByPublishedAtBetweenOrderByPublishedAtDesc(any(), any(), any());
+        order.verify(transactionManager).commit(any());
+        order.verify(aiSummarizerService).summarize(eq(date), any());
+        order.verify(transactionManager).getTransaction(argThat(definition -> !definition.isReadOnly()));
+        order.verify(dailyReportRepository).save(any(DailyReport.class));
+        order.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void buildReportUsesOneHeadlinePerStoryCluster() {
+        LocalDate date = LocalDate.of(2024, 1, 4);
+        when(reporterProperties.dedupWindow()).thenReturn(Duration.ofHours(48));
+
+        UUID etfCluster = UUID.randomUUID();
+        Instant now = Instant.now();
+        NewsItem latestCopy = newsItem("SEC approves spot ether ETFs", "Decrypt", etfCluster, now);
+        NewsItem olderCopy = newsItem("SEC approves spot Ether ETF applications", "CoinDesk", etfCluster, now.minusSeconds(600));
+        NewsItem unclustered = newsItem("Solana outage", "Cointelegraph", null, now.minusSeconds(300));
+        when(newsItemRepository.findByPublishedAtBetweenOrderByPublishedAtDesc(any(), any(), any()))
+            .thenReturn(List.of(olderCopy, unclustered, latestCopy));
+
+        when(reporterProperties.fakeAi()).thenReturn(true);
+        when(fakeSummaryService.buildSummary(eq(date), any())).thenReturn("fake-summary");
+        when(dailyReportRepository.save(any(DailyReport.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.buildReport(date);
+
+        verify(fakeSummaryService).buildSummary(date, List.of(
+            "SEC approves spot ether ETFs (Decrypt, CoinDesk)",
+            "Solana outage (Cointelegraph)"
+        ));
+    }
+
+    @Test
+    void buildReportKeepsLatestReportWithoutSummarizingWhenNothingIsNew() {
+        LocalDate date = LocalDate.of(2024, 1, 5);
+        Instant now = Instant.now();
+        DailyReport latest = report(date, "previous summary", now);
+        when(dailyReportRepository.findTop1ByReportDateOrderBySlotStartDesc(date)).thenReturn(Optional.of(latest));
+        when(reporterProperties.dedupWindow()).thenReturn(Duration.ofHours(48));
+        when(newsItemRepository.findByPublishedAtBetweenOrderByPublishedAtDesc(any(), any(), any()))
+            .thenReturn(List.of(ingested(newsItem("Old story", "Decrypt", null, now), now.minusSeconds(60))));
+
+        DailyReportService.ReportBuild build = service.buildReport(date);
+
+        assertThat(build.mode()).isEqualTo(DailyReportService.BuildMode.UNCHANGED);
+        assertThat(build.report()).isSameAs(latest);
+        verify(aiSummarizerService, never()).summarize(any(), any());
+        verify(aiSummarizerService, never()).summarizeUpdate(any(), any(), any());
+        verify(dailyReportRepository, never()).save(any());
+        assertThat(meterRegistry.get("reporter.reports.build").tag("mode", "unchanged").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("reporter.reports.summary.tokens_saved").summary().totalAmount()).isPositive();
+    }
+
+    @Test
+    void buildReportAppendsUpdateOnHeadlinesIngestedSinceLatestReport() {
+        LocalDate date = LocalDate.of(2024, 1, 6);
+        Instant now = Instant.now();
+        String previousSummary = "Executive summary.\n\n" + "Key developments. ".repeat(200);
+        DailyReport latest = report(date, previousSummary, now.minusSeconds(3600));
+        when(dailyReportRepository.findTop1ByReportDateOrderBySlotStartDesc(date)).thenReturn(Optional.of(latest));
+        when(reporterProperties.dedupWindow()).thenReturn(Duration.ofHours(48));
+        when(newsItemRepository.findByPublishedAtBetweenOrderByPublishedAtDesc(any(), any(), any())).thenReturn(List.of(
+            ingested(newsItem("Solana outage", "Cointelegraph", null, now), now),
+            ingested(newsItem("Old story", "Decrypt", null, now.minusSeconds(7200)), now.minusSeconds(7200))
+        ));
+        when(aiSummarizerService.summarizeUpdate(date, "Executive summary.", List.of("Solana outage (Cointelegraph)")))
+            .thenReturn(Mono.just("Solana went down."));
+        when(dailyReportRepository.save(any(DailyReport.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        DailyReportService.ReportBuild build = service.buildReport(date);
+
+        assertThat(build.mode()).isEqualTo(DailyReportService.BuildMode.DELTA);
+        assertThat(build.report()).isNotSameAs(latest);
+        assertThat(build.report().getSummary())
+            .startsWith(previousSummary + "\n\n## Update ")
+            .endsWith("\n\nSolana went down.");
+        verify(aiSummarizerService, never()).summarize(any(), any());
+        InOrder order = inOrder(transactionManager, aiSummarizerService, dailyReportRepository);
+        order.verify(transactionManager).commit(any());
+        order.verify(aiSummarizerService).summarizeUpdate(any(), any(), any());
+        order.verify(transactionManager).getTransaction(argThat(definition -> !definition.isReadOnly()));
+        order.verify(dailyReportRepository).save(any(DailyReport.class));
+        assertThat(meterRegistry.get("reporter.reports.build").tag("mode", "delta").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("reporter.reports.summary.tokens_saved").summary().totalAmount()).isPositive();
+    }
+
+    @Test
+    void buildReportRewritesWhenTooManyHeadlinesAreNew() {
+        service = service(new DeltaProperties(true, 1));
+        LocalDate date = LocalDate.of(2024, 1, 7);
+        Instant now = Instant.now();
+        when(dailyReportRepository.findTop1ByReportDateOrderBySlotStartDesc(date))
+            .thenReturn(Optional.of(report(date, "previous summary", now.minusSeconds(3600))));
+        when(reporterProperties.dedupWindow()).thenReturn(Duration.ofHours(48));
+        when(newsItemRepository.findByPublishedAtBetweenOrderByPublishedAtDesc(any(), any(), any())).thenReturn(List.of(
+            ingested(newsItem("Solana outage", "Cointelegraph", null, now), now),
+            ingested(newsItem("Ether upgrade", "Decrypt", null, now), now)
+        ));
+        when(aiSummarizerService.summarize(eq(date), any())).thenReturn(Mono.just("ai-summary"));
+        when(dailyReportRepository.save(any(DailyReport.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        DailyReportService.ReportBuild build = service.buildReport(date);
+
+        assertThat(build.mode()).isEqualTo(DailyReportService.BuildMode.FULL);
+        assertThat(build.report().getSummary()).isEqualTo("ai-summary");
+        verify(aiSummarizerService, never()).summarizeUpdate(any(), any(), any());
+    }
+
+    @Test
+    void updateContextEndsAtLastParagraphBreakWithinLimit() {
+        String summary = "a".repeat(1000) + "\n\n" + "b".repeat(1000);
+
+        assertThat(DailyReportService.updateContext(summary)).isEqualTo("a".repeat(1000));
+        assertThat(DailyReportService.updateContext("short")).isEqualTo("short");
+    }
+
+    @Test
+    void headlinesForPastDateUseThatDaysOwnWindow() {
+        LocalDate date = LocalDate.of(2024, 1, 4);
+        when(reporterProperties.dedupWindow()).thenReturn(Duration.ofHours(48));
+        when(newsItemRepository.findByPublishedAtBetweenOrderByPublishedAtDesc(any(), any(), any())).thenReturn(List.of());
+
+        List<String> headlines = service.headlinesFor(date);
+
+        Instant dayEnd = date.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant();
+        assertThat(headlines).isEmpty();
+        verify(newsItemRepository).findByPublishedAtBetweenOrderByPublishedAtDesc(dayEnd.minus(Duration.ofHours(48)), dayEnd, Limit.of(100));
+    }
+
+    @Test
+    void buildReportSummarizesLargeNewsSetsInBatches() {
+        promptProperties = new PromptProperties(1500, Map.of("gpt-4o-mini", 100), 240, Duration.ofHours(12));
+        when(aiSummarizerService.model()).thenReturn("gpt-4o-mini");
+        service = service(new DeltaProperties(true, 5), new MapReduceProperties(true, 30, 10, 3, 500));
+        LocalDate date = LocalDate.of(2024, 1, 8);
+        Instant now = Instant.now();
+        List<NewsItem> items = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            items.add(newsItem("Story " + i, "CoinDesk", null, now.minusSeconds(i)));
+        }
+        when(reporterProperties.dedupWindow()).thenReturn(Duration.ofHours(48));
+        when(newsItemRepository.findByPublishedAtBetweenOrderByPublishedAtDesc(any(), any(), eq(Limit.of(500)))).thenReturn(items);
+        when(aiSummarizerService.summarizeBatches(eq(date), any(), eq(3))).thenReturn(Mono.just("map-reduce summary"));
+        when(dailyReportRepository.save(any(DailyReport.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        DailyReportService.ReportBuild build = service.buildReport(date);
+
+        assertThat(build.report().getSummary()).isEqualTo("map-reduce summary");
+        ArgumentCaptor<List<List<String>>> batches = ArgumentCaptor.captor();
+        verify(aiSummarizerService).summarizeBatches(eq(date), batches.capture(), eq(3));
+        assertThat(batches.getValue()).extracting(List::size).containsExactly(10, 10, 5);
+        assertThat(batches.getValue().get(0).get(0)).isEqualTo("Story 0 (CoinDesk)");
+        assertThat(batches.getValue().get(2).get(4)).isEqualTo("Story 24 (CoinDesk)");
+        verify(aiSummarizerService, never()).summarize(any(), any());
+    }
+
+    @Test
+    void summarizeUsesOnePromptForFewHeadlinesInMapReduceMode() {
+        service = service(new DeltaProperties(true, 5), new MapReduceProperties(true, 30, 10, 3, 500));
+        LocalDate date = LocalDate.of(2024, 1, 8);
+        when(aiSummarizerService.summarize(date, List.of("H1", "H2"))).thenReturn(Mono.just("ai-summary"));
+
+        assertThat(service.summarize(date, List.of("H1", "H2"))).isEqualTo("ai-summary");
+        verify(aiSummarizerService, never()).summarizeBatches(any(), any(), anyInt());
+    }
+
+    private DailyReportService service(DeltaProperties deltaProperties) {
+        return service(deltaProperties, new MapReduceProperties(false, 200, 25, 8, 1000));
+    }
+
+    private DailyReportService service(DeltaProperties deltaProperties, MapReduceProperties mapReduceProperties) {
+        return new DailyReportService(dailyReportRepository, newsItemRepository, reporterProperties, fakeSummaryService,
+            aiSummarizerService, readCache, artifactService, deltaProperties, mapReduceProperties, new PromptPacker(promptProperties),
+            transactionManager, meterRegistry);
+    }
+
+    private static DailyReport report(LocalDate date, String summary, Instant createdAt) {
+        DailyReport report = new DailyReport();
+        report.setId(UUID.randomUUID());
+        report.setReportDate(date);
+        report.setSlotStart(ReportSlots.slotStart(date, createdAt, ZoneId.systemDefault()));
+        report.setSummary(summary);
+        report.setCreatedAt(createdAt);
+        return report;
+    }
+
+    private static NewsItem ingested(NewsItem item, Instant ingestedAt) {
+        item.setIngestedAt(ingestedAt);
+        return item;
+    }
+
+    private static NewsItem newsItem(String title, String source, UUID clusterId, Instant publishedAt) {
+        NewsItem item = new NewsItem();
+        item.setTitle(title);
+        item.setSource(source);
+        item.setClusterId(clusterId);
+        item.setPublishedAt(publishedAt);
+        return item;
+    }
+
+    private static DailyReportHeader header(LocalDate reportDate) {
+        DailyReportHeader header = mock(DailyReportHeader.class);
+        when(header.getReportDate()).thenReturn(reportDate);
+        return header;
     }
 }
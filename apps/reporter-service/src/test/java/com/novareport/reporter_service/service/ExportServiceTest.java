@@ -0,0 +1,63 @@
+package com.novareport.reporter_service.service;
+
+import com.novareport.reporter_service.config.ExportProperties;
+import com.novareport.reporter_service.domain.ExportRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExportServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 1, 31);
+    private static final String LINE = "{\"id\":\"1\"}\n";
+
+    private ExportRepository exportRepository;
+    private ExportService service;
+
+    @BeforeEach
+    void setUp() {
+        exportRepository = mock(ExportRepository.class);
+        service = new ExportService(exportRepository, new ExportProperties(0));
+        when(exportRepository.writeNdjson(eq(ExportRepository.Dataset.NEWS_ITEMS), eq(FROM), eq(TO), eq(1000), any()))
+            .thenAnswer(invocation -> {
+                OutputStream out = invocation.getArgument(4);
+                out.write(LINE.getBytes(StandardCharsets.UTF_8));
+                return 1L;
+            });
+    }
+
+    @Test
+    void writesPlainNdjsonWithTheDefaultFetchSize() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = service.export(ExportRepository.Dataset.NEWS_ITEMS, FROM, TO, false, out);
+
+        assertThat(rows).isEqualTo(1);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(LINE);
+    }
+
+    @Test
+    void compressesWhenAsked() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.export(ExportRepository.Dataset.NEWS_ITEMS, FROM, TO, true, out);
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(LINE);
+        }
+    }
+}
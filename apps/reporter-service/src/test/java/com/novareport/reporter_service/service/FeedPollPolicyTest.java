@@ -0,0 +1,114 @@
+package com.novareport.reporter_service.service;
+
+import com.novareport.reporter_service.config.PollingProperties;
+import com.novareport.reporter_service.domain.FeedState;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FeedPollPolicyTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-07T10:00:00Z");
+
+    private final FeedPollPolicy policy = new FeedPollPolicy(new PollingProperties(
+        true, Duration.ofSeconds(30), Duration.ofMinutes(16), Duration.ofMinutes(5), Duration.ofHours(2), 0, 3, Duration.ofHours(6), Duration.ofMinutes(30)));
+
+    @Test
+    void feedsWithoutScheduleAreDue() {
+        FeedState scheduled = new FeedState("https://feed.example.com/rss");
+        scheduled.setNextPollAt(NOW.plusSeconds(1));
+
+        assertThat(policy.isDue(null, NOW)).isTrue();
+        assertThat(policy.isDue(new FeedState("https://feed.example.com/rss"), NOW)).isTrue();
+        assertThat(policy.isDue(scheduled, NOW)).isFalse();
+        assertThat(policy.isDue(scheduled, NOW.plusSeconds(1))).isTrue();
+    }
+
+    @Test
+    void firstPollKeepsScheduleAheadAndSpreadsDueFeedsOverTheirInterval() {
+        FeedState scheduled = new FeedState("https://feed.example.com/rss");
+        scheduled.setNextPollAt(NOW.plusSeconds(90));
+        FeedState overdue = new FeedState("https://feed.example.com/rss");
+        overdue.setNextPollAt(NOW.minusSeconds(90));
+        overdue.setPollIntervalSeconds(Duration.ofMinutes(5).toSeconds());
+
+        assertThat(policy.firstPollAt(scheduled, NOW)).isEqualTo(NOW.plusSeconds(90));
+        Set<Instant> firstPolls = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            Instant newFeed = policy.firstPollAt(null, NOW);
+            Instant overdueFeed = policy.firstPollAt(overdue, NOW);
+            assertThat(newFeed).isBetween(NOW, NOW.plus(Duration.ofMinutes(16)).minusMillis(1));
+            assertThat(overdueFeed).isBetween(NOW, NOW.plus(Duration.ofMinutes(5)).minusMillis(1));
+            firstPolls.add(newFeed);
+        }
+        assertThat(firstPolls).hasSizeGreaterThan(1);
+    }
+
+    @Test
+    void shortensIntervalWhileFeedKeepsPublishingAndStretchesItWhenQuiet() {
+        FeedState state = new FeedState("https://feed.example.com/rss");
+
+        policy.onSuccess(state, 3, null, NOW);
+        assertThat(state.getPollIntervalSeconds()).isEqualTo(Duration.ofMinutes(8).toSeconds());
+        assertThat(state.getNextPollAt()).isEqualTo(NOW.plus(Duration.ofMinutes(8)));
+
+        policy.onSuccess(state, 1, null, NOW);
+        policy.onSuccess(state, 1, null, NOW);
+        assertThat(state.getPollIntervalSeconds()).isEqualTo(Duration.ofMinutes(5).toSeconds());
+
+        policy.onSuccess(state, 0, null, NOW);
+        assertThat(state.getPollIntervalSeconds()).isEqualTo(Duration.ofMinutes(7).plusSeconds(30).toSeconds());
+
+        for (int i = 0; i < 20; i++) {
+            policy.onSuccess(state, 0, null, NOW);
+        }
+        assertThat(state.getPollIntervalSeconds()).isEqualTo(Duration.ofHours(2).toSeconds());
+    }
+
+    @Test
+    void neverPollsFasterThanTheFeedTtl() {
+        FeedState state = new FeedState("https://feed.example.com/rss");
+
+        policy.onSuccess(state, 5, Duration.ofMinutes(60), NOW);
+
+        assertThat(state.getTtlMinutes()).isEqualTo(60);
+        assertThat(state.getPollIntervalSeconds()).isEqualTo(Duration.ofMinutes(60).toSeconds());
+    }
+
+    @Test
+    void backsOffExponentiallyThenQuarantinesAndResetsOnSuccess() {
+        FeedState state = new FeedState("https://feed.example.com/rss");
+        state.setPollIntervalSeconds(Duration.ofMinutes(10).toSeconds());
+
+        policy.onFailure(state, NOW);
+        assertThat(state.getNextPollAt()).isEqualTo(NOW.plus(Duration.ofMinutes(20)));
+
+        policy.onFailure(state, NOW);
+        assertThat(state.getNextPollAt()).isEqualTo(NOW.plus(Duration.ofMinutes(40)));
+
+        policy.onFailure(state, NOW);
+        assertThat(state.getConsecutiveFailures()).isEqualTo(3);
+        assertThat(state.getNextPollAt()).isEqualTo(NOW.plus(Duration.ofHours(6)));
+
+        policy.onSuccess(state, 0, null, NOW);
+        assertThat(state.getConsecutiveFailures()).isZero();
+        assertThat(state.getPollIntervalSeconds()).isEqualTo(Duration.ofMinutes(15).toSeconds());
+    }
+
+    @Test
+    void jittersNextPollWithinConfiguredFraction() {
+        FeedPollPolicy jittered = new FeedPollPolicy(new PollingProperties(
+            true, Duration.ofSeconds(30), Duration.ofMinutes(20), Duration.ofMinutes(5), Duration.ofHours(2), 0.25, 3, Duration.ofHours(6), Duration.ofMinutes(30)));
+
+        for (int i = 0; i < 50; i++) {
+            FeedState state = new FeedState("https://feed.example.com/rss");
+            jittered.onSuccess(state, 1, null, NOW);
+            assertThat(state.getNextPollAt()).isBetween(NOW.plus(Duration.ofMinutes(10).multipliedBy(3).dividedBy(4)), NOW.plus(Duration.ofMinutes(10).multipliedBy(5).dividedBy(4)));
+        }
+    }
+}
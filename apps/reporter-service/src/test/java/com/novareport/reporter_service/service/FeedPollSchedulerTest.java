@@ -0,0 +1,132 @@
+package com.novareport.reporter_service.service;
+
+import com.novareport.reporter_service.config.PollingProperties;
+import com.novareport.reporter_service.config.ReporterProperties;
+import com.novareport.reporter_service.domain.FeedState;
+import com.novareport.reporter_service.domain.FeedStateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@SuppressWarnings("null")
+class FeedPollSchedulerTest {
+
+    private static final List<String> FEEDS = List.of("https://a.example.com/rss", "https://b.example.com/rss", "https://c.example.com/rss");
+
+    private RssIngestService rssIngestService;
+    private NewsApiIngestService newsApiIngestService;
+    private FeedStateRepository feedStateRepository;
+
+    @BeforeEach
+    void setUp() {
+        rssIngestService = mock(RssIngestService.class);
+        newsApiIngestService = mock(NewsApiIngestService.class);
+        feedStateRepository = mock(FeedStateRepository.class);
+    }
+
+    @Test
+    void pollsOnlyFeedsThatAreDue() {
+        FeedState polledRecently = new FeedState("https://a.example.com/rss");
+        polledRecently.setNextPollAt(Instant.now().plus(Duration.ofMinutes(10)));
+        FeedState overdue = new FeedState("https://b.example.com/rss");
+        overdue.setNextPollAt(Instant.now().minusSeconds(5));
+        when(feedStateRepository.findAllById(any())).thenReturn(List.of(polledRecently, overdue));
+        when(rssIngestService.ingest(anyCollection())).thenReturn(RssIngestService.IngestResult.empty());
+        FeedPollScheduler scheduler = scheduler(true);
+        // As if the service had started one poll interval ago, so every first poll time has passed
+        scheduler.dueFeeds(Instant.now().minus(Duration.ofMinutes(15)));
+
+        scheduler.pollDueFeeds();
+
+        verify(rssIngestService).ingest(List.of("https://b.example.com/rss", "https://c.example.com/rss"));
+    }
+
+    @Test
+    void spreadsFirstPollsOfFeedsDueAtStartupOverTheInterval() {
+        List<String> feeds = IntStream.range(0, 100).mapToObj(i -> "https://" + i + ".example.com/rss").toList();
+        when(feedStateRepository.findAllById(any())).thenReturn(List.of());
+        FeedPollScheduler scheduler = new FeedPollScheduler(
+            rssIngestService,
+            newsApiIngestService,
+            feedStateRepository,
+            new FeedPollPolicy(properties(true)),
+            new ReporterProperties(feeds, true, Duration.ofHours(48), false),
+            properties(true)
+        );
+        Instant start = Instant.now();
+
+        assertThat(scheduler.dueFeeds(start)).hasSizeLessThan(feeds.size());
+        assertThat(scheduler.dueFeeds(start.plus(Duration.ofMinutes(15)))).isEqualTo(feeds);
+    }
+
+    @Test
+    void skipsIngestWhenNoFeedIsDue() {
+        FeedState state = new FeedState("https://a.example.com/rss");
+        state.setNextPollAt(Instant.now().plus(Duration.ofMinutes(10)));
+        when(feedStateRepository.findAllById(any())).thenReturn(List.of(state));
+
+        new FeedPollScheduler(
+            rssIngestService,
+            newsApiIngestService,
+            feedStateRepository,
+            new FeedPollPolicy(properties(true)),
+            new ReporterProperties(List.of("https://a.example.com/rss"), true, Duration.ofHours(48), false),
+            properties(true)
+        ).pollDueFeeds();
+
+        verify(rssIngestService, never()).ingest(anyCollection());
+    }
+
+    @Test
+    void doesNothingWhenPollingIsDisabled() {
+        FeedPollScheduler scheduler = scheduler(false);
+
+        scheduler.pollDueFeeds();
+        scheduler.pollNewsApi();
+
+        verifyNoInteractions(rssIngestService, newsApiIngestService, feedStateRepository);
+    }
+
+    @Test
+    void pollsNewsApiAndSwallowsFailures() {
+        when(newsApiIngestService.ingest()).thenThrow(new RuntimeException("boom"));
+        when(feedStateRepository.findAllById(any())).thenThrow(new RuntimeException("db down"));
+
+        FeedPollScheduler scheduler = scheduler(true);
+
+        assertThatCode(scheduler::pollNewsApi).doesNotThrowAnyException();
+        assertThatCode(scheduler::pollDueFeeds).doesNotThrowAnyException();
+        verify(newsApiIngestService).ingest();
+    }
+
+    private FeedPollScheduler scheduler(boolean enabled) {
+        PollingProperties polling = properties(enabled);
+        return new FeedPollScheduler(
+            rssIngestService,
+            newsApiIngestService,
+            feedStateRepository,
+            new FeedPollPolicy(polling),
+            new ReporterProperties(FEEDS, true, Duration.ofHours(48), false),
+            polling
+        );
+    }
+
+    private static PollingProperties properties(boolean enabled) {
+        return new PollingProperties(
+            enabled, Duration.ofSeconds(30), Duration.ofMinutes(15), Duration.ofMinutes(5), Duration.ofHours(2), 0.2, 5, Duration.ofHours(6), Duration.ofMinutes(30));
+    }
+}
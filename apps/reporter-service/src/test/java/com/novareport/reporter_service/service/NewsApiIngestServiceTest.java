@@ -1,18 +1,32 @@
 package com.novareport.reporter_service.service;
 
+import com.novareport.reporter_service.config.DedupFilterProperties;
 import com.novareport.reporter_service.config.NewsApiProperties;
+import com.novareport.reporter_service.config.ReporterProperties;
 import com.novareport.reporter_service.domain.NewsItem;
 import com.novareport.reporter_service.domain.NewsItemRepository;
+import com.novareport.reporter_service.util.UrlKeys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import reactor.core.publisher.Flux;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
-import java.util.Set;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -20,6 +34,8 @@
 @SuppressWarnings("null")
 class NewsApiIngestServiceTest {
 
+    private static final ReporterProperties REPORTER_PROPERTIES = new ReporterProperties(List.of(), true, Duration.ofHours(48), false);
+
     private NewsItemRepository newsItemRepository;
 
     @BeforeEach
@@ -29,8 +45,8 @@ void setUp() {
 
     @Test
     void ingestReturnsEmptyWhenDisabled() {
-        NewsApiProperties properties = new NewsApiProperties(false, 20);
-        NewsApiIngestService service = new NewsApiIngestService(null, newsItemRepository, properties);
+        NewsApiProperties properties = new NewsApiProperties(false, 20, 5);
+        NewsApiIngestService service = new NewsApiIngestService(null, newsItemRepository, properties, REPORTER_PROPERTIES, mock(StoryClusterer.class), dedupIndex(newsItemRepository), mock(PlatformTransactionManager.class));
 
         RssIngestService.IngestResult result = service.ingest();
 
@@ -41,8 +57,8 @@ void ingestReturnsEmptyWhenDisabled() {
 
     @Test
     void ingestReturnsEmptyWhenNoProvidersConfigured() {
-        NewsApiProperties properties = new NewsApiProperties(true, 20);
-        NewsApiIngestService service = new NewsApiIngestService(List.of(), newsItemRepository, properties);
+        NewsApiProperties properties = new NewsApiProperties(true, 20, 5);
+        NewsApiIngestService service = new NewsApiIngestService(List.of(), newsItemRepository, properties, REPORTER_PROPERTIES, mock(StoryClusterer.class), dedupIndex(newsItemRepository), mock(PlatformTransactionManager.class));
 
         RssIngestService.IngestResult result = service.ingest();
 
@@ -57,47 +73,154 @@ void ingestCollectsItemsDeduplicatesAndPersistsNewOnes() {
 
         NewsItem item1 = new NewsItem();
         item1.setPublishedAt(Instant.now());
-        item1.setHash("h1");
+        item1.setUrlKey(key("h1"));
         NewsItem item2 = new NewsItem();
         item2.setPublishedAt(Instant.now());
-        item2.setHash("h2");
+        item2.setUrlKey(key("h2"));
         NewsItem item3 = new NewsItem();
         item3.setPublishedAt(Instant.now());
-        item3.setHash("h2"); // duplicate hash
+        item3.setUrlKey(key("h2")); // duplicate key
 
-        when(provider1.fetchLatestNews()).thenReturn(List.of(item1, item2));
-        when(provider2.fetchLatestNews()).thenReturn(List.of(item3));
+        when(provider1.providerName()).thenReturn("first");
+        when(provider1.fetchLatestNews(any(), anyInt())).thenReturn(Flux.just(item1, item2));
+        when(provider2.providerName()).thenReturn("second");
+        when(provider2.fetchLatestNews(any(), anyInt())).thenReturn(Flux.just(item3));
 
-        when(newsItemRepository.findExistingHashes(any())).thenReturn(Set.of("h1"));
-        when(newsItemRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(newsItemRepository.insertIgnoringDuplicates(any())).thenAnswer(invocation -> invocation.<Collection<NewsItem>>getArgument(0).stream()
+            .filter(item -> !key("h1").equals(item.getUrlKey()))
+            .toList());
 
-        NewsApiProperties properties = new NewsApiProperties(true, 10);
-        NewsApiIngestService service = new NewsApiIngestService(List.of(provider1, provider2), newsItemRepository, properties);
+        NewsApiProperties properties = new NewsApiProperties(true, 10, 5);
+        NewsApiIngestService service = new NewsApiIngestService(List.of(provider1, provider2), newsItemRepository, properties, REPORTER_PROPERTIES, mock(StoryClusterer.class), dedupIndex(newsItemRepository), mock(PlatformTransactionManager.class));
 
         RssIngestService.IngestResult result = service.ingest();
 
         assertThat(result.attempted()).isEqualTo(3L);
         assertThat(result.stored()).isEqualTo(1L);
-        verify(newsItemRepository).saveAll(any());
+        verify(newsItemRepository).insertIgnoringDuplicates(argThat(items -> items.size() == 2));
     }
 
     @Test
     void ingestReturnsZeroStoredWhenNoHashesAfterDeduplication() {
         NewsItem item1 = new NewsItem();
         item1.setPublishedAt(Instant.now());
-        item1.setHash("h1");
+        item1.setUrlKey(key("h1"));
 
         NewsApiProvider provider = mock(NewsApiProvider.class);
-        when(provider.fetchLatestNews()).thenReturn(List.of(item1));
+        when(provider.providerName()).thenReturn("provider");
+        when(provider.fetchLatestNews(any(), anyInt())).thenReturn(Flux.just(item1));
 
-        when(newsItemRepository.findExistingHashes(any())).thenReturn(Set.of("h1"));
+        when(newsItemRepository.insertIgnoringDuplicates(any())).thenReturn(List.of());
 
-        NewsApiProperties properties = new NewsApiProperties(true, 10);
-        NewsApiIngestService service = new NewsApiIngestService(List.of(provider), newsItemRepository, properties);
+        NewsApiProperties properties = new NewsApiProperties(true, 10, 5);
+        NewsApiIngestService service = new NewsApiIngestService(List.of(provider), newsItemRepository, properties, REPORTER_PROPERTIES, mock(StoryClusterer.class), dedupIndex(newsItemRepository), mock(PlatformTransactionManager.class));
 
         RssIngestService.IngestResult result = service.ingest();
 
         assertThat(result.attempted()).isEqualTo(1L);
         assertThat(result.stored()).isZero();
     }
+
+    @Test
+    void ingestKeepsNewestItemsAcrossProvidersWhenOneFails() {
+        Instant now = Instant.now();
+        NewsApiProvider fast = mock(NewsApiProvider.class);
+        when(fast.providerName()).thenReturn("fast");
+        when(fast.fetchLatestNews(any(), anyInt())).thenReturn(Flux.just(
+            item("a", now.minusSeconds(10)),
+            item("b", now.minusSeconds(300)),
+            item("c", now.minusSeconds(600))
+        ));
+        NewsApiProvider failing = mock(NewsApiProvider.class);
+        when(failing.providerName()).thenReturn("failing");
+        when(failing.fetchLatestNews(any(), anyInt())).thenReturn(Flux.concat(
+            Flux.just(item("d", now.minusSeconds(60))),
+            Flux.error(new IllegalStateException("page 2 failed"))
+        ));
+        when(newsItemRepository.insertIgnoringDuplicates(any())).thenAnswer(invocation -> List.copyOf(invocation.<Collection<NewsItem>>getArgument(0)));
+
+        NewsApiIngestService service = new NewsApiIngestService(
+            List.of(fast, failing), newsItemRepository, new NewsApiProperties(true, 3, 4), REPORTER_PROPERTIES, mock(StoryClusterer.class), dedupIndex(newsItemRepository), mock(PlatformTransactionManager.class));
+
+        RssIngestService.IngestResult result = service.ingest();
+
+        assertThat(result.stored()).isEqualTo(3L);
+        ArgumentCaptor<Collection<NewsItem>> stored = ArgumentCaptor.captor();
+        verify(newsItemRepository).insertIgnoringDuplicates(stored.capture());
+        assertThat(stored.getValue()).extracting(NewsItem::getUrlKey).containsExactly(key("a"), key("d"), key("b"));
+        verify(fast).fetchLatestNews(argThat(since -> since.isBefore(now.minus(Duration.ofHours(47)))), eq(4));
+    }
+
+    @Test
+    void ingestAsksProvidersOnlyForItemsNewerThanLastCompleteRun() {
+        Instant newest = Instant.now().minusSeconds(30);
+        NewsApiProvider provider = mock(NewsApiProvider.class);
+        when(provider.providerName()).thenReturn("provider");
+        when(provider.fetchLatestNews(any(), anyInt()))
+            .thenReturn(Flux.just(item("a", newest), item("b", newest.minusSeconds(60))))
+            .thenReturn(Flux.empty());
+        when(newsItemRepository.insertIgnoringDuplicates(any())).thenAnswer(invocation -> List.copyOf(invocation.<Collection<NewsItem>>getArgument(0)));
+
+        NewsApiIngestService service = new NewsApiIngestService(
+            List.of(provider), newsItemRepository, new NewsApiProperties(true, 20, 5), REPORTER_PROPERTIES, mock(StoryClusterer.class), dedupIndex(newsItemRepository), mock(PlatformTransactionManager.class));
+
+        service.ingest();
+        service.ingest();
+
+        verify(provider).fetchLatestNews(eq(newest), eq(5));
+    }
+
+    @Test
+    void ingestKeepsWatermarkWhenStoringFails() {
+        Instant newest = Instant.now().minusSeconds(30);
+        NewsApiProvider provider = mock(NewsApiProvider.class);
+        when(provider.providerName()).thenReturn("provider");
+        when(provider.fetchLatestNews(any(), anyInt())).thenReturn(Flux.just(item("a", newest)));
+        when(newsItemRepository.insertIgnoringDuplicates(any()))
+            .thenThrow(new IllegalStateException("insert failed"))
+            .thenAnswer(invocation -> List.copyOf(invocation.<Collection<NewsItem>>getArgument(0)));
+
+        NewsApiIngestService service = new NewsApiIngestService(
+            List.of(provider), newsItemRepository, new NewsApiProperties(true, 20, 5), REPORTER_PROPERTIES, mock(StoryClusterer.class), dedupIndex(newsItemRepository), mock(PlatformTransactionManager.class));
+
+        assertThatThrownBy(service::ingest).isInstanceOf(IllegalStateException.class);
+        service.ingest();
+
+        verify(provider, times(2)).fetchLatestNews(argThat(since -> since.isBefore(newest.minus(Duration.ofHours(47)))), eq(5));
+    }
+
+    @Test
+    void ingestMovesWatermarkOnlyToOldestKeptItemWhenItemsAreDropped() {
+        Instant newest = Instant.now().minusSeconds(30);
+        NewsApiProvider provider = mock(NewsApiProvider.class);
+        when(provider.providerName()).thenReturn("provider");
+        when(provider.fetchLatestNews(any(), anyInt()))
+            .thenReturn(Flux.just(item("a", newest), item("b", newest.minusSeconds(60)), item("c", newest.minusSeconds(120))))
+            .thenReturn(Flux.empty());
+        when(newsItemRepository.insertIgnoringDuplicates(any())).thenAnswer(invocation -> List.copyOf(invocation.<Collection<NewsItem>>getArgument(0)));
+
+        NewsApiIngestService service = new NewsApiIngestService(
+            List.of(provider), newsItemRepository, new NewsApiProperties(true, 2, 5), REPORTER_PROPERTIES, mock(StoryClusterer.class), dedupIndex(newsItemRepository), mock(PlatformTransactionManager.class));
+
+        service.ingest();
+        service.ingest();
+
+        verify(provider).fetchLatestNews(eq(newest.minusSeconds(60)), eq(5));
+    }
+
+    private static NewsItemDedupIndex dedupIndex(NewsItemRepository newsItemRepository) {
+        return new NewsItemDedupIndex(newsItemRepository, REPORTER_PROPERTIES,
+            new DedupFilterProperties(true, 1000, 0.01, Duration.ofHours(6)), mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+    }
+
+    private static NewsItem item(String name, Instant publishedAt) {
+        NewsItem item = new NewsItem();
+        item.setUrlKey(key(name));
+        item.setPublishedAt(publishedAt);
+        return item;
+    }
+
+    private static UUID key(String name) {
+        return UrlKeys.of("https://example.com/" + name, null);
+    }
 }
@@ -1,5 +1,6 @@
 package com.novareport.reporter_service.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.novareport.reporter_service.config.NewsDataProperties;
 import com.novareport.reporter_service.domain.NewsItem;
 import org.junit.jupiter.api.Test;
@@ -12,23 +13,28 @@
 import reactor.core.publisher.Mono;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 class NewsDataIoNewsApiProviderTest {
 
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
     @Test
     void fetchLatestNewsReturnsEmptyWhenDisabledOrMissingApiKey() {
         WebClient webClient = WebClient.builder().build();
 
         NewsDataProperties disabled = new NewsDataProperties(false, "https://newsdata.io/api/1", null, 24);
-        NewsDataIoNewsApiProvider providerDisabled = new NewsDataIoNewsApiProvider(webClient, disabled);
-        assertThat(providerDisabled.fetchLatestNews()).isEmpty();
+        NewsDataIoNewsApiProvider providerDisabled = new NewsDataIoNewsApiProvider(webClient, disabled, OBJECT_MAPPER, RawFeedArchive.disabled());
+        assertThat(providerDisabled.fetchLatestNews(null, 5).collectList().block()).isEmpty();
 
         NewsDataProperties enabledNoKey = new NewsDataProperties(true, "https://newsdata.io/api/1", "", 24);
-        NewsDataIoNewsApiProvider providerNoKey = new NewsDataIoNewsApiProvider(webClient, enabledNoKey);
-        assertThat(providerNoKey.fetchLatestNews()).isEmpty();
+        NewsDataIoNewsApiProvider providerNoKey = new NewsDataIoNewsApiProvider(webClient, enabledNoKey, OBJECT_MAPPER, RawFeedArchive.disabled());
+        assertThat(providerNoKey.fetchLatestNews(null, 5).collectList().block()).isEmpty();
     }
 
     @Test
@@ -45,16 +51,16 @@ void fetchLatestNewsParsesResponse() {
             .build();
 
         NewsDataProperties props = new NewsDataProperties(true, "https://news.example.com", "api-key-123", 24);
-        NewsDataIoNewsApiProvider provider = new NewsDataIoNewsApiProvider(webClient, props);
+        NewsDataIoNewsApiProvider provider = new NewsDataIoNewsApiProvider(webClient, props, OBJECT_MAPPER, RawFeedArchive.disabled());
 
-        List<NewsItem> items = provider.fetchLatestNews();
+        List<NewsItem> items = provider.fetchLatestNews(null, 5).collectList().block();
 
         assertThat(items).hasSize(1);
         NewsItem item = items.get(0);
         assertThat(item.getTitle()).isEqualTo("Title");
         assertThat(item.getUrl()).isEqualTo("https://example.com/1");
         assertThat(item.getSource()).isNotBlank();
-        assertThat(item.getHash()).isNotBlank();
+        assertThat(item.getUrlKey()).isNotNull();
     }
 
     @Test
@@ -72,10 +78,78 @@ void fetchLatestNewsReturnsEmptyOnHttpError() {
             .build();
 
         NewsDataProperties props = new NewsDataProperties(true, "https://news.example.com", "api-key-123", 24);
-        NewsDataIoNewsApiProvider provider = new NewsDataIoNewsApiProvider(webClient, props);
+        NewsDataIoNewsApiProvider provider = new NewsDataIoNewsApiProvider(webClient, props, OBJECT_MAPPER, RawFeedArchive.disabled());
 
-        List<NewsItem> items = provider.fetchLatestNews();
+        List<NewsItem> items = provider.fetchLatestNews(null, 5).collectList().block();
 
         assertThat(items).isEmpty();
     }
+
+    @Test
+    void fetchLatestNewsFollowsNextPageCursorsUntilWatermark() {
+        List<String> requested = new ArrayList<>();
+        WebClient webClient = WebClient.builder()
+            .exchangeFunction(request -> {
+                requested.add(request.url().getQuery());
+                String query = request.url().getQuery();
+                String body = query.contains("page=p3")
+                    ? page("2024-01-01T08:00:00Z", "2023-12-31T00:00:00Z", "p4")
+                    : query.contains("page=p2") ? page("2024-01-01T10:00:00Z", "2024-01-01T09:00:00Z", "p3")
+                    : page("2024-01-01T12:00:00Z", "2024-01-01T11:00:00Z", "p2");
+                return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body(body)
+                    .build());
+            })
+            .build();
+
+        NewsDataProperties props = new NewsDataProperties(true, "https://news.example.com", "api-key-123", 24);
+        NewsDataIoNewsApiProvider provider = new NewsDataIoNewsApiProvider(webClient, props, OBJECT_MAPPER, RawFeedArchive.disabled());
+
+        List<NewsItem> items = provider.fetchLatestNews(Instant.parse("2024-01-01T00:00:00Z"), 10).collectList().block();
+
+        assertThat(items).extracting(NewsItem::getPublishedAt).containsExactly(
+            Instant.parse("2024-01-01T12:00:00Z"),
+            Instant.parse("2024-01-01T11:00:00Z"),
+            Instant.parse("2024-01-01T10:00:00Z"),
+            Instant.parse("2024-01-01T09:00:00Z"),
+            Instant.parse("2024-01-01T08:00:00Z")
+        );
+        assertThat(requested).hasSize(3);
+        assertThat(requested.get(0)).doesNotContain("page=");
+    }
+
+    @Test
+    void fetchLatestNewsStopsAtPageBudgetAndOnlyRequestsWhatIsConsumed() {
+        AtomicInteger requests = new AtomicInteger();
+        WebClient webClient = WebClient.builder()
+            .exchangeFunction(request -> {
+                int number = requests.incrementAndGet();
+                return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body(page("2024-01-01T12:00:00Z", "2024-01-01T11:00:00Z", "p" + (number + 1)))
+                    .build());
+            })
+            .build();
+
+        NewsDataProperties props = new NewsDataProperties(true, "https://news.example.com", "api-key-123", 24);
+        NewsDataIoNewsApiProvider provider = new NewsDataIoNewsApiProvider(webClient, props, OBJECT_MAPPER, RawFeedArchive.disabled());
+
+        assertThat(provider.fetchLatestNews(null, 3).count().block()).isEqualTo(6L);
+        assertThat(requests).hasValue(3);
+
+        requests.set(0);
+        assertThat(provider.fetchLatestNews(null, 3).take(1).count().block()).isEqualTo(1L);
+        assertThat(requests).hasValue(1);
+    }
+
+    private static String page(String firstPubDate, String secondPubDate, String nextPage) {
+        return "{\"status\":\"success\",\"results\":["
+            + article(firstPubDate) + "," + article(secondPubDate)
+            + "],\"nextPage\":\"" + nextPage + "\"}";
+    }
+
+    private static String article(String pubDate) {
+        return "{\"title\":\"Title " + pubDate + "\",\"link\":\"https://example.com/" + pubDate + "\",\"pubDate\":\"" + pubDate + "\",\"source_id\":\"src\"}";
+    }
 }
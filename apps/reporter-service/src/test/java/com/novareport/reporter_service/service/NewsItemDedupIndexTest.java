@@ -0,0 +1,173 @@
+package com.novareport.reporter_service.service;
+
+import com.novareport.reporter_service.config.DedupFilterProperties;
+import com.novareport.reporter_service.config.ReporterProperties;
+import com.novareport.reporter_service.domain.NewsItem;
+import com.novareport.reporter_service.domain.NewsItemRepository;
+import com.novareport.reporter_service.util.UrlKeys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SuppressWarnings({"null", "unchecked"})
+class NewsItemDedupIndexTest {
+
+    private NewsItemRepository newsItemRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private NewsItemDedupIndex index;
+
+    @BeforeEach
+    void setUp() {
+        newsItemRepository = mock(NewsItemRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        index = new NewsItemDedupIndex(
+            newsItemRepository,
+            new ReporterProperties(List.of(), true, Duration.ofHours(48), false),
+            new DedupFilterProperties(true, 1000, 0.01, Duration.ofHours(6)),
+            mock(PlatformTransactionManager.class),
+            meterRegistry
+        );
+    }
+
+    @Test
+    void checksEverythingInDatabaseBeforeWarmUp() {
+        NewsItem stored = item("stored", Instant.now());
+        NewsItem fresh = item("fresh", Instant.now());
+        when(newsItemRepository.findExistingUrlKeys(any())).thenReturn(Set.of(key("stored")));
+
+        List<NewsItem> candidates = index.withoutStored(List.of(stored, fresh));
+
+        assertThat(candidates).containsExactly(fresh);
+        assertThat(checks("not_covered")).isEqualTo(2.0);
+    }
+
+    @Test
+    void skipsDatabaseForCandidatesTheFilterRulesOut() {
+        when(newsItemRepository.streamUrlKeysSince(any())).thenReturn(Stream.of(key("stored")));
+        index.warm();
+        NewsItem first = item("fresh-1", Instant.now());
+        NewsItem second = item("fresh-2", Instant.now());
+
+        List<NewsItem> candidates = index.withoutStored(List.of(first, second));
+
+        assertThat(candidates).containsExactly(first, second);
+        verify(newsItemRepository, never()).findExistingUrlKeys(any());
+        assertThat(checks("absent")).isEqualTo(2.0);
+    }
+
+    @Test
+    void sendsMaybePresentAndUncoveredCandidatesToDatabase() {
+        when(newsItemRepository.streamUrlKeysSince(any())).thenReturn(Stream.of(key("stored")));
+        when(newsItemRepository.findExistingUrlKeys(any())).thenReturn(Set.of(key("stored")));
+        index.warm();
+
+        NewsItem stored = item("stored", Instant.now());
+        NewsItem old = item("old", Instant.now().minus(Duration.ofDays(30)));
+        NewsItem fresh = item("fresh", Instant.now());
+
+        List<NewsItem> candidates = index.withoutStored(List.of(stored, old, fresh));
+
+        assertThat(candidates).containsExactly(old, fresh);
+        verify(newsItemRepository).findExistingUrlKeys(argThatContainsExactly(key("stored"), key("old")));
+        assertThat(checks("maybe_present")).isEqualTo(1.0);
+        assertThat(checks("not_covered")).isEqualTo(1.0);
+        assertThat(checks("absent")).isEqualTo(1.0);
+        assertThat(meterRegistry.get("reporter.dedup_filter.false_positives").counter().count()).isZero();
+    }
+
+    @Test
+    void recordsInsertedKeysAndCountsFalsePositives() {
+        when(newsItemRepository.streamUrlKeysSince(any())).thenReturn(Stream.empty());
+        when(newsItemRepository.findExistingUrlKeys(any())).thenReturn(Set.of());
+        index.warm();
+
+        index.recordInserted(List.of(item("new", Instant.now())));
+        index.withoutStored(List.of(item("new", Instant.now())));
+
+        verify(newsItemRepository).findExistingUrlKeys(argThatContainsExactly(key("new")));
+        assertThat(meterRegistry.get("reporter.dedup_filter.false_positives").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("reporter.dedup_filter.entries").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void rebuildSwapsInFilterOverCurrentWindow() {
+        when(newsItemRepository.streamUrlKeysSince(any()))
+            .thenReturn(Stream.of(key("aged-out")))
+            .thenReturn(Stream.of(key("recent")));
+        when(newsItemRepository.findExistingUrlKeys(any())).thenReturn(Set.of(key("recent")));
+        index.warm();
+        index.recordInserted(List.of(item("inserted", Instant.now())));
+
+        index.rebuild();
+        List<NewsItem> candidates = index.withoutStored(List.of(item("aged-out", Instant.now()), item("recent", Instant.now())));
+
+        assertThat(candidates).extracting(NewsItem::getUrlKey).containsExactly(key("aged-out"));
+        verify(newsItemRepository).findExistingUrlKeys(argThatContainsExactly(key("recent")));
+        verify(newsItemRepository, times(2)).streamUrlKeysSince(any());
+        assertThat(meterRegistry.get("reporter.dedup_filter.entries").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void failedRebuildKeepsCurrentFilter() {
+        when(newsItemRepository.streamUrlKeysSince(any()))
+            .thenReturn(Stream.of(key("stored")))
+            .thenThrow(new IllegalStateException("database unavailable"));
+        index.warm();
+
+        index.rebuild();
+        List<NewsItem> candidates = index.withoutStored(List.of(item("fresh", Instant.now())));
+
+        assertThat(candidates).extracting(NewsItem::getUrlKey).containsExactly(key("fresh"));
+        verify(newsItemRepository, never()).findExistingUrlKeys(any());
+    }
+
+    @Test
+    void leavesOutCandidatesWithoutUrlKey() {
+        NewsItem keyless = item("keyless", Instant.now());
+        keyless.setUrlKey(null);
+        NewsItem fresh = item("fresh", Instant.now());
+        when(newsItemRepository.findExistingUrlKeys(any())).thenReturn(Set.of());
+
+        List<NewsItem> candidates = index.withoutStored(List.of(keyless, fresh));
+
+        assertThat(candidates).containsExactly(fresh);
+        verify(newsItemRepository).findExistingUrlKeys(argThatContainsExactly(key("fresh")));
+    }
+
+    private double checks(String result) {
+        return meterRegistry.get("reporter.dedup_filter.checks").tag("result", result).counter().count();
+    }
+
+    private static Collection<UUID> argThatContainsExactly(UUID... keys) {
+        return argThat(values -> values.size() == keys.length && values.containsAll(List.of(keys)));
+    }
+
+    private static NewsItem item(String name, Instant publishedAt) {
+        NewsItem item = new NewsItem();
+        item.setUrlKey(key(name));
+        item.setPublishedAt(publishedAt);
+        return item;
+    }
+
+    private static UUID key(String name) {
+        return UrlKeys.of("https://example.com/" + name, null);
+    }
+}
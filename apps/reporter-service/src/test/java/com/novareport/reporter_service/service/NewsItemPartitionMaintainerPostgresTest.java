@@ -0,0 +1,104 @@
+package com.novareport.reporter_service.service;
+
+import com.novareport.reporter_service.config.RetentionProperties;
+import com.novareport.reporter_service.domain.NewsItemPartitions;
+import com.novareport.reporter_service.domain.PostgresTestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link NewsItemPartitionMaintainer}'s DDL against the partitioned schema the migrations create.
+ */
+class NewsItemPartitionMaintainerPostgresTest {
+
+    private static final Instant NOW = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(PostgresTestDatabase.migrated());
+    }
+
+    @Test
+    void createsPartitionsAheadWhenRetentionIsDisabled() {
+        Instant later = NOW.plus(Duration.ofDays(70));
+        insert(NOW.minus(Duration.ofDays(400)));
+        NewsItemPartitionMaintainer maintainer = new NewsItemPartitionMaintainer(jdbcTemplate, retention(false, false));
+
+        maintainer.maintain(later);
+
+        LocalDate laterWeek = NewsItemPartitions.weekStart(later);
+        assertThat(partitions()).contains(
+            NewsItemPartitions.partitionName(laterWeek),
+            NewsItemPartitions.partitionName(laterWeek.plusWeeks(4)));
+        assertThat(count("news_items")).isEqualTo(1);
+        assertThat(count("news_item_keys")).isEqualTo(1);
+    }
+
+    @Test
+    void dropsExpiredPartitionsAndDeletesExpiredRowsAndKeys() {
+        insert(NOW);
+        insert(NOW.minus(Duration.ofDays(400)));
+        String currentPartition = NewsItemPartitions.partitionName(NewsItemPartitions.weekStart(NOW));
+        NewsItemPartitionMaintainer maintainer = new NewsItemPartitionMaintainer(jdbcTemplate, retention(true, false));
+
+        maintainer.maintain(NOW.plus(Duration.ofDays(30)));
+
+        assertThat(partitions()).doesNotContain(currentPartition).contains(NewsItemPartitions.DEFAULT_PARTITION);
+        assertThat(tableExists(currentPartition)).isFalse();
+        assertThat(count("news_items")).isZero();
+        assertThat(count("news_item_keys")).isZero();
+    }
+
+    @Test
+    void detachesExpiredPartitionsWhenConfigured() {
+        insert(NOW);
+        String currentPartition = NewsItemPartitions.partitionName(NewsItemPartitions.weekStart(NOW));
+        NewsItemPartitionMaintainer maintainer = new NewsItemPartitionMaintainer(jdbcTemplate, retention(true, true));
+
+        maintainer.maintain(NOW.plus(Duration.ofDays(30)));
+
+        assertThat(partitions()).doesNotContain(currentPartition);
+        assertThat(tableExists(currentPartition)).isTrue();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from " + currentPartition, Integer.class)).isEqualTo(1);
+        assertThat(count("news_items")).isZero();
+    }
+
+    private void insert(Instant publishedAt) {
+        UUID urlKey = UUID.randomUUID();
+        jdbcTemplate.update("insert into news_item_keys (url_key, published_at) values (?, ?)", urlKey, Timestamp.from(publishedAt));
+        jdbcTemplate.update(
+            "insert into news_items (id, source, url, title, published_at, url_key) values (?, 'Source', 'https://example.com', 'Title', ?, ?)",
+            UUID.randomUUID(), Timestamp.from(publishedAt), urlKey);
+    }
+
+    private List<String> partitions() {
+        return jdbcTemplate.queryForList(
+            "select c.relname from pg_inherits i join pg_class c on c.oid = i.inhrelid where i.inhparent = 'news_items'::regclass",
+            String.class);
+    }
+
+    private boolean tableExists(String name) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("select to_regclass(?) is not null", Boolean.class, name));
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table, Integer.class);
+    }
+
+    private static RetentionProperties retention(boolean enabled, boolean detach) {
+        return new RetentionProperties(enabled, Duration.ofDays(7), detach, 4, Duration.ofHours(6));
+    }
+}
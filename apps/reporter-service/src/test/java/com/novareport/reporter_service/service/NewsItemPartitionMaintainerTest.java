@@ -0,0 +1,87 @@
+package com.novareport.reporter_service.service;
+
+import com.novareport.reporter_service.config.RetentionProperties;
+import com.novareport.reporter_service.domain.NewsItemPartitions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NewsItemPartitionMaintainerTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-08T12:00:00Z");
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+            "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("CREATE TABLE news_items (id UUID PRIMARY KEY, published_at TIMESTAMP WITH TIME ZONE NOT NULL)");
+    }
+
+    @Test
+    void deletesExpiredRowsFromPlainTable() {
+        insert(NOW.minus(Duration.ofDays(31)));
+        insert(NOW.minus(Duration.ofDays(29)));
+        NewsItemPartitionMaintainer maintainer = new NewsItemPartitionMaintainer(jdbcTemplate, retention(true, Duration.ofDays(30)));
+
+        maintainer.maintain(NOW);
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from news_items", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void keepsExpiredRowsWhenDisabled() {
+        insert(Instant.parse("2000-01-01T00:00:00Z"));
+        NewsItemPartitionMaintainer maintainer = new NewsItemPartitionMaintainer(jdbcTemplate, retention(false, Duration.ofDays(30)));
+
+        maintainer.runMaintenance();
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from news_items", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void onlyWeeksEndingBeforeCutoffAreExpired() {
+        List<String> partitions = List.of(
+            NewsItemPartitions.DEFAULT_PARTITION,
+            NewsItemPartitions.partitionName(LocalDate.parse("2024-12-23")),
+            NewsItemPartitions.partitionName(LocalDate.parse("2024-12-30")),
+            NewsItemPartitions.partitionName(LocalDate.parse("2025-01-06")),
+            "news_items_pbroken"
+        );
+
+        assertThat(NewsItemPartitionMaintainer.expiredPartitions(partitions, Instant.parse("2025-01-06T00:00:00Z")))
+            .containsExactly("news_items_p20241223", "news_items_p20241230");
+        assertThat(NewsItemPartitionMaintainer.expiredPartitions(partitions, Instant.parse("2025-01-05T23:59:59Z")))
+            .containsExactly("news_items_p20241223");
+    }
+
+    @Test
+    void partitionsAreNamedAfterTheirMonday() {
+        LocalDate weekStart = NewsItemPartitions.weekStart(NOW);
+
+        assertThat(weekStart).isEqualTo(LocalDate.parse("2025-01-06"));
+        assertThat(NewsItemPartitions.createPartitionSql(weekStart)).isEqualTo(
+            "CREATE TABLE IF NOT EXISTS news_items_p20250106 PARTITION OF news_items "
+                + "FOR VALUES FROM ('2025-01-06T00:00:00Z') TO ('2025-01-13T00:00:00Z')");
+        assertThat(NewsItemPartitions.weekStartOf("news_items_p20250106")).contains(weekStart);
+    }
+
+    private void insert(Instant publishedAt) {
+        jdbcTemplate.update("insert into news_items (id, published_at) values (?, ?)", UUID.randomUUID(), Timestamp.from(publishedAt));
+    }
+
+    private static RetentionProperties retention(boolean enabled, Duration newsItems) {
+        return new RetentionProperties(enabled, newsItems, false, 4, Duration.ofHours(6));
+    }
+}
@@ -1,30 +1,54 @@
 package com.novareport.reporter_service.service;
 
+import com.novareport.reporter_service.config.SummarizerProperties;
+import com.novareport.reporter_service.config.SummarizerRoutingProperties;
+import com.novareport.reporter_service.config.SummaryCacheProperties;
+import com.novareport.reporter_service.domain.SummaryCacheRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 class OneMinAiSummarizerServiceTest {
 
+    private static final SummarizerProperties FAST = new SummarizerProperties(
+        3, Duration.ofMillis(10), Duration.ofSeconds(1), Duration.ofSeconds(5));
+    private static final SummarizerRoutingProperties ROUTING = new SummarizerRoutingProperties(
+        List.of(), List.of(), 3, Duration.ofSeconds(30), 50, false, Duration.ofSeconds(2));
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SummaryCacheRepository cacheRepository = mock(SummaryCacheRepository.class);
+
     @Test
     void summarizeReturnsDefaultWhenNoHeadlines() {
-        OneMinAiSummarizerService service = new OneMinAiSummarizerService(WebClient.builder(), "api-key", "gpt-4o-mini");
+        OneMinAiSummarizerService service = service(WebClient.builder(), FAST);
 
         LocalDate date = LocalDate.of(2024, 1, 1);
-        String resultEmpty = service.summarize(date, List.of());
-        String resultNull = service.summarize(date, null);
+        String resultEmpty = service.summarize(date, List.of()).block();
+        String resultNull = service.summarize(date, null).block();
 
         assertThat(resultEmpty).contains("No news items available for " + date);
         assertThat(resultNull).contains("No news items available for " + date);
@@ -32,46 +56,285 @@ void summarizeReturnsDefaultWhenNoHeadlines() {
 
     @Test
     void summarizeUsesAiResponseOnSuccess() {
+        OneMinAiSummarizerService service = service(WebClient.builder().exchangeFunction(request -> ok("AI SUMMARY")), FAST);
+
+        String result = service.summarize(LocalDate.of(2024, 1, 2), List.of("headline")).block();
+
+        assertThat(result).isEqualTo("AI SUMMARY");
+        assertThat(meterRegistry.get("reporter.summarizer.attempt").tag("kind", "full").tag("outcome", "success").timer().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get("reporter.summarizer.call").tag("kind", "full").tag("outcome", "success").timer().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void summarizeUpdateUsesAiResponseOnSuccess() {
         WebClient.Builder builder = WebClient.builder()
             .exchangeFunction(request -> Mono.just(
                 ClientResponse.create(HttpStatus.OK)
                     .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                    .body("{\"aiRecord\":{\"aiRecordDetail\":{\"resultObject\":\"AI SUMMARY\"}}}")
+                    .body("{\"aiRecord\":{\"aiRecordDetail\":{\"resultObject\":[\" AI UPDATE \"]}}}")
                     .build()
             ));
 
-        OneMinAiSummarizerService service = new OneMinAiSummarizerService(builder, "api-key", "gpt-4o-mini");
+        OneMinAiSummarizerService service = service(builder, FAST);
+
+        String result = service.summarizeUpdate(LocalDate.of(2024, 1, 2), "Report so far", List.of("New headline")).block();
+
+        assertThat(result).isEqualTo("AI UPDATE");
+    }
+
+    @Test
+    void attemptThatHangsTimesOutAndIsRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        ExchangeFunction exchange = request -> attempts.incrementAndGet() == 1
+            ? Mono.<ClientResponse>never().doOnCancel(() -> cancelled.set(true))
+            : ok("AI SUMMARY");
 
-        String result = service.summarize(LocalDate.of(2024, 1, 2), List.of("headline"));
+        String result = service(WebClient.builder().exchangeFunction(exchange), FAST)
+            .summarize(LocalDate.of(2024, 1, 2), List.of("headline"))
+            .block();
 
         assertThat(result).isEqualTo("AI SUMMARY");
+        assertThat(attempts).hasValue(2);
+        assertThat(cancelled).isTrue();
+        assertThat(meterRegistry.get("reporter.summarizer.attempt").tag("outcome", "timeout").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("reporter.summarizer.attempt").tag("outcome", "success").timer().count()).isEqualTo(1);
     }
 
     @Test
-    void summarizeFallsBackAfterFailures() {
-        HttpHeaders headers = Objects.requireNonNull(new HttpHeaders());
+    void budgetCancelsRequestInFlightAndFallsBack() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        SummarizerProperties tightBudget = new SummarizerProperties(3, Duration.ofMillis(10), Duration.ofSeconds(5), Duration.ofMillis(100));
+        WebClient.Builder builder = WebClient.builder()
+            .exchangeFunction(request -> Mono.<ClientResponse>never().doOnCancel(() -> cancelled.set(true)));
 
-        WebClientResponseException ex = WebClientResponseException.create(
-            500,
-            "Server Error",
-            headers,
-            new byte[0],
-            StandardCharsets.UTF_8
-        );
+        String result = service(builder, tightBudget).summarize(LocalDate.of(2024, 1, 2), List.of("H1")).block(Duration.ofSeconds(5));
+
+        assertThat(result).contains("AI summarization temporarily unavailable").contains("H1");
+        assertThat(cancelled).isTrue();
+        assertThat(meterRegistry.get("reporter.summarizer.attempt").tag("outcome", "cancelled").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("reporter.summarizer.call").tag("outcome", "timeout").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void clientErrorsAreNotRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+        WebClient.Builder builder = WebClient.builder()
+            .exchangeFunction(request -> {
+                attempts.incrementAndGet();
+                return Mono.error(error(401));
+            });
+
+        String result = service(builder, FAST).summarizeUpdate(LocalDate.of(2024, 1, 2), "Report so far", List.of("H3")).block();
+
+        assertThat(attempts).hasValue(1);
+        assertThat(result).contains("AI summarization temporarily unavailable").contains("H3");
+    }
 
+    @Test
+    void summarizeFallsBackAfterFailures() {
+        AtomicInteger attempts = new AtomicInteger();
         WebClient.Builder builder = WebClient.builder()
-            .exchangeFunction(request -> Mono.error(ex));
+            .exchangeFunction(request -> {
+                attempts.incrementAndGet();
+                return Mono.error(error(500));
+            });
 
-        OneMinAiSummarizerService service = new OneMinAiSummarizerService(builder, "api-key", "gpt-4o-mini");
+        OneMinAiSummarizerService service = service(builder, FAST);
 
         LocalDate date = LocalDate.of(2024, 1, 3);
         List<String> headlines = List.of("H1", "H2");
 
-        String result = service.summarize(date, headlines);
+        String result = service.summarize(date, headlines).block();
 
         assertThat(result)
             .contains("AI summarization temporarily unavailable")
             .contains("H1")
             .contains("H2");
+        assertThat(attempts).hasValue(3);
+        assertThat(meterRegistry.get("reporter.summarizer.call").tag("outcome", "error").timer().count()).isEqualTo(1);
+        verify(cacheRepository, never()).insert(anyString(), anyString(), anyString(), any());
+    }
+
+    @Test
+    void openCircuitFallsBackWithoutCallingTheModel() {
+        AtomicInteger attempts = new AtomicInteger();
+        WebClient.Builder builder = WebClient.builder()
+            .exchangeFunction(request -> {
+                attempts.incrementAndGet();
+                return Mono.error(error(500));
+            });
+        OneMinAiSummarizerService service = service(builder, FAST);
+
+        service.summarize(LocalDate.of(2024, 1, 3), List.of("H1")).block();
+        String result = service.summarizeUpdate(LocalDate.of(2024, 1, 3), "Report so far", List.of("H2")).block();
+
+        assertThat(result).contains("AI summarization temporarily unavailable").contains("H2");
+        assertThat(attempts).hasValue(3);
+        assertThat(meterRegistry.get("reporter.summarizer.backend.open").tag("backend", "gpt-4o-mini").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void summarizeReusesCachedSummaryForSameHeadlines() {
+        AtomicInteger requests = new AtomicInteger();
+        WebClient.Builder builder = WebClient.builder()
+            .exchangeFunction(request -> {
+                requests.incrementAndGet();
+                return ok("AI SUMMARY");
+            });
+        OneMinAiSummarizerService service = service(builder, FAST);
+        LocalDate date = LocalDate.of(2024, 1, 4);
+
+        String first = service.summarize(date, List.of("H1", "H2")).block();
+        String second = service.summarize(date, List.of("H1", "H2")).block();
+        service.summarize(date, List.of("H2", "H1")).block();
+
+        assertThat(first).isEqualTo("AI SUMMARY");
+        assertThat(second).isEqualTo("AI SUMMARY");
+        assertThat(requests).hasValue(2);
+        verify(cacheRepository).insert(
+            eq(SummaryCache.key("gpt-4o-mini", OneMinAiSummarizerService.PROMPT_VERSION, date, List.of("H1", "H2"))),
+            eq("gpt-4o-mini"),
+            eq("AI SUMMARY"),
+            any());
+    }
+
+    @Test
+    void failoverAnswerIsCachedForEveryModelWithTheModelThatGaveIt() {
+        AtomicInteger requests = new AtomicInteger();
+        WebClient.Builder builder = WebClient.builder()
+            .exchangeFunction(request -> requests.incrementAndGet() == 1 ? Mono.error(error(500)) : ok("AI SUMMARY"));
+        SummarizerRoutingProperties routing = new SummarizerRoutingProperties(
+            List.of("gpt-4o-mini", "claude-3-5-haiku"), List.of(), 3, Duration.ofSeconds(30), 50, false, Duration.ofSeconds(2));
+        OneMinAiSummarizerService service = service(builder, FAST, routing);
+        LocalDate date = LocalDate.of(2024, 1, 4);
+
+        String first = service.summarize(date, List.of("H1")).block();
+        String second = service.summarize(date, List.of("H1")).block();
+
+        assertThat(first).isEqualTo("AI SUMMARY");
+        assertThat(second).isEqualTo("AI SUMMARY");
+        assertThat(requests).hasValue(2);
+        verify(cacheRepository).insert(
+            eq(SummaryCache.key("gpt-4o-mini,claude-3-5-haiku", OneMinAiSummarizerService.PROMPT_VERSION, date, List.of("H1"))),
+            eq("claude-3-5-haiku"),
+            eq("AI SUMMARY"),
+            any());
+    }
+
+    @Test
+    void failsOverToAnotherEndpointWithItsOwnKeyAndModel() {
+        List<String> calls = new CopyOnWriteArrayList<>();
+        WebClient.Builder builder = WebClient.builder()
+            .exchangeFunction(request -> {
+                calls.add(request.url().getHost() + " " + request.headers().getFirst("API-KEY"));
+                return request.url().getHost().equals("primary.example") ? Mono.error(error(503)) : ok("AI SUMMARY");
+            });
+        SummarizerRoutingProperties routing = new SummarizerRoutingProperties(
+            List.of(),
+            List.of(
+                new SummarizerRoutingProperties.Endpoint("primary", "https://primary.example/api/features", "", "gpt-4o-mini"),
+                new SummarizerRoutingProperties.Endpoint("backup", "https://backup.example/api/features", "backup-key", "claude-3-5-haiku")),
+            3, Duration.ofSeconds(30), 50, false, Duration.ofSeconds(2));
+        OneMinAiSummarizerService service = service(builder, FAST, routing);
+        LocalDate date = LocalDate.of(2024, 1, 4);
+
+        String result = service.summarize(date, List.of("H1")).block();
+
+        assertThat(result).isEqualTo("AI SUMMARY");
+        assertThat(service.model()).isEqualTo("gpt-4o-mini");
+        assertThat(calls).containsExactly("primary.example api-key", "backup.example backup-key");
+        verify(cacheRepository).insert(
+            eq(SummaryCache.key("primary,backup", OneMinAiSummarizerService.PROMPT_VERSION, date, List.of("H1"))),
+            eq("claude-3-5-haiku"),
+            eq("AI SUMMARY"),
+            any());
+    }
+
+    @Test
+    void summarizeBatchesMapsBatchesConcurrentlyThenReduces() {
+        AtomicInteger requests = new AtomicInteger();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        WebClient.Builder builder = WebClient.builder()
+            .exchangeFunction(request -> Mono.defer(() -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    return ok(requests.incrementAndGet() <= 3 ? "NOTES" : "REPORT");
+                })
+                .delayElement(Duration.ofMillis(50))
+                .doOnTerminate(inFlight::decrementAndGet)
+                .doOnCancel(inFlight::decrementAndGet));
+
+        String result = service(builder, FAST)
+            .summarizeBatches(LocalDate.of(2024, 1, 5), List.of(List.of("H1", "H2"), List.of("H3", "H4"), List.of("H5")), 2)
+            .block();
+
+        assertThat(result).isEqualTo("REPORT");
+        assertThat(requests).hasValue(4);
+        assertThat(maxInFlight).hasValue(2);
+        assertThat(meterRegistry.get("reporter.summarizer.call").tag("kind", "map").timer().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("reporter.summarizer.call").tag("kind", "reduce").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void summarizeBatchesReducesEvenWhenBatchFails() {
+        AtomicInteger requests = new AtomicInteger();
+        WebClient.Builder builder = WebClient.builder()
+            .exchangeFunction(request -> requests.incrementAndGet() == 1 ? Mono.error(error(400)) : ok("REPORT"));
+
+        String result = service(builder, FAST)
+            .summarizeBatches(LocalDate.of(2024, 1, 5), List.of(List.of("H1"), List.of("H2")), 1)
+            .block();
+
+        assertThat(result).isEqualTo("REPORT");
+        assertThat(requests).hasValue(3);
+        assertThat(meterRegistry.get("reporter.summarizer.call").tag("kind", "map").tag("outcome", "error").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void summarizeBatchesFallsBackWithEveryHeadlineWhenReduceFails() {
+        AtomicInteger requests = new AtomicInteger();
+        WebClient.Builder builder = WebClient.builder()
+            .exchangeFunction(request -> requests.incrementAndGet() <= 2 ? ok("NOTES") : Mono.error(error(400)));
+
+        String result = service(builder, FAST)
+            .summarizeBatches(LocalDate.of(2024, 1, 5), List.of(List.of("H1"), List.of("H2")), 2)
+            .block();
+
+        assertThat(result)
+            .contains("AI summarization temporarily unavailable")
+            .contains("H1")
+            .contains("H2");
+        verify(cacheRepository, never()).insert(anyString(), anyString(), anyString(), any());
+    }
+
+    private OneMinAiSummarizerService service(WebClient.Builder builder, SummarizerProperties properties) {
+        return service(builder, properties, ROUTING);
+    }
+
+    private OneMinAiSummarizerService service(WebClient.Builder builder, SummarizerProperties properties, SummarizerRoutingProperties routing) {
+        SummaryCache summaryCache = new SummaryCache(cacheRepository, new SummaryCacheProperties(true, Duration.ofDays(7), 100, 10), meterRegistry);
+        return new OneMinAiSummarizerService(builder, "api-key", "gpt-4o-mini", properties, routing, meterRegistry, summaryCache);
+    }
+
+    private static Mono<ClientResponse> ok(String summary) {
+        return Mono.just(
+            ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body("{\"aiRecord\":{\"aiRecordDetail\":{\"resultObject\":\"" + summary + "\"}}}")
+                .build()
+        );
+    }
+
+    private static WebClientResponseException error(int status) {
+        return WebClientResponseException.create(
+            status,
+            "Error",
+            Objects.requireNonNull(new HttpHeaders()),
+            new byte[0],
+            StandardCharsets.UTF_8
+        );
     }
 }
@@ -0,0 +1,91 @@
+package com.novareport.reporter_service.service;
+
+import com.novareport.reporter_service.config.PromptProperties;
+import com.novareport.reporter_service.service.PromptPacker.Story;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PromptPackerTest {
+
+    private static final Instant NOW = Instant.parse("2024-05-10T12:00:00Z");
+
+    private final PromptPacker packer = new PromptPacker(
+        new PromptProperties(1500, Map.of("gpt-4o", 800), 240, Duration.ofHours(12)));
+
+    @Test
+    void packedEntriesStayWithinBudgetInStoryOrder() {
+        List<Story> stories = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            stories.add(new Story("Story " + i, List.of("CoinDesk"), "Details of story " + i, NOW.minusSeconds(i)));
+        }
+
+        List<String> packed = packer.pack(stories, 50, Integer.MAX_VALUE, NOW);
+
+        assertThat(packed).isNotEmpty();
+        assertThat(PromptPacker.tokens(packed)).isLessThanOrEqualTo(50);
+        assertThat(packed.get(0)).startsWith("Story 0 (CoinDesk)");
+        assertThat(packed).isSortedAccordingTo((a, b) ->
+            Integer.compare(Integer.parseInt(a.split("[ (]")[1]), Integer.parseInt(b.split("[ (]")[1])));
+    }
+
+    @Test
+    void summariesAreAddedWhenBudgetAllows() {
+        Story story = new Story("Bitcoin rallies", List.of("CoinDesk", "Decrypt"), "<p>Bitcoin rose <b>8%</b> on ETF flows.</p>", NOW);
+
+        assertThat(packer.pack(List.of(story), 1500, 10, NOW))
+            .containsExactly("Bitcoin rallies (CoinDesk, Decrypt): Bitcoin rose 8% on ETF flows.");
+        assertThat(packer.pack(List.of(story), 15, 10, NOW))
+            .containsExactly("Bitcoin rallies (CoinDesk, Decrypt)");
+        assertThat(packer.pack(List.of(story), 5, 10, NOW)).isEmpty();
+    }
+
+    @Test
+    void wellCoveredStoriesWinTightBudgets() {
+        Story minor = new Story("Beta", List.of("D"), null, NOW);
+        Story major = new Story("Alpha", List.of("A", "B", "C"), null, NOW);
+
+        assertThat(packer.pack(List.of(minor, major), 12, 10, NOW)).containsExactly("Alpha (A, B, C)");
+    }
+
+    @Test
+    void recentStoriesWinTightBudgets() {
+        Story old = new Story("Old news", List.of("X"), null, NOW.minus(Duration.ofDays(1)));
+        Story fresh = new Story("New news", List.of("X"), null, NOW.minusSeconds(60));
+        int oneHeadline = PromptPacker.tokens(List.of("New news (X)"));
+
+        assertThat(packer.pack(List.of(old, fresh), oneHeadline, 10, NOW)).containsExactly("New news (X)");
+    }
+
+    @Test
+    void packsAtMostMaxEntriesStories() {
+        List<Story> stories = List.of(
+            new Story("One", List.of("X"), null, NOW),
+            new Story("Two", List.of("X"), null, NOW),
+            new Story("Three", List.of("X"), null, NOW)
+        );
+
+        assertThat(packer.pack(stories, 1500, 2, NOW)).hasSize(2);
+    }
+
+    @Test
+    void excerptIsPlainTextCutAtWordBoundary() {
+        assertThat(PromptPacker.excerpt("<p>Bitcoin  <b>rose</b>\n sharply</p>", 240)).isEqualTo("Bitcoin rose sharply");
+        assertThat(PromptPacker.excerpt("one two three four", 10)).isEqualTo("one two...");
+        assertThat(PromptPacker.excerpt("summary", 0)).isEmpty();
+        assertThat(PromptPacker.excerpt(null, 240)).isEmpty();
+    }
+
+    @Test
+    void tokenBudgetCanBeSetPerModel() {
+        assertThat(packer.tokenBudget("gpt-4o")).isEqualTo(800);
+        assertThat(packer.tokenBudget("gpt-4o-mini")).isEqualTo(1500);
+        assertThat(packer.tokenBudget(null)).isEqualTo(1500);
+    }
+}
@@ -0,0 +1,121 @@
+package com.novareport.reporter_service.service;
+
+import com.novareport.reporter_service.config.ArchiveProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RawFeedArchiveTest {
+
+    private static final Instant T0 = Instant.parse("2025-01-07T10:00:00Z");
+    private static final String FEED = "https://feed.example.com/rss";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void storesCompressedPayloadsAndIndexesThemBySourceAndTime() throws IOException {
+        byte[] body = "<rss>".concat("<item>same story</item>".repeat(200)).concat("</rss>").getBytes(StandardCharsets.UTF_8);
+        try (RawFeedArchive archive = archive(DataSize.ofMegabytes(1), 10)) {
+            RawFeedArchive.Recorder recorder = archive.recorder(RawFeedArchive.Kind.RSS, FEED);
+            recorder.write(DefaultDataBufferFactory.sharedInstance.wrap(body));
+            recorder.commit(T0);
+            archive.append(RawFeedArchive.Kind.NEWS_API, "NewsData.io", T0.plusSeconds(60), "{\"results\":[]}".getBytes(StandardCharsets.UTF_8));
+
+            List<RawFeedArchive.Entry> all = archive.entries(T0, T0.plusSeconds(61));
+            assertThat(all).extracting(RawFeedArchive.Entry::kind).containsExactly(RawFeedArchive.Kind.RSS, RawFeedArchive.Kind.NEWS_API);
+            assertThat(archive.entries(FEED, Instant.EPOCH, Instant.MAX)).hasSize(1);
+            assertThat(archive.entries(T0.plusSeconds(1), T0.plusSeconds(61))).hasSize(1);
+
+            RawFeedArchive.Entry rss = all.get(0);
+            assertThat(rss.compressedLength()).isLessThan(body.length / 10);
+            assertThat(archive.read(rss)).isEqualTo(body);
+        }
+    }
+
+    @Test
+    void rebuildsIndexOnReopenAndCutsOffTornRecord() throws IOException {
+        try (RawFeedArchive archive = archive(DataSize.ofMegabytes(1), 10)) {
+            archive.append(RawFeedArchive.Kind.RSS, FEED, T0, bytes("first"));
+            archive.append(RawFeedArchive.Kind.RSS, FEED, T0.plusSeconds(1), bytes("second"));
+        }
+        Path segment = segments().get(0);
+        long intact = Files.size(segment);
+        Files.write(segment, new byte[] {0x4E, 0x52, 0x41}, StandardOpenOption.APPEND);
+
+        try (RawFeedArchive archive = archive(DataSize.ofMegabytes(1), 10)) {
+            List<RawFeedArchive.Entry> entries = archive.entries(Instant.EPOCH, Instant.MAX);
+            assertThat(entries).extracting(entry -> new String(archive.read(entry), StandardCharsets.UTF_8)).containsExactly("first", "second");
+            assertThat(Files.size(segment)).isEqualTo(intact);
+
+            archive.append(RawFeedArchive.Kind.RSS, FEED, T0.plusSeconds(2), bytes("third"));
+            assertThat(archive.entries(Instant.EPOCH, Instant.MAX)).hasSize(3);
+        }
+    }
+
+    @Test
+    void rotatesSegmentsBySizeAndKeepsOnlyTheNewest() throws IOException {
+        try (RawFeedArchive archive = archive(DataSize.ofKilobytes(1), 2)) {
+            for (int i = 0; i < 20; i++) {
+                archive.append(RawFeedArchive.Kind.RSS, FEED, T0.plusSeconds(i), randomish(i, 300));
+            }
+
+            assertThat(segments()).hasSize(2);
+            List<RawFeedArchive.Entry> kept = archive.entries(Instant.EPOCH, Instant.MAX);
+            assertThat(kept).isNotEmpty().hasSizeLessThan(20);
+            assertThat(kept.get(kept.size() - 1).fetchedAt()).isEqualTo(T0.plusSeconds(19));
+            assertThat(archive.read(kept.get(kept.size() - 1))).isEqualTo(randomish(19, 300));
+        }
+    }
+
+    @Test
+    void disabledArchiveRecordsNothing() throws IOException {
+        try (RawFeedArchive archive = RawFeedArchive.disabled()) {
+            archive.append(RawFeedArchive.Kind.RSS, FEED, T0, bytes("ignored"));
+
+            assertThat(archive.entries(Instant.EPOCH, Instant.MAX)).isEmpty();
+        }
+        assertThat(segments()).isEmpty();
+    }
+
+    private RawFeedArchive archive(DataSize segmentSize, int maxSegments) {
+        return new RawFeedArchive(new ArchiveProperties(true, directory.toString(), segmentSize, maxSegments, false));
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Poorly compressible content, so records actually fill the small test segments.
+     */
+    private static byte[] randomish(int seed, int length) {
+        byte[] bytes = new byte[length];
+        long state = seed * 0x9e3779b97f4a7c15L + 1;
+        for (int i = 0; i < length; i++) {
+            state ^= state << 13;
+            state ^= state >>> 7;
+            state ^= state << 17;
+            bytes[i] = (byte) state;
+        }
+        return bytes;
+    }
+}
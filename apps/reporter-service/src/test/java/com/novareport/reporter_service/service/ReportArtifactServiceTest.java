@@ -0,0 +1,92 @@
+package com.novareport.reporter_service.service;
+
+import com.novareport.reporter_service.domain.DailyReport;
+import com.novareport.reporter_service.domain.ReportArtifact;
+import com.novareport.reporter_service.domain.ReportArtifactRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SuppressWarnings("null")
+class ReportArtifactServiceTest {
+
+    private ReportArtifactRepository artifactRepository;
+    private ReportArtifactService service;
+    private DailyReport report;
+
+    @BeforeEach
+    void setUp() {
+        artifactRepository = mock(ReportArtifactRepository.class);
+        when(artifactRepository.save(any(ReportArtifact.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        service = new ReportArtifactService(artifactRepository);
+        report = new DailyReport();
+        report.setId(UUID.randomUUID());
+        report.setReportDate(LocalDate.of(2024, 1, 1));
+        report.setSummary("# Overview\n" + "Bitcoin held **steady** as volumes fell. ".repeat(40));
+    }
+
+    @Test
+    void renderStoresEveryFormatWithMatchingCompressedBody() throws IOException {
+        when(artifactRepository.findByReportIdAndFormat(any(), any())).thenReturn(Optional.empty());
+
+        List<ReportArtifact> artifacts = service.render(report);
+
+        assertThat(artifacts).extracting(ReportArtifact::getFormat)
+            .containsExactly(ReportArtifact.Format.HTML, ReportArtifact.Format.TEXT);
+        for (ReportArtifact artifact : artifacts) {
+            assertThat(artifact.getReportId()).isEqualTo(report.getId());
+            assertThat(artifact.getBodyGzip().length).isLessThan(artifact.getBody().length / 4);
+            assertThat(gunzip(artifact.getBodyGzip())).isEqualTo(artifact.getBody());
+            assertThat(artifact.getEtag()).matches("\"[0-9a-f]{32}\"");
+        }
+        assertThat(new String(artifacts.get(0).getBody(), StandardCharsets.UTF_8)).contains("<strong>steady</strong>");
+        assertThat(new String(artifacts.get(1).getBody(), StandardCharsets.UTF_8)).startsWith("Overview\nBitcoin held steady");
+    }
+
+    @Test
+    void renderReplacesArtifactsOfEarlierBuild() {
+        ReportArtifact stored = new ReportArtifact();
+        stored.setId(UUID.randomUUID());
+        stored.setEtag("\"old\"");
+        when(artifactRepository.findByReportIdAndFormat(report.getId(), ReportArtifact.Format.HTML)).thenReturn(Optional.of(stored));
+        when(artifactRepository.findByReportIdAndFormat(report.getId(), ReportArtifact.Format.TEXT)).thenReturn(Optional.empty());
+
+        List<ReportArtifact> artifacts = service.render(report);
+
+        assertThat(artifacts.get(0)).isSameAs(stored);
+        assertThat(stored.getEtag()).isNotEqualTo("\"old\"");
+    }
+
+    @Test
+    void findRendersReportsWithoutStoredArtifactsWithoutWriting() {
+        when(artifactRepository.findByReportIdAndFormat(report.getId(), ReportArtifact.Format.TEXT)).thenReturn(Optional.empty());
+
+        ReportArtifact artifact = service.find(report, ReportArtifact.Format.TEXT);
+
+        assertThat(artifact.getFormat()).isEqualTo(ReportArtifact.Format.TEXT);
+        assertThat(artifact.getBody()).isNotEmpty();
+        verify(artifactRepository, never()).save(any());
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.novareport.reporter_service.service;
+
+import com.novareport.reporter_service.config.BackfillProperties;
+import com.novareport.reporter_service.domain.ReportBackfillJob;
+import com.novareport.reporter_service.domain.ReportBackfillJobRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SuppressWarnings("null")
+class ReportBackfillServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 3, 1);
+
+    private DailyReportService dailyReportService;
+    private ReportBackfillJobRepository jobRepository;
+    private ReportBackfillService service;
+
+    @BeforeEach
+    void setUp() {
+        dailyReportService = mock(DailyReportService.class);
+        jobRepository = mock(ReportBackfillJobRepository.class);
+        when(jobRepository.save(any(ReportBackfillJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(dailyReportService.headlinesFor(any())).thenReturn(List.of("headline"));
+        service = new ReportBackfillService(dailyReportService, jobRepository, new BackfillProperties(4, 2, 31));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+
+    @Test
+    void runRebuildsEveryDateWithBoundedSummarizerConcurrency() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(dailyReportService.summarize(any(), anyList())).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            inFlight.decrementAndGet();
+            return "summary";
+        });
+        ReportBackfillJob job = job(FROM, FROM.plusDays(9));
+
+        ReportBackfillService.RunResult result = service.run(job);
+
+        assertThat(result.rebuilt()).isEqualTo(10);
+        assertThat(result.failed()).isZero();
+        assertThat(maxInFlight.get()).isEqualTo(2);
+        assertThat(job.getStatus()).isEqualTo(ReportBackfillJob.Status.COMPLETED);
+        assertThat(job.getFinishedAt()).isNotNull();
+        assertThat(job.completedTimings()).hasSize(10).containsKeys(FROM, FROM.plusDays(9));
+        for (LocalDate date = FROM; !date.isAfter(FROM.plusDays(9)); date = date.plusDays(1)) {
+            verify(dailyReportService).saveReport(date, "summary");
+        }
+    }
+
+    @Test
+    void runSkipsCheckpointedDatesAndRetriesFailedOnes() {
+        ReportBackfillJob job = job(FROM, FROM.plusDays(2));
+        job.recordCompleted(FROM, 120);
+        job.recordFailed(FROM.plusDays(1));
+        when(dailyReportService.summarize(any(), anyList())).thenReturn("summary");
+
+        ReportBackfillService.RunResult result = service.run(job);
+
+        assertThat(result.rebuilt()).isEqualTo(2);
+        verify(dailyReportService, never()).headlinesFor(FROM);
+        assertThat(job.completedTimings()).containsEntry(FROM, 120L).containsKeys(FROM.plusDays(1), FROM.plusDays(2));
+        assertThat(job.failedDateList()).isEmpty();
+        assertThat(job.getStatus()).isEqualTo(ReportBackfillJob.Status.COMPLETED);
+    }
+
+    @Test
+    void runRecordsFailedDatesAndKeepsGoing() {
+        when(dailyReportService.summarize(any(), anyList())).thenReturn("summary");
+        when(dailyReportService.summarize(eq(FROM.plusDays(1)), anyList())).thenThrow(new IllegalStateException("model unavailable"));
+        ReportBackfillJob job = job(FROM, FROM.plusDays(2));
+
+        ReportBackfillService.RunResult result = service.run(job);
+
+        assertThat(result.rebuilt()).isEqualTo(2);
+        assertThat(result.failed()).isEqualTo(1);
+        assertThat(job.failedDateList()).containsExactly(FROM.plusDays(1));
+        assertThat(job.getStatus()).isEqualTo(ReportBackfillJob.Status.FAILED);
+    }
+
+    @Test
+    void startRejectsInvalidRanges() {
+        assertThatThrownBy(() -> service.start(FROM.plusDays(1), FROM)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.start(FROM, FROM.plusDays(31))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.start(LocalDate.now(), LocalDate.now().plusDays(1))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void startRunsInBackgroundAndRejectsSecondJobMeanwhile() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        when(dailyReportService.summarize(any(), anyList())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return "summary";
+        });
+
+        ReportBackfillJob job = service.start(FROM, FROM);
+
+        assertThat(job.getStatus()).isEqualTo(ReportBackfillJob.Status.RUNNING);
+        assertThatThrownBy(() -> service.start(FROM, FROM))
+            .isInstanceOf(ResponseStatusException.class)
+            .hasMessageContaining("already running");
+
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (job.getStatus() == ReportBackfillJob.Status.RUNNING && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(job.getStatus()).isEqualTo(ReportBackfillJob.Status.COMPLETED);
+    }
+
+    @Test
+    void resumeOfUnknownJobIsNotFound() {
+        UUID id = UUID.randomUUID();
+        when(jobRepository.findById(id)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.resume(id))
+            .isInstanceOf(ResponseStatusException.class)
+            .hasMessageContaining("not found");
+    }
+
+    private static ReportBackfillJob job(LocalDate from, LocalDate to) {
+        ReportBackfillJob job = new ReportBackfillJob();
+        job.setId(UUID.randomUUID());
+        job.setFromDate(from);
+        job.setToDate(to);
+        job.setStatus(ReportBackfillJob.Status.RUNNING);
+        return job;
+    }
+}
@@ -40,7 +40,7 @@ void setUp() {
     @Test
     void publishByDateLogsWarningWhenNoReportFound() {
         LocalDate date = LocalDate.of(2024, 1, 1);
-        when(dailyReportRepository.findByReportDate(date)).thenReturn(Optional.empty());
+        when(dailyReportRepository.findTop1ByReportDateOrderBySlotStartDesc(date)).thenReturn(Optional.empty());
 
         publisher.publish(date);
 
@@ -51,7 +51,7 @@ void publishByDateLogsWarningWhenNoReportFound() {
     void publishByDateDelegatesToPublishWhenReportExists() {
         LocalDate date = LocalDate.of(2024, 1, 2);
         DailyReport report = createReport(date);
-        when(dailyReportRepository.findByReportDate(date)).thenReturn(Optional.of(report));
+        when(dailyReportRepository.findTop1ByReportDateOrderBySlotStartDesc(date)).thenReturn(Optional.of(report));
         when(notificationsClient.notifyReportReady(any(), any(), any())).thenReturn(Mono.empty());
 
         publisher.publish(date);
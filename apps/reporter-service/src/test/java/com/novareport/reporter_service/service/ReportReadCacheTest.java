@@ -0,0 +1,126 @@
+package com.novareport.reporter_service.service;
+
+import com.novareport.reporter_service.dto.DailyReportResponse;
+import com.novareport.reporter_service.dto.PagedDailyReportsResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReportReadCacheTest {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 1, 31);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReportReadCache cache = new ReportReadCache(meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void latestIsLoadedOnceUntilInvalidated() {
+        AtomicInteger loads = new AtomicInteger();
+        DailyReportResponse report = report("summary");
+
+        cache.latest(() -> {
+            loads.incrementAndGet();
+            return Optional.of(report);
+        });
+        Optional<ReportReadCache.Cached<DailyReportResponse>> cached = cache.latest(Optional::empty);
+
+        assertThat(loads).hasValue(1);
+        assertThat(cached).map(ReportReadCache.Cached::body).contains(report);
+        assertThat(cached).map(ReportReadCache.Cached::etag).contains(ReportReadCache.etag(report));
+        assertThat(meterRegistry.counter("reporter.reports.cache", "cache", "latest", "result", "hit").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("reporter.reports.cache", "cache", "latest", "result", "miss").count()).isEqualTo(1.0);
+
+        cache.invalidate();
+
+        assertThat(cache.latest(Optional::empty)).isEmpty();
+    }
+
+    @Test
+    void loadThatRacedWithInvalidationIsNotServedAgain() {
+        DailyReportResponse stale = report("before rebuild");
+        DailyReportResponse fresh = report("after rebuild");
+
+        cache.latest(() -> {
+            cache.invalidate();
+            return Optional.of(stale);
+        });
+
+        assertThat(cache.latest(() -> Optional.of(fresh))).map(ReportReadCache.Cached::body).contains(fresh);
+    }
+
+    @Test
+    void invalidationInsideTransactionWaitsForCommit() {
+        cache.latest(() -> Optional.of(report("old")));
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.invalidate();
+
+        assertThat(cache.latest(Optional::empty)).map(ReportReadCache.Cached::body).map(DailyReportResponse::summary).contains("old");
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(cache.latest(Optional::empty)).isEmpty();
+    }
+
+    @Test
+    void pagesAreCachedPerKeyAndBounded() {
+        AtomicInteger loads = new AtomicInteger();
+        PagedDailyReportsResponse page = new PagedDailyReportsResponse(List.of(report("summary")), 0, 10, 1, 1);
+
+        for (int i = 0; i < 3; i++) {
+            cache.page(FROM, TO, 0, 10, () -> {
+                loads.incrementAndGet();
+                return page;
+            });
+        }
+        ReportReadCache.Cached<PagedDailyReportsResponse> other = cache.page(FROM, TO, 1, 10, () -> {
+            loads.incrementAndGet();
+            return new PagedDailyReportsResponse(List.of(), 1, 10, 1, 1);
+        });
+
+        assertThat(loads).hasValue(2);
+        assertThat(other.etag()).isNotEqualTo(ReportReadCache.etag(page));
+
+        for (int i = 0; i < ReportReadCache.MAX_PAGES; i++) {
+            cache.page(FROM, TO, 100 + i, 10, () -> page);
+        }
+        cache.page(FROM, TO, 0, 10, () -> {
+            loads.incrementAndGet();
+            return page;
+        });
+
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void etagChangesWithSummary() {
+        DailyReportResponse report = report("summary");
+        DailyReportResponse rebuilt = new DailyReportResponse(report.id(), report.reportDate(), report.slotStart(), "new summary", report.createdAt());
+
+        assertThat(ReportReadCache.etag(report)).isEqualTo(ReportReadCache.etag(report)).isNotEqualTo(ReportReadCache.etag(rebuilt));
+    }
+
+    private static DailyReportResponse report(String summary) {
+        return new DailyReportResponse(UUID.randomUUID(), FROM, Instant.parse("2024-01-01T08:00:00Z"), summary, Instant.parse("2024-01-01T08:00:00Z"));
+    }
+}
@@ -7,7 +7,9 @@
 import java.time.LocalDate;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -48,7 +50,8 @@ void buildReportDelegatesToDailyReportServiceAndPublishesNotification() {
         LocalDate date = LocalDate.of(2024, 1, 1);
         DailyReport report = new DailyReport();
 
-        when(dailyReportService.buildReport(date)).thenReturn(report);
+        when(dailyReportService.buildReport(date))
+            .thenReturn(new DailyReportService.ReportBuild(report, DailyReportService.BuildMode.DELTA));
 
         DailyReport result = coordinator.buildReport(date);
 
@@ -56,4 +59,17 @@ void buildReportDelegatesToDailyReportServiceAndPublishesNotification() {
         verify(notificationPublisher).publish(report);
         verify(dailyReportService).buildReport(date);
     }
+
+    @Test
+    void buildReportDoesNotRepeatNotificationWhenReportIsUnchanged() {
+        LocalDate date = LocalDate.of(2024, 1, 1);
+        DailyReport report = new DailyReport();
+        when(dailyReportService.buildReport(date))
+            .thenReturn(new DailyReportService.ReportBuild(report, DailyReportService.BuildMode.UNCHANGED));
+
+        DailyReport result = coordinator.buildReport(date);
+
+        assertThat(result).isSameAs(report);
+        verify(notificationPublisher, never()).publish(any(DailyReport.class));
+    }
 }
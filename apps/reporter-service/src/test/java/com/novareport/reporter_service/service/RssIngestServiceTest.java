@@ -1,68 +1,98 @@
 package com.novareport.reporter_service.service;
 
+import com.novareport.reporter_service.config.ArchiveProperties;
+import com.novareport.reporter_service.config.DedupFilterProperties;
+import com.novareport.reporter_service.config.IngestProperties;
+import com.novareport.reporter_service.config.PollingProperties;
 import com.novareport.reporter_service.config.ReporterProperties;
+import com.novareport.reporter_service.domain.FeedState;
+import com.novareport.reporter_service.domain.FeedStateRepository;
+import com.novareport.reporter_service.domain.NewsItem;
 import com.novareport.reporter_service.domain.NewsItemRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.reactive.function.client.ClientRequest;
 import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.util.unit.DataSize;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @SuppressWarnings("null")
 class RssIngestServiceTest {
 
+    private static final IngestProperties INGEST_PROPERTIES = new IngestProperties(200, 8, 2, Duration.ofSeconds(60));
+    private static final FeedPollPolicy POLL_POLICY = new FeedPollPolicy(new PollingProperties(
+        true, Duration.ofSeconds(30), Duration.ofMinutes(15), Duration.ofMinutes(5), Duration.ofHours(2), 0, 5, Duration.ofHours(6), Duration.ofMinutes(30)));
+
+    private static final String FEED_XML = """
+        <?xml version=\"1.0\" encoding=\"UTF-8\"?>
+        <rss version=\"2.0\">
+          <channel>
+            <title>Test Feed</title>
+            <item>
+              <title>Item 1</title>
+              <link>https://example.com/1</link>
+              <description>Desc 1</description>
+            </item>
+            <item>
+              <title>Item 2</title>
+              <link>https://example.com/2</link>
+              <description>Desc 2</description>
+            </item>
+          </channel>
+        </rss>
+        """;
+
     @Test
     void ingestReturnsEmptyWhenNoFeedsConfigured() {
         WebClient webClient = WebClient.builder().build();
         ReporterProperties properties = new ReporterProperties(List.of(), true, Duration.ofHours(48), false);
         NewsItemRepository newsItemRepository = mock(NewsItemRepository.class);
+        FeedStateRepository feedStateRepository = mock(FeedStateRepository.class);
 
-        RssIngestService service = new RssIngestService(webClient, properties, newsItemRepository);
+        RssIngestService service = new RssIngestService(webClient, properties, INGEST_PROPERTIES, new StreamingFeedParser(), newsItemRepository, feedStateRepository, mock(StoryClusterer.class), POLL_POLICY, RawFeedArchive.disabled(), dedupIndex(newsItemRepository));
 
         RssIngestService.IngestResult result = service.ingest();
 
         assertThat(result.attempted()).isZero();
         assertThat(result.stored()).isZero();
-        verifyNoInteractions(newsItemRepository);
+        verifyNoInteractions(newsItemRepository, feedStateRepository);
     }
 
     @Test
     void ingestParsesFeedAndPersistsNewItems() {
-        String xml = """
-            <?xml version=\"1.0\" encoding=\"UTF-8\"?>
-            <rss version=\"2.0\">
-              <channel>
-                <title>Test Feed</title>
-                <item>
-                  <title>Item 1</title>
-                  <link>https://example.com/1</link>
-                  <description>Desc 1</description>
-                </item>
-                <item>
-                  <title>Item 2</title>
-                  <link>https://example.com/2</link>
-                  <description>Desc 2</description>
-                </item>
-              </channel>
-            </rss>
-            """;
+        String xml = FEED_XML;
 
         WebClient webClient = WebClient.builder()
             .exchangeFunction(request -> Mono.just(
                 ClientResponse.create(HttpStatus.OK)
                     .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_XML_VALUE)
+                    .header(HttpHeaders.ETAG, "\"v1\"")
                     .body(xml)
                     .build()
             ))
@@ -70,15 +100,274 @@ void ingestParsesFeedAndPersistsNewItems() {
 
         ReporterProperties properties = new ReporterProperties(List.of("https://feed.example.com/rss"), true, Duration.ofHours(48), false);
         NewsItemRepository newsItemRepository = mock(NewsItemRepository.class);
+        FeedStateRepository feedStateRepository = mock(FeedStateRepository.class);
 
-        when(newsItemRepository.findExistingHashes(any())).thenReturn(Set.of());
-        when(newsItemRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(feedStateRepository.findAllById(any())).thenReturn(List.of());
+        when(newsItemRepository.insertIgnoringDuplicates(any())).thenAnswer(invocation -> List.copyOf(invocation.<Collection<NewsItem>>getArgument(0)));
 
-        RssIngestService service = new RssIngestService(webClient, properties, newsItemRepository);
+        RssIngestService service = new RssIngestService(webClient, properties, INGEST_PROPERTIES, new StreamingFeedParser(), newsItemRepository, feedStateRepository, mock(StoryClusterer.class), POLL_POLICY, RawFeedArchive.disabled(), dedupIndex(newsItemRepository));
 
         RssIngestService.IngestResult result = service.ingest();
 
         assertThat(result.attempted()).isEqualTo(2L);
         assertThat(result.stored()).isEqualTo(2L);
+
+        ArgumentCaptor<List<FeedState>> states = stateCaptor();
+        verify(feedStateRepository).saveAll(states.capture());
+        FeedState state = states.getValue().get(0);
+        assertThat(state.getFeedUrl()).isEqualTo("https://feed.example.com/rss");
+        assertThat(state.getEtag()).isEqualTo("\"v1\"");
+        assertThat(state.getContentHash()).isEqualTo(DigestUtils.sha256Hex(xml));
+        assertThat(state.getLastFetchedAt()).isNotNull();
+        assertThat(state.getSeenEntryKeys().split("\n")).hasSize(2);
+        assertThat(state.getPollIntervalSeconds()).isEqualTo(Duration.ofMinutes(7).plusSeconds(30).toSeconds());
+        assertThat(state.getNextPollAt()).isAfter(state.getLastFetchedAt());
+    }
+
+    @Test
+    void ingestOnlyBuildsItemsForEntriesNewerThanStoredWatermark() {
+        List<String> bodies = new ArrayList<>(List.of(
+            FEED_XML,
+            FEED_XML.replace("<title>Test Feed</title>", """
+                <title>Test Feed</title>
+                <item>
+                  <title>Item 3</title>
+                  <link>https://example.com/3</link>
+                </item>""")
+        ));
+        WebClient webClient = WebClient.builder()
+            .exchangeFunction(request -> Mono.just(
+                ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_XML_VALUE)
+                    .body(bodies.remove(0))
+                    .build()
+            ))
+            .build();
+
+        ReporterProperties properties = new ReporterProperties(List.of("https://feed.example.com/rss"), true, Duration.ofHours(48), false);
+        NewsItemRepository newsItemRepository = mock(NewsItemRepository.class);
+        FeedStateRepository feedStateRepository = mock(FeedStateRepository.class);
+
+        List<FeedState> stored = new ArrayList<>();
+        when(feedStateRepository.findAllById(any())).thenAnswer(invocation -> List.copyOf(stored));
+        when(feedStateRepository.saveAll(any())).thenAnswer(invocation -> {
+            stored.clear();
+            invocation.<List<FeedState>>getArgument(0).forEach(stored::add);
+            return stored;
+        });
+        when(newsItemRepository.insertIgnoringDuplicates(any())).thenAnswer(invocation -> List.copyOf(invocation.<Collection<NewsItem>>getArgument(0)));
+
+        RssIngestService service = new RssIngestService(webClient, properties, INGEST_PROPERTIES, new StreamingFeedParser(), newsItemRepository, feedStateRepository, mock(StoryClusterer.class), POLL_POLICY, RawFeedArchive.disabled(), dedupIndex(newsItemRepository));
+
+        RssIngestService.IngestResult first = service.ingest();
+        RssIngestService.IngestResult second = service.ingest();
+
+        assertThat(first.attempted()).isEqualTo(2L);
+        assertThat(second.attempted()).isEqualTo(1L);
+        assertThat(second.feeds()).singleElement().extracting(RssIngestService.FeedResult::entries).isEqualTo(1);
+        assertThat(stored.get(0).getSeenEntryKeys().split("\n")).hasSize(3);
+    }
+
+    @Test
+    void ingestSendsConditionalHeadersAndSkipsParsingWhenNotModified() {
+        List<ClientRequest> requests = new ArrayList<>();
+        WebClient webClient = WebClient.builder()
+            .exchangeFunction(request -> {
+                requests.add(request);
+                return Mono.just(ClientResponse.create(HttpStatus.NOT_MODIFIED).build());
+            })
+            .build();
+
+        ReporterProperties properties = new ReporterProperties(List.of("https://feed.example.com/rss"), true, Duration.ofHours(48), false);
+        NewsItemRepository newsItemRepository = mock(NewsItemRepository.class);
+        FeedStateRepository feedStateRepository = mock(FeedStateRepository.class);
+
+        FeedState existing = new FeedState("https://feed.example.com/rss");
+        existing.setEtag("\"v1\"");
+        existing.setLastModified("Wed, 01 Jan 2025 00:00:00 GMT");
+        existing.setContentHash("abc");
+        when(feedStateRepository.findAllById(any())).thenReturn(List.of(existing));
+
+        RssIngestService service = new RssIngestService(webClient, properties, INGEST_PROPERTIES, new StreamingFeedParser(), newsItemRepository, feedStateRepository, mock(StoryClusterer.class), POLL_POLICY, RawFeedArchive.disabled(), dedupIndex(newsItemRepository));
+
+        RssIngestService.IngestResult result = service.ingest();
+
+        assertThat(result.attempted()).isZero();
+        assertThat(requests).hasSize(1);
+        assertThat(requests.get(0).headers().getFirst(HttpHeaders.IF_NONE_MATCH)).isEqualTo("\"v1\"");
+        assertThat(requests.get(0).headers().getFirst(HttpHeaders.IF_MODIFIED_SINCE)).isEqualTo("Wed, 01 Jan 2025 00:00:00 GMT");
+        assertThat(existing.getEtag()).isEqualTo("\"v1\"");
+        assertThat(existing.getContentHash()).isEqualTo("abc");
+        assertThat(existing.getLastFetchedAt()).isNotNull();
+        verifyNoInteractions(newsItemRepository);
+    }
+
+    @Test
+    void ingestSkipsDedupWhenContentHashUnchanged() {
+        WebClient webClient = WebClient.builder()
+            .exchangeFunction(request -> Mono.just(
+                ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_XML_VALUE)
+                    .body(FEED_XML)
+                    .build()
+            ))
+            .build();
+
+        ReporterProperties properties = new ReporterProperties(List.of("https://feed.example.com/rss"), true, Duration.ofHours(48), false);
+        NewsItemRepository newsItemRepository = mock(NewsItemRepository.class);
+        FeedStateRepository feedStateRepository = mock(FeedStateRepository.class);
+
+        FeedState existing = new FeedState("https://feed.example.com/rss");
+        existing.setContentHash(DigestUtils.sha256Hex(FEED_XML));
+        when(feedStateRepository.findAllById(any())).thenReturn(List.of(existing));
+
+        RssIngestService service = new RssIngestService(webClient, properties, INGEST_PROPERTIES, new StreamingFeedParser(), newsItemRepository, feedStateRepository, mock(StoryClusterer.class), POLL_POLICY, RawFeedArchive.disabled(), dedupIndex(newsItemRepository));
+
+        RssIngestService.IngestResult result = service.ingest();
+
+        assertThat(result.attempted()).isZero();
+        assertThat(result.stored()).isZero();
+        verifyNoInteractions(newsItemRepository);
+        assertThat(existing.getWatermarkPublishedAt()).isNull();
+        assertThat(existing.getSeenEntryKeys()).isNullOrEmpty();
+    }
+
+    @Test
+    void ingestCommitsCompletedFeedsWhenDeadlineExpires() {
+        WebClient webClient = WebClient.builder()
+            .exchangeFunction(request -> request.url().getHost().equals("slow.example.com")
+                ? Mono.never()
+                : Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_XML_VALUE)
+                    .body(FEED_XML)
+                    .build()))
+            .build();
+
+        ReporterProperties properties = new ReporterProperties(
+            List.of("https://fast.example.com/rss", "https://slow.example.com/rss"), true, Duration.ofHours(48), false);
+        IngestProperties ingestProperties = new IngestProperties(200, 8, 2, Duration.ofSeconds(1));
+        NewsItemRepository newsItemRepository = mock(NewsItemRepository.class);
+        FeedStateRepository feedStateRepository = mock(FeedStateRepository.class);
+
+        when(feedStateRepository.findAllById(any())).thenReturn(List.of());
+        when(newsItemRepository.insertIgnoringDuplicates(any())).thenAnswer(invocation -> List.copyOf(invocation.<Collection<NewsItem>>getArgument(0)));
+
+        RssIngestService service = new RssIngestService(webClient, properties, ingestProperties, new StreamingFeedParser(), newsItemRepository, feedStateRepository, mock(StoryClusterer.class), POLL_POLICY, RawFeedArchive.disabled(), dedupIndex(newsItemRepository));
+
+        RssIngestService.IngestResult result = service.ingest();
+
+        assertThat(result.stored()).isEqualTo(2L);
+        assertThat(result.feeds())
+            .extracting(RssIngestService.FeedResult::url, RssIngestService.FeedResult::outcome)
+            .containsExactlyInAnyOrder(
+                tuple("https://fast.example.com/rss", RssIngestService.FeedOutcome.UPDATED),
+                tuple("https://slow.example.com/rss", RssIngestService.FeedOutcome.TIMED_OUT)
+            );
+
+        ArgumentCaptor<List<FeedState>> states = stateCaptor();
+        verify(feedStateRepository).saveAll(states.capture());
+        assertThat(states.getValue())
+            .extracting(FeedState::getFeedUrl, FeedState::getConsecutiveFailures, state -> state.getLastFetchedAt() != null)
+            .containsExactlyInAnyOrder(
+                tuple("https://fast.example.com/rss", 0, true),
+                tuple("https://slow.example.com/rss", 1, false)
+            );
+    }
+
+    @Test
+    void ingestLimitsConcurrentFetchesAndReportsFailedFeeds() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        WebClient webClient = WebClient.builder()
+            .exchangeFunction(request -> Mono.defer(() -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    HttpStatus status = request.url().getPath().equals("/broken") ? HttpStatus.INTERNAL_SERVER_ERROR : HttpStatus.OK;
+                    return Mono.just(ClientResponse.create(status)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_XML_VALUE)
+                        .body(FEED_XML)
+                        .build());
+                })
+                .delayElement(Duration.ofMillis(50))
+                .doOnTerminate(inFlight::decrementAndGet)
+                .doOnCancel(inFlight::decrementAndGet))
+            .build();
+
+        List<String> feeds = List.of(
+            "https://a.example.com/rss",
+            "https://b.example.com/rss",
+            "https://c.example.com/rss",
+            "https://d.example.com/broken",
+            "https://e.example.com/rss"
+        );
+        ReporterProperties properties = new ReporterProperties(feeds, true, Duration.ofHours(48), false);
+        IngestProperties ingestProperties = new IngestProperties(200, 2, 2, Duration.ofSeconds(30));
+        NewsItemRepository newsItemRepository = mock(NewsItemRepository.class);
+        FeedStateRepository feedStateRepository = mock(FeedStateRepository.class);
+
+        when(feedStateRepository.findAllById(any())).thenReturn(List.of());
+        when(newsItemRepository.insertIgnoringDuplicates(any())).thenAnswer(invocation -> List.copyOf(invocation.<Collection<NewsItem>>getArgument(0)));
+
+        RssIngestService service = new RssIngestService(webClient, properties, ingestProperties, new StreamingFeedParser(), newsItemRepository, feedStateRepository, mock(StoryClusterer.class), POLL_POLICY, RawFeedArchive.disabled(), dedupIndex(newsItemRepository));
+
+        RssIngestService.IngestResult result = service.ingest();
+
+        assertThat(maxInFlight.get()).isEqualTo(2);
+        assertThat(result.attempted()).isEqualTo(8L);
+        assertThat(result.stored()).isEqualTo(2L);
+        assertThat(result.feeds()).hasSize(5);
+        assertThat(result.feeds())
+            .filteredOn(feed -> feed.outcome() == RssIngestService.FeedOutcome.FAILED)
+            .extracting(RssIngestService.FeedResult::url)
+            .containsExactly("https://d.example.com/broken");
+    }
+
+    @Test
+    void archivesFetchedBodiesAndReplaysThemWithoutNetwork(@TempDir Path archiveDirectory) throws IOException {
+        WebClient webClient = WebClient.builder()
+            .exchangeFunction(request -> Mono.just(
+                ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_XML_VALUE)
+                    .body(FEED_XML)
+                    .build()
+            ))
+            .build();
+
+        ReporterProperties properties = new ReporterProperties(List.of("https://feed.example.com/rss"), true, Duration.ofHours(48), false);
+        NewsItemRepository newsItemRepository = mock(NewsItemRepository.class);
+        FeedStateRepository feedStateRepository = mock(FeedStateRepository.class);
+
+        when(feedStateRepository.findAllById(any())).thenReturn(List.of());
+        when(newsItemRepository.insertIgnoringDuplicates(any())).thenAnswer(invocation -> List.copyOf(invocation.<Collection<NewsItem>>getArgument(0)));
+
+        try (RawFeedArchive archive = new RawFeedArchive(new ArchiveProperties(true, archiveDirectory.toString(), DataSize.ofMegabytes(1), 4, false))) {
+            RssIngestService service = new RssIngestService(webClient, properties, INGEST_PROPERTIES, new StreamingFeedParser(), newsItemRepository, feedStateRepository, mock(StoryClusterer.class), POLL_POLICY, archive, dedupIndex(newsItemRepository));
+
+            service.ingest();
+
+            List<RawFeedArchive.Entry> entries = archive.entries(Instant.EPOCH, Instant.MAX);
+            assertThat(entries).singleElement().satisfies(entry -> {
+                assertThat(entry.kind()).isEqualTo(RawFeedArchive.Kind.RSS);
+                assertThat(entry.source()).isEqualTo("https://feed.example.com/rss");
+            });
+            assertThat(new String(archive.read(entries.get(0)), StandardCharsets.UTF_8)).isEqualTo(FEED_XML);
+
+            RawFeedArchive.Entry entry = entries.get(0);
+            RssIngestService.IngestResult replayed = service.ingestArchived(List.of(new RawFeedArchive.Payload(entry.source(), entry.fetchedAt(), archive.read(entry))));
+
+            assertThat(replayed.attempted()).isEqualTo(2L);
+            assertThat(replayed.stored()).isEqualTo(2L);
+            verify(feedStateRepository).saveAll(any());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static NewsItemDedupIndex dedupIndex(NewsItemRepository newsItemRepository) {
+        return new NewsItemDedupIndex(newsItemRepository,
+            new ReporterProperties(List.of(), true, Duration.ofHours(48), false),
+            new DedupFilterProperties(true, 1000, 0.01, Duration.ofHours(6)), mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+    }
+
+    private static ArgumentCaptor<List<FeedState>> stateCaptor() {
+        return ArgumentCaptor.forClass(List.class);
     }
 }
@@ -11,6 +11,7 @@
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -26,10 +27,7 @@ void setUp() {
     }
 
     @Test
-    void generateScheduledReportCallsCoordinator() {
-        RssIngestService.IngestResult ingestResult = new RssIngestService.IngestResult(5, 3);
-        when(coordinator.ingestNow()).thenReturn(ingestResult);
-
+    void generateScheduledReportOnlyBuildsReport() {
         DailyReport report = new DailyReport();
         report.setId(UUID.randomUUID());
         report.setReportDate(LocalDate.now());
@@ -39,13 +37,13 @@ void generateScheduledReportCallsCoordinator() {
 
         generator.generateScheduledReport();
 
-        verify(coordinator).ingestNow();
         verify(coordinator).buildReport(any(LocalDate.class));
+        verify(coordinator, never()).ingestNow();
     }
 
     @Test
     void generateScheduledReportSwallowsExceptions() {
-        when(coordinator.ingestNow()).thenThrow(new RuntimeException("boom"));
+        when(coordinator.buildReport(any(LocalDate.class))).thenThrow(new RuntimeException("boom"));
 
         assertThatCode(() -> generator.generateScheduledReport())
             .doesNotThrowAnyException();
@@ -0,0 +1,81 @@
+package com.novareport.reporter_service.service;
+
+import com.novareport.reporter_service.domain.SearchHit;
+import com.novareport.reporter_service.domain.SearchRepository;
+import com.novareport.reporter_service.dto.SearchCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Window;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class SearchServiceTest {
+
+    private static final Set<SearchHit.Kind> ALL = EnumSet.allOf(SearchHit.Kind.class);
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 12, 31);
+
+    private SearchRepository searchRepository;
+    private SearchService service;
+
+    @BeforeEach
+    void setUp() {
+        searchRepository = mock(SearchRepository.class);
+        service = new SearchService(searchRepository);
+    }
+
+    @Test
+    void searchReadsOneExtraRowToDetectNextSlice() {
+        SearchHit first = hit();
+        SearchHit second = hit();
+        when(searchRepository.search("bitcoin", ALL, FROM, TO, 0f, null, null, 2)).thenReturn(List.of(first, second));
+        when(searchRepository.search("bitcoin", ALL, FROM, TO, 0f, null, null, 3)).thenReturn(List.of(first, second));
+
+        Window<SearchHit> full = service.search("bitcoin", ALL, FROM, TO, null, 1);
+        Window<SearchHit> last = service.search("bitcoin", ALL, FROM, TO, null, 2);
+
+        assertThat(full.getContent()).containsExactly(first);
+        assertThat(full.hasNext()).isTrue();
+        assertThat(last.getContent()).containsExactly(first, second);
+        assertThat(last.hasNext()).isFalse();
+    }
+
+    @Test
+    void searchContinuesAfterCursor() {
+        SearchCursor cursor = new SearchCursor(0.5f, Instant.parse("2024-05-10T12:00:00Z"), UUID.randomUUID());
+        SearchHit next = hit();
+        when(searchRepository.search("ether", ALL, FROM, TO, 0.5f, cursor.at(), cursor.id(), 11)).thenReturn(List.of(next));
+
+        assertThat(service.search("ether", ALL, FROM, TO, cursor, 10).getContent()).containsExactly(next);
+    }
+
+    @Test
+    void searchRejectsQueriesWithoutWords() {
+        assertThatThrownBy(() -> service.search(" ", ALL, FROM, TO, null, 10))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("q must not be blank");
+        assertThatThrownBy(() -> service.search("\"-\"", ALL, FROM, TO, null, 10))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("q must contain a word");
+        assertThatThrownBy(() -> service.search("a".repeat(SearchService.MAX_QUERY_LENGTH + 1), ALL, FROM, TO, null, 10))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("at most");
+        verifyNoInteractions(searchRepository);
+    }
+
+    private static SearchHit hit() {
+        return new SearchHit(SearchHit.Kind.NEWS, UUID.randomUUID(), "Title", "CoinDesk", "https://example.com",
+            "snippet", Instant.parse("2024-05-10T12:00:00Z"), 0.1f);
+    }
+}
@@ -0,0 +1,124 @@
+package com.novareport.reporter_service.service;
+
+import com.novareport.reporter_service.config.ReporterProperties;
+import com.novareport.reporter_service.domain.NewsItem;
+import com.novareport.reporter_service.domain.NewsItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SuppressWarnings("null")
+class StoryClustererTest {
+
+    private NewsItemRepository newsItemRepository;
+    private StoryClusterer clusterer;
+
+    @BeforeEach
+    void setUp() {
+        newsItemRepository = mock(NewsItemRepository.class);
+        when(newsItemRepository.findAllByPublishedAtAfterAndClusterIdIsNotNull(any())).thenReturn(List.of());
+        ReporterProperties properties = new ReporterProperties(List.of(), true, Duration.ofHours(48), false);
+        clusterer = new StoryClusterer(newsItemRepository, properties);
+    }
+
+    @Test
+    void assignsSameClusterToNearDuplicateStoriesFromDifferentSources() {
+        NewsItem coindesk = item(
+            "CoinDesk",
+            "Bitcoin ETF inflows hit a record $1.2 billion as BTC nears all-time high",
+            "<p>Spot bitcoin exchange-traded funds in the US recorded their largest daily inflows on Tuesday.</p>"
+        );
+        NewsItem decrypt = item(
+            "Decrypt",
+            "Bitcoin ETF inflows hit record $1.2B as BTC approaches all-time high",
+            "Investors poured money into spot bitcoin funds"
+        );
+        NewsItem unrelated = item(
+            "Cointelegraph",
+            "Solana validators restart network after five hour outage",
+            "Block production resumed after a coordinated restart of the Solana mainnet."
+        );
+
+        clusterer.assign(List.of(coindesk, decrypt, unrelated));
+
+        assertThat(decrypt.getClusterId()).isEqualTo(coindesk.getClusterId());
+        assertThat(unrelated.getClusterId()).isNotNull().isNotEqualTo(coindesk.getClusterId());
+        assertThat(clusterer.indexedStories()).isEqualTo(3);
+    }
+
+    @Test
+    void joinsClustersLoadedFromRecentlyStoredItems() {
+        UUID storedCluster = UUID.randomUUID();
+        NewsItem stored = item("CoinDesk", "Ethereum Pectra upgrade goes live on mainnet", null);
+        stored.setClusterId(storedCluster);
+        when(newsItemRepository.findAllByPublishedAtAfterAndClusterIdIsNotNull(any())).thenReturn(List.of(stored));
+
+        NewsItem copy = item("Reddit", "Ethereum's Pectra upgrade is now live on mainnet", null);
+        clusterer.assign(List.of(copy));
+        clusterer.assign(List.of(item("Decrypt", "Ripple wins appeal against the SEC", null)));
+
+        assertThat(copy.getClusterId()).isEqualTo(storedCluster);
+        verify(newsItemRepository, times(1)).findAllByPublishedAtAfterAndClusterIdIsNotNull(any());
+    }
+
+    @Test
+    void evictsStoriesPublishedBeforeTheDedupWindow() {
+        NewsItem old = item("CoinDesk", "Dogecoin jumps after exchange listing news", null);
+        old.setPublishedAt(Instant.now().minus(Duration.ofHours(72)));
+        clusterer.assign(List.of(old));
+        assertThat(clusterer.indexedStories()).isEqualTo(1);
+
+        NewsItem copy = item("Decrypt", "Dogecoin jumps after exchange listing news", null);
+        clusterer.assign(List.of(copy));
+
+        assertThat(copy.getClusterId()).isNotEqualTo(old.getClusterId());
+        assertThat(clusterer.indexedStories()).isEqualTo(1);
+    }
+
+    @Test
+    void givesItemsWithTooLittleTextTheirOwnCluster() {
+        NewsItem first = item("Reddit", "BTC!", null);
+        NewsItem second = item("Reddit", "BTC!", null);
+
+        clusterer.assign(List.of(first, second));
+
+        assertThat(StoryClusterer.signature(first.getTitle(), first.getSummary())).isEmpty();
+        assertThat(first.getClusterId()).isNotNull().isNotEqualTo(second.getClusterId());
+        assertThat(clusterer.indexedStories()).isZero();
+    }
+
+    @Test
+    void ignoresMarkupCasePluralsAndStopWords() {
+        int[] plain = StoryClusterer.signature("Bitcoin miner sells reserve", null);
+        int[] decorated = StoryClusterer.signature("<b>BITCOIN</b> MINERS SELL THE RESERVES", null);
+
+        assertThat(decorated).isEqualTo(plain);
+    }
+
+    @Test
+    void addsSummaryWordsWhenTitleIsTooShort() {
+        int[] signature = StoryClusterer.signature("BTC!", "<p>Bitcoin reclaims $70,000 after ETF inflows</p>");
+
+        assertThat(signature).isEqualTo(StoryClusterer.signature("BTC: Bitcoin reclaims 70,000 after ETF inflows", null));
+    }
+
+    private static NewsItem item(String source, String title, String summary) {
+        NewsItem item = new NewsItem();
+        item.setSource(source);
+        item.setTitle(title);
+        item.setSummary(summary);
+        item.setPublishedAt(Instant.now());
+        return item;
+    }
+}
@@ -0,0 +1,144 @@
+package com.novareport.reporter_service.service;
+
+import com.novareport.reporter_service.domain.NewsItem;
+import com.novareport.reporter_service.util.UrlKeys;
+import com.rometools.rome.feed.synd.SyndEntry;
+import com.rometools.rome.feed.synd.SyndFeed;
+import com.rometools.rome.io.SyndFeedInput;
+import com.rometools.rome.io.XmlReader;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the streaming parser with the previous String + ROME DOM path on large feeds.
+ * <p>
+ * Run with {@code ./mvnw test -Dtest=StreamingFeedParserBenchmarkTest -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class StreamingFeedParserBenchmarkTest {
+
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int MEASURED_ROUNDS = 5;
+
+    private final StreamingFeedParser parser = new StreamingFeedParser();
+
+    @Test
+    void compareParsersOnLargeFeeds() throws Exception {
+        System.out.printf("%-10s %-22s %8s %12s %14s%n", "size", "path", "entries", "median ms", "allocated MB");
+        for (int megabytes : new int[]{5, 10, 20}) {
+            byte[] feed = generateFeed(megabytes * 1024 * 1024);
+            int expectedEntries = legacyParse(feed);
+
+            report(megabytes, "string + ROME", () -> legacyParse(feed));
+            report(megabytes, "streaming (all)", () -> streamingParse(feed, Integer.MAX_VALUE));
+            report(megabytes, "streaming (200 max)", () -> streamingParse(feed, 200));
+
+            assertThat(streamingParse(feed, Integer.MAX_VALUE)).isEqualTo(expectedEntries);
+        }
+    }
+
+    private void report(int megabytes, String path, Callable<Integer> run) throws Exception {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            run.call();
+        }
+
+        long[] durations = new long[MEASURED_ROUNDS];
+        long allocated = 0;
+        int entries = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long allocatedBefore = allocatedBytes();
+            long start = System.nanoTime();
+            entries = run.call();
+            durations[i] = System.nanoTime() - start;
+            allocated += allocatedBytes() - allocatedBefore;
+        }
+        Arrays.sort(durations);
+
+        System.out.printf(
+            "%-10s %-22s %8d %12.1f %14.1f%n",
+            megabytes + " MB",
+            path,
+            entries,
+            durations[MEASURED_ROUNDS / 2] / 1_000_000.0,
+            allocated / (double) MEASURED_ROUNDS / (1024 * 1024)
+        );
+    }
+
+    /**
+     * Mirrors the former ingest path: buffered String body, stripped copy, UTF-8 bytes, ROME DOM parse.
+     */
+    private int legacyParse(byte[] body) throws Exception {
+        String xml = new String(body, StandardCharsets.UTF_8);
+        String sanitized = xml.stripLeading();
+        try (XmlReader reader = new XmlReader(new ByteArrayInputStream(sanitized.getBytes(StandardCharsets.UTF_8)))) {
+            SyndFeed feed = new SyndFeedInput().build(reader);
+            List<NewsItem> items = new ArrayList<>();
+            for (SyndEntry entry : feed.getEntries()) {
+                NewsItem item = new NewsItem();
+                item.setSource(feed.getTitle());
+                item.setUrl(entry.getLink());
+                item.setTitle(entry.getTitle());
+                item.setSummary(entry.getDescription() != null ? entry.getDescription().getValue() : null);
+                item.setPublishedAt(entry.getPublishedDate() != null ? entry.getPublishedDate().toInstant() : Instant.now());
+                item.setUrlKey(UrlKeys.of(entry.getLink(), entry.getTitle()));
+                item.setIngestedAt(Instant.now());
+                items.add(item);
+            }
+            return items.size();
+        }
+    }
+
+    private int streamingParse(byte[] body, int maxEntries) {
+        Long count = parser.parse(
+                "https://feed.example.com/rss",
+                StreamingFeedParserTest.chunked(body, 8 * 1024),
+                maxEntries,
+                DigestUtils.getSha256Digest(),
+                null
+            )
+            .count()
+            .block();
+        return count == null ? 0 : count.intValue();
+    }
+
+    private static byte[] generateFeed(int targetBytes) {
+        String description = "Market update ".repeat(60);
+        StringBuilder xml = new StringBuilder(targetBytes + 4096);
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<rss version=\"2.0\"><channel><title>Benchmark</title>\n");
+        int i = 0;
+        while (xml.length() < targetBytes) {
+            xml.append("<item><title>Headline ").append(i)
+                .append("</title><link>https://example.com/news/").append(i)
+                .append("</link><description><![CDATA[<p>").append(description)
+                .append("</p>]]></description><pubDate>Tue, 07 Jan 2025 10:15:00 GMT</pubDate></item>\n");
+            i++;
+        }
+        xml.append("</channel></rss>\n");
+        return xml.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long allocatedBytes() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads)) {
+            return 0;
+        }
+        long total = 0;
+        for (long allocated : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (allocated > 0) {
+                total += allocated;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,208 @@
+package com.novareport.reporter_service.service;
+
+import com.novareport.reporter_service.domain.NewsItem;
+import com.novareport.reporter_service.util.UrlKeys;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StreamingFeedParserTest {
+
+    private static final String RSS = """
+        <?xml version="1.0" encoding="UTF-8"?>
+        <rss version="2.0" xmlns:dc="http://purl.org/dc/elements/1.1/">
+          <channel>
+            <title>Crypto Daily</title>
+            <image><title>Logo</title><url>https://example.com/logo.png</url></image>
+            <item>
+              <title>Bitcoin rallies</title>
+              <link>https://example.com/btc</link>
+              <description><![CDATA[<p>Price is <b>up</b></p>]]></description>
+              <pubDate>Tue, 07 Jan 2025 10:15:00 GMT</pubDate>
+            </item>
+            <item>
+              <title>Ether upgrade</title>
+              <link>https://example.com/eth</link>
+              <dc:date>2025-01-07T08:00:00Z</dc:date>
+            </item>
+          </channel>
+        </rss>
+        """;
+
+    private final StreamingFeedParser parser = new StreamingFeedParser();
+
+    @Test
+    void parsesRssItemsInDocumentOrder() {
+        List<NewsItem> items = parser.parse("https://feed.example.com/rss", chunked(RSS.getBytes(StandardCharsets.UTF_8), 7), 100, null, null)
+            .collectList()
+            .block();
+
+        assertThat(items).hasSize(2);
+        NewsItem first = items.get(0);
+        assertThat(first.getSource()).isEqualTo("Crypto Daily");
+        assertThat(first.getTitle()).isEqualTo("Bitcoin rallies");
+        assertThat(first.getUrl()).isEqualTo("https://example.com/btc");
+        assertThat(first.getSummary()).isEqualTo("<p>Price is <b>up</b></p>");
+        assertThat(first.getPublishedAt()).isEqualTo(Instant.parse("2025-01-07T10:15:00Z"));
+        assertThat(first.getUrlKey()).isEqualTo(UrlKeys.of("https://example.com/btc", "Bitcoin rallies"));
+        assertThat(items.get(1).getPublishedAt()).isEqualTo(Instant.parse("2025-01-07T08:00:00Z"));
+    }
+
+    @Test
+    void parsesAtomEntries() {
+        String atom = """
+            <feed xmlns="http://www.w3.org/2005/Atom">
+              <title>Atom Source</title>
+              <entry>
+                <title type="html">Solana outage</title>
+                <link rel="self" href="https://example.com/self"/>
+                <link rel="alternate" href="https://example.com/sol"/>
+                <id>urn:uuid:1</id>
+                <summary>Network halted</summary>
+                <updated>2025-02-01T12:00:00Z</updated>
+              </entry>
+            </feed>
+            """;
+
+        List<NewsItem> items = parser.parse("https://feed.example.com/atom", chunked(atom.getBytes(StandardCharsets.UTF_8), 64), 100, null, null)
+            .collectList()
+            .block();
+
+        assertThat(items).singleElement().satisfies(item -> {
+            assertThat(item.getSource()).isEqualTo("Atom Source");
+            assertThat(item.getUrl()).isEqualTo("https://example.com/sol");
+            assertThat(item.getSummary()).isEqualTo("Network halted");
+            assertThat(item.getPublishedAt()).isEqualTo(Instant.parse("2025-02-01T12:00:00Z"));
+        });
+    }
+
+    @Test
+    void skipsByteOrderMarkAndLeadingWhitespace() {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.writeBytes(new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF});
+        body.writeBytes("\n  \n".getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(RSS.getBytes(StandardCharsets.UTF_8));
+
+        List<NewsItem> items = parser.parse("https://feed.example.com/rss", chunked(body.toByteArray(), 2), 100, null, null)
+            .collectList()
+            .block();
+
+        assertThat(items).hasSize(2);
+    }
+
+    @Test
+    void stopsEmittingAtLimitButHashesWholeBody() {
+        byte[] bytes = RSS.getBytes(StandardCharsets.UTF_8);
+        MessageDigest digest = DigestUtils.getSha256Digest();
+
+        List<NewsItem> items = parser.parse("https://feed.example.com/rss", chunked(bytes, 16), 1, digest, null)
+            .collectList()
+            .block();
+
+        assertThat(items).extracting(NewsItem::getTitle).containsExactly("Bitcoin rallies");
+        assertThat(Hex.encodeHexString(digest.digest())).isEqualTo(DigestUtils.sha256Hex(bytes));
+    }
+
+    @Test
+    void failsWhenBodyIsNotXml() {
+        Flux<NewsItem> result = parser.parse(
+            "https://feed.example.com/rss",
+            chunked("Service unavailable\n<html></html>".getBytes(StandardCharsets.UTF_8), 8),
+            100,
+            null,
+            null
+        );
+
+        assertThatThrownBy(result::blockLast)
+            .isInstanceOf(StreamingFeedParser.FeedParseException.class)
+            .hasMessageContaining("did not start with XML markup");
+    }
+
+    @Test
+    void failsOnMalformedXml() {
+        Flux<NewsItem> result = parser.parse(
+            "https://feed.example.com/rss",
+            chunked("<rss><channel><item><title>Broken</item>".getBytes(StandardCharsets.UTF_8), 8),
+            100,
+            null,
+            null
+        );
+
+        assertThatThrownBy(result::blockLast)
+            .isInstanceOf(StreamingFeedParser.FeedParseException.class);
+    }
+
+    @Test
+    void dropsEntriesAlreadyRecordedInWatermark() {
+        FeedWatermark first = FeedWatermark.none();
+        parser.parse("https://feed.example.com/rss", chunked(RSS.getBytes(StandardCharsets.UTF_8), 64), 100, null, first)
+            .blockLast();
+
+        String updated = RSS.replace("<channel>\n    <title>Crypto Daily</title>", """
+            <channel>
+                <title>Crypto Daily</title>
+                <item>
+                  <title>Backdated correction</title>
+                  <link>https://example.com/fix</link>
+                  <pubDate>Mon, 06 Jan 2025 09:00:00 GMT</pubDate>
+                </item>""");
+        FeedWatermark second = FeedWatermark.restore(first.newest(), first.encodedKeys(), Duration.ofHours(48));
+
+        List<NewsItem> items = parser.parse("https://feed.example.com/rss", chunked(updated.getBytes(StandardCharsets.UTF_8), 64), 100, null, second)
+            .collectList()
+            .block();
+
+        assertThat(first.newest()).isEqualTo(Instant.parse("2025-01-07T10:15:00Z"));
+        assertThat(items).extracting(NewsItem::getTitle).containsExactly("Backdated correction");
+        assertThat(second.skipped()).isEqualTo(2);
+        assertThat(second.encodedKeys().split("\n")).hasSize(3);
+    }
+
+    @Test
+    void dropsUnseenEntriesDatedBeforeTheStaleCutoff() {
+        FeedWatermark watermark = FeedWatermark.restore(Instant.parse("2025-01-20T00:00:00Z"), null, Duration.ofHours(48));
+
+        List<NewsItem> items = parser.parse("https://feed.example.com/rss", chunked(RSS.getBytes(StandardCharsets.UTF_8), 64), 100, null, watermark)
+            .collectList()
+            .block();
+
+        assertThat(items).isEmpty();
+        assertThat(watermark.skipped()).isEqualTo(2);
+        assertThat(watermark.newest()).isEqualTo(Instant.parse("2025-01-20T00:00:00Z"));
+    }
+
+    @Test
+    void recordsChannelTtlHint() {
+        String withTtl = RSS.replace("<title>Crypto Daily</title>", "<title>Crypto Daily</title>\n    <ttl>30</ttl>");
+        FeedWatermark watermark = FeedWatermark.none();
+
+        parser.parse("https://feed.example.com/rss", chunked(withTtl.getBytes(StandardCharsets.UTF_8), 64), 100, null, watermark)
+            .blockLast();
+
+        assertThat(watermark.ttl()).isEqualTo(Duration.ofMinutes(30));
+    }
+
+    static Flux<DataBuffer> chunked(byte[] bytes, int chunkSize) {
+        List<DataBuffer> buffers = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+            byte[] chunk = Arrays.copyOfRange(bytes, offset, Math.min(bytes.length, offset + chunkSize));
+            buffers.add(DefaultDataBufferFactory.sharedInstance.wrap(chunk));
+        }
+        return Flux.fromIterable(buffers);
+    }
+}
@@ -0,0 +1,117 @@
+package com.novareport.reporter_service.service;
+
+import com.novareport.reporter_service.config.SummarizerRoutingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SummarizerRouterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> calls = new CopyOnWriteArrayList<>();
+
+    @Test
+    void routesToFirstBackendWhileHealthy() {
+        SummarizerRouter router = router(false, "a", "b");
+
+        String result = router.route(this::answer).block();
+
+        assertThat(result).isEqualTo("a");
+        assertThat(calls).containsExactly("a");
+        assertThat(router.primary()).isEqualTo("a");
+    }
+
+    @Test
+    void failsOverToNextBackendAndPrefersItAfterwards() {
+        SummarizerRouter router = router(false, "a", "b", "c");
+
+        String result = router.route(backend -> backend.equals("a") ? fail(backend) : answer(backend)).block();
+
+        assertThat(result).isEqualTo("b");
+        assertThat(calls).containsExactly("a", "b");
+        assertThat(router.ranking()).containsExactly("b", "c", "a");
+    }
+
+    @Test
+    void failsWithLastErrorWhenEveryBackendFails() {
+        SummarizerRouter router = router(false, "a", "b");
+
+        assertThatThrownBy(() -> router.route(this::fail).block()).hasMessage("b failed");
+        assertThat(calls).containsExactly("a", "b");
+    }
+
+    @Test
+    void openCircuitIsSkippedUntilTrialSucceeds() throws InterruptedException {
+        SummarizerRouter router = router(false, "a");
+        router.route(this::fail).onErrorResume(e -> Mono.empty()).block();
+        router.route(this::fail).onErrorResume(e -> Mono.empty()).block();
+
+        assertThat(router.ranking()).isEmpty();
+        assertThatThrownBy(() -> router.route(this::answer).block())
+            .isInstanceOf(SummarizerRouter.BackendUnavailableException.class);
+        assertThat(meterRegistry.get("reporter.summarizer.backend.open").tag("backend", "a").gauge().value()).isEqualTo(1.0);
+
+        Thread.sleep(150);
+        assertThat(router.route(this::answer).block()).isEqualTo("a");
+        assertThat(router.ranking()).containsExactly("a");
+        assertThat(calls).containsExactly("a", "a", "a");
+        assertThat(meterRegistry.get("reporter.summarizer.backend.open").tag("backend", "a").gauge().value()).isZero();
+    }
+
+    @Test
+    void slowRequestIsHedgedToNextBackend() throws InterruptedException {
+        SummarizerRouter router = router(true, "a", "b");
+        router.route(this::answer).block();
+        CountDownLatch cancelled = new CountDownLatch(1);
+
+        String result = router.route(backend -> backend.equals("a")
+                ? Mono.<String>never().doOnSubscribe(s -> calls.add(backend)).doOnCancel(cancelled::countDown)
+                : answer(backend))
+            .block(Duration.ofSeconds(5));
+
+        assertThat(result).isEqualTo("b");
+        assertThat(cancelled.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(calls).containsExactly("a", "a", "b");
+        assertThat(meterRegistry.get("reporter.summarizer.backend.hedges").tag("backend", "a").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void failedRequestIsHandedToHedgeBackendWithoutDelay() {
+        SummarizerRouter router = new SummarizerRouter(List.of("a", "b"),
+            new SummarizerRoutingProperties(List.of(), List.of(), 2, Duration.ofMillis(100), 10, true, Duration.ofSeconds(30)), meterRegistry);
+        router.route(this::answer).block();
+
+        String result = router.route(backend -> backend.equals("a") ? fail(backend) : answer(backend)).block(Duration.ofSeconds(5));
+
+        assertThat(result).isEqualTo("b");
+        assertThat(meterRegistry.get("reporter.summarizer.backend.hedges").tag("backend", "a").counter().count()).isZero();
+    }
+
+    private SummarizerRouter router(boolean hedge, String... backends) {
+        return new SummarizerRouter(List.of(backends),
+            new SummarizerRoutingProperties(List.of(), List.of(), 2, Duration.ofMillis(100), 10, hedge, Duration.ofMillis(50)), meterRegistry);
+    }
+
+    private Mono<String> answer(String backend) {
+        return Mono.fromSupplier(() -> {
+            calls.add(backend);
+            return backend;
+        });
+    }
+
+    private Mono<String> fail(String backend) {
+        return Mono.defer(() -> {
+            calls.add(backend);
+            return Mono.error(new IllegalStateException(backend + " failed"));
+        });
+    }
+}
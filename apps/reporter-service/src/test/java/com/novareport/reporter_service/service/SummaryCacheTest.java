@@ -0,0 +1,148 @@
+package com.novareport.reporter_service.service;
+
+import com.novareport.reporter_service.config.SummaryCacheProperties;
+import com.novareport.reporter_service.domain.SummaryCacheRepository;
+import com.novareport.reporter_service.domain.SummaryCacheRepository.CachedSummary;
+import com.novareport.reporter_service.util.TokenEstimator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SummaryCacheTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 5, 10);
+    private static final List<String> HEADLINES = List.of("Bitcoin rallies (CoinDesk)", "Ether dips (Decrypt)");
+    private static final SummaryCacheProperties PROPERTIES = new SummaryCacheProperties(true, Duration.ofDays(7), 100, 10);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SummaryCacheRepository repository = mock(SummaryCacheRepository.class);
+    private final AtomicInteger summaries = new AtomicInteger();
+
+    @Test
+    void identicalInputsAreSummarizedOnce() {
+        SummaryCache cache = new SummaryCache(repository, PROPERTIES, meterRegistry);
+
+        String first = cache.summary("gpt-4o-mini", 1, DATE, HEADLINES, this::summarize).block();
+        String second = cache.summary("gpt-4o-mini", 1, DATE, HEADLINES, this::summarize).block();
+
+        assertThat(first).isEqualTo("Summary 1");
+        assertThat(second).isEqualTo("Summary 1");
+        assertThat(summaries).hasValue(1);
+        String key = SummaryCache.key("gpt-4o-mini", 1, DATE, HEADLINES);
+        verify(repository).insert(eq(key), eq("gpt-4o-mini"), eq("Summary 1"), any());
+        verify(repository).evict(any(), eq(100));
+        assertThat(meterRegistry.counter("reporter.summarizer.cache", "result", "miss").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("reporter.summarizer.cache", "result", "memory_hit").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("reporter.summarizer.cache.hit_ratio").gauge().value()).isEqualTo(0.5);
+        assertThat(meterRegistry.counter("reporter.summarizer.cache.tokens_saved").count())
+            .isEqualTo((double) TokenEstimator.estimateAll(HEADLINES) + TokenEstimator.estimate("Summary 1"));
+    }
+
+    @Test
+    void summaryStoredByAnotherInstanceIsReadFromDatabase() {
+        String key = SummaryCache.key("gpt-4o-mini", 1, DATE, HEADLINES);
+        when(repository.find(eq(key), any())).thenReturn(Optional.of(new CachedSummary("Shared summary", Instant.now())));
+        SummaryCache cache = new SummaryCache(repository, PROPERTIES, meterRegistry);
+
+        String first = cache.summary("gpt-4o-mini", 1, DATE, HEADLINES, this::summarize).block();
+        String second = cache.summary("gpt-4o-mini", 1, DATE, HEADLINES, this::summarize).block();
+
+        assertThat(first).isEqualTo("Shared summary");
+        assertThat(second).isEqualTo("Shared summary");
+        assertThat(summaries).hasValue(0);
+        verify(repository).find(eq(key), any());
+        assertThat(meterRegistry.counter("reporter.summarizer.cache", "result", "database_hit").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("reporter.summarizer.cache", "result", "memory_hit").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void keyDependsOnEveryInput() {
+        String key = SummaryCache.key("gpt-4o-mini", 1, DATE, HEADLINES);
+
+        assertThat(key).hasSize(64).isEqualTo(SummaryCache.key("gpt-4o-mini", 1, DATE, List.copyOf(HEADLINES)));
+        assertThat(SummaryCache.key("gpt-4o", 1, DATE, HEADLINES)).isNotEqualTo(key);
+        assertThat(SummaryCache.key("gpt-4o-mini", 2, DATE, HEADLINES)).isNotEqualTo(key);
+        assertThat(SummaryCache.key("gpt-4o-mini", 1, DATE.plusDays(1), HEADLINES)).isNotEqualTo(key);
+        assertThat(SummaryCache.key("gpt-4o-mini", 1, DATE, HEADLINES.reversed())).isNotEqualTo(key);
+        assertThat(SummaryCache.key("gpt-4o-mini", 1, DATE, List.of("ab", "c")))
+            .isNotEqualTo(SummaryCache.key("gpt-4o-mini", 1, DATE, List.of("a", "bc")));
+    }
+
+    @Test
+    void expiredEntriesAreSummarizedAgain() throws InterruptedException {
+        SummaryCache cache = new SummaryCache(repository, new SummaryCacheProperties(true, Duration.ofMillis(20), 100, 10), meterRegistry);
+
+        cache.summary("gpt-4o-mini", 1, DATE, HEADLINES, this::summarize).block();
+        Thread.sleep(50);
+        String again = cache.summary("gpt-4o-mini", 1, DATE, HEADLINES, this::summarize).block();
+
+        assertThat(again).isEqualTo("Summary 2");
+        assertThat(meterRegistry.counter("reporter.summarizer.cache", "result", "miss").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void leastRecentlyUsedEntriesLeaveMemory() {
+        SummaryCache cache = new SummaryCache(repository, new SummaryCacheProperties(true, Duration.ofDays(7), 100, 1), meterRegistry);
+
+        cache.summary("gpt-4o-mini", 1, DATE, HEADLINES, this::summarize).block();
+        cache.summary("gpt-4o-mini", 1, DATE, List.of("Other headline"), this::summarize).block();
+        cache.summary("gpt-4o-mini", 1, DATE, HEADLINES, this::summarize).block();
+
+        assertThat(summaries).hasValue(3);
+    }
+
+    @Test
+    void failedSummariesAreNotCached() {
+        SummaryCache cache = new SummaryCache(repository, PROPERTIES, meterRegistry);
+
+        Mono<String> failing = cache.summary("gpt-4o-mini", 1, DATE, HEADLINES, () -> Mono.error(new IllegalStateException("down")));
+
+        assertThatThrownBy(failing::block).hasMessageContaining("down");
+        assertThat(cache.summary("gpt-4o-mini", 1, DATE, HEADLINES, this::summarize).block()).isEqualTo("Summary 1");
+        verify(repository).insert(anyString(), anyString(), eq("Summary 1"), any());
+    }
+
+    @Test
+    void databaseErrorsFallBackToSummarizing() {
+        when(repository.find(anyString(), any())).thenThrow(new IllegalStateException("database down"));
+        when(repository.evict(any(), anyInt())).thenThrow(new IllegalStateException("database down"));
+        SummaryCache cache = new SummaryCache(repository, PROPERTIES, meterRegistry);
+
+        String summary = cache.summary("gpt-4o-mini", 1, DATE, HEADLINES, this::summarize).block();
+
+        assertThat(summary).isEqualTo("Summary 1");
+    }
+
+    @Test
+    void disabledCacheAlwaysSummarizes() {
+        SummaryCache cache = new SummaryCache(repository, new SummaryCacheProperties(false, Duration.ofDays(7), 100, 10), meterRegistry);
+
+        cache.summary("gpt-4o-mini", 1, DATE, HEADLINES, this::summarize).block();
+        cache.summary("gpt-4o-mini", 1, DATE, HEADLINES, this::summarize).block();
+
+        assertThat(summaries).hasValue(2);
+        verify(repository, never()).find(anyString(), any());
+    }
+
+    private Mono<SummaryCache.Answer> summarize() {
+        return Mono.fromSupplier(() -> new SummaryCache.Answer("gpt-4o-mini", "Summary " + summaries.incrementAndGet()));
+    }
+}
@@ -0,0 +1,55 @@
+package com.novareport.reporter_service.util;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BloomFilterTest {
+
+    @Test
+    void neverReportsAddedValuesAsAbsent() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(DigestUtils.sha256Hex("item-" + i));
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain(DigestUtils.sha256Hex("item-" + i))).isTrue();
+        }
+    }
+
+    @Test
+    void keepsFalsePositiveRateNearTargetAtCapacity() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(DigestUtils.sha256Hex("stored-" + i));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain(DigestUtils.sha256Hex("candidate-" + i))) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives).isLessThan(200);
+        assertThat(filter.expectedFalsePositiveProbability()).isBetween(0.005, 0.02);
+    }
+
+    @Test
+    void putReportsWhetherValueWasAlreadyPresent() {
+        BloomFilter filter = BloomFilter.create(100, 0.01);
+
+        assertThat(filter.put("abc")).isTrue();
+        assertThat(filter.put("abc")).isFalse();
+        assertThat(filter.mightContain("xyz")).isFalse();
+    }
+
+    @Test
+    void rejectsInvalidSizing() {
+        assertThatThrownBy(() -> BloomFilter.create(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BloomFilter.create(100, 1.0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,54 @@
+package com.novareport.reporter_service.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReportMarkdownTest {
+
+    private static final String SUMMARY = """
+        # 1. Market Overview
+        Bitcoin held **$60k** while
+        ether slipped.
+
+        **2) Regulation**
+        - SEC <delays> ETF & "others"
+        - Stablecoin bill advances
+        ##### Outlook
+        """;
+
+    @Test
+    void toHtmlRendersTheClientMarkdownSubset() {
+        assertThat(ReportMarkdown.toHtml(SUMMARY)).isEqualTo("""
+            <h1 class="report-summary__heading report-summary__heading--h1">Market Overview</h1>
+            <p class="report-summary__paragraph">Bitcoin held <strong>$60k</strong> while ether slipped.</p>
+            <h2 class="report-summary__heading report-summary__heading--h2">Regulation</h2>
+            <ul class="report-summary__list">
+            <li>SEC &lt;delays&gt; ETF &amp; &quot;others&quot;</li>
+            <li>Stablecoin bill advances</li>
+            </ul>
+            <h4 class="report-summary__heading report-summary__heading--h4">Outlook</h4>
+            """);
+    }
+
+    @Test
+    void toHtmlEscapesMarkupInsideEmphasis() {
+        assertThat(ReportMarkdown.toHtml("**<script>alert('x')</script>** tail"))
+            .isEqualTo("<p class=\"report-summary__paragraph\"><strong>&lt;script&gt;alert(&#39;x&#39;)&lt;/script&gt;</strong> tail</p>\n");
+    }
+
+    @Test
+    void toTextStripsHeadingMarkersAndEmphasis() {
+        assertThat(ReportMarkdown.toText(SUMMARY)).isEqualTo("""
+            1. Market Overview
+            Bitcoin held $60k while
+            ether slipped.
+
+            2) Regulation
+            - SEC <delays> ETF & "others"
+            - Stablecoin bill advances
+            Outlook""");
+        assertThat(ReportMarkdown.toText(null)).isEmpty();
+        assertThat(ReportMarkdown.toHtml(" ")).isEmpty();
+    }
+}
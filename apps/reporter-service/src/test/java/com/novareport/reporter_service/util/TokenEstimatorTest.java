@@ -0,0 +1,36 @@
+package com.novareport.reporter_service.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenEstimatorTest {
+
+    @Test
+    void wordsCountOneTokenPerStartedFourCharacters() {
+        assertThat(TokenEstimator.estimate("ETF")).isEqualTo(1);
+        assertThat(TokenEstimator.estimate("Bitcoin rallies")).isEqualTo(4);
+        assertThat(TokenEstimator.estimate("2024")).isEqualTo(1);
+    }
+
+    @Test
+    void punctuationAndOtherScriptsCountPerCharacter() {
+        assertThat(TokenEstimator.estimate("Hi, world!")).isEqualTo(5);
+        assertThat(TokenEstimator.estimate("比特币")).isEqualTo(3);
+        assertThat(TokenEstimator.estimate("🚀")).isEqualTo(1);
+    }
+
+    @Test
+    void textsAreEstimatedOneByOne() {
+        assertThat(TokenEstimator.estimateAll(List.of("ETF", "Bitcoin rallies"))).isEqualTo(5);
+        assertThat(TokenEstimator.estimateAll(List.of())).isZero();
+    }
+
+    @Test
+    void whitespaceAndMissingTextAreFree() {
+        assertThat(TokenEstimator.estimate(null)).isZero();
+        assertThat(TokenEstimator.estimate(" \n\t ")).isZero();
+    }
+}
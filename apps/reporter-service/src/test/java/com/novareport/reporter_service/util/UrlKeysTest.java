@@ -0,0 +1,29 @@
+package com.novareport.reporter_service.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UrlKeysTest {
+
+    @Test
+    void canonicalizeDropsTrackingParametersFragmentAndDefaultPort() {
+        assertThat(UrlKeys.canonicalize(" HTTPS://News.Example.COM:443/markets/BTC?utm_source=rss&b=2&fbclid=x&a=1#comments "))
+            .isEqualTo("https://news.example.com/markets/BTC?a=1&b=2");
+        assertThat(UrlKeys.canonicalize("http://example.com:8080")).isEqualTo("http://example.com:8080/");
+        assertThat(UrlKeys.canonicalize("not a url")).isEqualTo("not a url");
+    }
+
+    @Test
+    void variantsOfTheSameLinkShareOneKey() {
+        assertThat(UrlKeys.of("https://example.com/btc?utm_medium=social", "Bitcoin rallies"))
+            .isEqualTo(UrlKeys.of("https://EXAMPLE.com/btc#top", "Bitcoin rallies, updated"))
+            .isNotEqualTo(UrlKeys.of("https://example.com/eth", "Bitcoin rallies"));
+    }
+
+    @Test
+    void fallsBackToTitleWithoutLink() {
+        assertThat(UrlKeys.of(null, " Bitcoin rallies ")).isEqualTo(UrlKeys.of("", "Bitcoin rallies"));
+        assertThat(UrlKeys.of(null, "Bitcoin rallies")).isNotEqualTo(UrlKeys.of(null, "Ether slides"));
+    }
+}
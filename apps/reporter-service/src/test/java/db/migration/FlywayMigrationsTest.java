@@ -0,0 +1,120 @@
+package db.migration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the real migrations, SQL and Java alike, against the H2 database of the dev profile. Only {@code V2}
+ * is replaced by its H2 equivalent: H2 cannot parse PostgreSQL's several {@code ALTER COLUMN}s in one
+ * statement, and the script cannot change without breaking the checksum of existing installs.
+ */
+class FlywayMigrationsTest {
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void migratesEmptyDatabaseToLatestVersion() {
+        migrateTo("6");
+        flyway(null).migrate();
+
+        assertThat(flyway(null).info().pending()).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM summary_cache", Integer.class)).isZero();
+    }
+
+    @Test
+    void rekeysExistingNewsItemsByCanonicalUrl() {
+        migrateTo("6");
+        insertNewsItem("https://example.com/btc?utm_source=rss", "Bitcoin rallies", "hash-1", Instant.parse("2024-05-10T10:00:00Z"));
+        insertNewsItem("https://EXAMPLE.com/btc#top", "Bitcoin rallies", "hash-2", Instant.parse("2024-05-10T11:00:00Z"));
+        insertNewsItem("https://example.com/eth", "Ether slides", "hash-3", Instant.parse("2024-05-10T12:00:00Z"));
+
+        flyway(null).migrate();
+
+        assertThat(jdbcTemplate.queryForList("SELECT url FROM news_items ORDER BY url", String.class))
+            .containsExactly("https://example.com/btc?utm_source=rss", "https://example.com/eth");
+        assertThat(jdbcTemplate.queryForObject("SELECT count(DISTINCT url_key) FROM news_items", Integer.class)).isEqualTo(2);
+    }
+
+    @Test
+    void rekeyKeepsOneRowWhenDuplicatesWereIngestedAtOnce() {
+        migrateTo("6");
+        Instant ingestedAt = Instant.parse("2024-05-10T10:00:00Z");
+        insertNewsItem("https://example.com/btc?fbclid=1", "Bitcoin rallies", "hash-1", ingestedAt);
+        insertNewsItem("https://example.com/btc?fbclid=2", "Bitcoin rallies", "hash-2", ingestedAt);
+        insertNewsItem("https://example.com/btc", "Bitcoin rallies", "hash-3", ingestedAt);
+        UUID lowestId = jdbcTemplate.queryForObject("SELECT min(id) FROM news_items", UUID.class);
+
+        flyway(null).migrate();
+
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM news_items", UUID.class)).containsExactly(lowestId);
+    }
+
+    @Test
+    void existingReportsGetSlotsAndDayCanHoldSeveralSlots() {
+        migrateTo("6");
+        LocalDate date = LocalDate.of(2024, 5, 10);
+        jdbcTemplate.update("INSERT INTO daily_reports (id, report_date, summary, created_at) VALUES (?, ?, ?, ?)",
+            UUID.randomUUID(), date, "Morning", Timestamp.from(Instant.parse("2024-05-10T06:00:00Z")));
+
+        flyway(null).migrate();
+        jdbcTemplate.update("INSERT INTO daily_reports (id, report_date, slot_start, summary, created_at) VALUES (?, ?, ?, ?, ?)",
+            UUID.randomUUID(), date, Timestamp.from(Instant.parse("2024-05-10T22:00:00Z")), "Evening",
+            Timestamp.from(Instant.parse("2024-05-10T22:00:00Z")));
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM daily_reports WHERE report_date = ?", Integer.class, date))
+            .isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM daily_reports WHERE slot_start IS NULL", Integer.class))
+            .isZero();
+    }
+
+    /**
+     * Migrates an empty database to {@code target}, with {@code V2} applied by hand.
+     */
+    private void migrateTo(String target) {
+        flyway("1").migrate();
+        jdbcTemplate.execute("ALTER TABLE news_items ALTER COLUMN url SET DATA TYPE TEXT");
+        jdbcTemplate.execute("ALTER TABLE news_items ALTER COLUMN title SET DATA TYPE TEXT");
+        Flyway.configure()
+            .dataSource(dataSource)
+            .locations("classpath:db/migration")
+            .target("2")
+            .skipExecutingMigrations(true)
+            .load()
+            .migrate();
+        flyway(target).migrate();
+    }
+
+    private Flyway flyway(String target) {
+        var configuration = Flyway.configure()
+            .dataSource(dataSource)
+            .locations("classpath:db/migration");
+        if (target != null) {
+            configuration.target(target);
+        }
+        return configuration.load();
+    }
+
+    private void insertNewsItem(String url, String title, String hash, Instant ingestedAt) {
+        jdbcTemplate.update(
+            "INSERT INTO news_items (id, source, url, title, published_at, hash, ingested_at) VALUES (?, ?, ?, ?, ?, ?, ?)",
+            UUID.randomUUID(), "CoinDesk", url, title, Timestamp.from(ingestedAt), hash, Timestamp.from(ingestedAt));
+    }
+}